@@ -2,8 +2,10 @@ package com.MusicHub.api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling // Background model refreshes (collaborative filtering, ...)
 public class MusicHubApiApplication {
 
     public static void main(String[] args) {
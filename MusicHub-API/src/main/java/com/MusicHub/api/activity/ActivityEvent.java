@@ -0,0 +1,24 @@
+package com.MusicHub.api.activity;
+
+/**
+ * A small, high-volume user action (like, play, search) on its way to MySQL.
+ * songId is the local Song.id (0 for searches); query is only set for searches.
+ */
+public record ActivityEvent(Type type, long userId, long songId, String query, long timestamp) {
+
+    public enum Type {
+        LIKE, PLAY, SEARCH
+    }
+
+    public static ActivityEvent like(long userId, long songId) {
+        return new ActivityEvent(Type.LIKE, userId, songId, null, System.currentTimeMillis());
+    }
+
+    public static ActivityEvent play(long userId, long songId) {
+        return new ActivityEvent(Type.PLAY, userId, songId, null, System.currentTimeMillis());
+    }
+
+    public static ActivityEvent search(long userId, String query) {
+        return new ActivityEvent(Type.SEARCH, userId, 0, query, System.currentTimeMillis());
+    }
+}
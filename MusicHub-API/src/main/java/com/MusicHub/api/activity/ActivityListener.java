@@ -0,0 +1,12 @@
+package com.MusicHub.api.activity;
+
+import java.util.List;
+
+/**
+ * Something that reacts to user activity once it is stored (recommendation models, trending, feeds).
+ * Called on the pipeline's flush thread after each committed batch, so implementations must be quick.
+ */
+public interface ActivityListener {
+
+    void onActivity(List<ActivityEvent> events);
+}
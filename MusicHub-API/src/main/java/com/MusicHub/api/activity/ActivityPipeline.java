@@ -0,0 +1,217 @@
+package com.MusicHub.api.activity;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind pipeline for likes, plays and searches.
+ *
+ * Request threads only put the event into a bounded lock-free queue and return.
+ * A single flush thread wakes up every flush interval (or as soon as a full batch is waiting),
+ * appends the drained events to the local SegmentLog, then stores everything the log holds
+ * beyond its checkpoint in MySQL with multi-row inserts, one transaction per batch.
+ * If MySQL is unavailable the events stay in the log and the flush is retried with backoff,
+ * also across restarts. Delivery to MySQL is at-least-once (likes are idempotent).
+ * The ActivityListeners get each stored batch, with only the first like of a user for a song.
+ * Storing pauses while a listener reads its state from MySQL (ActivityStoreLock).
+ */
+@Service
+public class ActivityPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityPipeline.class);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final ActivityWriter writer;
+    private final KnownLikes knownLikes;
+    private final ActivityStoreLock storeLock;
+    private final List<ActivityListener> listeners;
+    private final TransactionTemplate transactionTemplate;
+    private final MpscQueue<ActivityEvent> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Path logDirectory;
+    private final DataSize segmentSize;
+    private final boolean fsync;
+
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter stored;
+    private final Timer flushTimer;
+
+    private SegmentLog segmentLog;
+    private Thread flusher;
+    private volatile boolean running;
+    private volatile long backlogBytes; // Updated by the flush thread, read by the gauge
+    private int failures;
+    private long retryAt;
+
+    public ActivityPipeline(ActivityWriter writer, KnownLikes knownLikes, ActivityStoreLock storeLock,
+                            List<ActivityListener> listeners,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                            @Value("${musichub.activity.queue-capacity:65536}") int queueCapacity,
+                            @Value("${musichub.activity.batch-size:1000}") int batchSize,
+                            @Value("${musichub.activity.flush-interval:200ms}") Duration flushInterval,
+                            @Value("${musichub.activity.log-dir:data/activity}") Path logDirectory,
+                            @Value("${musichub.activity.segment-size:16MB}") DataSize segmentSize,
+                            @Value("${musichub.activity.fsync:true}") boolean fsync) {
+        this.writer = writer;
+        this.knownLikes = knownLikes;
+        this.storeLock = storeLock;
+        this.listeners = listeners;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new MpscQueue<>(queueCapacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.logDirectory = logDirectory;
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+
+        this.accepted = Counter.builder("musichub.activity.events").tag("result", "accepted").register(meterRegistry);
+        this.rejected = Counter.builder("musichub.activity.events").tag("result", "rejected").register(meterRegistry);
+        this.stored = Counter.builder("musichub.activity.stored").description("Rows written to MySQL")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("musichub.activity.flush").description("Time to store one batch in MySQL")
+                .publishPercentiles(0.5, 0.99).register(meterRegistry);
+        Gauge.builder("musichub.activity.queue.depth", queue, MpscQueue::size)
+                .description("Events accepted but not yet in the segment log").register(meterRegistry);
+        Gauge.builder("musichub.activity.log.backlog", this, pipeline -> pipeline.backlogBytes).baseUnit("bytes")
+                .description("Logged events not yet stored in MySQL").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        segmentLog = new SegmentLog(logDirectory, segmentSize.toBytes(), fsync);
+        if (segmentLog.hasUncommitted()) {
+            log.info("Activity log holds {} bytes not yet stored in MySQL; replaying", segmentLog.uncommittedBytes());
+        }
+        backlogBytes = segmentLog.uncommittedBytes();
+        retryAt = System.nanoTime();
+        running = true;
+        flusher = Thread.ofPlatform().name("activity-flusher").daemon().start(this::run);
+    }
+
+    /**
+     * Accepts an event without blocking. Returns false when the queue is full (caller should shed load).
+     */
+    public boolean submit(ActivityEvent event) {
+        if (!running || !queue.offer(event)) {
+            rejected.increment();
+            return false;
+        }
+        accepted.increment();
+        if (queue.size() >= batchSize) {
+            LockSupport.unpark(flusher); // A full batch is waiting, no need to wait for the interval
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+        segmentLog.close();
+    }
+
+    private void run() {
+        List<ActivityEvent> drained = new ArrayList<>(batchSize);
+        while (running || queue.size() > 0) {
+            backlogBytes = segmentLog.uncommittedBytes();
+            if (running && queue.size() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            drained.clear();
+            queue.drainTo(drained, batchSize);
+            try {
+                if (!drained.isEmpty()) {
+                    segmentLog.append(drained);
+                }
+                if (segmentLog.hasUncommitted() && (System.nanoTime() - retryAt >= 0 || !running)) {
+                    storeLogged(!running);
+                }
+            } catch (IOException e) {
+                log.error("Activity log I/O failed, the current batch of {} events may be lost", drained.size(), e);
+            } catch (RuntimeException e) {
+                failures++;
+                long backoff = Math.min(MAX_BACKOFF.toNanos(), TimeUnit.SECONDS.toNanos(1L << Math.min(failures, 5)));
+                retryAt = System.nanoTime() + backoff;
+                log.warn("Storing activity in MySQL failed ({} in a row), retrying in {} ms: {}",
+                        failures, TimeUnit.NANOSECONDS.toMillis(backoff), e.getMessage());
+                if (!running) {
+                    return; // Shutting down: the events stay in the log for the next start
+                }
+            }
+        }
+        try {
+            storeLogged(true); // Last batch before shutdown
+        } catch (IOException | RuntimeException e) {
+            log.warn("Activity not stored before shutdown, it stays in the log: {}", e.getMessage());
+        }
+    }
+
+    // Moves everything past the checkpoint into MySQL, one transaction per batch. Unless wait is set,
+    // stops at a batch boundary while a listener reads from MySQL; the rest is stored on a later flush.
+    private void storeLogged(boolean wait) throws IOException {
+        if (!knownLikes.isLoaded()) {
+            knownLikes.load(); // Before the first batch is stored, or its likes would look repeated
+        }
+        while (segmentLog.hasUncommitted()) {
+            if (wait) {
+                storeLock.lock();
+            } else if (!storeLock.tryLock()) {
+                return;
+            }
+            try {
+                if (!storeBatch()) {
+                    return;
+                }
+            } finally {
+                storeLock.unlock();
+            }
+        }
+    }
+
+    // Stores and delivers the next logged batch; false when nothing past the checkpoint could be read
+    private boolean storeBatch() throws IOException {
+        SegmentLog.Batch batch = segmentLog.readUncommitted(batchSize);
+        if (batch.events().isEmpty()) {
+            segmentLog.commit(batch.next()); // Past records that were skipped as corrupt
+            return false;
+        }
+        long start = System.nanoTime();
+        Integer rows = transactionTemplate.execute(status -> writer.write(batch.events()));
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        segmentLog.commit(batch.next());
+        stored.increment(rows == null ? 0 : rows);
+        failures = 0;
+        List<ActivityEvent> delivered = knownLikes.firstLikes(batch.events());
+        for (ActivityListener listener : listeners) {
+            try {
+                listener.onActivity(delivered);
+            } catch (RuntimeException e) {
+                log.warn("Activity listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        }
+        return true;
+    }
+
+}
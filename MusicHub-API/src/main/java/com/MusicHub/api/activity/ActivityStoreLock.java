@@ -0,0 +1,49 @@
+package com.MusicHub.api.activity;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Lets an ActivityListener read its starting state from MySQL without missing or double
+ * counting what the ActivityPipeline stores meanwhile.
+ *
+ * The pipeline stores each batch and hands it to the listeners under this lock. A read run by
+ * whileNotStoring therefore sees exactly the batches that were delivered before it, and every
+ * batch delivered after it was stored after it: a listener that drops what it was given so far
+ * when the read starts, and applies every later delivery, counts each event once. Event
+ * timestamps cannot tell the two apart, since the pipeline writes behind.
+ *
+ * While a read runs, the pipeline keeps appending new events to its log and stores them after.
+ */
+@Component
+public class ActivityStoreLock {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Runs the read while no batch is being stored or delivered (waits for the current one).
+     */
+    public <T> T whileNotStoring(Supplier<T> read) {
+        lock.lock();
+        try {
+            return read.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The flush thread does not wait for a read: its events stay in the log until the next flush
+    boolean tryLock() {
+        return lock.tryLock();
+    }
+
+    void lock() {
+        lock.lock();
+    }
+
+    void unlock() {
+        lock.unlock();
+    }
+}
@@ -0,0 +1,68 @@
+package com.MusicHub.api.activity;
+
+import com.MusicHub.api.model.SearchLog;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores a batch of activity events with one multi-row INSERT per table (in chunks),
+ * instead of one JPA transaction per click. Repeated likes inside a batch are coalesced
+ * into one row first (a like is stored once per user and song). Every search gets its own
+ * row: TrendingService counts them when it reloads.
+ */
+@Component
+class ActivityWriter {
+
+    private static final int ROWS_PER_STATEMENT = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ActivityWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Returns the number of rows sent to MySQL. Must run inside a transaction.
+     */
+    int write(List<ActivityEvent> events) {
+        Map<String, Object[]> likes = new LinkedHashMap<>();
+        List<Object[]> searches = new ArrayList<>();
+        List<Object[]> plays = new ArrayList<>();
+        for (ActivityEvent event : events) {
+            switch (event.type()) {
+                case LIKE -> likes.putIfAbsent(event.userId() + ":" + event.songId(),
+                        new Object[]{event.userId(), event.songId(), event.timestamp()});
+                case PLAY -> plays.add(new Object[]{event.userId(), event.songId(), event.timestamp()});
+                case SEARCH -> searches.add(new Object[]{event.userId(), truncate(event.query()), event.timestamp()});
+            }
+        }
+        // The unique (user_id, song_id) key turns a like that is already stored into a no-op
+        insert("INSERT IGNORE INTO likes (user_id, song_id, liked_at) VALUES ", new ArrayList<>(likes.values()));
+        insert("INSERT INTO listening_history (user_id, song_id, played_at) VALUES ", plays);
+        insert("INSERT INTO search_logs (user_id, query_text, searched_at) VALUES ", searches);
+        return likes.size() + plays.size() + searches.size();
+    }
+
+    private void insert(String prefix, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += ROWS_PER_STATEMENT) {
+            List<Object[]> chunk = rows.subList(from, Math.min(rows.size(), from + ROWS_PER_STATEMENT));
+            StringBuilder sql = new StringBuilder(prefix.length() + chunk.size() * 10).append(prefix);
+            Object[] args = new Object[chunk.size() * 3];
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+                System.arraycopy(chunk.get(i), 0, args, i * 3, 3);
+            }
+            jdbcTemplate.update(sql.toString(), args);
+        }
+    }
+
+    private static String truncate(String query) {
+        String trimmed = query == null ? "" : query.trim();
+        return trimmed.length() <= SearchLog.MAX_QUERY_LENGTH ? trimmed : trimmed.substring(0, SearchLog.MAX_QUERY_LENGTH);
+    }
+}
@@ -0,0 +1,107 @@
+package com.MusicHub.api.activity;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Every (user, song) pair that has a like, so the ActivityListeners see a like only the first
+ * time, just as the likes table stores it once (INSERT IGNORE on its unique key).
+ *
+ * Open addressing over two parallel long arrays, loaded from MySQL before the first batch is
+ * stored. Not thread-safe: only the flush thread uses it.
+ */
+@Component
+class KnownLikes {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private long[] users;
+    private long[] songs;
+    private int size;
+    private boolean loaded;
+
+    KnownLikes(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    void load() {
+        allocate(1024);
+        jdbcTemplate.query("SELECT user_id, song_id FROM likes", rs -> {
+            add(rs.getLong(1), rs.getLong(2));
+        });
+        loaded = true;
+    }
+
+    /**
+     * The events without the likes of pairs that were liked before (in an earlier batch or
+     * earlier in this one). Remembers the new likes.
+     */
+    List<ActivityEvent> firstLikes(List<ActivityEvent> events) {
+        List<ActivityEvent> first = null;
+        for (int i = 0; i < events.size(); i++) {
+            ActivityEvent event = events.get(i);
+            boolean repeated = event.type() == ActivityEvent.Type.LIKE && !add(event.userId(), event.songId());
+            if (repeated && first == null) {
+                first = new ArrayList<>(events.subList(0, i));
+            } else if (!repeated && first != null) {
+                first.add(event);
+            }
+        }
+        return first == null ? events : first;
+    }
+
+    // false if the pair was already there
+    private boolean add(long user, long song) {
+        if (user == EMPTY) {
+            return true; // Not representable; never a real id
+        }
+        int mask = users.length - 1;
+        for (int slot = mix(user, song) & mask; ; slot = (slot + 1) & mask) {
+            if (users[slot] == EMPTY) {
+                users[slot] = user;
+                songs[slot] = song;
+                if (++size > users.length * 3 / 4) {
+                    grow();
+                }
+                return true;
+            }
+            if (users[slot] == user && songs[slot] == song) {
+                return false;
+            }
+        }
+    }
+
+    private void grow() {
+        long[] oldUsers = users;
+        long[] oldSongs = songs;
+        allocate(oldUsers.length * 2);
+        for (int i = 0; i < oldUsers.length; i++) {
+            if (oldUsers[i] != EMPTY) {
+                add(oldUsers[i], oldSongs[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        users = new long[capacity];
+        songs = new long[capacity];
+        Arrays.fill(users, EMPTY);
+        size = 0;
+    }
+
+    private static int mix(long user, long song) {
+        long h = user * 0x9E3779B97F4A7C15L + song;
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        return (int) (h ^ (h >>> 31));
+    }
+}
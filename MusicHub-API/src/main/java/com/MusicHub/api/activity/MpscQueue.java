@@ -0,0 +1,80 @@
+package com.MusicHub.api.activity;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free multi-producer / single-consumer queue over a ring buffer.
+ *
+ * Producers claim a slot by CAS on the tail counter; each slot carries a sequence number
+ * that tells whether it is free for the producer of that round or filled for the consumer.
+ * Request threads therefore never block: when the ring is full, offer() fails immediately.
+ * Only one thread may call drainTo().
+ */
+final class MpscQueue<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head; // Written by the consumer only
+
+    MpscQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1; // Next power of two
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(E element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long sequence = sequences.get(index);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.set(index, position + 1); // Publishes the element to the consumer
+                    return true;
+                }
+            } else if (sequence < position) {
+                return false; // Slot still holds an element from the previous round: full
+            }
+            // Another producer claimed this position first, retry with the new tail
+        }
+    }
+
+    /**
+     * Moves up to max elements into the list; returns how many were moved.
+     */
+    int drainTo(List<E> into, int max) {
+        long position = head;
+        int moved = 0;
+        while (moved < max) {
+            int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                break; // Empty, or the producer has claimed the slot but not written it yet
+            }
+            into.add(elements.get(index));
+            elements.lazySet(index, null);
+            sequences.set(index, position + mask + 1); // Free for the producer one round later
+            position++;
+            moved++;
+        }
+        head = position;
+        return moved;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
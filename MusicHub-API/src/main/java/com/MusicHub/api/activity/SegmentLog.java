@@ -0,0 +1,289 @@
+package com.MusicHub.api.activity;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Local append-only log of activity events, split into numbered segment files.
+ *
+ * The flush thread appends every drained batch here before writing it to MySQL, and records
+ * in a checkpoint file how far MySQL has caught up. Events that were logged but not yet stored
+ * (MySQL down, process killed) are read back from the checkpoint on the next flush or restart.
+ * Segments entirely below the checkpoint are deleted. Each record is [length][crc32c][payload],
+ * so a record torn by a crash is detected and cut off when the log is opened. A corrupt record
+ * in the middle of a segment is skipped (up to the next intact record) with a warning, so it
+ * cannot stop the pipeline.
+ *
+ * Not thread-safe: used by the single flush thread only.
+ */
+final class SegmentLog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SegmentLog.class);
+
+    private static final String SUFFIX = ".seg";
+    private static final String CHECKPOINT = "checkpoint";
+    private static final int HEADER = 8;
+
+    /** A place in the log: segment number and byte offset inside it. */
+    record Position(long segment, long offset) implements Comparable<Position> {
+        @Override
+        public int compareTo(Position other) {
+            int cmp = Long.compare(segment, other.segment);
+            return cmp != 0 ? cmp : Long.compare(offset, other.offset);
+        }
+    }
+
+    /** Events read from the log and the position right after the last of them. */
+    record Batch(List<ActivityEvent> events, Position next) {
+    }
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final boolean fsync;
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private FileChannel writer;
+    private Position end;
+    private Position committed;
+
+    SegmentLog(Path directory, long segmentBytes, boolean fsync) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(f -> f.getFileName().toString().endsWith(SUFFIX))
+                        .forEach(f -> segments.put(segmentNumber(f), f));
+            }
+            committed = readCheckpoint();
+            if (segments.isEmpty()) {
+                segments.put(committed.segment(), segmentPath(committed.segment()));
+            } else if (committed.segment() < segments.firstKey()) {
+                committed = new Position(segments.firstKey(), 0);
+            }
+            long last = segments.lastKey();
+            writer = FileChannel.open(segments.get(last), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            writer.truncate(validLength(segments.get(last))); // Drop a torn record from a crash
+            end = new Position(last, writer.size());
+            writer.position(end.offset());
+            if (committed.compareTo(end) > 0) {
+                committed = end;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open activity log in " + directory, e);
+        }
+    }
+
+    void append(List<ActivityEvent> events) throws IOException {
+        if (end.offset() >= segmentBytes) {
+            roll();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(events.size() * 64);
+        for (ActivityEvent event : events) {
+            buffer = encode(event, buffer);
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            writer.write(buffer);
+        }
+        if (fsync) {
+            writer.force(false);
+        }
+        end = new Position(end.segment(), writer.position());
+    }
+
+    /**
+     * Reads up to max events starting at the checkpoint.
+     */
+    Batch readUncommitted(int max) throws IOException {
+        List<ActivityEvent> events = new ArrayList<>();
+        Position position = committed;
+        while (events.size() < max && position.compareTo(end) < 0) {
+            Path segment = segments.get(position.segment());
+            long limit = position.segment() == end.segment() ? end.offset() : Files.size(segment);
+            if (position.offset() >= limit) {
+                Long next = segments.higherKey(position.segment());
+                if (next == null) {
+                    break;
+                }
+                position = new Position(next, 0);
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(limit - position.offset(), 1 << 20));
+                channel.read(buffer, position.offset());
+                buffer.flip();
+                long offset = position.offset();
+                while (events.size() < max) {
+                    ActivityEvent event = decode(buffer);
+                    if (event == null) {
+                        break;
+                    }
+                    events.add(event);
+                    offset = position.offset() + buffer.position();
+                }
+                if (offset == position.offset()) {
+                    offset = nextIntactRecord(channel, offset, limit);
+                    log.warn("Skipped {} bytes of corrupt activity records in {} at {}", offset - position.offset(),
+                            segment, position.offset());
+                }
+                position = new Position(position.segment(), offset);
+            }
+        }
+        return new Batch(events, position);
+    }
+
+    /**
+     * Records that everything before the position is stored in MySQL.
+     */
+    void commit(Position position) throws IOException {
+        Path tmp = directory.resolve(CHECKPOINT + ".tmp");
+        Files.writeString(tmp, position.segment() + " " + position.offset());
+        Files.move(tmp, directory.resolve(CHECKPOINT), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        committed = position;
+        while (segments.firstKey() < position.segment()) {
+            Files.deleteIfExists(segments.pollFirstEntry().getValue());
+        }
+    }
+
+    long uncommittedBytes() {
+        long bytes = 0;
+        for (var segment : segments.subMap(committed.segment(), true, end.segment(), true).entrySet()) {
+            long size = segment.getKey() == end.segment() ? end.offset() : segment.getValue().toFile().length();
+            bytes += size - (segment.getKey() == committed.segment() ? committed.offset() : 0);
+        }
+        return bytes;
+    }
+
+    boolean hasUncommitted() {
+        return committed.compareTo(end) < 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void roll() throws IOException {
+        writer.force(false);
+        writer.close();
+        long next = end.segment() + 1;
+        Path path = segmentPath(next);
+        segments.put(next, path);
+        writer = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        end = new Position(next, 0);
+    }
+
+    private static ByteBuffer encode(ActivityEvent event, ByteBuffer buffer) {
+        byte[] query = event.query() == null ? new byte[0] : event.query().getBytes(StandardCharsets.UTF_8);
+        int payload = 1 + 8 + 8 + 8 + 4 + query.length;
+        if (buffer.remaining() < HEADER + payload) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + HEADER + payload));
+            buffer.flip();
+            buffer = bigger.put(buffer);
+        }
+        int start = buffer.position();
+        buffer.putInt(payload).putInt(0);
+        buffer.put((byte) event.type().ordinal())
+                .putLong(event.userId())
+                .putLong(event.songId())
+                .putLong(event.timestamp())
+                .putInt(event.query() == null ? -1 : query.length)
+                .put(query);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), start + HEADER, payload);
+        buffer.putInt(start + 4, (int) crc.getValue());
+        return buffer;
+    }
+
+    // Returns null when the buffer does not hold one more complete, intact record
+    private static ActivityEvent decode(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER) {
+            return null;
+        }
+        int start = buffer.position();
+        int payload = buffer.getInt(start);
+        int checksum = buffer.getInt(start + 4);
+        if (payload < 29 || payload > buffer.remaining() - HEADER) { // Also rejects lengths that would overflow
+            return null;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), start + HEADER, payload);
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+        buffer.position(start + HEADER);
+        ActivityEvent.Type type = ActivityEvent.Type.values()[buffer.get()];
+        long userId = buffer.getLong();
+        long songId = buffer.getLong();
+        long timestamp = buffer.getLong();
+        int queryLength = buffer.getInt();
+        String query = null;
+        if (queryLength >= 0) {
+            query = new String(buffer.array(), buffer.position(), queryLength, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + queryLength);
+        }
+        return new ActivityEvent(type, userId, songId, query, timestamp);
+    }
+
+    // Offset of the first intact record after the one at offset, or limit if there is none
+    private static long nextIntactRecord(FileChannel channel, long offset, long limit) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (limit - offset));
+        channel.read(buffer, offset);
+        buffer.flip();
+        for (int i = 1; i < buffer.limit(); i++) {
+            buffer.position(i);
+            if (decode(buffer) != null) {
+                return offset + i;
+            }
+        }
+        return limit;
+    }
+
+    // Length of the leading run of intact records
+    private static long validLength(Path segment) throws IOException {
+        if (!Files.exists(segment)) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+        while (decode(buffer) != null) {
+            // Skip over intact records
+        }
+        return buffer.position();
+    }
+
+    private Position readCheckpoint() throws IOException {
+        Path checkpoint = directory.resolve(CHECKPOINT);
+        if (!Files.exists(checkpoint)) {
+            return new Position(segments.isEmpty() ? 0 : segments.firstKey(), 0);
+        }
+        String[] parts = Files.readString(checkpoint).trim().split(" ");
+        return new Position(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("%020d%s", number, SUFFIX));
+    }
+
+    private static long segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,80 @@
+package com.MusicHub.api.cache;
+
+/**
+ * Count-min sketch with 4-bit counters, used by WTinyLfuCache to estimate how often a key
+ * has been requested recently. Sixteen counters are packed into each long.
+ * Once the number of increments reaches the sample size every counter is halved,
+ * so old popularity fades out ("aging").
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+    private final int counterMask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int expectedSize) {
+        int counters = Integer.highestOneBit(Math.max(16, expectedSize) - 1) << 1; // Next power of two
+        this.table = new long[counters >>> 4];
+        this.counterMask = counters - 1;
+        this.sampleSize = 10 * Math.max(1, expectedSize);
+    }
+
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int min = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            min = Math.min(min, counterAt(indexOf(hash, i)));
+        }
+        return min;
+    }
+
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            added |= incrementAt(indexOf(hash, i));
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private int counterAt(int index) {
+        return (int) ((table[index >>> 4] >>> ((index & 15) << 2)) & 0xF);
+    }
+
+    private boolean incrementAt(int index) {
+        int slot = index >>> 4;
+        int shift = (index & 15) << 2;
+        if (((table[slot] >>> shift) & 0xF) == MAX_COUNT) {
+            return false;
+        }
+        table[slot] += 1L << shift;
+        return true;
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return (int) h & counterMask;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
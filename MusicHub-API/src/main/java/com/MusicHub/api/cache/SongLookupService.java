@@ -0,0 +1,211 @@
+package com.MusicHub.api.cache;
+
+import com.MusicHub.api.catalog.CatalogChangedEvent;
+import com.MusicHub.api.dto.SongSummary;
+import com.MusicHub.api.external.ExternalCalls;
+import com.MusicHub.api.external.ExternalSongSource;
+import com.MusicHub.api.external.ExternalSourceException;
+import com.MusicHub.api.external.ExternalSources;
+import com.MusicHub.api.external.LyricsSource;
+import com.MusicHub.api.lyrics.LyricsStore;
+import com.MusicHub.api.model.Song;
+import com.MusicHub.api.repository.SongRepository;
+import com.MusicHub.api.search.SongSearchService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through cache in front of MySQL and the external APIs (iTunes, Lyrics.ovh).
+ *
+ * Lookup order: bounded in-heap W-TinyLFU cache -> MySQL -> external API (then persisted).
+ * Concurrent misses for the same songId / query / lyrics are coalesced into a single load,
+ * and "not found" answers are cached for a limited time so unknown ids do not hit the
+ * external APIs on every request. Failures of an external API are never cached.
+ * External calls go through ExternalCalls (virtual threads, per-source limits, hedging).
+ * Hit/miss counts of the three caches are published as Micrometer cache meters.
+ */
+@Service
+public class SongLookupService {
+
+    private static final Logger log = LoggerFactory.getLogger(SongLookupService.class);
+
+    private final SongRepository songRepository;
+    private final SongSearchService searchService;
+    private final ExternalSongSource externalSongSource;
+    private final LyricsSource lyricsSource;
+    private final LyricsStore lyricsStore;
+    private final ExternalCalls externalCalls;
+    private final Duration externalTimeout;
+    private final Duration negativeTtl;
+    private final TransactionTemplate primaryTx; // Not read-only: its reads go to the primary, never to a replica
+
+    private final WTinyLfuCache<String, CachedSong> songsBySongId;
+    private final WTinyLfuCache<String, Long> emptyQueries;   // Normalized query -> expiry (nanoTime)
+    private final WTinyLfuCache<Long, Long> missingLyrics;    // Song id -> expiry (nanoTime)
+    private final SingleFlight<String, Optional<Song>> songLoads = new SingleFlight<>();
+    private final SingleFlight<String, List<SongSummary>> searchLoads = new SingleFlight<>();
+    private final SingleFlight<Long, Optional<String>> lyricsLoads = new SingleFlight<>();
+
+    // song == null marks a cached "not found" that expires at expiresAt
+    private record CachedSong(Song song, long expiresAt) {
+        boolean isExpired() {
+            return song == null && System.nanoTime() - expiresAt > 0;
+        }
+    }
+
+    public SongLookupService(SongRepository songRepository, SongSearchService searchService,
+                             ExternalSongSource externalSongSource, LyricsSource lyricsSource, LyricsStore lyricsStore,
+                             ExternalCalls externalCalls, MeterRegistry meterRegistry,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${musichub.external.timeout:3s}") Duration externalTimeout,
+                             @Value("${musichub.cache.songs.maximum-size:10000}") int maximumSize,
+                             @Value("${musichub.cache.negative-ttl:10m}") Duration negativeTtl) {
+        this.songRepository = songRepository;
+        this.searchService = searchService;
+        this.externalSongSource = externalSongSource;
+        this.lyricsSource = lyricsSource;
+        this.lyricsStore = lyricsStore;
+        this.externalCalls = externalCalls;
+        this.externalTimeout = externalTimeout;
+        this.negativeTtl = negativeTtl;
+        this.primaryTx = new TransactionTemplate(transactionManager);
+        this.songsBySongId = new WTinyLfuCache<>(maximumSize);
+        this.emptyQueries = new WTinyLfuCache<>(maximumSize);
+        this.missingLyrics = new WTinyLfuCache<>(maximumSize);
+        new WTinyLfuCacheMetrics(songsBySongId, "songs").bindTo(meterRegistry);
+        new WTinyLfuCacheMetrics(emptyQueries, "empty-searches").bindTo(meterRegistry);
+        new WTinyLfuCacheMetrics(missingLyrics, "missing-lyrics").bindTo(meterRegistry);
+    }
+
+    /**
+     * Finds a song by its external id (e.g. iTunes trackId), fetching and caching it on a miss.
+     */
+    public Optional<Song> findBySongId(String songId) {
+        CachedSong cached = songsBySongId.get(songId);
+        if (cached != null && !cached.isExpired()) {
+            return Optional.ofNullable(cached.song());
+        }
+        return songLoads.execute(songId, () -> {
+            Optional<Song> song = songRepository.findBySongId(songId)
+                    .or(() -> externalCalls.call(ExternalSources.ITUNES, ExternalCalls.deadlineIn(externalTimeout),
+                            () -> externalSongSource.fetchSong(songId)).map(this::persist));
+            songsBySongId.put(songId, new CachedSong(song.orElse(null), expiry()));
+            return song;
+        });
+    }
+
+    /**
+     * Searches the local catalog first and only asks iTunes when nothing is cached locally.
+     */
+    public List<SongSummary> search(String query, int limit) {
+        List<SongSummary> local = searchService.search(query, limit);
+        if (!local.isEmpty()) {
+            return local;
+        }
+
+        String key = query.trim().toLowerCase(Locale.ROOT);
+        Long emptyUntil = emptyQueries.get(key);
+        if (emptyUntil != null && System.nanoTime() - emptyUntil < 0) {
+            return local;
+        }
+        try {
+            return searchLoads.execute(key, () -> {
+                List<Song> fetched = externalCalls.call(ExternalSources.ITUNES, ExternalCalls.deadlineIn(externalTimeout),
+                        () -> externalSongSource.searchSongs(query, limit));
+                if (fetched.isEmpty()) {
+                    emptyQueries.put(key, expiry());
+                }
+                return persistAll(fetched).stream().map(SongSummary::of).toList();
+            });
+        } catch (ExternalSourceException e) {
+            log.warn("External search for '{}' failed, returning local results only: {}", query, e.getMessage());
+            return local;
+        }
+    }
+
+    /**
+     * Returns the lyrics of a cached song from the compressed LyricsStore,
+     * fetching them from the lyrics API on first access.
+     */
+    public Optional<String> getLyrics(Long id) {
+        Optional<String> stored = lyricsStore.find(id);
+        if (stored.isPresent()) {
+            return stored;
+        }
+        Long missingUntil = missingLyrics.get(id);
+        if (missingUntil != null && System.nanoTime() - missingUntil < 0) {
+            return Optional.empty();
+        }
+        Song song = songRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Song " + id + " not found"));
+        return lyricsLoads.execute(id, () -> {
+            Optional<String> lyrics = externalCalls.call(ExternalSources.LYRICS, ExternalCalls.deadlineIn(externalTimeout),
+                    () -> lyricsSource.fetchLyrics(song.getArtist(), song.getTitle()));
+            if (lyrics.isPresent()) {
+                lyricsStore.save(id, lyrics.get());
+            } else {
+                missingLyrics.put(id, expiry());
+            }
+            return lyrics;
+        });
+    }
+
+    public WTinyLfuCache<String, ?> songCache() {
+        return songsBySongId;
+    }
+
+    // Cached copies must not outlive an update of the row
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.entity() instanceof Song song && song.getSongId() != null) {
+            songsBySongId.invalidate(song.getSongId());
+            missingLyrics.invalidate(song.getId());
+        }
+    }
+
+    private List<Song> persistAll(List<Song> fetched) {
+        if (fetched.isEmpty()) {
+            return fetched;
+        }
+        Map<String, Song> existing = songRepository.findBySongIdIn(fetched.stream().map(Song::getSongId).toList())
+                .stream()
+                .collect(Collectors.toMap(Song::getSongId, Function.identity(), (a, b) -> a));
+        List<Song> result = new ArrayList<>(fetched.size());
+        for (Song song : fetched) {
+            Song stored = existing.get(song.getSongId());
+            result.add(stored != null ? stored : persist(song));
+        }
+        return result;
+    }
+
+    private Song persist(Song song) {
+        try {
+            return songRepository.save(song);
+        } catch (DataIntegrityViolationException e) {
+            // Another node inserted the same songId first (unique constraint); use its row, which may not be on the replicas yet
+            return primaryTx.execute(status -> songRepository.findBySongId(song.getSongId())).orElseThrow(() -> e);
+        }
+    }
+
+    private long expiry() {
+        return System.nanoTime() + negativeTtl.toNanos();
+    }
+}
@@ -0,0 +1,130 @@
+package com.MusicHub.api.cache;
+
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-heap cache with W-TinyLFU eviction.
+ *
+ * New entries land in a small LRU "window" (1% of the capacity). When the window overflows,
+ * its oldest entry competes with the oldest entry of the main area, and only the one that
+ * the FrequencySketch says is requested more often stays. The main area is a segmented LRU:
+ * entries hit a second time move from "probation" to "protected". This keeps popular tracks
+ * cached even when a burst of one-off lookups streams through.
+ */
+public class WTinyLfuCache<K, V> {
+
+    private final int windowMax;
+    private final int mainMax;
+    private final int protectedMax;
+
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<K, V> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, V> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, V> protectedArea = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public WTinyLfuCache(int maximumSize) {
+        if (maximumSize < 2) {
+            throw new IllegalArgumentException("maximumSize must be at least 2");
+        }
+        this.windowMax = Math.max(1, maximumSize / 100);
+        this.mainMax = maximumSize - windowMax;
+        this.protectedMax = Math.max(1, mainMax * 80 / 100);
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    public synchronized V get(K key) {
+        sketch.increment(key);
+        V value = window.get(key);
+        if (value == null) {
+            value = protectedArea.get(key);
+        }
+        if (value == null) {
+            value = probation.remove(key);
+            if (value != null) {
+                promote(key, value);
+            }
+        }
+        (value != null ? hits : misses).incrementAndGet();
+        return value;
+    }
+
+    public synchronized void put(K key, V value) {
+        sketch.increment(key);
+        if (window.containsKey(key)) {
+            window.put(key, value);
+        } else if (protectedArea.containsKey(key)) {
+            protectedArea.put(key, value);
+        } else if (probation.containsKey(key)) {
+            probation.remove(key);
+            promote(key, value);
+        } else {
+            window.put(key, value);
+            if (window.size() > windowMax) {
+                evictFromWindow();
+            }
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        if (window.remove(key) == null && probation.remove(key) == null) {
+            protectedArea.remove(key);
+        }
+    }
+
+    public synchronized int size() {
+        return window.size() + probation.size() + protectedArea.size();
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    public long evictionCount() {
+        return evictions.get();
+    }
+
+    private void promote(K key, V value) {
+        protectedArea.put(key, value);
+        if (protectedArea.size() > protectedMax) {
+            // Demote the least recently used protected entry back to probation
+            Map.Entry<K, V> demoted = removeEldest(protectedArea);
+            probation.put(demoted.getKey(), demoted.getValue());
+        }
+    }
+
+    private void evictFromWindow() {
+        Map.Entry<K, V> candidate = removeEldest(window);
+        if (probation.size() + protectedArea.size() < mainMax) {
+            probation.put(candidate.getKey(), candidate.getValue());
+            return;
+        }
+
+        LinkedHashMap<K, V> victimArea = probation.isEmpty() ? protectedArea : probation;
+        K victim = victimArea.keySet().iterator().next();
+        if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim)) {
+            victimArea.remove(victim);
+            probation.put(candidate.getKey(), candidate.getValue());
+        }
+        evictions.incrementAndGet(); // Either the victim or the candidate left the cache
+    }
+
+    private static <K, V> Map.Entry<K, V> removeEldest(LinkedHashMap<K, V> area) {
+        Iterator<Map.Entry<K, V>> it = area.entrySet().iterator();
+        Map.Entry<K, V> eldest = new AbstractMap.SimpleImmutableEntry<>(it.next());
+        it.remove();
+        return eldest;
+    }
+}
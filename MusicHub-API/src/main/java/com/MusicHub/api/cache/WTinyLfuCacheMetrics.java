@@ -0,0 +1,49 @@
+package com.MusicHub.api.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Exposes a WTinyLfuCache under Micrometer's standard cache meters
+ * (cache.gets{result=hit|miss}, cache.evictions, cache.size), tagged with the cache name.
+ */
+public class WTinyLfuCacheMetrics extends CacheMeterBinder<WTinyLfuCache<?, ?>> {
+
+    public WTinyLfuCacheMetrics(WTinyLfuCache<?, ?> cache, String cacheName) {
+        super(cache, cacheName, Tags.empty());
+    }
+
+    @Override
+    protected Long size() {
+        WTinyLfuCache<?, ?> cache = getCache();
+        return cache == null ? null : (long) cache.size();
+    }
+
+    @Override
+    protected long hitCount() {
+        WTinyLfuCache<?, ?> cache = getCache();
+        return cache == null ? 0 : cache.hitCount();
+    }
+
+    @Override
+    protected Long missCount() {
+        WTinyLfuCache<?, ?> cache = getCache();
+        return cache == null ? null : cache.missCount();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        WTinyLfuCache<?, ?> cache = getCache();
+        return cache == null ? null : cache.evictionCount();
+    }
+
+    @Override
+    protected long putCount() {
+        return 0; // Not tracked: every miss that finds a value is followed by a put
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+    }
+}
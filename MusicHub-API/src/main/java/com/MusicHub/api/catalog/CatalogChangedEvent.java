@@ -0,0 +1,10 @@
+package com.MusicHub.api.catalog;
+
+/**
+ * Application event published whenever a catalog entity (Song or Beat) is saved or removed.
+ *
+ * @param entity  the Song or Beat that changed
+ * @param removed true if the entity was deleted, false if it was inserted or updated
+ */
+public record CatalogChangedEvent(Object entity, boolean removed) {
+}
@@ -0,0 +1,60 @@
+package com.MusicHub.api.catalog;
+
+import com.MusicHub.api.model.Beat;
+import com.MusicHub.api.model.Song;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * JPA entity listener attached to Song and Beat.
+ * Turns every insert, update and delete into a CatalogChangedEvent so the in-memory
+ * indexes can be updated incrementally instead of being rebuilt. Before a write it makes
+ * sure the genre and mood have dictionary codes for the converters to store, and stamps
+ * the row's modifiedAt for the CatalogSnapshots replay.
+ */
+@Component
+public class CatalogEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final TermDictionaries dictionaries;
+
+    public CatalogEntityListener(ApplicationEventPublisher eventPublisher, TermDictionaries dictionaries) {
+        this.eventPublisher = eventPublisher;
+        this.dictionaries = dictionaries;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void onSaving(Object entity) {
+        if (entity instanceof Song song) {
+            register(song.getGenre(), song.getMood());
+            song.setModifiedAt(Instant.now());
+        } else if (entity instanceof Beat beat) {
+            register(beat.getGenre(), beat.getMood());
+            beat.setModifiedAt(Instant.now());
+        }
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Object entity) {
+        eventPublisher.publishEvent(new CatalogChangedEvent(entity, false));
+    }
+
+    @PostRemove
+    public void onRemoved(Object entity) {
+        eventPublisher.publishEvent(new CatalogChangedEvent(entity, true));
+    }
+
+    private void register(String genre, String mood) {
+        dictionaries.genres().register(genre);
+        dictionaries.moods().register(mood);
+    }
+}
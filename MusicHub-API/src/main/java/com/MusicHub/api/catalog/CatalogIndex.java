@@ -0,0 +1,27 @@
+package com.MusicHub.api.catalog;
+
+import com.MusicHub.api.model.Beat;
+import com.MusicHub.api.model.Song;
+
+/**
+ * An in-memory structure derived from the songs/beats tables.
+ * Implementations are filled once at startup by CatalogWarmup and then kept
+ * up to date by CatalogIndexUpdater as entities are saved or removed.
+ */
+public interface CatalogIndex {
+
+    // Adds the song, or replaces it if a song with the same id is already indexed.
+    void indexSong(Song song);
+
+    void removeSong(Song song);
+
+    default void indexBeat(Beat beat) {
+    }
+
+    default void removeBeat(Beat beat) {
+    }
+
+    // Called once the startup scan has fed every existing row into the index.
+    default void warmupCompleted() {
+    }
+}
@@ -0,0 +1,44 @@
+package com.MusicHub.api.catalog;
+
+import com.MusicHub.api.model.Beat;
+import com.MusicHub.api.model.Song;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Forwards catalog changes to every CatalogIndex once the surrounding transaction commits,
+ * so rolled-back writes never reach the in-memory indexes. Bumps the CatalogVersion afterwards.
+ */
+@Component
+public class CatalogIndexUpdater {
+
+    private final List<CatalogIndex> indexes;
+    private final CatalogVersion catalogVersion;
+
+    public CatalogIndexUpdater(List<CatalogIndex> indexes, CatalogVersion catalogVersion) {
+        this.indexes = indexes;
+        this.catalogVersion = catalogVersion;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        for (CatalogIndex index : indexes) {
+            if (event.entity() instanceof Song song) {
+                if (event.removed()) {
+                    index.removeSong(song);
+                } else {
+                    index.indexSong(song);
+                }
+            } else if (event.entity() instanceof Beat beat) {
+                if (event.removed()) {
+                    index.removeBeat(beat);
+                } else {
+                    index.indexBeat(beat);
+                }
+            }
+        }
+        catalogVersion.changed(); // Only now: every index already answers with the new data
+    }
+}
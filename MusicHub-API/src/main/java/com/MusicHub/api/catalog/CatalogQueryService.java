@@ -0,0 +1,122 @@
+package com.MusicHub.api.catalog;
+
+import com.MusicHub.api.dto.CatalogPage;
+import com.MusicHub.api.dto.SongSummary;
+import com.MusicHub.api.model.Beat;
+import com.MusicHub.api.model.Song;
+import com.MusicHub.api.repository.BeatRepository;
+import com.MusicHub.api.repository.SongRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Bounded-memory access to the songs/beats tables.
+ *
+ * Pages use keyset pagination on (popularity, id) so page N costs the same as page 1.
+ * Streams hand rows to a callback one at a time and detach each entity from the
+ * persistence context, so memory stays flat no matter how many rows match.
+ */
+@Service
+public class CatalogQueryService {
+
+    private final SongRepository songRepository;
+    private final BeatRepository beatRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTx;
+
+    @Value("${musichub.catalog.max-page-size:200}")
+    private int maxPageSize;
+
+    public CatalogQueryService(SongRepository songRepository, BeatRepository beatRepository,
+                               EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.songRepository = songRepository;
+        this.beatRepository = beatRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    public CatalogPage<SongSummary> pageSongs(List<String> moods, List<String> genres, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = clamp(size);
+        List<SongSummary> songs = songRepository.findPageAfter(moods, genres, after.popularity(), after.id(), Limit.of(pageSize));
+        return toPage(songs, pageSize, SongSummary::popularity, SongSummary::id);
+    }
+
+    public CatalogPage<Beat> pageBeats(List<String> moods, List<String> genres, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = clamp(size);
+        List<Beat> beats = beatRepository.findPageAfter(moods, genres, after.popularity(), after.id(), Limit.of(pageSize));
+        return toPage(beats, pageSize, Beat::getPopularity, Beat::getId);
+    }
+
+    public void streamSongs(List<String> moods, List<String> genres, Consumer<SongSummary> consumer) {
+        stream(() -> songRepository.streamByMoodOrGenre(moods, genres), consumer, false);
+    }
+
+    public void streamBeats(List<String> moods, List<String> genres, Consumer<Beat> consumer) {
+        stream(() -> beatRepository.streamByMoodOrGenre(moods, genres), consumer, true);
+    }
+
+    public void streamAllSongs(Consumer<Song> consumer) {
+        stream(songRepository::streamAll, consumer, true);
+    }
+
+    public void streamAllBeats(Consumer<Beat> consumer) {
+        stream(beatRepository::streamAll, consumer, true);
+    }
+
+    public void streamSongsChangedSince(long highWaterId, Instant since, Consumer<Song> consumer) {
+        stream(() -> songRepository.streamChangedSince(highWaterId, since), consumer, true);
+    }
+
+    public void streamBeatsChangedSince(long highWaterId, Instant since, Consumer<Beat> consumer) {
+        stream(() -> beatRepository.streamChangedSince(highWaterId, since), consumer, true);
+    }
+
+    public long countSongsUpTo(long id) {
+        return songRepository.countByIdLessThanEqual(id);
+    }
+
+    public long countBeatsUpTo(long id) {
+        return beatRepository.countByIdLessThanEqual(id);
+    }
+
+    // entities: rows are managed entities that must be detached (projections never are)
+    private <T> void stream(Supplier<Stream<T>> query, Consumer<T> consumer, boolean entities) {
+        readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<T> rows = query.get()) {
+                rows.forEach(row -> {
+                    consumer.accept(row);
+                    if (entities) {
+                        entityManager.detach(row); // Keep the persistence context from growing with the result
+                    }
+                });
+            }
+        });
+    }
+
+    private <T> CatalogPage<T> toPage(List<T> rows, int pageSize, ToIntFunction<T> popularityOf, Function<T, Long> idOf) {
+        if (rows.size() < pageSize) {
+            return new CatalogPage<>(rows, null);
+        }
+        T last = rows.get(rows.size() - 1);
+        return new CatalogPage<>(rows, new KeysetCursor(popularityOf.applyAsInt(last), idOf.apply(last)).encode());
+    }
+
+    private int clamp(int size) {
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
+}
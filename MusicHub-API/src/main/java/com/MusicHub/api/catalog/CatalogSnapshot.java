@@ -0,0 +1,344 @@
+package com.MusicHub.api.catalog;
+
+import com.MusicHub.api.model.Beat;
+import com.MusicHub.api.model.Song;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Binary copy of the songs and beats tables, read back through memory-mapped blocks.
+ *
+ * Layout: blocks of song rows and blocks of beat rows (each at most a few MB, so every block
+ * fits in one mapping however large the file gets), then one block with the shared strings,
+ * then a footer that lists the blocks. Values that repeat across rows (artist, genre, mood) are
+ * stored once in the shared strings and referenced by index; the rest are inline UTF-8. The
+ * footer also records when the snapshot was taken and the highest ids it contains, which
+ * CatalogSnapshots uses to replay only the rows that changed afterwards.
+ */
+final class CatalogSnapshot {
+
+    private static final int MAGIC = 0x4D484353; // "MHCS"
+    private static final int FORMAT = 1;
+    private static final int BLOCK_SIZE = 4 << 20;
+    private static final byte SONGS = 0;
+    private static final byte BEATS = 1;
+    private static final byte STRINGS = 2;
+    private static final int NULL = -1;
+
+    record Header(long createdAt, long songHighWaterId, long beatHighWaterId, long songs, long beats) {
+    }
+
+    private record Block(byte kind, long offset, int length, int rows) {
+    }
+
+    private final Header header;
+    private final List<MappedByteBuffer> songBlocks = new ArrayList<>();
+    private final List<MappedByteBuffer> beatBlocks = new ArrayList<>();
+    private final String[] strings;
+
+    private CatalogSnapshot(Header header, String[] strings) {
+        this.header = header;
+        this.strings = strings;
+    }
+
+    Header header() {
+        return header;
+    }
+
+    /**
+     * Maps the blocks of a snapshot file. The channel is closed right away, the mappings stay
+     * valid until they are garbage collected.
+     */
+    static CatalogSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 16) {
+                throw new IOException("Not a catalog snapshot: " + file);
+            }
+            ByteBuffer tail = read(channel, size - 8, 8);
+            int footerLength = tail.getInt();
+            if (tail.getInt() != MAGIC || footerLength <= 0 || footerLength > size - 8) {
+                throw new IOException("Not a catalog snapshot: " + file);
+            }
+            ByteBuffer footer = read(channel, size - 8 - footerLength, footerLength);
+            if (footer.getInt() != MAGIC || footer.getInt() != FORMAT) {
+                throw new IOException("Unsupported catalog snapshot format: " + file);
+            }
+            Header header = new Header(footer.getLong(), footer.getLong(), footer.getLong(), footer.getLong(), footer.getLong());
+            List<Block> blocks = new ArrayList<>();
+            for (int i = footer.getInt(); i > 0; i--) {
+                blocks.add(new Block(footer.get(), footer.getLong(), footer.getInt(), footer.getInt()));
+            }
+            String[] strings = new String[0];
+            for (Block block : blocks) {
+                if (block.kind == STRINGS) {
+                    ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, block.offset, block.length);
+                    strings = new String[block.rows];
+                    for (int i = 0; i < strings.length; i++) {
+                        strings[i] = getString(buffer);
+                    }
+                }
+            }
+            CatalogSnapshot snapshot = new CatalogSnapshot(header, strings);
+            for (Block block : blocks) {
+                if (block.kind != STRINGS) {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, block.offset, block.length);
+                    (block.kind == SONGS ? snapshot.songBlocks : snapshot.beatBlocks).add(buffer);
+                }
+            }
+            return snapshot;
+        }
+    }
+
+    void forEachSong(Consumer<Song> consumer) {
+        for (MappedByteBuffer block : songBlocks) {
+            ByteBuffer buffer = block.duplicate();
+            while (buffer.hasRemaining()) {
+                Song song = new Song();
+                song.setId(buffer.getLong());
+                song.setPopularity(buffer.getInt());
+                song.setArtist(shared(buffer.getInt()));
+                song.setGenre(shared(buffer.getInt()));
+                song.setMood(shared(buffer.getInt()));
+                song.setSongId(getString(buffer));
+                song.setTitle(getString(buffer));
+                song.setLink(getString(buffer));
+                consumer.accept(song);
+            }
+        }
+    }
+
+    void forEachBeat(Consumer<Beat> consumer) {
+        for (MappedByteBuffer block : beatBlocks) {
+            ByteBuffer buffer = block.duplicate();
+            while (buffer.hasRemaining()) {
+                Beat beat = new Beat();
+                beat.setId(buffer.getLong());
+                beat.setPopularity(buffer.getInt());
+                long creatorId = buffer.getLong();
+                beat.setCreatorId(creatorId == Long.MIN_VALUE ? null : creatorId);
+                beat.setGenre(shared(buffer.getInt()));
+                beat.setMood(shared(buffer.getInt()));
+                beat.setName(getString(buffer));
+                beat.setLink(getString(buffer));
+                consumer.accept(beat);
+            }
+        }
+    }
+
+    private String shared(int index) {
+        return index == NULL ? null : strings[index];
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated catalog snapshot");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a snapshot to a temporary file next to the target; commit moves it into place.
+     * Rows may be added in any order, but an id must not be added twice. add throws
+     * UncheckedIOException so that it can be called from the CatalogQueryService callbacks.
+     */
+    static final class Writer implements Closeable {
+
+        private final Path file;
+        private final Path tmp;
+        private final FileChannel channel;
+        private final Map<String, Integer> sharedIndex = new HashMap<>();
+        private final List<String> shared = new ArrayList<>();
+        private final List<Block> blocks = new ArrayList<>();
+        private ByteBuffer songBuffer = ByteBuffer.allocate(BLOCK_SIZE);
+        private ByteBuffer beatBuffer = ByteBuffer.allocate(BLOCK_SIZE);
+        private int songRows;
+        private int beatRows;
+        private long songs;
+        private long beats;
+        private long songHighWaterId;
+        private long beatHighWaterId;
+        private boolean committed;
+
+        Writer(Path file) throws IOException {
+            this.file = file;
+            this.tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            this.channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void add(Song song) {
+            byte[] songId = bytes(song.getSongId());
+            byte[] title = bytes(song.getTitle());
+            byte[] link = bytes(song.getLink());
+            int size = 8 + 4 * 4 + size(songId) + size(title) + size(link);
+            if (songBuffer.remaining() < size) {
+                try {
+                    flushSongs();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (songBuffer.capacity() < size) { // A single huge row gets a block of its own
+                    songBuffer = ByteBuffer.allocate(size);
+                }
+            }
+            songBuffer.putLong(song.getId())
+                    .putInt(song.getPopularity())
+                    .putInt(shared(song.getArtist()))
+                    .putInt(shared(song.getGenre()))
+                    .putInt(shared(song.getMood()));
+            putBytes(songBuffer, songId);
+            putBytes(songBuffer, title);
+            putBytes(songBuffer, link);
+            songRows++;
+            songs++;
+            songHighWaterId = Math.max(songHighWaterId, song.getId());
+        }
+
+        void add(Beat beat) {
+            byte[] name = bytes(beat.getName());
+            byte[] link = bytes(beat.getLink());
+            int size = 8 + 4 + 8 + 2 * 4 + size(name) + size(link);
+            if (beatBuffer.remaining() < size) {
+                try {
+                    flushBeats();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (beatBuffer.capacity() < size) { // A single huge row gets a block of its own
+                    beatBuffer = ByteBuffer.allocate(size);
+                }
+            }
+            beatBuffer.putLong(beat.getId())
+                    .putInt(beat.getPopularity())
+                    .putLong(beat.getCreatorId() == null ? Long.MIN_VALUE : beat.getCreatorId())
+                    .putInt(shared(beat.getGenre()))
+                    .putInt(shared(beat.getMood()));
+            putBytes(beatBuffer, name);
+            putBytes(beatBuffer, link);
+            beatRows++;
+            beats++;
+            beatHighWaterId = Math.max(beatHighWaterId, beat.getId());
+        }
+
+        /**
+         * Writes the shared strings and the footer and moves the file into place.
+         * createdAt is when the source rows were read: rows written after it get replayed.
+         */
+        void commit(long createdAt) throws IOException {
+            flushSongs();
+            flushBeats();
+            int size = 0;
+            List<byte[]> encoded = new ArrayList<>(shared.size());
+            for (String value : shared) {
+                byte[] bytes = bytes(value);
+                encoded.add(bytes);
+                size += size(bytes);
+            }
+            ByteBuffer strings = ByteBuffer.allocate(size);
+            encoded.forEach(bytes -> putBytes(strings, bytes));
+            writeBlock(STRINGS, strings.flip(), shared.size());
+
+            ByteBuffer footer = ByteBuffer.allocate(4 + 4 + 5 * 8 + 4 + blocks.size() * (1 + 8 + 4 + 4) + 8);
+            footer.putInt(MAGIC).putInt(FORMAT)
+                    .putLong(createdAt).putLong(songHighWaterId).putLong(beatHighWaterId).putLong(songs).putLong(beats)
+                    .putInt(blocks.size());
+            for (Block block : blocks) {
+                footer.put(block.kind).putLong(block.offset).putInt(block.length).putInt(block.rows);
+            }
+            footer.putInt(footer.position()).putInt(MAGIC);
+            write(footer.flip());
+            channel.force(true);
+            channel.close();
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                channel.close();
+                Files.deleteIfExists(tmp);
+            }
+        }
+
+        private void flushSongs() throws IOException {
+            writeBlock(SONGS, songBuffer.flip(), songRows);
+            songBuffer.clear();
+            songRows = 0;
+        }
+
+        private void flushBeats() throws IOException {
+            writeBlock(BEATS, beatBuffer.flip(), beatRows);
+            beatBuffer.clear();
+            beatRows = 0;
+        }
+
+        private void writeBlock(byte kind, ByteBuffer buffer, int rows) throws IOException {
+            if (rows > 0) {
+                blocks.add(new Block(kind, channel.position(), buffer.remaining(), rows));
+                write(buffer);
+            }
+        }
+
+        private void write(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        private int shared(String value) {
+            if (value == null) {
+                return NULL;
+            }
+            return sharedIndex.computeIfAbsent(value, v -> {
+                shared.add(v);
+                return shared.size() - 1;
+            });
+        }
+
+        private static byte[] bytes(String value) {
+            return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        private static int size(byte[] bytes) {
+            return 4 + (bytes == null ? 0 : bytes.length);
+        }
+
+        private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+            if (bytes == null) {
+                buffer.putInt(NULL);
+            } else {
+                buffer.putInt(bytes.length).put(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.MusicHub.api.catalog;
+
+import com.MusicHub.api.model.Beat;
+import com.MusicHub.api.model.Song;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Warm starts for the catalog indexes.
+ *
+ * Without a snapshot, startup streams both tables from MySQL and writes what it reads into a
+ * CatalogSnapshot on the way. The next start feeds the indexes from the memory-mapped snapshot
+ * instead and reads from MySQL only the rows above its high-water ids or modified since it was
+ * taken. A background task rolls the snapshot forward the same way (previous snapshot plus the
+ * changed rows), so the replay stays short. Rows deleted behind the application's back make the
+ * table counts fall below the snapshot's, and the full scan runs instead.
+ *
+ * Each snapshot is a new file: a file that is still mapped is never replaced, older ones are
+ * deleted once a newer one is in place.
+ */
+@Service
+public class CatalogSnapshots {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshots.class);
+
+    // Rows modified this long before a snapshot are replayed too: their transaction may have
+    // committed only after the snapshot read the table
+    private static final Duration REPLAY_MARGIN = Duration.ofMinutes(5);
+    private static final String PREFIX = "catalog-";
+    private static final String SUFFIX = ".snapshot";
+
+    private final CatalogQueryService catalogQueryService;
+    private final Path directory;
+    private volatile boolean loaded;
+
+    public CatalogSnapshots(CatalogQueryService catalogQueryService,
+                            @Value("${musichub.catalog.snapshot-dir:}") String directory) {
+        this.catalogQueryService = catalogQueryService;
+        this.directory = directory.isBlank() ? null : Path.of(directory);
+    }
+
+    /**
+     * Hands every song and beat to the consumers, from the newest usable snapshot when there is one.
+     * A row may be handed over twice (snapshot, then replay), the later copy is the current one.
+     */
+    public void load(Consumer<Song> songs, Consumer<Beat> beats) {
+        CatalogSnapshot snapshot = newest();
+        if (snapshot != null && matchesTables(snapshot.header())) {
+            restore(snapshot, songs, beats);
+        } else {
+            scan(songs, beats);
+        }
+        loaded = true;
+    }
+
+    private void restore(CatalogSnapshot snapshot, Consumer<Song> songs, Consumer<Beat> beats) {
+        long start = System.currentTimeMillis();
+        CatalogSnapshot.Header header = snapshot.header();
+        snapshot.forEachSong(songs);
+        snapshot.forEachBeat(beats);
+        long mapped = System.currentTimeMillis() - start;
+        AtomicLong replayed = new AtomicLong();
+        Instant since = replaySince(header);
+        catalogQueryService.streamSongsChangedSince(header.songHighWaterId(), since, song -> {
+            songs.accept(song);
+            replayed.incrementAndGet();
+        });
+        catalogQueryService.streamBeatsChangedSince(header.beatHighWaterId(), since, beat -> {
+            beats.accept(beat);
+            replayed.incrementAndGet();
+        });
+        log.info("Catalog restored from a snapshot of {} songs and {} beats in {} ms, {} changed rows replayed in {} ms",
+                header.songs(), header.beats(), mapped, replayed.get(), System.currentTimeMillis() - start - mapped);
+    }
+
+    private void scan(Consumer<Song> songs, Consumer<Beat> beats) {
+        if (directory == null) {
+            catalogQueryService.streamAllSongs(songs);
+            catalogQueryService.streamAllBeats(beats);
+            return;
+        }
+        long createdAt = System.currentTimeMillis();
+        CatalogSnapshot.Writer writer = newWriter(createdAt);
+        boolean[] writing = {writer != null}; // The first write error abandons the snapshot, never the scan
+        try {
+            catalogQueryService.streamAllSongs(song -> {
+                songs.accept(song);
+                writing[0] = writing[0] && write(writer, w -> w.add(song));
+            });
+            catalogQueryService.streamAllBeats(beat -> {
+                beats.accept(beat);
+                writing[0] = writing[0] && write(writer, w -> w.add(beat));
+            });
+            if (writing[0] && commit(writer, createdAt)) {
+                deleteOlderThan(createdAt);
+            }
+        } finally {
+            if (writer != null) {
+                close(writer); // No-op once committed
+            }
+        }
+    }
+
+    /**
+     * Rolls the newest snapshot forward: its rows, minus the ones that changed since, plus their
+     * current versions. Skipped when nothing changed.
+     */
+    @Scheduled(fixedDelayString = "${musichub.catalog.snapshot-interval:PT15M}")
+    public synchronized void refresh() {
+        if (directory == null || !loaded) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        CatalogSnapshot previous = newest();
+        if (previous == null) { // Deleted, or the startup scan could not write it
+            write(start, writer -> {
+                catalogQueryService.streamAllSongs(writer::add);
+                catalogQueryService.streamAllBeats(writer::add);
+            });
+            return;
+        }
+        CatalogSnapshot.Header header = previous.header();
+        Instant since = replaySince(header);
+        Map<Long, Song> songs = new HashMap<>();
+        Map<Long, Beat> beats = new HashMap<>();
+        catalogQueryService.streamSongsChangedSince(header.songHighWaterId(), since, song -> songs.put(song.getId(), song));
+        catalogQueryService.streamBeatsChangedSince(header.beatHighWaterId(), since, beat -> beats.put(beat.getId(), beat));
+        if (songs.isEmpty() && beats.isEmpty()) {
+            return;
+        }
+        write(start, writer -> {
+            previous.forEachSong(song -> {
+                if (!songs.containsKey(song.getId())) {
+                    writer.add(song);
+                }
+            });
+            songs.values().forEach(writer::add);
+            previous.forEachBeat(beat -> {
+                if (!beats.containsKey(beat.getId())) {
+                    writer.add(beat);
+                }
+            });
+            beats.values().forEach(writer::add);
+        });
+        log.debug("Catalog snapshot rolled forward with {} songs and {} beats in {} ms",
+                songs.size(), beats.size(), System.currentTimeMillis() - start);
+    }
+
+    private void write(long createdAt, Consumer<CatalogSnapshot.Writer> rows) {
+        CatalogSnapshot.Writer writer = newWriter(createdAt);
+        if (writer == null) {
+            return;
+        }
+        try {
+            if (write(writer, rows) && commit(writer, createdAt)) {
+                deleteOlderThan(createdAt);
+            }
+        } finally {
+            close(writer);
+        }
+    }
+
+    private boolean write(CatalogSnapshot.Writer writer, Consumer<CatalogSnapshot.Writer> rows) {
+        try {
+            rows.accept(writer);
+            return true;
+        } catch (UncheckedIOException e) {
+            log.warn("Could not write the catalog snapshot", e);
+            close(writer);
+            return false;
+        }
+    }
+
+    private boolean commit(CatalogSnapshot.Writer writer, long createdAt) {
+        try {
+            writer.commit(createdAt);
+            return true;
+        } catch (IOException e) {
+            log.warn("Could not write the catalog snapshot", e);
+            close(writer);
+            return false;
+        }
+    }
+
+    private CatalogSnapshot.Writer newWriter(long createdAt) {
+        try {
+            Files.createDirectories(directory);
+            return new CatalogSnapshot.Writer(directory.resolve(PREFIX + createdAt + SUFFIX));
+        } catch (IOException e) {
+            log.warn("Could not create a catalog snapshot in {}", directory, e);
+            return null;
+        }
+    }
+
+    private static void close(CatalogSnapshot.Writer writer) {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.debug("Could not remove the partial catalog snapshot", e);
+        }
+    }
+
+    // Deletes were not replayed: a table with fewer rows up to the high-water id than the snapshot lost some
+    private boolean matchesTables(CatalogSnapshot.Header header) {
+        long songs = catalogQueryService.countSongsUpTo(header.songHighWaterId());
+        long beats = catalogQueryService.countBeatsUpTo(header.beatHighWaterId());
+        if (songs < header.songs() || beats < header.beats()) {
+            log.info("Catalog snapshot has {} songs and {} beats, the tables only {} and {}: scanning them instead",
+                    header.songs(), header.beats(), songs, beats);
+            return false;
+        }
+        return true;
+    }
+
+    private static Instant replaySince(CatalogSnapshot.Header header) {
+        return Instant.ofEpochMilli(header.createdAt()).minus(REPLAY_MARGIN);
+    }
+
+    // The newest snapshot that can be opened, or null
+    private CatalogSnapshot newest() {
+        if (directory == null) {
+            return null;
+        }
+        for (Path file : list(false).reversed()) {
+            try {
+                return CatalogSnapshot.open(file);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Ignoring unreadable catalog snapshot {}", file, e);
+            }
+        }
+        return null;
+    }
+
+    // Also removes temporary files of snapshots that were never committed. A file that is still
+    // mapped cannot be deleted on every platform; it is retried after the next snapshot.
+    private void deleteOlderThan(long createdAt) {
+        for (Path file : list(true)) {
+            if (createdOf(file, true) < createdAt) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.debug("Could not delete old catalog snapshot {}", file, e);
+                }
+            }
+        }
+    }
+
+    // Snapshot files (and with temporary, unfinished ones), oldest first
+    private List<Path> list(boolean temporary) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> createdOf(file, temporary) >= 0)
+                    .sorted((a, b) -> Long.compare(createdOf(a, temporary), createdOf(b, temporary)))
+                    .toList();
+        } catch (IOException e) {
+            log.warn("Could not list catalog snapshots in {}", directory, e);
+            return List.of();
+        }
+    }
+
+    // The creation time in a snapshot file name, or -1 for other files
+    private static long createdOf(Path file, boolean temporary) {
+        String name = file.getFileName().toString();
+        if (temporary && name.endsWith(SUFFIX + ".tmp")) {
+            name = name.substring(0, name.length() - ".tmp".length());
+        }
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
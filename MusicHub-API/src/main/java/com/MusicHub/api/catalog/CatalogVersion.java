@@ -0,0 +1,34 @@
+package com.MusicHub.api.catalog;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counter of the catalog (songs and beats), the basis of ETag / Last-Modified on
+ * the catalog and recommendation endpoints.
+ *
+ * CatalogIndexUpdater bumps it after a committed change has reached every in-memory index,
+ * so a response can never carry a version newer than the data it was built from.
+ * The epoch makes versions from different runs distinct, as the counter restarts at 0.
+ */
+@Component
+public class CatalogVersion {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong changes = new AtomicLong();
+    private volatile long lastModified = System.currentTimeMillis();
+
+    public void changed() {
+        lastModified = System.currentTimeMillis();
+        changes.incrementAndGet();
+    }
+
+    public String etag() {
+        return "c" + epoch + "." + changes.get();
+    }
+
+    public long lastModified() {
+        return lastModified;
+    }
+}
@@ -0,0 +1,48 @@
+package com.MusicHub.api.catalog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rebuilds every CatalogIndex when the application starts.
+ * CatalogSnapshots reads the rows once (from the last snapshot plus what changed since,
+ * or from MySQL) and each row is handed to all indexes.
+ */
+@Component
+public class CatalogWarmup {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogWarmup.class);
+
+    private final CatalogSnapshots catalogSnapshots;
+    private final List<CatalogIndex> indexes;
+
+    public CatalogWarmup(CatalogSnapshots catalogSnapshots, List<CatalogIndex> indexes) {
+        this.catalogSnapshots = catalogSnapshots;
+        this.indexes = indexes;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmup() {
+        long start = System.currentTimeMillis();
+        AtomicLong songs = new AtomicLong();
+        AtomicLong beats = new AtomicLong();
+
+        catalogSnapshots.load(song -> {
+            indexes.forEach(index -> index.indexSong(song));
+            songs.incrementAndGet();
+        }, beat -> {
+            indexes.forEach(index -> index.indexBeat(beat));
+            beats.incrementAndGet();
+        });
+        indexes.forEach(CatalogIndex::warmupCompleted);
+
+        log.info("Catalog indexes warmed up with {} songs and {} beats in {} ms",
+                songs.get(), beats.get(), System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,35 @@
+package com.MusicHub.api.catalog;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a "popularity desc, id asc" listing: the (popularity, id) of the last row
+ * a client has already received. Sent to clients as an opaque URL-safe token.
+ */
+public record KeysetCursor(int popularity, long id) {
+
+    // Sorts before every real row, so the first page uses the same query as the others
+    public static final KeysetCursor START = new KeysetCursor(Integer.MAX_VALUE, Long.MIN_VALUE);
+
+    public String encode() {
+        String raw = popularity + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new KeysetCursor(Integer.parseInt(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + token);
+        }
+    }
+}
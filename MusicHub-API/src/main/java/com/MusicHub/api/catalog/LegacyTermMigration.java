@@ -0,0 +1,88 @@
+package com.MusicHub.api.catalog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Move of the old text genre/mood columns of songs and beats to the dictionary codes in
+ * genre_code/mood_code. ddl-auto=update adds the new columns but never drops the old ones.
+ * Runs before CatalogWarmup so the indexes are built from the codes.
+ *
+ * While nodes of the previous version may still write the old columns, they are kept and every
+ * start copies the rows that have no code yet. They are dropped only when
+ * musichub.migrations.drop-legacy-columns is set; after that this does nothing.
+ */
+@Component
+public class LegacyTermMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacyTermMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TermDictionaries dictionaries;
+    private final boolean dropColumns;
+
+    public LegacyTermMigration(JdbcTemplate jdbcTemplate, TermDictionaries dictionaries,
+                               @Value("${musichub.migrations.drop-legacy-columns:false}") boolean dropColumns) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dictionaries = dictionaries;
+        this.dropColumns = dropColumns;
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        for (String table : List.of("songs", "beats")) {
+            migrate(table, "genre", dictionaries.genres());
+            migrate(table, "mood", dictionaries.moods());
+        }
+    }
+
+    private void migrate(String table, String column, TermDictionary dictionary) {
+        if (!legacyColumnExists(table, column)) {
+            return;
+        }
+        int rows = 0;
+        List<String> values = jdbcTemplate.queryForList(
+                "SELECT DISTINCT " + column + " FROM " + table + " WHERE " + column + " IS NOT NULL", String.class);
+        for (String value : values) {
+            Short code = dictionary.register(value);
+            if (code != null) {
+                // MySQL matches every spelling that differs only in case, as DISTINCT grouped them
+                rows += jdbcTemplate.update("UPDATE " + table + " SET " + column + "_code = ? WHERE "
+                        + column + " = ? AND " + column + "_code IS NULL", code, value);
+            }
+        }
+        if (!dropColumns) {
+            log.info("Moved {} {}.{} values ({} distinct) to {}_code; the column is kept",
+                    rows, table, column, values.size(), column);
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE " + table + " DROP COLUMN " + column);
+        log.info("Moved {} {}.{} values ({} distinct) to {}_code and dropped the column",
+                rows, table, column, values.size(), column);
+    }
+
+    private boolean legacyColumnExists(String table, String column) {
+        Boolean exists = jdbcTemplate.execute((Connection connection) -> {
+            try (ResultSet columns = connection.getMetaData()
+                    .getColumns(connection.getCatalog(), null, table, column)) {
+                return columns.next();
+            } catch (SQLException e) {
+                return false;
+            }
+        });
+        return Boolean.TRUE.equals(exists);
+    }
+}
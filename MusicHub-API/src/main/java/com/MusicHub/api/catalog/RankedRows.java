@@ -0,0 +1,32 @@
+package com.MusicHub.api.catalog;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Helper for the in-memory engines: they rank ids, the repositories load rows by id,
+ * and findAllById does not keep the ranking order.
+ */
+public final class RankedRows {
+
+    private RankedRows() {
+    }
+
+    public static <T> List<T> inRankOrder(List<Long> rankedIds, Iterable<T> rows, Function<T, Long> idOf) {
+        Map<Long, T> byId = new HashMap<>();
+        for (T row : rows) {
+            byId.put(idOf.apply(row), row);
+        }
+        List<T> ranked = new ArrayList<>(rankedIds.size());
+        for (Long id : rankedIds) {
+            T row = byId.get(id);
+            if (row != null) { // Row may have been deleted since it was ranked
+                ranked.add(row);
+            }
+        }
+        return ranked;
+    }
+}
@@ -0,0 +1,31 @@
+package com.MusicHub.api.catalog;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * The 'genres' and 'moods' dictionary tables. Song and Beat keep their genre and mood as
+ * Strings in Java but store SMALLINT codes from these tables (GenreCodeConverter, MoodCodeConverter).
+ * Read from the primary: a code registered a moment ago may not have reached the replicas yet.
+ */
+@Component
+public class TermDictionaries {
+
+    private final TermDictionary genres;
+    private final TermDictionary moods;
+
+    public TermDictionaries(@Qualifier("primaryDataSource") DataSource dataSource) {
+        this.genres = new TermDictionary(dataSource, "genres");
+        this.moods = new TermDictionary(dataSource, "moods");
+    }
+
+    public TermDictionary genres() {
+        return genres;
+    }
+
+    public TermDictionary moods() {
+        return moods;
+    }
+}
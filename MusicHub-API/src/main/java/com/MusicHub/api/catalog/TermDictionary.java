@@ -0,0 +1,150 @@
+package com.MusicHub.api.catalog;
+
+import org.springframework.jdbc.UncategorizedSQLException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of one dictionary table (genres or moods): name to SMALLINT code and back.
+ *
+ * Names are matched ignoring case and surrounding blanks, the way MySQL compared the old
+ * text columns, and a code always maps back to the first spelling registered for it, so all
+ * rows with the same genre share one String. New names are inserted on a separate autocommit
+ * connection: once handed out, a code must stay in the table even if the write that needed
+ * it is rolled back.
+ */
+public final class TermDictionary {
+
+    public static final short UNKNOWN = -1; // Code of a name that was never registered, matches no row
+
+    private final DataSource dataSource;
+    private final String table;
+    private final Map<String, Short> codes = new ConcurrentHashMap<>();
+    private volatile String[] names; // Indexed by code, null until first use
+
+    TermDictionary(DataSource dataSource, String table) {
+        this.dataSource = dataSource;
+        this.table = table;
+    }
+
+    /**
+     * Code of a registered name, UNKNOWN when it is not in the table, null for a null or blank name.
+     */
+    public Short code(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        loaded();
+        return codes.getOrDefault(key(name), UNKNOWN);
+    }
+
+    /**
+     * Name registered under the code; null stays null.
+     */
+    public String name(Short code) {
+        if (code == null) {
+            return null;
+        }
+        String name = lookup(loaded(), code);
+        if (name == null) {
+            name = lookup(reload(), code); // Registered by another instance since we last read the table
+        }
+        if (name == null) {
+            throw new IllegalStateException("Unknown code " + code + " in " + table);
+        }
+        return name;
+    }
+
+    /**
+     * Returns the code of the name, adding it to the table first if needed. Null for a null or blank name.
+     */
+    public Short register(String name) {
+        Short code = code(name);
+        if (code == null || code != UNKNOWN) {
+            return code;
+        }
+        synchronized (this) {
+            code = codes.get(key(name));
+            if (code != null) {
+                return code;
+            }
+            String sql = "INSERT INTO " + table + " (name) VALUES (?)";
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (PreparedStatement insert = connection.prepareStatement(sql)) {
+                    insert.setString(1, name.trim());
+                    insert.executeUpdate();
+                } catch (SQLIntegrityConstraintViolationException e) {
+                    // Another instance inserted it first; MySQL's unique index ignores case as well
+                }
+                read(connection);
+            } catch (SQLException e) {
+                throw new UncategorizedSQLException("Registering '" + name + "' in " + table, sql, e);
+            }
+        }
+        code = codes.get(key(name));
+        if (code == null) {
+            throw new IllegalStateException("'" + name + "' missing from " + table + " after insert");
+        }
+        return code;
+    }
+
+    /**
+     * Number of codes the table can currently hand out (highest code + 1), for sizing per-code arrays.
+     */
+    public int capacity() {
+        return loaded().length;
+    }
+
+    private String[] loaded() {
+        String[] current = names;
+        return current != null ? current : reload();
+    }
+
+    private synchronized String[] reload() {
+        try (Connection connection = dataSource.getConnection()) {
+            return read(connection);
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("Loading " + table, "SELECT code, name FROM " + table, e);
+        }
+    }
+
+    private String[] read(Connection connection) throws SQLException {
+        String[] read = new String[0];
+        try (PreparedStatement select = connection.prepareStatement("SELECT code, name FROM " + table + " ORDER BY code");
+             ResultSet rows = select.executeQuery()) {
+            while (rows.next()) {
+                short code = rows.getShort(1);
+                String name = rows.getString(2);
+                if (code >= read.length) {
+                    read = Arrays.copyOf(read, Math.max(code + 1, read.length * 2));
+                }
+                read[code] = name;
+                codes.putIfAbsent(key(name), code); // Lowest code wins if two spellings slipped in
+            }
+        }
+        int length = read.length;
+        while (length > 0 && read[length - 1] == null) {
+            length--;
+        }
+        names = Arrays.copyOf(read, length);
+        return names;
+    }
+
+    private static String lookup(String[] names, short code) {
+        return code >= 0 && code < names.length ? names[code] : null;
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,30 @@
+package com.MusicHub.api.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Responses for endpoints that hand a like/play to the write-behind ActivityPipeline.
+ */
+final class ActivityResponses {
+
+    private ActivityResponses() {
+    }
+
+    // 202: queued, stored in MySQL shortly after. 503 when the pipeline is saturated.
+    static ResponseEntity<Void> accepted(boolean queued) {
+        if (!queued) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Activity queue is full, retry later");
+        }
+        return ResponseEntity.accepted().build();
+    }
+
+    static void requireIds(Long... ids) {
+        for (Long id : ids) {
+            if (id == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "userId and songId are required");
+            }
+        }
+    }
+}
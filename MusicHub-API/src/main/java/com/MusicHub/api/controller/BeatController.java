@@ -0,0 +1,67 @@
+package com.MusicHub.api.controller;
+
+import com.MusicHub.api.catalog.CatalogQueryService;
+import com.MusicHub.api.catalog.CatalogVersion;
+import com.MusicHub.api.dto.CatalogPage;
+import com.MusicHub.api.model.Beat;
+import com.MusicHub.api.preview.PreviewStreams;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * REST endpoints for beats uploaded by Creators (/api/beats).
+ */
+@RestController
+@RequestMapping("/api/beats")
+public class BeatController {
+
+    private final CatalogQueryService catalogQueryService;
+    private final CatalogVersion catalogVersion;
+    private final ObjectMapper objectMapper;
+    private final PreviewStreams previewStreams;
+
+    public BeatController(CatalogQueryService catalogQueryService, CatalogVersion catalogVersion,
+                          ObjectMapper objectMapper, PreviewStreams previewStreams) {
+        this.catalogQueryService = catalogQueryService;
+        this.catalogVersion = catalogVersion;
+        this.objectMapper = objectMapper;
+        this.previewStreams = previewStreams;
+    }
+
+    // GET /api/beats?moods=Relax&genres=LoFi&cursor=...&size=50 - keyset-paginated browse by mood/genre
+    @GetMapping
+    public CatalogPage<Beat> browse(@RequestParam(defaultValue = "") List<String> moods,
+                                    @RequestParam(defaultValue = "") List<String> genres,
+                                    @RequestParam(required = false) String cursor,
+                                    @RequestParam(defaultValue = "50") int size,
+                                    WebRequest request) {
+        if (ConditionalGets.notModified(request, catalogVersion.lastModified(), catalogVersion.etag())) {
+            return null;
+        }
+        return catalogQueryService.pageBeats(moods, genres, cursor, size);
+    }
+
+    // GET /api/beats/stream?moods=Relax&genres=LoFi - every match as NDJSON
+    @GetMapping(value = "/stream", produces = NdjsonStreams.MEDIA_TYPE)
+    public StreamingResponseBody stream(@RequestParam(defaultValue = "") List<String> moods,
+                                        @RequestParam(defaultValue = "") List<String> genres) {
+        return NdjsonStreams.<Beat>of(objectMapper, rows -> catalogQueryService.streamBeats(moods, genres, rows));
+    }
+
+    // GET /api/beats/{id}/preview - the beat's preview audio (Range requests supported), or a redirect if hosted elsewhere
+    @GetMapping("/{id}/preview")
+    public void preview(@PathVariable long id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        previewStreams.serve(id, request, response);
+    }
+}
@@ -0,0 +1,163 @@
+package com.MusicHub.api.controller;
+
+import com.MusicHub.api.dto.SongSummary;
+import com.MusicHub.api.dto.TrendingSong;
+import com.MusicHub.api.model.Beat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Compact binary encoding of song and beat lists ("application/x-musichub-rows"), offered
+ * next to JSON through content negotiation. MusicHub-UI reads it with CompactRowsReader.
+ *
+ * Rows follow each other so both ends can stream: the header names the columns once, then
+ * each row is a marker byte and its values, without field names. Strings go through a table
+ * both ends build the same way: a string is sent as a literal the first time and as a table
+ * reference afterwards, so a repeated artist, genre or mood costs one or two bytes.
+ *
+ * Layout: "MHR" 1, varint column count, (name, type) per column, (1, values) per row, 0,
+ * varint attribute count, (name, value) per attribute.
+ * String: varint 0 = null, 1 = literal (varint length, UTF-8) entered in the table, n = table[n - 2].
+ * Integer: varint 0 = null, otherwise zig-zag(value) + 1 (so Long.MIN_VALUE, never a real id,
+ * popularity or score, would read as null).
+ */
+final class CompactRows {
+
+    static final String MEDIA_TYPE = "application/x-musichub-rows";
+
+    private static final byte[] MAGIC = {'M', 'H', 'R', 1};
+    private static final int MAX_TABLE_SIZE = 4096; // Later strings are always sent as literals
+    private static final byte STRING = 's';
+    private static final byte INTEGER = 'i';
+
+    record Column<T>(String name, byte type, Function<T, Object> value) {
+    }
+
+    // Column names match the JSON property names
+    static final List<Column<SongSummary>> SONG_COLUMNS = List.of(
+            integer("id", SongSummary::id),
+            string("songId", SongSummary::songId),
+            string("title", SongSummary::title),
+            string("artist", SongSummary::artist),
+            string("genre", SongSummary::genre),
+            string("mood", SongSummary::mood),
+            string("link", SongSummary::link),
+            integer("popularity", SongSummary::popularity));
+
+    static final List<Column<Beat>> BEAT_COLUMNS = List.of(
+            integer("id", Beat::getId),
+            string("name", Beat::getName),
+            integer("creatorId", Beat::getCreatorId),
+            string("genre", Beat::getGenre),
+            string("mood", Beat::getMood),
+            string("link", Beat::getLink),
+            integer("popularity", Beat::getPopularity));
+
+    // The song's columns flattened into the row, plus its score
+    static final List<Column<TrendingSong>> TRENDING_COLUMNS = trendingColumns();
+
+    private CompactRows() {
+    }
+
+    static <T> void write(OutputStream out, List<Column<T>> columns, Iterable<T> rows,
+                          Map<String, String> attributes) throws IOException {
+        Encoder encoder = new Encoder(out);
+        out.write(MAGIC);
+        encoder.varint(columns.size());
+        for (Column<T> column : columns) {
+            encoder.literal(column.name);
+            out.write(column.type);
+        }
+        for (T row : rows) {
+            out.write(1);
+            for (Column<T> column : columns) {
+                Object value = column.value.apply(row);
+                if (column.type == STRING) {
+                    encoder.string((String) value);
+                } else {
+                    encoder.integer((Number) value);
+                }
+            }
+        }
+        out.write(0);
+        encoder.varint(attributes.size());
+        for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+            encoder.literal(attribute.getKey());
+            encoder.string(attribute.getValue());
+        }
+    }
+
+    private static <T> Column<T> string(String name, Function<T, String> value) {
+        return new Column<>(name, STRING, value::apply);
+    }
+
+    private static <T> Column<T> integer(String name, Function<T, Number> value) {
+        return new Column<>(name, INTEGER, value::apply);
+    }
+
+    private static List<Column<TrendingSong>> trendingColumns() {
+        List<Column<TrendingSong>> columns = new ArrayList<>();
+        for (Column<SongSummary> column : SONG_COLUMNS) {
+            columns.add(new Column<>(column.name, column.type, trending -> column.value.apply(trending.song())));
+        }
+        columns.add(integer("score", TrendingSong::score));
+        return List.copyOf(columns);
+    }
+
+    private static final class Encoder {
+
+        private final OutputStream out;
+        private final Map<String, Integer> table = new HashMap<>();
+
+        Encoder(OutputStream out) {
+            this.out = out;
+        }
+
+        void string(String value) throws IOException {
+            if (value == null) {
+                varint(0);
+                return;
+            }
+            Integer index = table.get(value);
+            if (index != null) {
+                varint(index + 2);
+                return;
+            }
+            varint(1);
+            literal(value);
+            if (table.size() < MAX_TABLE_SIZE) {
+                table.put(value, table.size());
+            }
+        }
+
+        void integer(Number value) throws IOException {
+            if (value == null) {
+                varint(0);
+            } else {
+                long v = value.longValue();
+                varint(((v << 1) ^ (v >> 63)) + 1);
+            }
+        }
+
+        void literal(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length);
+            out.write(bytes);
+        }
+
+        void varint(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.MusicHub.api.controller;
+
+import com.MusicHub.api.dto.CatalogPage;
+import com.MusicHub.api.dto.SongSummary;
+import com.MusicHub.api.dto.TrendingSong;
+import com.MusicHub.api.model.Beat;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes song, beat and trending lists (plain or as a CatalogPage) as CompactRows when the
+ * client asks for them in Accept. Write-only; everything else stays with Jackson.
+ */
+public class CompactRowsHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(CompactRows.MEDIA_TYPE);
+
+    private static final Map<Class<?>, List<? extends CompactRows.Column<?>>> COLUMNS = Map.of(
+            SongSummary.class, CompactRows.SONG_COLUMNS,
+            Beat.class, CompactRows.BEAT_COLUMNS,
+            TrendingSong.class, CompactRows.TRENDING_COLUMNS);
+
+    public CompactRowsHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz) || CatalogPage.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return columns(type != null ? ResolvableType.forType(type) : ResolvableType.forClass(clazz)) != null
+                && canWrite(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Compact rows are not accepted as input", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Compact rows are not accepted as input", inputMessage);
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        List<CompactRows.Column<Object>> columns = (List) columns(type != null
+                ? ResolvableType.forType(type) : ResolvableType.forClass(value.getClass()));
+        List<Object> rows;
+        Map<String, String> attributes = new HashMap<>();
+        if (value instanceof CatalogPage<?> page) {
+            rows = (List<Object>) page.items();
+            attributes.put("nextCursor", page.nextCursor());
+        } else {
+            rows = (List<Object>) value;
+        }
+        OutputStream out = new BufferedOutputStream(outputMessage.getBody(), 8192);
+        CompactRows.write(out, columns, rows, attributes);
+        out.flush();
+    }
+
+    // Columns for the element type of a List or CatalogPage, or null when it has none
+    private static List<? extends CompactRows.Column<?>> columns(ResolvableType type) {
+        Class<?> raw = type.resolve();
+        ResolvableType element;
+        if (raw != null && List.class.isAssignableFrom(raw)) {
+            element = type.asCollection().getGeneric(0);
+        } else if (raw == CatalogPage.class) {
+            element = type.getGeneric(0);
+        } else {
+            return null;
+        }
+        Class<?> elementClass = element.resolve();
+        return elementClass == null ? null : COLUMNS.get(elementClass);
+    }
+}
@@ -0,0 +1,22 @@
+package com.MusicHub.api.controller;
+
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Conditional GETs for endpoints whose answer only changes with a version counter
+ * (CatalogVersion, the collaborative model, the similar songs graph, trending rankings).
+ *
+ * The weak ETag joins the versions the answer depends on. Versions must be read before the
+ * data, so a response is never labelled newer than what it contains.
+ */
+final class ConditionalGets {
+
+    private ConditionalGets() {
+    }
+
+    // true: a 304 has been prepared and the handler must return null without doing the work.
+    // Otherwise the ETag and Last-Modified headers are set on the 200 response.
+    static boolean notModified(WebRequest request, long lastModified, String... versions) {
+        return request.checkNotModified("W/\"" + String.join("-", versions) + "\"", lastModified);
+    }
+}
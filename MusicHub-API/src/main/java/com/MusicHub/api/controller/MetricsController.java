@@ -0,0 +1,28 @@
+package com.MusicHub.api.controller;
+
+import com.MusicHub.api.dto.MetricsSummary;
+import com.MusicHub.api.metrics.MetricsSummaryService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Runtime metrics for the desktop dashboard (/api/metrics). The raw meters stay under /actuator/metrics.
+ */
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+
+    private final MetricsSummaryService metricsSummaryService;
+
+    public MetricsController(MetricsSummaryService metricsSummaryService) {
+        this.metricsSummaryService = metricsSummaryService;
+    }
+
+    // GET /api/metrics/summary?limit=15 - p50/p99 per endpoint, repository method and external API, cache hit ratios
+    @GetMapping("/summary")
+    public MetricsSummary summary(@RequestParam(defaultValue = "15") int limit) {
+        return metricsSummaryService.summary(Math.max(1, limit));
+    }
+}
@@ -0,0 +1,46 @@
+package com.MusicHub.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes rows as newline-delimited JSON (one object per line) while they are produced,
+ * instead of collecting them into a List and serializing it at the end.
+ */
+final class NdjsonStreams {
+
+    static final String MEDIA_TYPE = "application/x-ndjson";
+
+    // Flush often enough for a quick first byte without one network write per row
+    private static final int FLUSH_EVERY = 64;
+
+    private NdjsonStreams() {
+    }
+
+    static <T> StreamingResponseBody of(ObjectMapper objectMapper, Consumer<Consumer<T>> producer) {
+        return out -> {
+            int[] written = {0};
+            producer.accept(row -> {
+                try {
+                    writeLine(objectMapper, out, row);
+                    if (++written[0] % FLUSH_EVERY == 1) {
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e); // Client went away; aborts the database stream too
+                }
+            });
+            out.flush();
+        };
+    }
+
+    private static void writeLine(ObjectMapper objectMapper, OutputStream out, Object row) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(row));
+        out.write('\n');
+    }
+}
@@ -0,0 +1,158 @@
+package com.MusicHub.api.controller;
+
+import com.MusicHub.api.catalog.CatalogVersion;
+import com.MusicHub.api.dto.SongSummary;
+import com.MusicHub.api.dto.TrendingSearch;
+import com.MusicHub.api.dto.TrendingSong;
+import com.MusicHub.api.filter.AttributeBitmapIndex;
+import com.MusicHub.api.model.Beat;
+import com.MusicHub.api.recommendation.CollaborativeFilter;
+import com.MusicHub.api.recommendation.RecommendationEngine;
+import com.MusicHub.api.recommendation.SimilarSongs;
+import com.MusicHub.api.recommendation.UserFeeds;
+import com.MusicHub.api.trending.TrendingService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+/**
+ * REST endpoints for the Recommendation Engine (/api/recommendations).
+ */
+@RestController
+@RequestMapping("/api/recommendations")
+public class RecommendationController {
+
+    private final RecommendationEngine recommendationEngine;
+    private final TrendingService trendingService;
+    private final CollaborativeFilter collaborativeFilter;
+    private final CatalogVersion catalogVersion;
+    private final AttributeBitmapIndex attributeBitmapIndex;
+    private final SimilarSongs similarSongs;
+    private final UserFeeds userFeeds;
+
+    public RecommendationController(RecommendationEngine recommendationEngine, TrendingService trendingService,
+                                    CollaborativeFilter collaborativeFilter, CatalogVersion catalogVersion,
+                                    AttributeBitmapIndex attributeBitmapIndex, SimilarSongs similarSongs,
+                                    UserFeeds userFeeds) {
+        this.recommendationEngine = recommendationEngine;
+        this.trendingService = trendingService;
+        this.collaborativeFilter = collaborativeFilter;
+        this.catalogVersion = catalogVersion;
+        this.attributeBitmapIndex = attributeBitmapIndex;
+        this.similarSongs = similarSongs;
+        this.userFeeds = userFeeds;
+    }
+
+    // GET /api/recommendations/songs?moods=Chill,Sad&genres=Pop&limit=50
+    @GetMapping("/songs")
+    public List<SongSummary> songs(@RequestParam(defaultValue = "") List<String> moods,
+                                   @RequestParam(defaultValue = "") List<String> genres,
+                                   @RequestParam(defaultValue = "50") int limit,
+                                   WebRequest request) {
+        if (ConditionalGets.notModified(request, catalogVersion.lastModified(), catalogVersion.etag())) {
+            return null;
+        }
+        return recommendationEngine.recommendSongs(moods, genres, limit);
+    }
+
+    // GET /api/recommendations/songs/filter?expr=Chill OR Sad AND Pop&limit=50 - boolean mood/genre filter
+    @GetMapping("/songs/filter")
+    public List<SongSummary> filterSongs(@RequestParam String expr,
+                                         @RequestParam(defaultValue = "50") int limit,
+                                         WebRequest request) {
+        if (ConditionalGets.notModified(request, catalogVersion.lastModified(), catalogVersion.etag())) {
+            return null;
+        }
+        return attributeBitmapIndex.filterSongs(expr, limit);
+    }
+
+    // GET /api/recommendations/similar/{songId}?limit=20 - nearest songs by genre, mood, artist and popularity
+    @GetMapping("/similar/{songId}")
+    public List<SongSummary> similar(@PathVariable long songId,
+                                     @RequestParam(defaultValue = "20") int limit,
+                                     WebRequest request) {
+        long lastModified = Math.max(catalogVersion.lastModified(), similarSongs.updatedAt());
+        if (ConditionalGets.notModified(request, lastModified, catalogVersion.etag(), "s" + similarSongs.version())) {
+            return null;
+        }
+        return similarSongs.similar(songId, limit);
+    }
+
+    // GET /api/recommendations/user/{userId}?limit=50 - personalized: collaborative filtering blended with mood/genre,
+    // served from the user's precomputed feed (computed per request only for limits beyond the feed size)
+    @GetMapping("/user/{userId}")
+    public List<SongSummary> forUser(@PathVariable long userId,
+                                     @RequestParam(defaultValue = "50") int limit,
+                                     WebRequest request) {
+        if (limit > userFeeds.size()) {
+            long lastModified = Math.max(catalogVersion.lastModified(), collaborativeFilter.updatedAt());
+            if (ConditionalGets.notModified(request, lastModified, catalogVersion.etag(), "cf" + collaborativeFilter.version())) {
+                return null;
+            }
+            return recommendationEngine.recommendForUser(userId, limit);
+        }
+        UserFeeds.Feed feed = userFeeds.feed(userId);
+        long lastModified = Math.max(catalogVersion.lastModified(), feed.builtAt());
+        if (ConditionalGets.notModified(request, lastModified, catalogVersion.etag(), "feed" + feed.builtAt())) {
+            return null;
+        }
+        return userFeeds.songs(feed, limit);
+    }
+
+    // GET /api/recommendations/beats?moods=Relax&genres=LoFi&limit=50 - Creator discovery
+    @GetMapping("/beats")
+    public List<Beat> beats(@RequestParam(defaultValue = "") List<String> moods,
+                            @RequestParam(defaultValue = "") List<String> genres,
+                            @RequestParam(defaultValue = "50") int limit,
+                            WebRequest request) {
+        if (ConditionalGets.notModified(request, catalogVersion.lastModified(), catalogVersion.etag())) {
+            return null;
+        }
+        return recommendationEngine.recommendBeats(moods, genres, limit);
+    }
+
+    // GET /api/recommendations/beats/filter?expr=(Relax OR Chill) AND NOT Rock&limit=50
+    @GetMapping("/beats/filter")
+    public List<Beat> filterBeats(@RequestParam String expr,
+                                  @RequestParam(defaultValue = "50") int limit,
+                                  WebRequest request) {
+        if (ConditionalGets.notModified(request, catalogVersion.lastModified(), catalogVersion.etag())) {
+            return null;
+        }
+        return attributeBitmapIndex.filterBeats(expr, limit);
+    }
+
+    // GET /api/recommendations/trending?window=24h&limit=20 - most played/liked songs, answered from memory
+    @GetMapping("/trending")
+    public List<TrendingSong> trending(@RequestParam(defaultValue = "24h") String window,
+                                       @RequestParam(defaultValue = "20") int limit,
+                                       WebRequest request) {
+        if (trendingNotModified(request)) {
+            return null;
+        }
+        return trendingService.trendingSongs(window, limit);
+    }
+
+    // GET /api/recommendations/trending/searches?window=1h&limit=20 - most frequent search queries
+    @GetMapping("/trending/searches")
+    public List<TrendingSearch> trendingSearches(@RequestParam(defaultValue = "24h") String window,
+                                                 @RequestParam(defaultValue = "20") int limit,
+                                                 WebRequest request) {
+        if (trendingNotModified(request)) {
+            return null;
+        }
+        return trendingService.trendingSearches(window, limit);
+    }
+
+    // Rankings are recomputed in the background; their version only moves when one of them changed.
+    // The catalog part keeps versions of different runs apart.
+    private boolean trendingNotModified(WebRequest request) {
+        long lastModified = Math.max(catalogVersion.lastModified(), trendingService.updatedAt());
+        return ConditionalGets.notModified(request, lastModified, catalogVersion.etag(), "t" + trendingService.version());
+    }
+}
@@ -0,0 +1,134 @@
+package com.MusicHub.api.controller;
+
+import com.MusicHub.api.activity.ActivityEvent;
+import com.MusicHub.api.activity.ActivityPipeline;
+import com.MusicHub.api.cache.SongLookupService;
+import com.MusicHub.api.catalog.CatalogQueryService;
+import com.MusicHub.api.catalog.CatalogVersion;
+import com.MusicHub.api.details.SongDetailsService;
+import com.MusicHub.api.dto.CatalogPage;
+import com.MusicHub.api.dto.LyricsResponse;
+import com.MusicHub.api.dto.SongDetails;
+import com.MusicHub.api.dto.SongSummary;
+import com.MusicHub.api.dto.Suggestion;
+import com.MusicHub.api.model.Song;
+import com.MusicHub.api.search.AutocompleteService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+/**
+ * REST endpoints for songs (/api/songs).
+ */
+@RestController
+@RequestMapping("/api/songs")
+public class SongController {
+
+    private final SongLookupService songLookupService;
+    private final CatalogQueryService catalogQueryService;
+    private final SongDetailsService songDetailsService;
+    private final ActivityPipeline activityPipeline;
+    private final CatalogVersion catalogVersion;
+    private final AutocompleteService autocompleteService;
+    private final ObjectMapper objectMapper;
+
+    public SongController(SongLookupService songLookupService, CatalogQueryService catalogQueryService,
+                          SongDetailsService songDetailsService, ActivityPipeline activityPipeline,
+                          CatalogVersion catalogVersion, AutocompleteService autocompleteService,
+                          ObjectMapper objectMapper) {
+        this.songLookupService = songLookupService;
+        this.catalogQueryService = catalogQueryService;
+        this.songDetailsService = songDetailsService;
+        this.activityPipeline = activityPipeline;
+        this.catalogVersion = catalogVersion;
+        this.autocompleteService = autocompleteService;
+        this.objectMapper = objectMapper;
+    }
+
+    // GET /api/songs/autocomplete?q=mid&limit=10 - type-ahead over titles, artists and beat names, by popularity
+    @GetMapping("/autocomplete")
+    public List<Suggestion> autocomplete(@RequestParam("q") String prefix,
+                                         @RequestParam(defaultValue = "10") int limit,
+                                         WebRequest request) {
+        long lastModified = Math.max(catalogVersion.lastModified(), autocompleteService.updatedAt());
+        if (ConditionalGets.notModified(request, lastModified, catalogVersion.etag(), "a" + autocompleteService.version())) {
+            return null;
+        }
+        return autocompleteService.complete(prefix, limit);
+    }
+
+    // GET /api/songs/search?q=...&limit=20&userId=1 - ranked search by title or artist (iTunes on a local miss)
+    @GetMapping("/search")
+    public List<SongSummary> search(@RequestParam("q") String query,
+                                    @RequestParam(defaultValue = "20") int limit,
+                                    @RequestParam(required = false) Long userId,
+                                    WebRequest request) {
+        if (userId != null) {
+            activityPipeline.submit(ActivityEvent.search(userId, query)); // Best effort, dropped when saturated
+        }
+        // An iTunes fallback persists what it finds, which bumps the version for the next request
+        if (ConditionalGets.notModified(request, catalogVersion.lastModified(), catalogVersion.etag())) {
+            return null;
+        }
+        return songLookupService.search(query, limit);
+    }
+
+    // POST /api/songs/{id}/like?userId=1 - 202, the like is stored asynchronously
+    @PostMapping("/{id}/like")
+    public ResponseEntity<Void> like(@PathVariable Long id, @RequestParam Long userId) {
+        return ActivityResponses.accepted(activityPipeline.submit(ActivityEvent.like(userId, id)));
+    }
+
+    // POST /api/songs/{id}/play?userId=1 - records a play in the listening history (asynchronously)
+    @PostMapping("/{id}/play")
+    public ResponseEntity<Void> play(@PathVariable Long id, @RequestParam Long userId) {
+        return ActivityResponses.accepted(activityPipeline.submit(ActivityEvent.play(userId, id)));
+    }
+
+    // GET /api/songs/external/{songId} - song by iTunes trackId, fetched and cached on first access
+    @GetMapping("/external/{songId}")
+    public ResponseEntity<Song> byExternalId(@PathVariable String songId) {
+        return ResponseEntity.of(songLookupService.findBySongId(songId));
+    }
+
+    // GET /api/songs/{id}/lyrics - the only path that reads lyrics (fetched from the lyrics API on first access)
+    @GetMapping("/{id}/lyrics")
+    public ResponseEntity<LyricsResponse> lyrics(@PathVariable Long id) {
+        return ResponseEntity.of(songLookupService.getLyrics(id).map(lyrics -> new LyricsResponse(id, lyrics)));
+    }
+
+    // GET /api/songs/{id}/details - song + iTunes metadata + lyrics, fetched in parallel under one deadline
+    @GetMapping("/{id}/details")
+    public SongDetails details(@PathVariable Long id) {
+        return songDetailsService.details(id);
+    }
+
+    // GET /api/songs?moods=Chill&genres=Pop&cursor=...&size=50 - keyset-paginated browse by mood/genre
+    @GetMapping
+    public CatalogPage<SongSummary> browse(@RequestParam(defaultValue = "") List<String> moods,
+                                           @RequestParam(defaultValue = "") List<String> genres,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "50") int size,
+                                           WebRequest request) {
+        if (ConditionalGets.notModified(request, catalogVersion.lastModified(), catalogVersion.etag())) {
+            return null;
+        }
+        return catalogQueryService.pageSongs(moods, genres, cursor, size);
+    }
+
+    // GET /api/songs/stream?moods=Chill&genres=Pop - every match as NDJSON, written while MySQL streams it
+    @GetMapping(value = "/stream", produces = NdjsonStreams.MEDIA_TYPE)
+    public StreamingResponseBody stream(@RequestParam(defaultValue = "") List<String> moods,
+                                        @RequestParam(defaultValue = "") List<String> genres) {
+        return NdjsonStreams.<SongSummary>of(objectMapper, rows -> catalogQueryService.streamSongs(moods, genres, rows));
+    }
+}
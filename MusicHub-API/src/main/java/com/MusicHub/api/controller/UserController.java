@@ -0,0 +1,79 @@
+package com.MusicHub.api.controller;
+
+import com.MusicHub.api.activity.ActivityEvent;
+import com.MusicHub.api.activity.ActivityPipeline;
+import com.MusicHub.api.dto.LikeRequest;
+import com.MusicHub.api.dto.UserProfile;
+import com.MusicHub.api.dto.UserRequest;
+import com.MusicHub.api.user.UserDirectory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+
+/**
+ * REST endpoints for user actions (/api/users).
+ */
+@RestController
+@RequestMapping("/api/users")
+public class UserController {
+
+    private final ActivityPipeline activityPipeline;
+    private final UserDirectory userDirectory;
+
+    public UserController(ActivityPipeline activityPipeline, UserDirectory userDirectory) {
+        this.activityPipeline = activityPipeline;
+        this.userDirectory = userDirectory;
+    }
+
+    // POST /api/users/like {"userId": 1, "songId": 42} - 202, the like is stored asynchronously
+    @PostMapping("/like")
+    public ResponseEntity<Void> like(@RequestBody LikeRequest request) {
+        ActivityResponses.requireIds(request.userId(), request.songId());
+        return ActivityResponses.accepted(activityPipeline.submit(ActivityEvent.like(request.userId(), request.songId())));
+    }
+
+    // POST /api/users/register {"name": ..., "email": ..., "role": "LISTENER"} - 201, or 409 if the email is taken
+    @PostMapping("/register")
+    public ResponseEntity<UserProfile> register(@RequestBody UserRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(userDirectory.register(request));
+    }
+
+    // GET /api/users/email-available?email=... - {"available": true}, usually answered without a query
+    @GetMapping("/email-available")
+    public Map<String, Boolean> emailAvailable(@RequestParam String email) {
+        return Map.of("available", !userDirectory.isEmailTaken(email));
+    }
+
+    // POST /api/users/login {"email": ...} - the user's profile, 404 for an unknown email
+    @PostMapping("/login")
+    public UserProfile login(@RequestBody UserRequest request) {
+        if (request.email() == null || request.email().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "email is required");
+        }
+        return userDirectory.findByEmail(request.email())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No user with this email"));
+    }
+
+    // GET /api/users/{id}
+    @GetMapping("/{id}")
+    public UserProfile get(@PathVariable long id) {
+        return userDirectory.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User " + id + " not found"));
+    }
+
+    // PUT /api/users/{id} {"name": ..., "email": ..., "preferences": ...} - only the given fields change
+    @PutMapping("/{id}")
+    public UserProfile update(@PathVariable long id, @RequestBody UserRequest request) {
+        return userDirectory.update(id, request);
+    }
+}
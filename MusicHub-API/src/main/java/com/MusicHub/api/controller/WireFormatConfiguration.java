@@ -0,0 +1,38 @@
+package com.MusicHub.api.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Response representations: JSON by default, CompactRows for clients that ask for them.
+ * Compression (gzip) is Tomcat's, see server.compression.* in application.properties.
+ */
+@Configuration
+public class WireFormatConfiguration implements WebMvcConfigurer {
+
+    // Added after Jackson, so "Accept: */*" still gets JSON: only an explicit (or higher q) Accept picks compact rows
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new CompactRowsHttpMessageConverter());
+    }
+
+    // The same URL answers in several representations, so shared caches must key on Accept
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                return true;
+            }
+        }).addPathPatterns("/api/**");
+    }
+}
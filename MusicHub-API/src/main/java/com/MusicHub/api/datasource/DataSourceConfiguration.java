@@ -0,0 +1,49 @@
+package com.MusicHub.api.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Read/write splitting. The pool Spring Boot would build from spring.datasource.* becomes
+ * "primaryDataSource"; JPA, JdbcTemplate and everything else get "dataSource", which routes
+ * read-only transactions to the replicas in musichub.datasource.replica-urls (ReadReplicas).
+ * Without replicas every connection comes from the primary, as before.
+ *
+ * Routing is decided per connection, so a connection must not outlive its transaction: an
+ * EntityManager that spans several transactions (open-in-view, or any bound EntityManagerHolder)
+ * would otherwise send the writes after a read-only call to the replica it got first.
+ */
+@Configuration
+public class DataSourceConfiguration {
+
+    // Every write goes here, and every read no replica can take. Inject it by name for reads that must see the latest writes.
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary, ReadReplicas replicas) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replicas));
+    }
+
+    // Spring's default for JPA is DELAYED_ACQUISITION_AND_HOLD, which keeps the first connection for the whole session
+    @Bean
+    public HibernatePropertiesCustomizer connectionPerTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
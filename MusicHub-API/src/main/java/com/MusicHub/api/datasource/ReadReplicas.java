@@ -0,0 +1,191 @@
+package com.MusicHub.api.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connection pools for the read replicas of the primary, and how far behind each one is.
+ *
+ * Lag is measured with a heartbeat row: every check writes the current time to
+ * replication_heartbeat on the primary and reads it back from each replica, so a replica's lag
+ * is the age of the newest heartbeat it has applied (at best one check interval). A replica that
+ * is more than max-lag behind, has no heartbeat yet or cannot be reached gets no reads until a
+ * later check finds it caught up. Reads are spread round-robin over the replicas that are left.
+ */
+@Component
+public class ReadReplicas {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicas.class);
+
+    // A replica that is down must not hold up a request for long: its reads go to the primary instead
+    private static final Duration CONNECTION_TIMEOUT = Duration.ofSeconds(2);
+    private static final int QUERY_TIMEOUT_SECONDS = 2;
+
+    private static final class Replica {
+        final String name;
+        final HikariDataSource pool;
+        final JdbcTemplate jdbcTemplate;
+        volatile double lagSeconds = Double.NaN; // NaN until a heartbeat was read
+        Boolean usable; // null until the first check
+
+        Replica(String name, HikariDataSource pool) {
+            this.name = name;
+            this.pool = pool;
+            this.jdbcTemplate = new JdbcTemplate(pool);
+            this.jdbcTemplate.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+        }
+    }
+
+    private final JdbcTemplate primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile Replica[] usable = new Replica[0];
+
+    public ReadReplicas(@Qualifier("primaryDataSource") DataSource primaryDataSource, DataSourceProperties properties,
+                        ObjectProvider<MeterRegistry> meterRegistry,
+                        @Value("${musichub.datasource.replica-urls:}") List<String> urls,
+                        @Value("${musichub.datasource.replica-max-lag:5s}") Duration maxLag,
+                        @Value("${musichub.datasource.replica-pool-size:10}") int poolSize) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.maxLagMillis = maxLag.toMillis();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class)
+                    .url(url.trim())
+                    .build();
+            Replica replica = new Replica("replica-" + (replicas.size() + 1), pool);
+            pool.setPoolName(replica.name);
+            pool.setMaximumPoolSize(poolSize);
+            pool.setReadOnly(true);
+            pool.setConnectionTimeout(CONNECTION_TIMEOUT.toMillis());
+            pool.setInitializationFailTimeout(-1); // An unreachable replica must not keep the application from starting
+            meterRegistry.ifAvailable(registry -> {
+                pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+                Gauge.builder("musichub.datasource.replica.lag", replica, r -> r.lagSeconds).baseUnit("seconds")
+                        .tag("replica", replica.name)
+                        .register(registry);
+            });
+            replicas.add(replica);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        primary.execute("CREATE TABLE IF NOT EXISTS replication_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+        check();
+    }
+
+    /**
+     * A replica for the next read-only transaction, or null when none is usable.
+     */
+    DataSource pick() {
+        Replica[] current = usable;
+        if (current.length == 0) {
+            return null;
+        }
+        return current[Math.floorMod(next.getAndIncrement(), current.length)].pool;
+    }
+
+    /**
+     * Takes a replica that refused a connection out of the rotation until the next check.
+     */
+    void failed(DataSource pool, Exception error) {
+        synchronized (this) {
+            List<Replica> remaining = new ArrayList<>();
+            for (Replica replica : usable) {
+                if (replica.pool == pool) {
+                    log.warn("Read replica {} failed, reading from the primary: {}", replica.name, error.toString());
+                    replica.usable = false;
+                } else {
+                    remaining.add(replica);
+                }
+            }
+            usable = remaining.toArray(new Replica[0]);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${musichub.datasource.replica-check-interval:PT1S}")
+    public synchronized void check() {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try {
+            beat(now);
+        } catch (DataAccessException e) { // The replicas fall behind the last heartbeat that was written
+            log.warn("Could not write the replication heartbeat: {}", e.toString());
+        }
+        List<Replica> remaining = new ArrayList<>();
+        for (Replica replica : replicas) {
+            long lagMillis = lagMillis(replica, now);
+            replica.lagSeconds = lagMillis < 0 ? Double.NaN : lagMillis / 1000.0;
+            boolean usableNow = lagMillis >= 0 && lagMillis <= maxLagMillis;
+            if (replica.usable == null || usableNow != replica.usable) {
+                if (usableNow) {
+                    log.info("Read replica {} is {} ms behind, sending reads to it", replica.name, lagMillis);
+                } else {
+                    log.warn("Read replica {} is {}, reading from the primary", replica.name,
+                            lagMillis < 0 ? "unavailable" : lagMillis + " ms behind");
+                }
+                replica.usable = usableNow;
+            }
+            if (usableNow) {
+                remaining.add(replica);
+            }
+        }
+        usable = remaining.toArray(new Replica[0]);
+    }
+
+    private void beat(long now) {
+        if (primary.update("UPDATE replication_heartbeat SET beat_at = ? WHERE id = 1", now) == 0) {
+            try {
+                primary.update("INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, ?)", now);
+            } catch (DuplicateKeyException e) {
+                // Another instance wrote the first heartbeat
+            }
+        }
+    }
+
+    // Age of the newest heartbeat the replica has applied, -1 when it has none or cannot be reached
+    private static long lagMillis(Replica replica, long now) {
+        try {
+            List<Long> beats = replica.jdbcTemplate.queryForList("SELECT beat_at FROM replication_heartbeat WHERE id = 1", Long.class);
+            return beats.isEmpty() ? -1 : Math.max(0, now - beats.get(0));
+        } catch (DataAccessException e) {
+            log.debug("Could not read the replication heartbeat from {}", replica.name, e);
+            return -1;
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+}
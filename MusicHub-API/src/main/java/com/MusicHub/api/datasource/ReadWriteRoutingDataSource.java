@@ -0,0 +1,48 @@
+package com.MusicHub.api.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hands out replica connections to read-only transactions (@Transactional(readOnly = true),
+ * Spring Data's find methods, CatalogQueryService's streams) and primary connections to
+ * everything else, including reads outside a transaction.
+ *
+ * Only works behind a LazyConnectionDataSourceProxy: a transaction asks for its connection
+ * when it begins, before Spring has marked it read-only, and the proxy delays that until the
+ * first statement.
+ */
+final class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final ReadReplicas replicas;
+
+    ReadWriteRoutingDataSource(DataSource primary, ReadReplicas replicas) {
+        this.primary = primary;
+        this.replicas = replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            DataSource replica = replicas.pick();
+            if (replica != null) {
+                try {
+                    return replica.getConnection();
+                } catch (SQLException e) {
+                    replicas.failed(replica, e);
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+}
@@ -0,0 +1,89 @@
+package com.MusicHub.api.details;
+
+import com.MusicHub.api.cache.SongLookupService;
+import com.MusicHub.api.dto.SongDetails;
+import com.MusicHub.api.dto.SongSummary;
+import com.MusicHub.api.dto.TrackDetails;
+import com.MusicHub.api.external.ExternalCalls;
+import com.MusicHub.api.external.ExternalSongSource;
+import com.MusicHub.api.external.ExternalSources;
+import com.MusicHub.api.repository.SongRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Full song details: the stored row plus iTunes metadata and lyrics, fetched in parallel.
+ *
+ * Both external lookups are forked onto virtual threads at once and share one deadline for the
+ * whole request, so the response time is the slower source, not the sum. A source that fails
+ * or misses the deadline is reported in 'unavailable' and the rest is returned. A late lyrics
+ * load is not cancelled: it still completes in the background and fills the LyricsStore.
+ */
+@Service
+public class SongDetailsService {
+
+    private static final Logger log = LoggerFactory.getLogger(SongDetailsService.class);
+
+    private final SongRepository songRepository;
+    private final SongLookupService songLookupService;
+    private final ExternalSongSource externalSongSource;
+    private final ExternalCalls externalCalls;
+    private final Duration deadline;
+
+    public SongDetailsService(SongRepository songRepository, SongLookupService songLookupService,
+                              ExternalSongSource externalSongSource, ExternalCalls externalCalls,
+                              @Value("${musichub.details.deadline:2s}") Duration deadline) {
+        this.songRepository = songRepository;
+        this.songLookupService = songLookupService;
+        this.externalSongSource = externalSongSource;
+        this.externalCalls = externalCalls;
+        this.deadline = deadline;
+    }
+
+    public SongDetails details(Long id) {
+        long until = ExternalCalls.deadlineIn(deadline);
+        SongSummary song = songRepository.findSummariesByIdIn(List.of(id)).stream().findFirst()
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Song " + id + " not found"));
+
+        CompletableFuture<Optional<TrackDetails>> track = song.songId() == null
+                ? CompletableFuture.completedFuture(Optional.empty())
+                : externalCalls.fork(() -> externalCalls.call(ExternalSources.ITUNES, until,
+                        () -> externalSongSource.fetchDetails(song.songId())));
+        CompletableFuture<Optional<String>> lyrics = externalCalls.fork(() -> songLookupService.getLyrics(id));
+
+        List<String> unavailable = new ArrayList<>();
+        TrackDetails trackDetails = await(track, until, ExternalSources.ITUNES, unavailable).flatMap(o -> o).orElse(null);
+        String lyricsText = await(lyrics, until, ExternalSources.LYRICS, unavailable).flatMap(o -> o).orElse(null);
+        track.cancel(true);
+        return new SongDetails(song, trackDetails, lyricsText, unavailable);
+    }
+
+    // Empty (and the source marked unavailable) on failure or when the deadline passes first
+    private static <T> Optional<T> await(CompletableFuture<T> future, long until, String source,
+                                         List<String> unavailable) {
+        try {
+            return Optional.of(future.get(Math.max(0, until - System.nanoTime()), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            log.debug("{} missed the details deadline", source);
+        } catch (ExecutionException e) {
+            log.debug("{} failed for details: {}", source, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        unavailable.add(source);
+        return Optional.empty();
+    }
+}
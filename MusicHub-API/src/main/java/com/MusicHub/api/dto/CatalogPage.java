@@ -0,0 +1,12 @@
+package com.MusicHub.api.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated catalog listing.
+ *
+ * @param items      rows of this page, ordered by popularity (descending) then id
+ * @param nextCursor token to pass as ?cursor= to fetch the next page, or null on the last page
+ */
+public record CatalogPage<T>(List<T> items, String nextCursor) {
+}
@@ -0,0 +1,7 @@
+package com.MusicHub.api.dto;
+
+/**
+ * Body of POST /api/users/like.
+ */
+public record LikeRequest(Long userId, Long songId) {
+}
@@ -0,0 +1,7 @@
+package com.MusicHub.api.dto;
+
+/**
+ * Body of GET /api/songs/{id}/lyrics.
+ */
+public record LyricsResponse(Long id, String lyrics) {
+}
@@ -0,0 +1,23 @@
+package com.MusicHub.api.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * GET /api/metrics/summary: where the time goes, condensed from the Micrometer registry.
+ * Latency rows are sorted by total time spent; percentiles cover roughly the last two minutes.
+ */
+public record MetricsSummary(Instant generatedAt, List<Latency> endpoints, List<Latency> repositories,
+                             List<Latency> externalCalls, List<CacheRatio> caches, Hibernate hibernate) {
+
+    public record Latency(String name, long count, double p50Ms, double p99Ms, double maxMs, double totalMs) {
+    }
+
+    public record CacheRatio(String name, long hits, long misses, double hitRatio, long size) {
+    }
+
+    public record Hibernate(long queries, long rowsFetched, long entityLoads, long entityFetches,
+                            long statements, long secondLevelCacheHits, long secondLevelCacheMisses,
+                            long slowestQueryMs) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.MusicHub.api.dto;
+
+import java.util.List;
+
+/**
+ * GET /api/songs/{id}/details: the stored song plus what the external sources returned in time.
+ * unavailable names the sources that failed or missed the deadline (their part is null).
+ */
+public record SongDetails(SongSummary song, TrackDetails track, String lyrics, List<String> unavailable) {
+}
@@ -0,0 +1,16 @@
+package com.MusicHub.api.dto;
+
+import com.MusicHub.api.model.Song;
+
+/**
+ * Lightweight projection of a Song used by every list endpoint (search, browse, recommendations).
+ * Repositories select these columns directly, so no entity is hydrated for list views.
+ */
+public record SongSummary(Long id, String songId, String title, String artist,
+                          String genre, String mood, String link, int popularity) {
+
+    public static SongSummary of(Song song) {
+        return new SongSummary(song.getId(), song.getSongId(), song.getTitle(), song.getArtist(),
+                song.getGenre(), song.getMood(), song.getLink(), song.getPopularity());
+    }
+}
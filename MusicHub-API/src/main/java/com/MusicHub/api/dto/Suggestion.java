@@ -0,0 +1,12 @@
+package com.MusicHub.api.dto;
+
+/**
+ * A type-ahead completion: a song title, an artist or a beat name.
+ * For artists, popularity is that of their most popular song.
+ */
+public record Suggestion(String text, String type, int popularity) {
+
+    public static final String SONG = "song";
+    public static final String ARTIST = "artist";
+    public static final String BEAT = "beat";
+}
@@ -0,0 +1,8 @@
+package com.MusicHub.api.dto;
+
+/**
+ * Extra metadata for a track that is fetched from iTunes on demand and not stored locally.
+ */
+public record TrackDetails(String album, String artworkUrl, String releaseDate, Long durationMillis,
+                           String previewUrl) {
+}
@@ -0,0 +1,7 @@
+package com.MusicHub.api.dto;
+
+/**
+ * A trending search query with its estimated count in the requested window.
+ */
+public record TrendingSearch(String query, long count) {
+}
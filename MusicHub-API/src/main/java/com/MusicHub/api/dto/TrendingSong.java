@@ -0,0 +1,7 @@
+package com.MusicHub.api.dto;
+
+/**
+ * A trending song with its estimated plays + likes in the requested window.
+ */
+public record TrendingSong(SongSummary song, long score) {
+}
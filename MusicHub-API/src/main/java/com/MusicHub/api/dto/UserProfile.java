@@ -0,0 +1,13 @@
+package com.MusicHub.api.dto;
+
+import com.MusicHub.api.model.User;
+
+/**
+ * Immutable copy of a User, returned by the /api/users endpoints and held by UserDirectory's cache.
+ */
+public record UserProfile(Long id, String name, String email, String role, String preferences) {
+
+    public static UserProfile of(User user) {
+        return new UserProfile(user.getId(), user.getName(), user.getEmail(), user.getRole(), user.getPreferences());
+    }
+}
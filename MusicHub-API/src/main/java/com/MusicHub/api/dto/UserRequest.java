@@ -0,0 +1,8 @@
+package com.MusicHub.api.dto;
+
+/**
+ * Body of POST /api/users/register, POST /api/users/login (email only) and PUT /api/users/{id}
+ * (only the fields that are set change).
+ */
+public record UserRequest(String name, String email, String role, String preferences) {
+}
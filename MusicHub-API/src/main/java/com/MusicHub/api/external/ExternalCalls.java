@@ -0,0 +1,158 @@
+package com.MusicHub.api.external;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs calls to the external APIs on virtual threads, under a deadline.
+ *
+ * Every source (iTunes, lyrics) has a semaphore capping its concurrent calls, so a slow API
+ * cannot pile up unbounded requests. A call still running after the hedge delay gets a second,
+ * identical attempt; whichever answers first wins and the other is cancelled. Only idempotent
+ * GETs go through here, which makes the duplicate harmless.
+ * Latency per source and outcome is recorded in the musichub.external.calls timer.
+ */
+@Component
+public class ExternalCalls {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+    private final int maxConcurrency;
+    private final long hedgeDelayNanos;
+    private final MeterRegistry meterRegistry;
+
+    public ExternalCalls(MeterRegistry meterRegistry,
+                         @Value("${musichub.external.max-concurrency:32}") int maxConcurrency,
+                         @Value("${musichub.external.hedge-delay:300ms}") Duration hedgeDelay) {
+        this.meterRegistry = meterRegistry;
+        this.maxConcurrency = maxConcurrency;
+        this.hedgeDelayNanos = hedgeDelay.toNanos();
+    }
+
+    /**
+     * Deadline (System.nanoTime based) that is the given timeout from now.
+     */
+    public static long deadlineIn(Duration timeout) {
+        return System.nanoTime() + timeout.toNanos();
+    }
+
+    /**
+     * Starts a task on its own virtual thread (used to fan out independent lookups).
+     */
+    public <T> CompletableFuture<T> fork(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    /**
+     * Calls the source, hedging once if it is slow, and waits at most until the deadline.
+     * Throws ExternalSourceException on failure, timeout or when the source is saturated.
+     */
+    public <T> T call(String source, long deadline, Supplier<T> call) {
+        Semaphore semaphore = permits.computeIfAbsent(source, name -> new Semaphore(maxConcurrency));
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger running = new AtomicInteger(1);
+        Future<?> primary = executor.submit(() -> attempt(source, semaphore, deadline, call, result, running));
+        Future<?> hedge = null;
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T value = null;
+            boolean done = false;
+            if (hedgeDelayNanos > 0 && remaining(deadline) > hedgeDelayNanos) {
+                try {
+                    value = result.get(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+                    done = true;
+                } catch (TimeoutException slow) {
+                    running.incrementAndGet();
+                    hedge = executor.submit(() -> attempt(source, semaphore, deadline, call, result, running));
+                    Counter.builder("musichub.external.hedges").tag("source", source)
+                            .description("Second attempts sent because the first was slow").register(meterRegistry)
+                            .increment();
+                }
+            }
+            if (!done) {
+                value = result.get(Math.max(0, remaining(deadline)), TimeUnit.NANOSECONDS);
+            }
+            outcome = "success";
+            return value;
+        } catch (TimeoutException e) {
+            outcome = "timeout";
+            throw new ExternalSourceException(source + " did not answer before the deadline");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ExternalSourceException(source + " call failed: " + e.getCause(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExternalSourceException(source + " call interrupted", e);
+        } finally {
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+            timer(source, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Registering an existing meter returns it, so this is a map lookup after the first call
+    private Timer timer(String source, String outcome) {
+        return Timer.builder("musichub.external.calls").tag("source", source).tag("outcome", outcome)
+                .description("External API calls, including hedged attempts")
+                .publishPercentiles(0.5, 0.99).publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static <T> void attempt(String source, Semaphore semaphore, long deadline, Supplier<T> call,
+                                    CompletableFuture<T> result, AtomicInteger running) {
+        try {
+            if (!semaphore.tryAcquire(Math.max(0, remaining(deadline)), TimeUnit.NANOSECONDS)) {
+                throw new ExternalSourceException(source + " is saturated, too many concurrent calls");
+            }
+            try {
+                result.complete(call.get());
+            } finally {
+                semaphore.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Lost the race or the caller gave up
+            fail(result, running, new ExternalSourceException(source + " call cancelled", e));
+        } catch (RuntimeException e) {
+            fail(result, running, e);
+        }
+    }
+
+    // The call fails only when every attempt has failed
+    private static void fail(CompletableFuture<?> result, AtomicInteger running, RuntimeException e) {
+        if (running.decrementAndGet() == 0) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private static long remaining(long deadline) {
+        return deadline - System.nanoTime();
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,24 @@
+package com.MusicHub.api.external;
+
+import com.MusicHub.api.dto.TrackDetails;
+import com.MusicHub.api.model.Song;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Source of song metadata outside MusicHub (iTunes in production).
+ * Returned songs are not persisted yet; their songId holds the external id.
+ * Implementations throw ExternalSourceException when the source cannot be reached.
+ */
+public interface ExternalSongSource {
+
+    // Looks a single track up by its external id; empty if the source does not know it.
+    Optional<Song> fetchSong(String songId);
+
+    // Album, artwork, release date, ... of a track; not part of the stored Song.
+    Optional<TrackDetails> fetchDetails(String songId);
+
+    // Free-text search by title or artist.
+    List<Song> searchSongs(String query, int limit);
+}
@@ -0,0 +1,20 @@
+package com.MusicHub.api.external;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * An external API (iTunes, Lyrics.ovh) failed or timed out.
+ * Unlike a "not found" answer, a failure is never cached.
+ */
+@ResponseStatus(HttpStatus.BAD_GATEWAY)
+public class ExternalSourceException extends RuntimeException {
+
+    public ExternalSourceException(String message) {
+        super(message);
+    }
+
+    public ExternalSourceException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
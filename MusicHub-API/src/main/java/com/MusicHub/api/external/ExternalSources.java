@@ -0,0 +1,13 @@
+package com.MusicHub.api.external;
+
+/**
+ * Names of the external sources, used for per-source concurrency limits and in partial results.
+ */
+public final class ExternalSources {
+
+    public static final String ITUNES = "itunes";
+    public static final String LYRICS = "lyrics";
+
+    private ExternalSources() {
+    }
+}
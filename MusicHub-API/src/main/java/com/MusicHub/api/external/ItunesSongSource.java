@@ -0,0 +1,111 @@
+package com.MusicHub.api.external;
+
+import com.MusicHub.api.dto.TrackDetails;
+import com.MusicHub.api.model.Song;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * ExternalSongSource backed by the iTunes Search API.
+ * The base URL is configurable so a local stub server can stand in for iTunes.
+ */
+@Component
+public class ItunesSongSource implements ExternalSongSource {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final Duration timeout;
+
+    public ItunesSongSource(ObjectMapper objectMapper,
+                            @Value("${musichub.external.itunes.base-url}") String baseUrl,
+                            @Value("${musichub.external.timeout:3s}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public Optional<Song> fetchSong(String songId) {
+        return lookup(songId).map(this::toSong);
+    }
+
+    @Override
+    public Optional<TrackDetails> fetchDetails(String songId) {
+        return lookup(songId).map(track -> new TrackDetails(
+                track.path("collectionName").asText(null),
+                track.path("artworkUrl100").asText(null),
+                track.path("releaseDate").asText(null),
+                track.hasNonNull("trackTimeMillis") ? track.get("trackTimeMillis").asLong() : null,
+                track.path("previewUrl").asText(null)));
+    }
+
+    @Override
+    public List<Song> searchSongs(String query, int limit) {
+        JsonNode results = get("/search?media=music&entity=song&term=" + encode(query) + "&limit=" + limit);
+        List<Song> songs = new ArrayList<>();
+        for (JsonNode track : results) {
+            songs.add(toSong(track));
+        }
+        return songs;
+    }
+
+    private Optional<JsonNode> lookup(String songId) {
+        JsonNode results = get("/lookup?entity=song&id=" + encode(songId));
+        for (JsonNode track : results) {
+            if ("track".equals(track.path("wrapperType").asText())) {
+                return Optional.of(track);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private JsonNode get(String pathAndQuery) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery))
+                .timeout(timeout)
+                .GET()
+                .build();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new ExternalSourceException("iTunes returned HTTP " + response.statusCode());
+            }
+            // iTunes answers with Content-Type text/javascript, so the body is parsed by hand
+            return objectMapper.readTree(response.body()).path("results");
+        } catch (IOException e) {
+            throw new ExternalSourceException("iTunes request failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExternalSourceException("iTunes request interrupted", e);
+        }
+    }
+
+    private Song toSong(JsonNode track) {
+        Song song = new Song();
+        song.setSongId(track.path("trackId").asText());
+        song.setTitle(track.path("trackName").asText(null));
+        song.setArtist(track.path("artistName").asText(null));
+        song.setGenre(track.path("primaryGenreName").asText(null));
+        song.setLink(track.path("previewUrl").asText(null));
+        return song;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
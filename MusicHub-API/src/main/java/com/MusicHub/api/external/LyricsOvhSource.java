@@ -0,0 +1,67 @@
+package com.MusicHub.api.external;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * LyricsSource backed by the Lyrics.ovh API.
+ * The base URL is configurable so a local stub server can stand in for Lyrics.ovh.
+ */
+@Component
+public class LyricsOvhSource implements LyricsSource {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final Duration timeout;
+
+    public LyricsOvhSource(ObjectMapper objectMapper,
+                           @Value("${musichub.external.lyrics.base-url}") String baseUrl,
+                           @Value("${musichub.external.timeout:3s}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public Optional<String> fetchLyrics(String artist, String title) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/v1/" + encode(artist) + "/" + encode(title)))
+                .timeout(timeout)
+                .GET()
+                .build();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() == 404) {
+                return Optional.empty();
+            }
+            if (response.statusCode() != 200) {
+                throw new ExternalSourceException("Lyrics.ovh returned HTTP " + response.statusCode());
+            }
+            JsonNode lyrics = objectMapper.readTree(response.body()).path("lyrics");
+            return lyrics.isTextual() && !lyrics.asText().isBlank() ? Optional.of(lyrics.asText()) : Optional.empty();
+        } catch (IOException e) {
+            throw new ExternalSourceException("Lyrics.ovh request failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExternalSourceException("Lyrics.ovh request interrupted", e);
+        }
+    }
+
+    // Lyrics.ovh takes artist and title as path segments
+    private static String encode(String value) {
+        return URLEncoder.encode(value == null ? "" : value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
@@ -0,0 +1,13 @@
+package com.MusicHub.api.external;
+
+import java.util.Optional;
+
+/**
+ * Source of song lyrics outside MusicHub (Lyrics.ovh in production).
+ * Throws ExternalSourceException when the source cannot be reached.
+ */
+public interface LyricsSource {
+
+    // Empty if the source has no lyrics for this artist/title.
+    Optional<String> fetchLyrics(String artist, String title);
+}
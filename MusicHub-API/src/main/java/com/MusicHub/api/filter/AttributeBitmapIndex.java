@@ -0,0 +1,242 @@
+package com.MusicHub.api.filter;
+
+import com.MusicHub.api.catalog.CatalogIndex;
+import com.MusicHub.api.catalog.RankedRows;
+import com.MusicHub.api.catalog.TermDictionaries;
+import com.MusicHub.api.catalog.TermDictionary;
+import com.MusicHub.api.dto.SongSummary;
+import com.MusicHub.api.filter.FilterExpression.And;
+import com.MusicHub.api.filter.FilterExpression.Field;
+import com.MusicHub.api.filter.FilterExpression.Not;
+import com.MusicHub.api.filter.FilterExpression.Or;
+import com.MusicHub.api.filter.FilterExpression.Term;
+import com.MusicHub.api.model.Beat;
+import com.MusicHub.api.model.Song;
+import com.MusicHub.api.repository.BeatRepository;
+import com.MusicHub.api.repository.SongRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One IdBitmap of song ids and one of beat ids per mood code and per genre code, for boolean
+ * filters such as "Chill OR Sad AND Pop" (see FilterExpression).
+ *
+ * A filter is evaluated as bitmap AND / OR / AND NOT; only the matches are then ranked by
+ * popularity, which sits in a column indexed by id next to the two codes. Catalog ids are
+ * handed out densely by the table generators, so beyond its bitmap bits an item costs 8 bytes.
+ */
+@Service
+public class AttributeBitmapIndex implements CatalogIndex {
+
+    private static final short NONE = -1; // No mood or genre
+    private static final IdBitmap EMPTY = new IdBitmap();
+
+    private final SongRepository songRepository;
+    private final BeatRepository beatRepository;
+    private final TermDictionaries dictionaries;
+    private final Columns songs = new Columns();
+    private final Columns beats = new Columns();
+    private volatile boolean ready;
+
+    @Value("${musichub.recommendations.max-results:200}")
+    private int maxResults;
+
+    public AttributeBitmapIndex(SongRepository songRepository, BeatRepository beatRepository,
+                                TermDictionaries dictionaries) {
+        this.songRepository = songRepository;
+        this.beatRepository = beatRepository;
+        this.dictionaries = dictionaries;
+    }
+
+    public List<SongSummary> filterSongs(String filter, int limit) {
+        List<Long> ids = topK(songs, filter, limit);
+        return RankedRows.inRankOrder(ids, songRepository.findSummariesByIdIn(ids), SongSummary::id);
+    }
+
+    public List<Beat> filterBeats(String filter, int limit) {
+        List<Long> ids = topK(beats, filter, limit);
+        return RankedRows.inRankOrder(ids, beatRepository.findAllById(ids), Beat::getId);
+    }
+
+    // Ids of the most popular matches, by popularity descending then id ascending
+    private List<Long> topK(Columns columns, String filter, int limit) {
+        FilterExpression expression;
+        try {
+            expression = FilterExpression.parse(filter);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid filter: " + e.getMessage());
+        }
+        if (!ready) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Filter index is warming up, retry later");
+        }
+        int k = Math.max(1, Math.min(limit, maxResults));
+        PriorityQueue<Long> best = new PriorityQueue<>(k + 1); // Smallest rank on top, evicted first
+        columns.lock.readLock().lock();
+        try {
+            evaluate(expression, columns).forEach(id -> {
+                long rank = columns.rank(id);
+                if (best.size() < k) {
+                    best.add(rank);
+                } else if (rank > best.peek()) {
+                    best.poll();
+                    best.add(rank);
+                }
+            });
+        } finally {
+            columns.lock.readLock().unlock();
+        }
+        List<Long> ids = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            ids.add((long) Columns.id(best.poll()));
+        }
+        Collections.reverse(ids);
+        return ids;
+    }
+
+    private IdBitmap evaluate(FilterExpression expression, Columns columns) {
+        return switch (expression) {
+            case Term term -> term(term, columns);
+            case Not not -> columns.all.andNot(evaluate(not.operand(), columns));
+            case And and -> evaluate(and.left(), columns).and(evaluate(and.right(), columns));
+            case Or or -> evaluate(or.left(), columns).or(evaluate(or.right(), columns));
+        };
+    }
+
+    private IdBitmap term(Term term, Columns columns) {
+        IdBitmap byMood = term.field() == Field.GENRE ? EMPTY
+                : columns.bitmap(columns.byMood, code(dictionaries.moods(), term.name()));
+        IdBitmap byGenre = term.field() == Field.MOOD ? EMPTY
+                : columns.bitmap(columns.byGenre, code(dictionaries.genres(), term.name()));
+        return byGenre == EMPTY ? byMood : byMood == EMPTY ? byGenre : byMood.or(byGenre);
+    }
+
+    private static short code(TermDictionary dictionary, String name) {
+        Short code = dictionary.code(name);
+        return code == null || code == TermDictionary.UNKNOWN ? NONE : code;
+    }
+
+    @Override
+    public void indexSong(Song song) {
+        songs.put(song.getId(), code(dictionaries.moods(), song.getMood()),
+                code(dictionaries.genres(), song.getGenre()), song.getPopularity());
+    }
+
+    @Override
+    public void removeSong(Song song) {
+        songs.remove(song.getId());
+    }
+
+    @Override
+    public void indexBeat(Beat beat) {
+        beats.put(beat.getId(), code(dictionaries.moods(), beat.getMood()),
+                code(dictionaries.genres(), beat.getGenre()), beat.getPopularity());
+    }
+
+    @Override
+    public void removeBeat(Beat beat) {
+        beats.remove(beat.getId());
+    }
+
+    @Override
+    public void warmupCompleted() {
+        ready = true;
+    }
+
+    /**
+     * Bitmaps of one catalog type plus its per-id columns. Writers take the write lock,
+     * filters evaluate and rank under the read lock.
+     */
+    private static final class Columns {
+
+        final ReadWriteLock lock = new ReentrantReadWriteLock();
+        final IdBitmap all = new IdBitmap(); // Universe for NOT
+        IdBitmap[] byMood = new IdBitmap[0];  // Indexed by mood code
+        IdBitmap[] byGenre = new IdBitmap[0]; // Indexed by genre code
+        short[] moods = new short[0];         // Indexed by id
+        short[] genres = new short[0];
+        int[] popularity = new int[0];
+
+        void put(long id, short mood, short genre, int itemPopularity) {
+            int index = Math.toIntExact(id);
+            lock.writeLock().lock();
+            try {
+                removeLocked(index);
+                if (index >= popularity.length) {
+                    int length = Math.max(index + 1, popularity.length + (popularity.length >> 1));
+                    moods = Arrays.copyOf(moods, length);
+                    genres = Arrays.copyOf(genres, length);
+                    popularity = Arrays.copyOf(popularity, length);
+                }
+                moods[index] = mood;
+                genres[index] = genre;
+                popularity[index] = itemPopularity;
+                all.add(index);
+                if (mood != NONE) {
+                    byMood = grow(byMood, mood);
+                    byMood[mood].add(index);
+                }
+                if (genre != NONE) {
+                    byGenre = grow(byGenre, genre);
+                    byGenre[genre].add(index);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long id) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(Math.toIntExact(id));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void removeLocked(int index) {
+            if (!all.contains(index)) {
+                return;
+            }
+            all.remove(index);
+            if (moods[index] != NONE) {
+                byMood[moods[index]].remove(index);
+            }
+            if (genres[index] != NONE) {
+                byGenre[genres[index]].remove(index);
+            }
+        }
+
+        IdBitmap bitmap(IdBitmap[] byCode, short code) {
+            return code >= 0 && code < byCode.length && byCode[code] != null ? byCode[code] : EMPTY;
+        }
+
+        // Popularity in the high half, inverted id in the low half: a larger rank sorts first
+        long rank(int id) {
+            return ((long) popularity[id] << 32) | (Integer.MAX_VALUE - id);
+        }
+
+        static int id(long rank) {
+            return Integer.MAX_VALUE - (int) rank;
+        }
+
+        private static IdBitmap[] grow(IdBitmap[] byCode, short code) {
+            if (code >= byCode.length) {
+                byCode = Arrays.copyOf(byCode, code + 1);
+            }
+            if (byCode[code] == null) {
+                byCode[code] = new IdBitmap();
+            }
+            return byCode;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.MusicHub.api.filter;
+
+/**
+ * Boolean filter over moods and genres, e.g. {@code Chill OR Sad AND Pop} or
+ * {@code (mood:Chill OR mood:Sad) AND NOT genre:"Hip Hop"}.
+ *
+ * NOT binds tighter than AND, and AND tighter than OR; operators ignore case. A bare name
+ * matches items whose mood or genre has that name, a mood: or genre: prefix restricts it to
+ * one of the two. Names containing spaces or parentheses are written in double quotes.
+ */
+public sealed interface FilterExpression {
+
+    enum Field { MOOD, GENRE, ANY }
+
+    record Term(Field field, String name) implements FilterExpression {
+    }
+
+    record Not(FilterExpression operand) implements FilterExpression {
+    }
+
+    record And(FilterExpression left, FilterExpression right) implements FilterExpression {
+    }
+
+    record Or(FilterExpression left, FilterExpression right) implements FilterExpression {
+    }
+
+    /**
+     * Parses the expression; throws IllegalArgumentException describing the first syntax error.
+     */
+    static FilterExpression parse(String text) {
+        return new FilterParser(text).parse();
+    }
+}
@@ -0,0 +1,157 @@
+package com.MusicHub.api.filter;
+
+import com.MusicHub.api.filter.FilterExpression.And;
+import com.MusicHub.api.filter.FilterExpression.Field;
+import com.MusicHub.api.filter.FilterExpression.Not;
+import com.MusicHub.api.filter.FilterExpression.Or;
+import com.MusicHub.api.filter.FilterExpression.Term;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Recursive-descent parser for FilterExpression:
+ * <pre>
+ * or   := and ("OR" and)*
+ * and  := not ("AND" not)*
+ * not  := "NOT" not | "(" or ")" | term
+ * term := ["mood:" | "genre:"] (word | "quoted name")
+ * </pre>
+ * Expressions are capped in size and nesting so a request cannot make evaluation arbitrarily expensive.
+ */
+final class FilterParser {
+
+    private static final int MAX_TERMS = 64;
+    private static final int MAX_DEPTH = 32;
+
+    private record Token(String text, boolean quoted) {
+        boolean is(String keyword) {
+            return !quoted && text.equalsIgnoreCase(keyword);
+        }
+    }
+
+    private final List<Token> tokens;
+    private int position;
+    private int depth;
+    private int terms;
+
+    FilterParser(String text) {
+        this.tokens = tokenize(text == null ? "" : text);
+    }
+
+    FilterExpression parse() {
+        if (tokens.isEmpty()) {
+            throw new IllegalArgumentException("Empty filter");
+        }
+        FilterExpression expression = or();
+        if (position < tokens.size()) {
+            throw new IllegalArgumentException("Unexpected '" + tokens.get(position).text() + "'");
+        }
+        return expression;
+    }
+
+    private FilterExpression or() {
+        FilterExpression left = and();
+        while (accept("OR")) {
+            left = new Or(left, and());
+        }
+        return left;
+    }
+
+    private FilterExpression and() {
+        FilterExpression left = not();
+        while (accept("AND")) {
+            left = new And(left, not());
+        }
+        return left;
+    }
+
+    private FilterExpression not() {
+        if (++depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Filter nested deeper than " + MAX_DEPTH);
+        }
+        try {
+            if (accept("NOT")) {
+                return new Not(not());
+            }
+            if (accept("(")) {
+                FilterExpression inner = or();
+                if (!accept(")")) {
+                    throw new IllegalArgumentException("Missing ')'");
+                }
+                return inner;
+            }
+            return term();
+        } finally {
+            depth--;
+        }
+    }
+
+    private FilterExpression term() {
+        Token token = next("a mood or genre");
+        if (token.is("AND") || token.is("OR") || token.is(")")) {
+            throw new IllegalArgumentException("Expected a mood or genre before '" + token.text() + "'");
+        }
+        if (++terms > MAX_TERMS) {
+            throw new IllegalArgumentException("Filter has more than " + MAX_TERMS + " terms");
+        }
+        Field field = Field.ANY;
+        String name = token.text();
+        if (!token.quoted()) {
+            String lower = name.toLowerCase(Locale.ROOT);
+            if (lower.startsWith("mood:") || lower.startsWith("genre:")) {
+                field = lower.startsWith("mood:") ? Field.MOOD : Field.GENRE;
+                name = name.substring(name.indexOf(':') + 1);
+                if (name.isEmpty()) {
+                    name = next("a name after '" + token.text() + "'").text(); // mood:"Deep Focus"
+                }
+            }
+        }
+        return new Term(field, name);
+    }
+
+    private boolean accept(String keyword) {
+        if (position < tokens.size() && tokens.get(position).is(keyword)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private Token next(String expected) {
+        if (position == tokens.size()) {
+            throw new IllegalArgumentException("Expected " + expected + " at the end of the filter");
+        }
+        return tokens.get(position++);
+    }
+
+    private static List<Token> tokenize(String text) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')') {
+                tokens.add(new Token(String.valueOf(c), false));
+                i++;
+            } else if (c == '"') {
+                int end = text.indexOf('"', i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated quote");
+                }
+                tokens.add(new Token(text.substring(i + 1, end), true));
+                i = end + 1;
+            } else {
+                int start = i;
+                while (i < text.length() && !Character.isWhitespace(text.charAt(i))
+                        && "()\"".indexOf(text.charAt(i)) < 0) {
+                    i++;
+                }
+                tokens.add(new Token(text.substring(start, i), false));
+            }
+        }
+        return tokens;
+    }
+}
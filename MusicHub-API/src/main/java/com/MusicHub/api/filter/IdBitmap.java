@@ -0,0 +1,344 @@
+package com.MusicHub.api.filter;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of non-negative int ids, laid out like a Roaring bitmap.
+ *
+ * An id is split into its high 16 bits, which select a container, and its low 16 bits, which
+ * are stored in it. A container with up to 4096 values is a sorted char[] (2 bytes per id); a
+ * denser one is a fixed 8 KB bitset. AND, OR and AND NOT work container by container, and word
+ * by word where both sides are bitsets, so combining two genres of a million songs each costs a
+ * few thousand long operations. Not thread-safe; and/or/andNot never modify their operands.
+ */
+public final class IdBitmap {
+
+    private static final int ARRAY_LIMIT = 4096; // Past this many values a bitset is smaller than a char[]
+    private static final int WORDS = 1 << 10;    // 65536 bits per bitset container
+
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size; // Containers in use, sorted by key
+
+    public void add(int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Negative id " + id);
+        }
+        char key = (char) (id >>> 16);
+        int index = find(key);
+        if (index < 0) {
+            index = -index - 1;
+            insert(index, key, new Container());
+        }
+        containers[index].add((char) id);
+    }
+
+    public void remove(int id) {
+        int index = id < 0 ? -1 : find((char) (id >>> 16));
+        if (index >= 0) {
+            containers[index].remove((char) id);
+            if (containers[index].cardinality == 0) {
+                System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+                System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+                containers[--size] = null;
+            }
+        }
+    }
+
+    public boolean contains(int id) {
+        int index = id < 0 ? -1 : find((char) (id >>> 16));
+        return index >= 0 && containers[index].contains((char) id);
+    }
+
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality;
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public IdBitmap and(IdBitmap other) {
+        IdBitmap result = new IdBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.append(keys[i], containers[i++].and(other.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    public IdBitmap or(IdBitmap other) {
+        IdBitmap result = new IdBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                result.append(keys[i], containers[i++].copy());
+            } else if (i == size || keys[i] > other.keys[j]) {
+                result.append(other.keys[j], other.containers[j++].copy());
+            } else {
+                result.append(keys[i], containers[i++].or(other.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    public IdBitmap andNot(IdBitmap other) {
+        IdBitmap result = new IdBitmap();
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            boolean both = j < other.size && other.keys[j] == keys[i];
+            result.append(keys[i], both ? containers[i].andNot(other.containers[j]) : containers[i].copy());
+        }
+        return result;
+    }
+
+    // Visits the ids in ascending order
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    private int find(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insert(int index, char key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    // Adds a container behind the last one; empty results of a container operation are skipped
+    private void append(char key, Container container) {
+        if (container.cardinality > 0) {
+            insert(size, key, container);
+        }
+    }
+
+    /**
+     * The low 16 bits of the ids sharing one high part: a sorted char[] while sparse, a bitset once dense.
+     */
+    private static final class Container {
+
+        private char[] values; // Sorted, first 'cardinality' slots used; null while this is a bitset
+        private long[] words;  // Non-null only while this is a bitset
+        private int cardinality;
+
+        Container() {
+            values = new char[4];
+        }
+
+        private Container(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        private Container(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        boolean contains(char low) {
+            if (words != null) {
+                return (words[low >>> 6] & (1L << low)) != 0;
+            }
+            return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+        }
+
+        void add(char low) {
+            if (words != null) {
+                if ((words[low >>> 6] & (1L << low)) == 0) {
+                    words[low >>> 6] |= 1L << low;
+                    cardinality++;
+                }
+                return;
+            }
+            int index = Arrays.binarySearch(values, 0, cardinality, low);
+            if (index >= 0) {
+                return;
+            }
+            if (cardinality == ARRAY_LIMIT) {
+                words = bits();
+                values = null;
+                add(low);
+                return;
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, cardinality + (cardinality >> 1) + 1));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = low;
+            cardinality++;
+        }
+
+        void remove(char low) {
+            if (words != null) {
+                if ((words[low >>> 6] & (1L << low)) != 0) {
+                    words[low >>> 6] &= ~(1L << low);
+                    cardinality--;
+                    if (cardinality <= ARRAY_LIMIT / 2) { // Not at ARRAY_LIMIT, so add/remove at the edge don't flip it every time
+                        values = toValues(words, cardinality);
+                        words = null;
+                    }
+                }
+                return;
+            }
+            int index = Arrays.binarySearch(values, 0, cardinality, low);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+        }
+
+        Container copy() {
+            return words != null ? new Container(words.clone(), cardinality)
+                    : new Container(Arrays.copyOf(values, cardinality), cardinality);
+        }
+
+        Container and(Container other) {
+            if (words != null && other.words != null) {
+                long[] result = new long[WORDS];
+                for (int i = 0; i < WORDS; i++) {
+                    result[i] = words[i] & other.words[i];
+                }
+                return fromWords(result);
+            }
+            Container sparse = words == null ? this : other;
+            Container probe = sparse == this ? other : this;
+            char[] result = new char[Math.min(sparse.cardinality, probe.cardinality)];
+            int n = 0;
+            for (int i = 0; i < sparse.cardinality && n < result.length; i++) {
+                if (probe.contains(sparse.values[i])) {
+                    result[n++] = sparse.values[i];
+                }
+            }
+            return new Container(result, n);
+        }
+
+        Container or(Container other) {
+            if (words == null && other.words == null && cardinality + other.cardinality <= ARRAY_LIMIT) {
+                char[] result = new char[cardinality + other.cardinality];
+                int i = 0;
+                int j = 0;
+                int n = 0;
+                while (i < cardinality || j < other.cardinality) {
+                    if (j == other.cardinality || (i < cardinality && values[i] < other.values[j])) {
+                        result[n++] = values[i++];
+                    } else if (i == cardinality || values[i] > other.values[j]) {
+                        result[n++] = other.values[j++];
+                    } else {
+                        result[n++] = values[i++];
+                        j++;
+                    }
+                }
+                return new Container(result, n);
+            }
+            long[] result = bits();
+            if (other.words != null) {
+                for (int i = 0; i < WORDS; i++) {
+                    result[i] |= other.words[i];
+                }
+            } else {
+                for (int i = 0; i < other.cardinality; i++) {
+                    result[other.values[i] >>> 6] |= 1L << other.values[i];
+                }
+            }
+            return fromWords(result);
+        }
+
+        Container andNot(Container other) {
+            if (words == null) {
+                char[] result = new char[cardinality];
+                int n = 0;
+                for (int i = 0; i < cardinality; i++) {
+                    if (!other.contains(values[i])) {
+                        result[n++] = values[i];
+                    }
+                }
+                return new Container(result, n);
+            }
+            long[] result = words.clone();
+            if (other.words != null) {
+                for (int i = 0; i < WORDS; i++) {
+                    result[i] &= ~other.words[i];
+                }
+            } else {
+                for (int i = 0; i < other.cardinality; i++) {
+                    result[other.values[i] >>> 6] &= ~(1L << other.values[i]);
+                }
+            }
+            return fromWords(result);
+        }
+
+        void forEach(int high, IntConsumer action) {
+            if (words == null) {
+                for (int i = 0; i < cardinality; i++) {
+                    action.accept(high | values[i]);
+                }
+                return;
+            }
+            for (int i = 0; i < WORDS; i++) {
+                for (long word = words[i]; word != 0; word &= word - 1) {
+                    action.accept(high | (i << 6) + Long.numberOfTrailingZeros(word));
+                }
+            }
+        }
+
+        // A fresh bitset with this container's values
+        private long[] bits() {
+            if (words != null) {
+                return words.clone();
+            }
+            long[] bits = new long[WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                bits[values[i] >>> 6] |= 1L << values[i];
+            }
+            return bits;
+        }
+
+        // Result of a bitset operation, turned back into a char[] if it came out sparse
+        private static Container fromWords(long[] words) {
+            int cardinality = 0;
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+            return cardinality > ARRAY_LIMIT ? new Container(words, cardinality)
+                    : new Container(toValues(words, cardinality), cardinality);
+        }
+
+        private static char[] toValues(long[] words, int cardinality) {
+            char[] values = new char[Math.max(4, cardinality)];
+            int n = 0;
+            for (int i = 0; i < WORDS; i++) {
+                for (long word = words[i]; word != 0; word &= word - 1) {
+                    values[n++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+                }
+            }
+            return values;
+        }
+    }
+}
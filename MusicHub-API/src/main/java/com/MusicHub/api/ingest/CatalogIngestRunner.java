@@ -0,0 +1,39 @@
+package com.MusicHub.api.ingest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Bulk ingest mode: started with --musichub.ingest.file=catalog.json (or .csv), the application
+ * loads the dump and exits instead of serving requests.
+ */
+@Component
+public class CatalogIngestRunner implements ApplicationRunner {
+
+    private final CatalogIngestService ingestService;
+    private final ConfigurableApplicationContext context;
+    private final String file;
+
+    public CatalogIngestRunner(CatalogIngestService ingestService, ConfigurableApplicationContext context,
+                               @Value("${musichub.ingest.file:}") String file) {
+        this.ingestService = ingestService;
+        this.context = context;
+        this.file = file;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (file.isBlank()) {
+            return;
+        }
+        IngestReport report = ingestService.ingest(Path.of(file));
+        int exitCode = report.rowsRead() > 0 ? 0 : 1;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+}
@@ -0,0 +1,276 @@
+package com.MusicHub.api.ingest;
+
+import com.MusicHub.api.lyrics.LyricsStore;
+import com.MusicHub.api.model.Song;
+import com.MusicHub.api.model.SongLyrics;
+import com.MusicHub.api.repository.SongRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk loader for large catalog dumps (JSON or CSV), upserting songs on their external songId.
+ *
+ * The calling thread parses the file and routes every record by songId hash to one of N writer
+ * threads. Each writer owns a bounded queue: when the database falls behind, the parser blocks
+ * instead of buffering the dump in memory. Since a songId always goes to the same writer,
+ * two writers never race to insert the same track. Writers commit one batch per transaction:
+ * a single "songId IN (...)" lookup, then updates and JDBC-batched inserts (the pooled id
+ * generator assigns ids without a round trip per row).
+ */
+@Service
+public class CatalogIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogIngestService.class);
+    private static final long PROGRESS_INTERVAL_NANOS = Duration.ofSeconds(5).toNanos();
+
+    // Queue marker telling a writer that parsing has finished
+    private static final CatalogRecord END = new CatalogRecord(null, null, null, null, null, null, 0, null);
+
+    private final SongRepository songRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int writerThreads;
+    private final int batchSize;
+    private final int queueCapacity;
+
+    public CatalogIngestService(SongRepository songRepository, EntityManager entityManager,
+                                PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                                @Value("${musichub.ingest.writer-threads:4}") int writerThreads,
+                                @Value("${musichub.ingest.batch-size:500}") int batchSize,
+                                @Value("${musichub.ingest.queue-capacity:10000}") int queueCapacity) {
+        this.songRepository = songRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.writerThreads = Math.max(1, writerThreads);
+        this.batchSize = Math.max(1, batchSize);
+        this.queueCapacity = Math.max(this.batchSize, queueCapacity);
+    }
+
+    /**
+     * Ingests a dump file; the format is picked from the extension (.csv, otherwise JSON / NDJSON).
+     */
+    public IngestReport ingest(Path file) throws IOException {
+        CatalogReader reader = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv")
+                ? new CsvCatalogReader()
+                : new JsonCatalogReader(objectMapper);
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            return ingest(in, reader);
+        }
+    }
+
+    public IngestReport ingest(InputStream in, CatalogReader reader) throws IOException {
+        long start = System.nanoTime();
+        Counters counters = new Counters();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        List<BlockingQueue<CatalogRecord>> queues = new ArrayList<>(writerThreads);
+        List<Thread> writers = new ArrayList<>(writerThreads);
+        for (int i = 0; i < writerThreads; i++) {
+            BlockingQueue<CatalogRecord> queue = new ArrayBlockingQueue<>(queueCapacity / writerThreads + 1);
+            queues.add(queue);
+            writers.add(Thread.ofPlatform().name("catalog-ingest-" + i).start(() -> {
+                try {
+                    drain(queue, counters);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                    queue.clear(); // Unblock the parser; it stops at the next record
+                }
+            }));
+        }
+
+        long[] lastProgress = {start};
+        try {
+            reader.read(in, record -> {
+                if (failure.get() != null) {
+                    throw new IllegalStateException("Catalog ingest aborted", failure.get());
+                }
+                counters.read.incrementAndGet();
+                if (record.songId() == null || record.songId().isBlank() || record.title() == null) {
+                    counters.skipped.incrementAndGet();
+                    return;
+                }
+                int partition = Math.floorMod(record.songId().hashCode(), writerThreads);
+                put(queues.get(partition), record);
+                long now = System.nanoTime();
+                if (now - lastProgress[0] > PROGRESS_INTERVAL_NANOS) {
+                    lastProgress[0] = now;
+                    logProgress(counters, Duration.ofNanos(now - start));
+                }
+            });
+        } finally {
+            queues.forEach(queue -> put(queue, END));
+            for (Thread writer : writers) {
+                try {
+                    writer.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("Catalog ingest failed", failure.get());
+        }
+
+        IngestReport report = new IngestReport(counters.read.get(), counters.inserted.get(),
+                counters.updated.get(), counters.skipped.get(), Duration.ofNanos(System.nanoTime() - start));
+        log.info("Catalog ingest finished: {} rows read, {} inserted, {} updated, {} skipped in {} ms ({} rows/s)",
+                report.rowsRead(), report.inserted(), report.updated(), report.skipped(),
+                report.elapsed().toMillis(), Math.round(report.rowsPerSecond()));
+        return report;
+    }
+
+    private void drain(BlockingQueue<CatalogRecord> queue, Counters counters) throws InterruptedException {
+        List<CatalogRecord> batch = new ArrayList<>(batchSize);
+        while (true) {
+            CatalogRecord record = queue.take();
+            if (record == END) {
+                break;
+            }
+            batch.add(record);
+            queue.drainTo(batch, batchSize - batch.size());
+            if (batch.remove(END)) {
+                writeBatch(batch, counters);
+                return;
+            }
+            if (batch.size() >= batchSize) {
+                writeBatch(batch, counters);
+                batch.clear();
+            }
+        }
+        writeBatch(batch, counters);
+    }
+
+    private void writeBatch(List<CatalogRecord> batch, Counters counters) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        // Last record wins when a dump repeats a songId within one batch
+        Map<String, CatalogRecord> bySongId = new LinkedHashMap<>();
+        for (CatalogRecord record : batch) {
+            bySongId.put(record.songId(), record);
+        }
+        counters.skipped.addAndGet(batch.size() - bySongId.size());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<String, Song> existing = songRepository.findBySongIdIn(bySongId.keySet()).stream()
+                    .collect(Collectors.toMap(Song::getSongId, Function.identity()));
+            Map<Long, String> lyrics = new LinkedHashMap<>();
+            List<Long> updatedIds = new ArrayList<>();
+            for (CatalogRecord record : bySongId.values()) {
+                Song song = existing.get(record.songId());
+                if (song == null) {
+                    song = new Song();
+                    song.setSongId(record.songId());
+                    apply(song, record);
+                    entityManager.persist(song); // Id comes from the pooled generator, insert is batched
+                    counters.inserted.incrementAndGet();
+                } else {
+                    if (apply(song, record)) {
+                        counters.updated.incrementAndGet();
+                    } else {
+                        counters.skipped.incrementAndGet(); // Already up to date
+                    }
+                    updatedIds.add(song.getId());
+                }
+                if (record.lyrics() != null && !record.lyrics().isBlank()) {
+                    lyrics.put(song.getId(), record.lyrics());
+                }
+            }
+            saveLyrics(lyrics, updatedIds);
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private void saveLyrics(Map<Long, String> lyrics, List<Long> updatedIds) {
+        if (lyrics.isEmpty()) {
+            return;
+        }
+        Map<Long, SongLyrics> stored = new LinkedHashMap<>();
+        if (!updatedIds.isEmpty()) {
+            entityManager.createQuery("select l from SongLyrics l where l.songId in :ids", SongLyrics.class)
+                    .setParameter("ids", updatedIds)
+                    .getResultList()
+                    .forEach(row -> stored.put(row.getSongId(), row));
+        }
+        lyrics.forEach((songId, text) -> {
+            SongLyrics row = LyricsStore.compressedRow(songId, text);
+            SongLyrics current = stored.get(songId);
+            if (current == null) {
+                entityManager.persist(row);
+            } else {
+                current.setCompressed(row.getCompressed());
+                current.setOriginalLength(row.getOriginalLength());
+            }
+        });
+    }
+
+    // Copies the dump's values onto the entity; returns whether anything changed
+    private static boolean apply(Song song, CatalogRecord record) {
+        boolean changed = !Objects.equals(song.getTitle(), record.title())
+                || !Objects.equals(song.getArtist(), record.artist())
+                || !Objects.equals(song.getGenre(), record.genre())
+                || !Objects.equals(song.getMood(), record.mood())
+                || !Objects.equals(song.getLink(), record.link())
+                || song.getPopularity() != record.popularity();
+        if (changed) {
+            song.setTitle(record.title());
+            song.setArtist(record.artist());
+            song.setGenre(record.genre());
+            song.setMood(record.mood());
+            song.setLink(record.link());
+            song.setPopularity(record.popularity());
+        }
+        return changed;
+    }
+
+    private static void put(BlockingQueue<CatalogRecord> queue, CatalogRecord record) {
+        try {
+            queue.put(record); // Blocks while the writer is behind (backpressure)
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Catalog ingest interrupted", e);
+        }
+    }
+
+    private static void logProgress(Counters counters, Duration elapsed) {
+        long read = counters.read.get();
+        log.info("Catalog ingest: {} rows read, {} inserted, {} updated ({} rows/s)",
+                read, counters.inserted.get(), counters.updated.get(),
+                Math.round(read * 1000.0 / Math.max(1, elapsed.toMillis())));
+    }
+
+    private static final class Counters {
+        final AtomicLong read = new AtomicLong();
+        final AtomicLong inserted = new AtomicLong();
+        final AtomicLong updated = new AtomicLong();
+        final AtomicLong skipped = new AtomicLong();
+    }
+}
@@ -0,0 +1,14 @@
+package com.MusicHub.api.ingest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Streaming parser for a catalog dump format. Records are handed to the sink one at a time,
+ * so the dump is never held in memory as a whole.
+ */
+public interface CatalogReader {
+
+    void read(InputStream in, Consumer<CatalogRecord> sink) throws IOException;
+}
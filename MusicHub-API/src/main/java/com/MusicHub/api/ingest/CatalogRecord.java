@@ -0,0 +1,9 @@
+package com.MusicHub.api.ingest;
+
+/**
+ * One track read from a catalog dump, before it is matched against the songs table.
+ * songId is the external (iTunes) id the upsert is keyed on.
+ */
+public record CatalogRecord(String songId, String title, String artist, String genre, String mood,
+                            String link, int popularity, String lyrics) {
+}
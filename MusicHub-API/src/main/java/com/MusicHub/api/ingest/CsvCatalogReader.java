@@ -0,0 +1,110 @@
+package com.MusicHub.api.ingest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Reads CSV catalog dumps line by line. The first line is a header naming the columns
+ * (songId, title, artist, genre, mood, link, popularity, lyrics; any order, extra columns ignored).
+ * Fields may be quoted with double quotes, with "" as an escaped quote and embedded newlines.
+ * A popularity that is missing or not a number reads as 0, as in JsonCatalogReader.
+ */
+public class CsvCatalogReader implements CatalogReader {
+
+    @Override
+    public void read(InputStream in, Consumer<CatalogRecord> sink) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+        List<String> header = readRow(reader);
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        List<String> row;
+        while ((row = readRow(reader)) != null) {
+            if (row.size() == 1 && row.get(0).isEmpty()) {
+                continue; // Blank line
+            }
+            sink.accept(new CatalogRecord(
+                    field(row, columns, "songid"),
+                    field(row, columns, "title"),
+                    field(row, columns, "artist"),
+                    field(row, columns, "genre"),
+                    field(row, columns, "mood"),
+                    field(row, columns, "link"),
+                    popularity(field(row, columns, "popularity")),
+                    field(row, columns, "lyrics")));
+        }
+    }
+
+    private static String field(List<String> row, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= row.size()) {
+            return null;
+        }
+        String value = row.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static int popularity(String value) {
+        if (value == null || value.isBlank()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return 0; // One bad cell should not abort a dump of millions of rows
+        }
+    }
+
+    // Returns null at end of input
+    private static List<String> readRow(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        current.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    current.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                current.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,14 @@
+package com.MusicHub.api.ingest;
+
+import java.time.Duration;
+
+/**
+ * Outcome of one bulk ingest run.
+ */
+public record IngestReport(long rowsRead, long inserted, long updated, long skipped, Duration elapsed) {
+
+    public double rowsPerSecond() {
+        long millis = Math.max(1, elapsed.toMillis());
+        return rowsRead * 1000.0 / millis;
+    }
+}
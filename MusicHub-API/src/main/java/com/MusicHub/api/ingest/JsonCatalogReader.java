@@ -0,0 +1,85 @@
+package com.MusicHub.api.ingest;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Reads JSON catalog dumps with Jackson's streaming parser. Accepted layouts:
+ * an iTunes export ({"results": [...]}), a top-level array of tracks, or one track object
+ * per line (NDJSON). Field names may be iTunes style (trackId, trackName, artistName,
+ * primaryGenreName, previewUrl) or MusicHub style (songId, title, artist, genre, link).
+ */
+public class JsonCatalogReader implements CatalogReader {
+
+    private final ObjectMapper objectMapper;
+
+    public JsonCatalogReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void read(InputStream in, Consumer<CatalogRecord> sink) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.START_ARRAY) {
+                    readArray(parser, sink);
+                } else if (token == JsonToken.START_OBJECT) {
+                    readRootObject(parser, sink);
+                }
+            }
+        }
+    }
+
+    private void readArray(JsonParser parser, Consumer<CatalogRecord> sink) throws IOException {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            sink.accept(toRecord(objectMapper.readTree(parser)));
+        }
+    }
+
+    // Either a wrapper with a "results" array, or a single track (NDJSON line)
+    private void readRootObject(JsonParser parser, Consumer<CatalogRecord> sink) throws IOException {
+        ObjectNode fields = objectMapper.createObjectNode();
+        boolean wrapper = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("results".equals(name) && value == JsonToken.START_ARRAY) {
+                readArray(parser, sink);
+                wrapper = true;
+            } else {
+                fields.set(name, objectMapper.readTree(parser));
+            }
+        }
+        if (!wrapper) {
+            sink.accept(toRecord(fields));
+        }
+    }
+
+    private static CatalogRecord toRecord(JsonNode node) {
+        return new CatalogRecord(
+                text(node, "songId", "trackId"),
+                text(node, "title", "trackName"),
+                text(node, "artist", "artistName"),
+                text(node, "genre", "primaryGenreName"),
+                text(node, "mood", null),
+                text(node, "link", "previewUrl"),
+                node.path("popularity").asInt(0),
+                text(node, "lyrics", null));
+    }
+
+    private static String text(JsonNode node, String field, String itunesField) {
+        JsonNode value = node.get(field);
+        if ((value == null || value.isNull()) && itunesField != null) {
+            value = node.get(itunesField);
+        }
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
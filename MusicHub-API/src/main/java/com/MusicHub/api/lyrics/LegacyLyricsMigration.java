@@ -0,0 +1,70 @@
+package com.MusicHub.api.lyrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Move of the old songs.lyrics column into the compressed song_lyrics table. ddl-auto=update
+ * never drops columns, so until the column is dropped the hot rows keep their lyrics text.
+ *
+ * While nodes of the previous version may still write the column, it is kept and every start
+ * copies the lyrics of songs that have none in song_lyrics yet. It is dropped only when
+ * musichub.migrations.drop-legacy-columns is set; after that this does nothing.
+ */
+@Component
+public class LegacyLyricsMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacyLyricsMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LyricsStore lyricsStore;
+    private final boolean dropColumn;
+
+    public LegacyLyricsMigration(JdbcTemplate jdbcTemplate, LyricsStore lyricsStore,
+                                 @Value("${musichub.migrations.drop-legacy-columns:false}") boolean dropColumn) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.lyricsStore = lyricsStore;
+        this.dropColumn = dropColumn;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (!legacyColumnExists()) {
+            return;
+        }
+        AtomicLong moved = new AtomicLong();
+        jdbcTemplate.query("SELECT s.id, s.lyrics FROM songs s WHERE s.lyrics IS NOT NULL"
+                + " AND NOT EXISTS (SELECT 1 FROM song_lyrics l WHERE l.song_id = s.id)", rs -> {
+            lyricsStore.save(rs.getLong("id"), rs.getString("lyrics"));
+            moved.incrementAndGet();
+        });
+        if (!dropColumn) {
+            log.info("Moved {} lyrics from songs.lyrics into song_lyrics; the column is kept", moved.get());
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE songs DROP COLUMN lyrics");
+        log.info("Moved {} lyrics from songs.lyrics into song_lyrics and dropped the column", moved.get());
+    }
+
+    private boolean legacyColumnExists() {
+        Boolean exists = jdbcTemplate.execute((Connection connection) -> {
+            try (ResultSet columns = connection.getMetaData()
+                    .getColumns(connection.getCatalog(), null, "songs", "lyrics")) {
+                return columns.next();
+            } catch (SQLException e) {
+                return false;
+            }
+        });
+        return Boolean.TRUE.equals(exists);
+    }
+}
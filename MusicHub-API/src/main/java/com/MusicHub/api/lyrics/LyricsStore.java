@@ -0,0 +1,83 @@
+package com.MusicHub.api.lyrics;
+
+import com.MusicHub.api.model.SongLyrics;
+import com.MusicHub.api.repository.SongLyricsRepository;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compressed lyrics storage in its own table, loaded by song id only when asked for.
+ * Lyrics text compresses well (repeated choruses), typically to a third of its size.
+ */
+@Service
+public class LyricsStore {
+
+    private final SongLyricsRepository lyricsRepository;
+
+    public LyricsStore(SongLyricsRepository lyricsRepository) {
+        this.lyricsRepository = lyricsRepository;
+    }
+
+    public Optional<String> find(Long songId) {
+        return lyricsRepository.findById(songId).map(LyricsStore::decompress);
+    }
+
+    public void save(Long songId, String lyrics) {
+        lyricsRepository.save(compressedRow(songId, lyrics));
+    }
+
+    /**
+     * Builds the row without saving it, for callers that persist rows in batches (bulk ingest).
+     */
+    public static SongLyrics compressedRow(Long songId, String lyrics) {
+        byte[] raw = lyrics.getBytes(StandardCharsets.UTF_8);
+        SongLyrics row = new SongLyrics();
+        row.setSongId(songId);
+        row.setCompressed(compress(raw));
+        row.setOriginalLength(raw.length);
+        return row;
+    }
+
+    public boolean exists(Long songId) {
+        return lyricsRepository.existsById(songId);
+    }
+
+    static byte[] compress(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 2));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static String decompress(SongLyrics row) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(row.getCompressed());
+            byte[] raw = new byte[row.getOriginalLength()];
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                length += inflater.inflate(raw, length, raw.length - length);
+            }
+            return new String(raw, 0, length, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt lyrics for song " + row.getSongId(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.MusicHub.api.metrics;
+
+import com.MusicHub.api.dto.MetricsSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Condenses the meters an operator looks at first into one small document: endpoint and
+ * repository latencies (http.server.requests, spring.data.repository.invocations), external
+ * API calls (musichub.external.calls), cache hit ratios (cache.gets) and Hibernate statistics.
+ *
+ * A timer exists per tag combination (status, outcome, ...). Rows merge them by name:
+ * counts and totals are summed, the max and p99 are the worst of the parts, and p50 is taken
+ * from the busiest part (percentiles of different timers cannot be combined exactly).
+ */
+@Service
+public class MetricsSummaryService {
+
+    private final MeterRegistry meterRegistry;
+    private final Statistics statistics;
+
+    public MetricsSummaryService(MeterRegistry meterRegistry, EntityManagerFactory entityManagerFactory) {
+        this.meterRegistry = meterRegistry;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public MetricsSummary summary(int limit) {
+        return new MetricsSummary(Instant.now(),
+                latencies("http.server.requests", t -> t.getId().getTag("method") + " " + t.getId().getTag("uri"), limit),
+                latencies("spring.data.repository.invocations",
+                        t -> t.getId().getTag("repository") + "." + t.getId().getTag("method"), limit),
+                latencies("musichub.external.calls",
+                        t -> t.getId().getTag("source") + " (" + t.getId().getTag("outcome") + ")", limit),
+                caches(),
+                hibernate());
+    }
+
+    private List<MetricsSummary.Latency> latencies(String meterName, Function<Timer, String> rowName, int limit) {
+        Map<String, List<Timer>> rows = new LinkedHashMap<>();
+        for (Timer timer : meterRegistry.find(meterName).timers()) {
+            rows.computeIfAbsent(rowName.apply(timer), name -> new ArrayList<>()).add(timer);
+        }
+        return rows.entrySet().stream()
+                .map(row -> merge(row.getKey(), row.getValue()))
+                .filter(latency -> latency.count() > 0)
+                .sorted(Comparator.comparingDouble(MetricsSummary.Latency::totalMs).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private static MetricsSummary.Latency merge(String name, Collection<Timer> timers) {
+        long count = 0;
+        double total = 0;
+        double max = 0;
+        double p50 = 0;
+        double p99 = 0;
+        long busiest = -1;
+        for (Timer timer : timers) {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            count += snapshot.count();
+            total += snapshot.total(TimeUnit.MILLISECONDS);
+            max = Math.max(max, snapshot.max(TimeUnit.MILLISECONDS));
+            p99 = Math.max(p99, percentile(snapshot, 0.99));
+            if (snapshot.count() > busiest) {
+                busiest = snapshot.count();
+                p50 = percentile(snapshot, 0.5);
+            }
+        }
+        // Percentiles are interpolated from histogram buckets and can overshoot the recorded max
+        return new MetricsSummary.Latency(name, count, round(Math.min(p50, max)), round(Math.min(p99, max)),
+                round(max), round(total));
+    }
+
+    // NaN-free: 0 when the timer does not publish this percentile
+    private static double percentile(HistogramSnapshot snapshot, double percentile) {
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return 0;
+    }
+
+    private List<MetricsSummary.CacheRatio> caches() {
+        Map<String, long[]> counts = new TreeMap<>(); // name -> {hits, misses}
+        for (FunctionCounter counter : meterRegistry.find("cache.gets").functionCounters()) {
+            long[] row = counts.computeIfAbsent(counter.getId().getTag("cache"), name -> new long[2]);
+            row["hit".equals(counter.getId().getTag("result")) ? 0 : 1] += (long) counter.count();
+        }
+        List<MetricsSummary.CacheRatio> caches = new ArrayList<>(counts.size());
+        counts.forEach((name, row) -> {
+            long requests = row[0] + row[1];
+            Gauge size = meterRegistry.find("cache.size").tag("cache", name).gauge();
+            caches.add(new MetricsSummary.CacheRatio(name, row[0], row[1],
+                    requests == 0 ? 0 : round((double) row[0] / requests), size == null ? 0 : (long) size.value()));
+        });
+        return caches;
+    }
+
+    private MetricsSummary.Hibernate hibernate() {
+        long rowsFetched = 0;
+        for (String query : statistics.getQueries()) {
+            rowsFetched += statistics.getQueryStatistics(query).getExecutionRowCount();
+        }
+        return new MetricsSummary.Hibernate(statistics.getQueryExecutionCount(), rowsFetched,
+                statistics.getEntityLoadCount(), statistics.getEntityFetchCount(),
+                statistics.getPrepareStatementCount(), statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getQueryExecutionMaxTime());
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -1,32 +1,51 @@
 package com.MusicHub.api.model;
 
+import com.MusicHub.api.catalog.CatalogEntityListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import lombok.Data;
 
+import java.time.Instant;
+
 /**
- * Entity representing a Song in the MusicHub system.
- * Data is typically cached from external APIs (iTunes, Genius) here.
+ * Entity representing a Beat uploaded by a Creator in the MusicHub system.
+ * Beats are matched to creators and listeners by mood and genre.
  */
 @Entity
 @Data
-@Table(name = "songs")
-public class Song {
+@EntityListeners(CatalogEntityListener.class) // Keeps the in-memory catalog indexes in sync
+@Table(name = "beats", indexes = { // Serve "mood/genre IN (...) ORDER BY popularity" from the index
+        @Index(name = "idx_beats_mood_popularity", columnList = "mood_code, popularity"),
+        @Index(name = "idx_beats_genre_popularity", columnList = "genre_code, popularity"),
+        @Index(name = "idx_beats_modified_at", columnList = "modified_at")})
+public class Beat {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id; // Primary key for local caching
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "beats_ids")
+    @TableGenerator(name = "beats_ids", table = IdGenerators.TABLE, pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "beats", allocationSize = IdGenerators.ALLOCATION_SIZE)
+    private Long id; // Primary key, allocated in pooled blocks so inserts can be batched
 
-    private String songId; // Unique ID from external API (e.g., iTunes trackId)
-    private String title;
-    private String artist;
-    private String genre;
-    private String mood;
-    private String lyrics;
-    private String link; // Preview or video link
+    private String name;
+    private Long creatorId; // Id of the User (role 'CREATOR') who uploaded the beat
+    @Convert(converter = GenreCodeConverter.class)
+    @Column(name = "genre_code")
+    private String genre; // Stored as a code from the 'genres' dictionary
+    @Convert(converter = MoodCodeConverter.class)
+    @Column(name = "mood_code")
+    private String mood; // Stored as a code from the 'moods' dictionary
+    private String link; // Preview link
     private int popularity; // Used by the Recommendation Engine
+    @JsonIgnore
+    private Instant modifiedAt; // Set on every write by CatalogEntityListener (catalog snapshots replay from it)
 
 }
@@ -0,0 +1,30 @@
+package com.MusicHub.api.model;
+
+import com.MusicHub.api.catalog.TermDictionaries;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores the genre of a Song or Beat as its code in the 'genres' dictionary table.
+ * Codes are registered before the entity is written (CatalogEntityListener), so this only
+ * looks them up; a query for a genre nobody has binds TermDictionary.UNKNOWN and matches nothing.
+ */
+@Converter
+public class GenreCodeConverter implements AttributeConverter<String, Short> {
+
+    private final TermDictionaries dictionaries;
+
+    public GenreCodeConverter(TermDictionaries dictionaries) {
+        this.dictionaries = dictionaries;
+    }
+
+    @Override
+    public Short convertToDatabaseColumn(String genre) {
+        return dictionaries.genres().code(genre);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Short code) {
+        return dictionaries.genres().name(code);
+    }
+}
@@ -0,0 +1,18 @@
+package com.MusicHub.api.model;
+
+/**
+ * Shared settings of the pooled table-based id generators used by Song, Beat and User.
+ *
+ * GenerationType.IDENTITY makes Hibernate insert every row on its own to learn the id,
+ * which disables JDBC batching. With a table generator Hibernate reserves ALLOCATION_SIZE
+ * ids per round trip to 'id_generators' and can batch the inserts themselves.
+ */
+public final class IdGenerators {
+
+    public static final int ALLOCATION_SIZE = 100;
+
+    public static final String TABLE = "id_generators";
+
+    private IdGenerators() {
+    }
+}
@@ -0,0 +1,30 @@
+package com.MusicHub.api.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+/**
+ * A user liking a song ('likes' table). Written in batches by the activity pipeline,
+ * the unique key makes a repeated like a no-op.
+ */
+@Entity
+@Data
+@Table(name = "likes",
+        uniqueConstraints = @UniqueConstraint(name = "uk_likes_user_song", columnNames = {"user_id", "song_id"}),
+        indexes = @Index(name = "ix_likes_song", columnList = "song_id"))
+public class Like {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY) // Rows are inserted with plain multi-row SQL, not Hibernate
+    private Long id;
+
+    private Long userId;
+    private Long songId;
+    private long likedAt; // Epoch millis
+}
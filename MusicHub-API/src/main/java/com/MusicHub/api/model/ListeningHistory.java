@@ -0,0 +1,26 @@
+package com.MusicHub.api.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * One play of a song by a user ('listening_history' table), written by the activity pipeline.
+ */
+@Entity
+@Data
+@Table(name = "listening_history", indexes = @Index(name = "ix_history_user_time", columnList = "user_id, played_at"))
+public class ListeningHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY) // Rows are inserted with plain multi-row SQL, not Hibernate
+    private Long id;
+
+    private Long userId;
+    private Long songId;
+    private long playedAt; // Epoch millis
+}
@@ -0,0 +1,26 @@
+package com.MusicHub.api.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Dictionary row for a mood name. Songs and beats store the small code instead of the text
+ * (see TermDictionary); rows are only ever added, never renamed or deleted.
+ */
+@Entity
+@Data
+@Table(name = "moods")
+public class Mood {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Short code; // SMALLINT, referenced by songs.mood_code and beats.mood_code
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String name;
+}
@@ -0,0 +1,30 @@
+package com.MusicHub.api.model;
+
+import com.MusicHub.api.catalog.TermDictionaries;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores the mood of a Song or Beat as its code in the 'moods' dictionary table.
+ * Codes are registered before the entity is written (CatalogEntityListener), so this only
+ * looks them up; a query for a mood nobody has binds TermDictionary.UNKNOWN and matches nothing.
+ */
+@Converter
+public class MoodCodeConverter implements AttributeConverter<String, Short> {
+
+    private final TermDictionaries dictionaries;
+
+    public MoodCodeConverter(TermDictionaries dictionaries) {
+        this.dictionaries = dictionaries;
+    }
+
+    @Override
+    public Short convertToDatabaseColumn(String mood) {
+        return dictionaries.moods().code(mood);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Short code) {
+        return dictionaries.moods().name(code);
+    }
+}
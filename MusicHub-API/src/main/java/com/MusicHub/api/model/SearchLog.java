@@ -0,0 +1,30 @@
+package com.MusicHub.api.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * A search typed by a user ('search_logs' table), written by the activity pipeline.
+ */
+@Entity
+@Data
+@Table(name = "search_logs", indexes = @Index(name = "ix_search_logs_user_time", columnList = "user_id, searched_at"))
+public class SearchLog {
+
+    public static final int MAX_QUERY_LENGTH = 255;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY) // Rows are inserted with plain multi-row SQL, not Hibernate
+    private Long id;
+
+    private Long userId;
+    @Column(name = "query_text", length = MAX_QUERY_LENGTH)
+    private String query;
+    private long searchedAt; // Epoch millis
+}
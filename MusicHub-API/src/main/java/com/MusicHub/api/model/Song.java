@@ -1,33 +1,55 @@
 package com.MusicHub.api.model;
 
+import com.MusicHub.api.catalog.CatalogEntityListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import lombok.Data;
 
+import java.time.Instant;
+
 /**
- * Entity representing a user (Listener or Creator) in the MusicHub system.
- * This class maps directly to the 'users' table in MySQL.
+ * Entity representing a Song in the MusicHub system.
+ * Data is typically cached from external APIs (iTunes, Genius) here.
  */
 @Entity
 @Data
-@Table(name = "users") // Maps this entity to the 'users' table in the database
+@EntityListeners(CatalogEntityListener.class) // Keeps the in-memory catalog indexes in sync
+@Table(name = "songs", indexes = { // Serve "mood/genre IN (...) ORDER BY popularity" from the index
+        @Index(name = "idx_songs_mood_popularity", columnList = "mood_code, popularity"),
+        @Index(name = "idx_songs_genre_popularity", columnList = "genre_code, popularity"),
+        @Index(name = "idx_songs_modified_at", columnList = "modified_at")})
 public class Song {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id; // Primary key, auto-incremented by MySQL
-
-    private String name;
-    private String email;
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "songs_ids")
+    @TableGenerator(name = "songs_ids", table = IdGenerators.TABLE, pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "songs", allocationSize = IdGenerators.ALLOCATION_SIZE)
+    private Long id; // Primary key for local caching (pooled, so inserts can be batched)
 
-    // Role determines if the user is a 'LISTENER' or 'CREATOR'
-    private String role;
+    @Column(unique = true)
+    private String songId; // Unique ID from external API (e.g., iTunes trackId)
+    private String title;
+    private String artist;
+    @Convert(converter = GenreCodeConverter.class)
+    @Column(name = "genre_code")
+    private String genre; // Stored as a code from the 'genres' dictionary
+    @Convert(converter = MoodCodeConverter.class)
+    @Column(name = "mood_code")
+    private String mood; // Stored as a code from the 'moods' dictionary
+    private String link; // Preview or video link
+    private int popularity; // Used by the Recommendation Engine
+    @JsonIgnore
+    private Instant modifiedAt; // Set on every write by CatalogEntityListener (catalog snapshots replay from it)
 
-    // User preferences (e.g., favorite genres, moods).
-    private String preferences;
+    // Lyrics live in the compressed 'song_lyrics' table (see SongLyrics / LyricsStore)
 
-    // Note: A real application would include a secure password hash here.
 }
@@ -0,0 +1,27 @@
+package com.MusicHub.api.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Lyrics of a Song, kept out of the hot 'songs' rows.
+ * Stored deflate-compressed and only read by the /songs/{id}/lyrics path.
+ */
+@Entity
+@Data
+@Table(name = "song_lyrics")
+public class SongLyrics {
+
+    @Id
+    private Long songId; // Same value as Song.id
+
+    @Lob
+    @Column(nullable = false, length = 16_777_215) // MEDIUMBLOB on MySQL
+    private byte[] compressed;
+
+    private int originalLength; // Size of the uncompressed UTF-8 text, used to size the inflate buffer
+}
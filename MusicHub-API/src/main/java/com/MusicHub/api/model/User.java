@@ -1,10 +1,12 @@
 package com.MusicHub.api.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import lombok.Data;
 
 /**
@@ -17,11 +19,15 @@ import lombok.Data;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id; // Primary key, auto-incremented by MySQL
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "users_ids")
+    @TableGenerator(name = "users_ids", table = IdGenerators.TABLE, pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "users", allocationSize = IdGenerators.ALLOCATION_SIZE)
+    private Long id; // Primary key, allocated in pooled blocks so inserts can be batched
 
     private String name;
-    private String email;
+
+    @Column(unique = true)
+    private String email; // Unique index: logins and registration checks look users up by email (lower-case)
 
     // Role determines if the user is a 'LISTENER' or 'CREATOR'
     private String role;
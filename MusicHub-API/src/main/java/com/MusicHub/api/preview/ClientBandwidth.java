@@ -0,0 +1,132 @@
+package com.MusicHub.api.preview;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Each client's share of the preview bandwidth: a token bucket of bytes, refilled at the
+ * client rate up to the burst size, and a cap on the client's concurrent streams. A client
+ * scrubbing through several previews splits its own share between them instead of taking
+ * bandwidth (and request threads) from everyone else.
+ */
+final class ClientBandwidth {
+
+    private static final long MIN_GRANT = 16 * 1024; // Smallest write worth waking up for
+
+    final class Client {
+        private final String key;
+        private double tokens = burst; // Guarded by this
+        private long refilledAt = System.nanoTime();
+        private int streams; // Guarded by the clients map (compute)
+
+        private Client(String key) {
+            this.key = key;
+        }
+
+        /**
+         * Takes the whole amount if the bucket holds it right now and no other stream of the
+         * client is open, i.e. the client is not being limited.
+         */
+        boolean tryTakeAlone(long bytes) {
+            boolean[] taken = new boolean[1];
+            clients.computeIfPresent(key, (k, client) -> {
+                taken[0] = client.streams == 1 && client.tryTake(bytes);
+                return client;
+            });
+            return taken[0];
+        }
+
+        private synchronized boolean tryTake(long bytes) {
+            refill();
+            if (tokens < bytes) {
+                return false;
+            }
+            tokens -= bytes;
+            return true;
+        }
+
+        /**
+         * Takes up to wanted bytes, waiting until the bucket holds at least a minimal grant.
+         * Blocking is cheap here: requests run on virtual threads.
+         */
+        long take(long wanted) throws InterruptedException {
+            long minimum = Math.min(wanted, MIN_GRANT);
+            while (true) {
+                long waitNanos;
+                synchronized (this) {
+                    refill();
+                    if (tokens >= minimum) {
+                        long granted = Math.min(wanted, (long) tokens);
+                        tokens -= granted;
+                        return granted;
+                    }
+                    waitNanos = (long) ((minimum - tokens) * 1_000_000_000L / rate);
+                }
+                Thread.sleep(Duration.ofNanos(Math.max(waitNanos, 1_000_000)));
+            }
+        }
+
+        /**
+         * Ends one of the client's streams.
+         */
+        void close() {
+            clients.computeIfPresent(key, (k, client) -> {
+                client.streams--;
+                return client;
+            });
+        }
+
+        private synchronized boolean isIdle() {
+            refill();
+            return tokens >= burst;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - refilledAt) * rate / 1_000_000_000.0);
+            refilledAt = now;
+        }
+    }
+
+    private final long rate; // Bytes per second
+    private final long burst;
+    private final int maxStreams;
+    private final Map<String, Client> clients = new ConcurrentHashMap<>();
+
+    ClientBandwidth(long bytesPerSecond, long burst, int maxStreams) {
+        this.rate = Math.max(1, bytesPerSecond);
+        this.burst = Math.max(MIN_GRANT, burst);
+        this.maxStreams = maxStreams;
+    }
+
+    /**
+     * Starts a stream for the client, or returns null when it already has maxStreams of them.
+     * The caller must close() the returned client.
+     */
+    Client open(String key) {
+        Client[] opened = new Client[1];
+        clients.compute(key, (k, client) -> {
+            if (client == null) {
+                client = new Client(k);
+            }
+            if (client.streams < maxStreams) {
+                client.streams++;
+                opened[0] = client;
+            }
+            return client;
+        });
+        return opened[0];
+    }
+
+    int clients() {
+        return clients.size();
+    }
+
+    // Forgets clients without streams whose bucket is full again: a new one would look the same
+    void purgeIdle() {
+        for (String key : clients.keySet()) {
+            clients.computeIfPresent(key, (k, client) -> client.streams == 0 && client.isIdle() ? null : client);
+        }
+    }
+}
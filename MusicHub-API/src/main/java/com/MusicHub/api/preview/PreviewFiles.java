@@ -0,0 +1,233 @@
+package com.MusicHub.api.preview;
+
+import com.MusicHub.api.catalog.CatalogChangedEvent;
+import com.MusicHub.api.model.Beat;
+import com.MusicHub.api.repository.BeatRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Where each beat's preview is, with open files kept for the most recently played beats.
+ *
+ * A beat's link is either the http(s) URL of a preview hosted elsewhere or the name of a file
+ * under musichub.previews.dir. A scrubbing client sends many Range requests for the same file,
+ * and a cached handle spares each of them the beat query and the open/close.
+ * Handles are ref-counted: the cache holds one reference and every response reading the file
+ * holds another, so a handle evicted or invalidated mid-transfer closes when the transfer ends.
+ */
+@Component
+public class PreviewFiles {
+
+    private static final Logger log = LoggerFactory.getLogger(PreviewFiles.class);
+
+    sealed interface Preview permits Redirect, LocalFile {
+    }
+
+    record Redirect(String url) implements Preview {
+    }
+
+    /**
+     * An open preview file. Paced streams read it positionally (channel.read(buffer, position) into
+     * pooled heap buffers), so all responses share the channel. Callers of PreviewFiles.acquire must
+     * release() it.
+     */
+    static final class LocalFile implements Preview {
+        final Path path;
+        final FileChannel channel;
+        final long size;
+        final long lastModified;
+        final MediaType contentType;
+        private final AtomicInteger refs = new AtomicInteger(1);
+
+        private LocalFile(Path path, FileChannel channel, BasicFileAttributes attributes) {
+            this.path = path;
+            this.channel = channel;
+            this.size = attributes.size();
+            this.lastModified = attributes.lastModifiedTime().toMillis();
+            this.contentType = MediaTypeFactory.getMediaType(path.getFileName().toString())
+                    .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        }
+
+        static LocalFile open(Path path) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                return new LocalFile(path, channel, Files.readAttributes(path, BasicFileAttributes.class));
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        String etag() {
+            return "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+        }
+
+        // false once the last reference is gone and the channel is closed
+        boolean retain() {
+            for (int count = refs.get(); count > 0; count = refs.get()) {
+                if (refs.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void release() {
+            if (refs.decrementAndGet() == 0) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    log.debug("Could not close preview file {}", path, e);
+                }
+            }
+        }
+
+        // A re-uploaded file has a new size or modification time (and, if it was replaced, a new inode)
+        boolean isCurrent() {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                return attributes.size() == size && attributes.lastModifiedTime().toMillis() == lastModified;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+
+    private final BeatRepository beatRepository;
+    private final Path dir;
+    private final int maxCached;
+
+    // Access-ordered, guarded by this: the eldest entry is the least recently requested beat
+    private final LinkedHashMap<Long, Preview> previews = new LinkedHashMap<>(16, 0.75f, true);
+    private long generation; // Bumped by every invalidation, so a lookup that raced with one is not cached
+
+    public PreviewFiles(BeatRepository beatRepository, MeterRegistry meterRegistry,
+                        @Value("${musichub.previews.dir:data/previews}") String dir,
+                        @Value("${musichub.previews.cached-beats:256}") int maxCached) {
+        this.beatRepository = beatRepository;
+        this.dir = Paths.get(dir).toAbsolutePath().normalize();
+        this.maxCached = maxCached;
+        Gauge.builder("musichub.previews.open-files", this, PreviewFiles::openFiles).register(meterRegistry);
+    }
+
+    /**
+     * The beat's preview, or empty when the beat does not exist or its file is missing.
+     * A LocalFile must be released by the caller.
+     */
+    Optional<Preview> acquire(long beatId) throws IOException {
+        Preview cached;
+        long seen;
+        synchronized (this) {
+            cached = previews.get(beatId);
+            seen = generation;
+            if (cached instanceof LocalFile file && !file.retain()) {
+                cached = null;
+            }
+        }
+        if (cached instanceof LocalFile file && !file.isCurrent()) {
+            invalidate(beatId, file);
+            file.release();
+            cached = null;
+        }
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<String> link = beatRepository.findById(beatId).map(Beat::getLink).map(String::trim).filter(l -> !l.isEmpty());
+        if (link.isEmpty()) {
+            return Optional.empty();
+        }
+        Preview preview;
+        if (link.get().startsWith("http://") || link.get().startsWith("https://")) {
+            preview = new Redirect(link.get());
+        } else {
+            Path path;
+            try {
+                path = dir.resolve(link.get()).normalize();
+            } catch (InvalidPathException e) {
+                path = null;
+            }
+            if (path == null || !path.startsWith(dir)) {
+                log.warn("Preview link of beat {} points outside {}: {}", beatId, dir, link.get());
+                return Optional.empty();
+            }
+            if (!Files.isRegularFile(path)) {
+                return Optional.empty();
+            }
+            preview = LocalFile.open(path);
+        }
+        return Optional.of(cache(beatId, preview, seen));
+    }
+
+    private synchronized Preview cache(long beatId, Preview preview, long seen) {
+        if (generation != seen) {
+            return preview; // Only the caller's reference
+        }
+        if (previews.get(beatId) instanceof LocalFile other && other.isCurrent() && other.retain()) {
+            release(preview); // Opened concurrently by another request
+            return other;
+        }
+        if (preview instanceof LocalFile file) {
+            file.retain(); // The cache's reference
+        }
+        release(previews.put(beatId, preview));
+        if (previews.size() > maxCached) {
+            Map.Entry<Long, Preview> eldest = previews.entrySet().iterator().next();
+            previews.remove(eldest.getKey());
+            release(eldest.getValue());
+        }
+        return preview;
+    }
+
+    private synchronized void invalidate(long beatId, LocalFile stale) {
+        if (previews.remove(beatId, stale)) {
+            stale.release();
+        }
+    }
+
+    // A changed or deleted beat may have a new link
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.entity() instanceof Beat beat && beat.getId() != null) {
+            generation++;
+            release(previews.remove(beat.getId()));
+        }
+    }
+
+    private synchronized long openFiles() {
+        return previews.values().stream().filter(LocalFile.class::isInstance).count();
+    }
+
+    private static void release(Preview preview) {
+        if (preview instanceof LocalFile file) {
+            file.release();
+        }
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        previews.values().forEach(PreviewFiles::release);
+        previews.clear();
+    }
+}
@@ -0,0 +1,224 @@
+package com.MusicHub.api.preview;
+
+import com.MusicHub.api.preview.PreviewFiles.LocalFile;
+import com.MusicHub.api.preview.PreviewFiles.Preview;
+import com.MusicHub.api.preview.PreviewFiles.Redirect;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Serves beat previews we host ourselves, with HTTP Range support (one range per response;
+ * several requested ranges are coalesced into the one covering them, as RFC 9110 allows).
+ *
+ * Two ways to send the bytes:
+ * - If this is the client's only preview stream and its bandwidth share covers the whole range
+ *   right away (typical for the short ranges of a scrub), Tomcat sends the file with sendfile
+ *   once the handler returns. The kernel copies it to the socket, and no request thread waits
+ *   for the client. The stream slot is given back when the handler returns, while the kernel
+ *   may still be sending; the range was paid for up front, so the client cannot get past its
+ *   share that way, and the cap only has to guard the request threads of paced streams.
+ * - Otherwise the range is paced through the client's token bucket: chunks are read from the
+ *   cached handle into a pooled buffer and written to the response, holding the slot until the
+ *   last one is written. The servlet API does not expose the socket, so this is one copy into
+ *   Tomcat's output buffer per chunk.
+ */
+@Service
+public class PreviewStreams {
+
+    private static final Logger log = LoggerFactory.getLogger(PreviewStreams.class);
+
+    // Tomcat's sendfile request attributes (org.apache.catalina.Globals), set only by the NIO/NIO2 connectors
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final long SENDFILE_MIN = 48 * 1024; // Tomcat's DefaultServlet default: smaller ranges are just written
+    private static final int CHUNK = 64 * 1024;
+    private static final int POOLED_BUFFERS = 64; // Paced streams beyond this many allocate their own
+
+    private final PreviewFiles previewFiles;
+    private final ClientBandwidth bandwidth;
+    private final Counter sentByKernel;
+    private final Counter sentByChannel;
+    private final Counter rejected;
+    private final BlockingQueue<ByteBuffer> buffers = new ArrayBlockingQueue<>(POOLED_BUFFERS);
+
+    public PreviewStreams(PreviewFiles previewFiles, MeterRegistry meterRegistry,
+                          @Value("${musichub.previews.client-bytes-per-second:1MB}") DataSize clientRate,
+                          @Value("${musichub.previews.client-burst:2MB}") DataSize clientBurst,
+                          @Value("${musichub.previews.max-streams-per-client:4}") int maxStreamsPerClient) {
+        this.previewFiles = previewFiles;
+        this.bandwidth = new ClientBandwidth(clientRate.toBytes(), clientBurst.toBytes(), maxStreamsPerClient);
+        this.sentByKernel = Counter.builder("musichub.previews.bytes").tag("transfer", "sendfile").register(meterRegistry);
+        this.sentByChannel = Counter.builder("musichub.previews.bytes").tag("transfer", "paced").register(meterRegistry);
+        this.rejected = Counter.builder("musichub.previews.rejected").description("Streams over a client's limit")
+                .register(meterRegistry);
+        Gauge.builder("musichub.previews.clients", bandwidth, ClientBandwidth::clients).register(meterRegistry);
+    }
+
+    /**
+     * Writes the beat's preview (or the part of it the Range header asks for), redirects to
+     * previews hosted elsewhere; 404 when the beat has none.
+     */
+    public void serve(long beatId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<Preview> preview = previewFiles.acquire(beatId);
+        if (preview.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Beat " + beatId + " has no preview");
+        }
+        if (preview.get() instanceof Redirect redirect) {
+            response.sendRedirect(redirect.url());
+            return;
+        }
+        LocalFile file = (LocalFile) preview.get();
+        try {
+            serve(file, request, response);
+        } finally {
+            file.release();
+        }
+    }
+
+    private void serve(LocalFile file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // Behind a proxy, server.forward-headers-strategy makes this the real client address
+        ClientBandwidth.Client client = bandwidth.open(request.getRemoteAddr());
+        if (client == null) {
+            rejected.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many preview streams from this client");
+        }
+        try {
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            if (new ServletWebRequest(request, response).checkNotModified(file.etag(), file.lastModified)) {
+                return;
+            }
+            long start = 0;
+            long end = file.size - 1;
+            String range = request.getHeader(HttpHeaders.RANGE);
+            if (range != null && ifRangeMatches(request, file)) {
+                long[] covering = covering(range, file.size);
+                if (covering == null) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + file.size);
+                    return;
+                }
+                if (covering.length == 2) {
+                    start = covering[0];
+                    end = covering[1];
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + file.size);
+                }
+            }
+            long length = end - start + 1;
+            response.setContentType(file.contentType.toString());
+            response.setContentLengthLong(length);
+            if ("HEAD".equals(request.getMethod()) || length == 0) {
+                return;
+            }
+
+            if (length >= SENDFILE_MIN && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))
+                    && client.tryTakeAlone(length)) {
+                request.setAttribute(SENDFILE_FILENAME, file.path.toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end + 1); // Exclusive
+                sentByKernel.increment(length);
+                return;
+            }
+            transfer(file, start, length, client, response);
+        } finally {
+            client.close();
+        }
+    }
+
+    private void transfer(LocalFile file, long start, long length, ClientBandwidth.Client client,
+                          HttpServletResponse response) throws IOException {
+        OutputStream out = response.getOutputStream();
+        ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocate(CHUNK);
+        }
+        long position = start;
+        long remaining = length;
+        try {
+            while (remaining > 0) {
+                buffer.clear().limit((int) client.take(Math.min(remaining, CHUNK)));
+                int read = file.channel.read(buffer, position);
+                if (read <= 0) { // Truncated since it was opened
+                    break;
+                }
+                out.write(buffer.array(), 0, read);
+                sentByChannel.increment(read);
+                position += read;
+                remaining -= read;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) { // Usually the client went away (seeked elsewhere); nothing can be sent anymore
+            log.debug("Preview stream of {} ended after {} of {} bytes: {}", file.path, length - remaining, length, e.toString());
+        } finally {
+            buffers.offer(buffer);
+        }
+    }
+
+    // The first and last byte covering every satisfiable range; {} for a header to ignore, null if nothing is satisfiable
+    private static long[] covering(String header, long size) {
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(header);
+        } catch (IllegalArgumentException e) { // Malformed (or too many ranges): serve the whole file
+            return new long[0];
+        }
+        long first = Long.MAX_VALUE;
+        long last = -1;
+        for (HttpRange range : ranges) {
+            try {
+                first = Math.min(first, range.getRangeStart(size));
+                last = Math.max(last, range.getRangeEnd(size));
+            } catch (IllegalArgumentException e) {
+                // Starts beyond the end of the file
+            }
+        }
+        return last < first ? null : new long[] {first, last};
+    }
+
+    // If-Range: only send a part if the client's copy is still the current file, otherwise all of it
+    private static boolean ifRangeMatches(HttpServletRequest request, LocalFile file) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(file.etag()); // Strong comparison
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) == file.lastModified / 1000 * 1000; // HTTP dates have seconds
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${musichub.previews.client-purge-interval:PT1M}")
+    public void purgeIdleClients() {
+        bandwidth.purgeIdle();
+    }
+}
@@ -0,0 +1,288 @@
+package com.MusicHub.api.recommendation;
+
+import com.MusicHub.api.activity.ActivityEvent;
+import com.MusicHub.api.activity.ActivityListener;
+import com.MusicHub.api.activity.ActivityStoreLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Item-item collaborative filtering over likes and listening history
+ * ("people who liked this song also liked ...").
+ *
+ * Startup loads both tables into an InteractionMatrix and computes every song's neighbours
+ * in parallel. Afterwards, activity stored by the ActivityPipeline is buffered as a delta;
+ * every refresh interval the delta is merged into a new matrix and only the songs it touched
+ * get their neighbour rows recomputed. On a much longer interval the model is reloaded from
+ * MySQL and recomputed in full, which corrects the drift of the incremental updates.
+ * Readers always see a consistent snapshot.
+ *
+ * A (re)load reads MySQL while the pipeline is not storing (ActivityStoreLock) and drops the
+ * activity buffered until then, which the read includes; everything delivered afterwards is
+ * merged on top, so nothing is missed or counted twice. The pipeline delivers each (user, song)
+ * like only once, as the likes table stores it.
+ */
+@Service
+public class CollaborativeFilter implements ActivityListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CollaborativeFilter.class);
+
+    // Implicit feedback weights: a like counts fully, each play a little, capped per cell
+    static final float LIKE_WEIGHT = 1.0f;
+    static final float PLAY_WEIGHT = 0.25f;
+    static final float MAX_CELL_WEIGHT = 2.0f;
+    private static final int MAX_PROFILE_ITEMS = 200; // Strongest songs of a user used for scoring
+
+    private record Snapshot(InteractionMatrix matrix, ItemNeighbours neighbours) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ActivityStoreLock storeLock;
+    private final int neighboursPerItem;
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+    private final Object modelLock = new Object(); // Serializes load, refresh and rebuild
+    private volatile Snapshot snapshot;
+    private volatile boolean loaded;
+    private volatile long version;      // Bumped after every new snapshot (for ETags)
+    private volatile long updatedAt = System.currentTimeMillis();
+
+    // Activity stored since the last refresh (guarded by this)
+    private long[] deltaUsers = new long[256];
+    private long[] deltaItems = new long[256];
+    private float[] deltaWeights = new float[256];
+    private int deltaSize;
+
+    public CollaborativeFilter(JdbcTemplate jdbcTemplate, ActivityStoreLock storeLock,
+                               @Value("${musichub.recommendations.collaborative.neighbours:50}") int neighboursPerItem) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.storeLock = storeLock;
+        this.neighboursPerItem = neighboursPerItem;
+        this.snapshot = new Snapshot(InteractionMatrix.empty(), ItemNeighbours.empty(neighboursPerItem));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (modelLock) {
+            reload();
+            loaded = true;
+        }
+    }
+
+    @Override
+    public synchronized void onActivity(List<ActivityEvent> events) {
+        for (ActivityEvent event : events) {
+            float weight = switch (event.type()) {
+                case LIKE -> LIKE_WEIGHT;
+                case PLAY -> PLAY_WEIGHT;
+                case SEARCH -> 0;
+            };
+            if (weight == 0) {
+                continue;
+            }
+            if (deltaSize == deltaUsers.length) {
+                deltaUsers = Arrays.copyOf(deltaUsers, deltaSize * 2);
+                deltaItems = Arrays.copyOf(deltaItems, deltaSize * 2);
+                deltaWeights = Arrays.copyOf(deltaWeights, deltaSize * 2);
+            }
+            deltaUsers[deltaSize] = event.userId();
+            deltaItems[deltaSize] = event.songId();
+            deltaWeights[deltaSize] = weight;
+            deltaSize++;
+        }
+    }
+
+    /**
+     * Merges buffered activity into the model, recomputing only the affected songs.
+     */
+    @Scheduled(fixedDelayString = "${musichub.recommendations.collaborative.refresh-interval:PT30S}")
+    public void refresh() {
+        if (!loaded) {
+            return; // Activity stays buffered until the model has been loaded
+        }
+        synchronized (modelLock) {
+            mergeDelta();
+        }
+    }
+
+    private void mergeDelta() {
+        Snapshot current = snapshot;
+        InteractionMatrix.Builder builder = current.matrix().toBuilder().maxWeight(MAX_CELL_WEIGHT);
+        long[] items = drainDelta(builder);
+        if (items.length == 0) {
+            return;
+        }
+        InteractionMatrix matrix = builder.build();
+        int[] dirty = Arrays.stream(items).mapToInt(matrix.itemIndex::get).distinct().toArray();
+        snapshot = new Snapshot(matrix, current.neighbours().update(matrix, dirty, pool));
+        published();
+    }
+
+    // Moves the buffered activity into the builder and returns the songs it touched
+    private long[] drainDelta(InteractionMatrix.Builder builder) {
+        synchronized (this) {
+            for (int i = 0; i < deltaSize; i++) {
+                builder.add(deltaUsers[i], deltaItems[i], deltaWeights[i]);
+            }
+            long[] items = Arrays.copyOf(deltaItems, deltaSize);
+            deltaSize = 0;
+            return items;
+        }
+    }
+
+    // Reads both tables from MySQL, adds the activity delivered since and recomputes every song.
+    // Buffered activity is dropped when the read starts: it is stored, so the queries see it. Called under modelLock.
+    private void reload() {
+        long start = System.currentTimeMillis();
+        InteractionMatrix.Builder builder = new InteractionMatrix.Builder().maxWeight(MAX_CELL_WEIGHT);
+        storeLock.whileNotStoring(() -> {
+            synchronized (this) {
+                deltaSize = 0;
+            }
+            jdbcTemplate.query("SELECT user_id, song_id FROM likes",
+                    rs -> {
+                        builder.add(rs.getLong(1), rs.getLong(2), LIKE_WEIGHT);
+                    });
+            jdbcTemplate.query("SELECT user_id, song_id, COUNT(*) FROM listening_history GROUP BY user_id, song_id",
+                    rs -> {
+                        builder.add(rs.getLong(1), rs.getLong(2), PLAY_WEIGHT * rs.getInt(3));
+                    });
+            return builder;
+        });
+        drainDelta(builder);
+        InteractionMatrix matrix = builder.build();
+        recomputeAll(matrix);
+        log.info("Collaborative model built: {} users, {} songs, {} interactions in {} ms",
+                matrix.users(), matrix.items(), matrix.nonZeros(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Periodic reload and full recompute: corrects whatever the incremental updates got wrong, and
+     * lets rows of songs that were never dirty catch up with norm changes.
+     */
+    @Scheduled(initialDelayString = "${musichub.recommendations.collaborative.rebuild-interval:PT6H}",
+            fixedDelayString = "${musichub.recommendations.collaborative.rebuild-interval:PT6H}")
+    public void rebuild() {
+        if (!loaded) {
+            return;
+        }
+        synchronized (modelLock) {
+            reload();
+        }
+    }
+
+    private void recomputeAll(InteractionMatrix matrix) {
+        snapshot = new Snapshot(matrix, ItemNeighbours.compute(matrix, neighboursPerItem, pool));
+        published();
+    }
+
+    // Called under modelLock, after the snapshot is visible
+    private void published() {
+        updatedAt = System.currentTimeMillis();
+        version++;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public long updatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Songs the user has not interacted with yet, scored by the summed similarity to the songs
+     * they have (weighted by how strongly they liked them). Empty for unknown users.
+     */
+    public List<ScoredItem> recommend(long userId, int k) {
+        Snapshot current = snapshot;
+        InteractionMatrix matrix = current.matrix();
+        ItemNeighbours neighbours = current.neighbours();
+        int user = matrix.userIndex.get(userId);
+        if (user < 0 || k <= 0) {
+            return List.of();
+        }
+
+        int from = matrix.userPtr[user];
+        int to = matrix.userPtr[user + 1];
+        int[] profile = strongest(matrix, from, to);
+        LongIntHashMap seen = new LongIntHashMap(to - from);
+        for (int p = from; p < to; p++) {
+            seen.put(matrix.userItems[p], p);
+        }
+
+        // Candidate song index -> slot in the score arrays
+        LongIntHashMap slots = new LongIntHashMap(profile.length * neighbours.perItem());
+        int[] candidates = new int[profile.length * neighbours.perItem()];
+        float[] scores = new float[candidates.length];
+        int count = 0;
+        for (int p : profile) {
+            int item = matrix.userItems[p];
+            for (int rank = 0; rank < neighbours.perItem(); rank++) {
+                int other = neighbours.neighbour(item, rank);
+                if (other < 0) {
+                    break;
+                }
+                if (seen.get(other) >= 0) {
+                    continue;
+                }
+                int slot = slots.get(other);
+                if (slot < 0) {
+                    slot = count++;
+                    slots.put(other, slot);
+                    candidates[slot] = other;
+                }
+                scores[slot] += matrix.userWeights[p] * neighbours.score(item, rank);
+            }
+        }
+
+        Integer[] order = new Integer[count];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, (a, b) -> Float.compare(scores[b], scores[a]));
+        List<ScoredItem> result = new ArrayList<>(Math.min(k, count));
+        for (int i = 0; i < count && result.size() < k; i++) {
+            result.add(new ScoredItem(matrix.itemIds[candidates[order[i]]], scores[order[i]]));
+        }
+        return result;
+    }
+
+    /**
+     * Ids of the songs the user interacted with, strongest first (at most limit).
+     */
+    public List<Long> profile(long userId, int limit) {
+        InteractionMatrix matrix = snapshot.matrix();
+        int user = matrix.userIndex.get(userId);
+        if (user < 0) {
+            return List.of();
+        }
+        int[] strongest = strongest(matrix, matrix.userPtr[user], matrix.userPtr[user + 1]);
+        List<Long> ids = new ArrayList<>(Math.min(limit, strongest.length));
+        for (int i = 0; i < strongest.length && ids.size() < limit; i++) {
+            ids.add(matrix.itemIds[matrix.userItems[strongest[i]]]);
+        }
+        return ids;
+    }
+
+    // Positions in the user row of the heaviest cells, heaviest first
+    private static int[] strongest(InteractionMatrix matrix, int from, int to) {
+        Integer[] positions = new Integer[to - from];
+        Arrays.setAll(positions, i -> from + i);
+        Arrays.sort(positions, (a, b) -> Float.compare(matrix.userWeights[b], matrix.userWeights[a]));
+        int n = Math.min(positions.length, MAX_PROFILE_ITEMS);
+        int[] result = new int[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = positions[i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,416 @@
+package com.MusicHub.api.recommendation;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.function.LongPredicate;
+
+/**
+ * Hierarchical navigable small world graph (Malkov and Yashunin) for approximate nearest
+ * neighbour search by dot product over unit-length vectors.
+ *
+ * Nodes are dense ints. All vectors live in one flat float[] (node * dimensions), level-0 links
+ * in one flat int[] with a count before each node's block, and only the few nodes that reach
+ * the upper levels get a small int[] for them. A search descends greedily through the sparse
+ * upper levels and finishes with a best-first search of width ef on level 0, which touches
+ * O(log n) nodes.
+ *
+ * The graph cannot unlink a node: removing an id, or re-adding it with a clearly different
+ * vector, tombstones its node, which keeps routing searches but is never returned.
+ * Searches may run concurrently; writes need exclusive access.
+ */
+final class HnswIndex {
+
+    private static final int MAGIC = 0x484E5357; // "HNSW"
+    private static final int FORMAT = 1;
+    private static final int MAX_LEVEL = 16;
+    // A re-added vector this close to the old one keeps the old node and its links
+    private static final float IN_PLACE_SIMILARITY = 0.9f;
+
+    private record Candidate(int node, float similarity) {
+    }
+
+    private static final Comparator<Candidate> BEST_FIRST = (a, b) -> Float.compare(b.similarity, a.similarity);
+    private static final Comparator<Candidate> WORST_FIRST = BEST_FIRST.reversed();
+
+    private final int dimensions;
+    private final int maxLinks;  // M: links per node on the upper levels
+    private final int maxLinks0; // 2M on level 0
+    private final int efConstruction;
+    private final double levelFactor;
+    private final SplittableRandom random = new SplittableRandom(42); // Deterministic levels
+    private final LongIntHashMap nodeOf; // id -> current node, -1 once removed
+    private final BitSet deleted = new BitSet();
+
+    private float[] vectors;
+    private long[] ids;
+    private byte[] levels;
+    private int[] links0;       // Per node: count, then up to maxLinks0 neighbours
+    private int[][] upperLinks; // Per node: count + maxLinks neighbours for each level above 0, null on level 0
+    private int size;
+    private int deletedCount;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    HnswIndex(int dimensions, int maxLinks, int efConstruction, int expectedSize) {
+        this.dimensions = dimensions;
+        this.maxLinks = maxLinks;
+        this.maxLinks0 = 2 * maxLinks;
+        this.efConstruction = efConstruction;
+        this.levelFactor = 1 / Math.log(maxLinks);
+        int capacity = Math.max(16, expectedSize);
+        this.nodeOf = new LongIntHashMap(capacity);
+        this.vectors = new float[capacity * dimensions];
+        this.ids = new long[capacity];
+        this.levels = new byte[capacity];
+        this.links0 = new int[capacity * (maxLinks0 + 1)];
+        this.upperLinks = new int[capacity][];
+    }
+
+    int dimensions() {
+        return dimensions;
+    }
+
+    // Ids that can be returned by a search
+    int size() {
+        return size - deletedCount;
+    }
+
+    int deletedCount() {
+        return deletedCount;
+    }
+
+    /**
+     * Adds the vector under the id. Re-adding an id whose vector barely moved (say, only its
+     * popularity changed) overwrites the vector in place, otherwise the old node is tombstoned.
+     */
+    void add(long id, float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions, got " + vector.length);
+        }
+        int existing = nodeOf.get(id);
+        if (existing >= 0) {
+            if (similarity(vector, 0, existing) >= IN_PLACE_SIMILARITY) {
+                System.arraycopy(vector, 0, vectors, existing * dimensions, dimensions);
+                return;
+            }
+            delete(existing);
+        }
+        int node = allocate(id, vector);
+        nodeOf.put(id, node);
+        link(node);
+    }
+
+    void remove(long id) {
+        int node = nodeOf.get(id);
+        if (node >= 0) {
+            delete(node);
+            nodeOf.put(id, -1);
+        }
+    }
+
+    // Tombstones every id the predicate rejects; returns how many
+    int retainOnly(LongPredicate keep) {
+        int removed = 0;
+        for (int node = 0; node < size; node++) {
+            if (!deleted.get(node) && !keep.test(ids[node])) {
+                remove(ids[node]);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    // A copy of the id's vector, or null when it is not indexed
+    float[] vector(long id) {
+        int node = nodeOf.get(id);
+        return node < 0 ? null : Arrays.copyOfRange(vectors, node * dimensions, (node + 1) * dimensions);
+    }
+
+    /**
+     * The (at most) k indexed ids most similar to the query, best first.
+     * ef is the width of the level-0 search: larger is slower but misses fewer neighbours.
+     */
+    List<ScoredItem> search(float[] query, int k, int ef) {
+        if (entryPoint < 0 || k <= 0) {
+            return List.of();
+        }
+        int current = entryPoint;
+        for (int level = maxLevel; level > 0; level--) {
+            current = closest(query, 0, current, level);
+        }
+        List<ScoredItem> result = new ArrayList<>(k);
+        for (Candidate candidate : searchLevel(query, 0, current, Math.max(ef, k), 0)) {
+            if (!deleted.get(candidate.node)) {
+                result.add(new ScoredItem(ids[candidate.node], candidate.similarity));
+                if (result.size() == k) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private int allocate(long id, float[] vector) {
+        if (size == ids.length) {
+            int capacity = ids.length + (ids.length >> 1);
+            vectors = Arrays.copyOf(vectors, capacity * dimensions);
+            ids = Arrays.copyOf(ids, capacity);
+            levels = Arrays.copyOf(levels, capacity);
+            links0 = Arrays.copyOf(links0, capacity * (maxLinks0 + 1));
+            upperLinks = Arrays.copyOf(upperLinks, capacity);
+        }
+        int node = size++;
+        System.arraycopy(vector, 0, vectors, node * dimensions, dimensions);
+        ids[node] = id;
+        int level = Math.min(MAX_LEVEL, (int) (-Math.log(1 - random.nextDouble()) * levelFactor));
+        levels[node] = (byte) level;
+        if (level > 0) {
+            upperLinks[node] = new int[level * (maxLinks + 1)];
+        }
+        return node;
+    }
+
+    private void delete(int node) {
+        if (!deleted.get(node)) {
+            deleted.set(node);
+            deletedCount++;
+        }
+    }
+
+    private void link(int node) {
+        int level = levels[node];
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+        int offset = node * dimensions;
+        int current = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            current = closest(vectors, offset, current, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            List<Candidate> nearest = searchLevel(vectors, offset, current, efConstruction, l);
+            List<Candidate> neighbours = selectNeighbours(nearest, maxLinks);
+            int[] links = links(node, l);
+            int start = start(node, l);
+            links[start] = neighbours.size();
+            for (int i = 0; i < neighbours.size(); i++) {
+                links[start + 1 + i] = neighbours.get(i).node;
+                connect(neighbours.get(i).node, l, node);
+            }
+            current = nearest.get(0).node;
+        }
+        if (level > maxLevel) {
+            entryPoint = node;
+            maxLevel = level;
+        }
+    }
+
+    // Adds a link from -> to, pruning from's links when they are full
+    private void connect(int from, int level, int to) {
+        int[] links = links(from, level);
+        int start = start(from, level);
+        int count = links[start];
+        int capacity = level == 0 ? maxLinks0 : maxLinks;
+        if (count < capacity) {
+            links[start + 1 + count] = to;
+            links[start] = count + 1;
+            return;
+        }
+        int offset = from * dimensions;
+        List<Candidate> candidates = new ArrayList<>(count + 1);
+        for (int i = 1; i <= count; i++) {
+            candidates.add(new Candidate(links[start + i], similarity(vectors, offset, links[start + i])));
+        }
+        candidates.add(new Candidate(to, similarity(vectors, offset, to)));
+        candidates.sort(BEST_FIRST);
+        List<Candidate> kept = selectNeighbours(candidates, capacity);
+        links[start] = kept.size();
+        for (int i = 0; i < kept.size(); i++) {
+            links[start + 1 + i] = kept.get(i).node;
+        }
+    }
+
+    /**
+     * The HNSW neighbour heuristic: from candidates sorted best first, prefer the ones that are
+     * closer to the base than to any neighbour already chosen, so links spread out in different
+     * directions instead of all pointing into one cluster. The rest fill up the remaining slots.
+     */
+    private List<Candidate> selectNeighbours(List<Candidate> candidates, int max) {
+        List<Candidate> chosen = new ArrayList<>(max);
+        List<Candidate> skipped = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if (chosen.size() == max) {
+                break;
+            }
+            boolean diverse = true;
+            int offset = candidate.node * dimensions;
+            for (Candidate other : chosen) {
+                if (similarity(vectors, offset, other.node) > candidate.similarity) {
+                    diverse = false;
+                    break;
+                }
+            }
+            (diverse ? chosen : skipped).add(candidate);
+        }
+        for (int i = 0; i < skipped.size() && chosen.size() < max; i++) {
+            chosen.add(skipped.get(i));
+        }
+        return chosen;
+    }
+
+    // Greedy walk on one level: moves to the most similar neighbour until none is better
+    private int closest(float[] query, int queryOffset, int entry, int level) {
+        int current = entry;
+        float best = similarity(query, queryOffset, current);
+        for (boolean moved = true; moved; ) {
+            moved = false;
+            int[] links = links(current, level);
+            int start = start(current, level);
+            for (int i = 1; i <= links[start]; i++) {
+                int neighbour = links[start + i];
+                float similarity = similarity(query, queryOffset, neighbour);
+                if (similarity > best) {
+                    best = similarity;
+                    current = neighbour;
+                    moved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    // Best-first search of width ef on one level; returns the ef best nodes found, best first
+    private List<Candidate> searchLevel(float[] query, int queryOffset, int entry, int ef, int level) {
+        LongIntHashMap visited = new LongIntHashMap(4 * ef);
+        PriorityQueue<Candidate> frontier = new PriorityQueue<>(BEST_FIRST);
+        PriorityQueue<Candidate> found = new PriorityQueue<>(WORST_FIRST);
+        Candidate first = new Candidate(entry, similarity(query, queryOffset, entry));
+        visited.put(entry, 0);
+        frontier.add(first);
+        found.add(first);
+        while (!frontier.isEmpty()) {
+            Candidate candidate = frontier.poll();
+            if (found.size() >= ef && candidate.similarity < found.peek().similarity) {
+                break; // Everything left is worse than the worst result
+            }
+            int[] links = links(candidate.node, level);
+            int start = start(candidate.node, level);
+            for (int i = 1; i <= links[start]; i++) {
+                int neighbour = links[start + i];
+                if (visited.get(neighbour) >= 0) {
+                    continue;
+                }
+                visited.put(neighbour, 0);
+                float similarity = similarity(query, queryOffset, neighbour);
+                if (found.size() < ef || similarity > found.peek().similarity) {
+                    Candidate next = new Candidate(neighbour, similarity);
+                    frontier.add(next);
+                    found.add(next);
+                    if (found.size() > ef) {
+                        found.poll();
+                    }
+                }
+            }
+        }
+        List<Candidate> result = new ArrayList<>(found);
+        result.sort(BEST_FIRST);
+        return result;
+    }
+
+    private int[] links(int node, int level) {
+        return level == 0 ? links0 : upperLinks[node];
+    }
+
+    private int start(int node, int level) {
+        return level == 0 ? node * (maxLinks0 + 1) : (level - 1) * (maxLinks + 1);
+    }
+
+    private float similarity(float[] query, int queryOffset, int node) {
+        int offset = node * dimensions;
+        float sum = 0;
+        for (int i = 0; i < dimensions; i++) {
+            sum += query[queryOffset + i] * vectors[offset + i];
+        }
+        return sum;
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT);
+        out.writeInt(dimensions);
+        out.writeInt(maxLinks);
+        out.writeInt(efConstruction);
+        out.writeInt(size);
+        out.writeInt(entryPoint);
+        out.writeInt(maxLevel);
+        for (int node = 0; node < size; node++) {
+            out.writeLong(ids[node]);
+            out.writeBoolean(deleted.get(node));
+            out.writeByte(levels[node]);
+            for (int i = node * dimensions; i < (node + 1) * dimensions; i++) {
+                out.writeFloat(vectors[i]);
+            }
+            for (int level = 0; level <= levels[node]; level++) {
+                int[] links = links(node, level);
+                int start = start(node, level);
+                out.writeShort(links[start]);
+                for (int i = 1; i <= links[start]; i++) {
+                    out.writeInt(links[start + i]);
+                }
+            }
+        }
+    }
+
+    static HnswIndex readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an HNSW index");
+        }
+        int format = in.readInt();
+        if (format != FORMAT) {
+            throw new IOException("Unsupported HNSW index format " + format);
+        }
+        int dimensions = in.readInt();
+        int maxLinks = in.readInt();
+        int efConstruction = in.readInt();
+        int size = in.readInt();
+        HnswIndex index = new HnswIndex(dimensions, maxLinks, efConstruction, size);
+        index.entryPoint = in.readInt();
+        index.maxLevel = in.readInt();
+        index.size = size;
+        for (int node = 0; node < size; node++) {
+            index.ids[node] = in.readLong();
+            if (in.readBoolean()) {
+                index.delete(node);
+            } else {
+                index.nodeOf.put(index.ids[node], node);
+            }
+            int level = in.readByte();
+            index.levels[node] = (byte) level;
+            if (level > 0) {
+                index.upperLinks[node] = new int[level * (maxLinks + 1)];
+            }
+            for (int i = node * dimensions; i < (node + 1) * dimensions; i++) {
+                index.vectors[i] = in.readFloat();
+            }
+            for (int l = 0; l <= level; l++) {
+                int[] links = index.links(node, l);
+                int start = index.start(node, l);
+                links[start] = in.readShort();
+                for (int i = 1; i <= links[start]; i++) {
+                    links[start + i] = in.readInt();
+                }
+            }
+        }
+        return index;
+    }
+}
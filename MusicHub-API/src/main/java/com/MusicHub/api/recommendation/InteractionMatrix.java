@@ -0,0 +1,223 @@
+package com.MusicHub.api.recommendation;
+
+import java.util.Arrays;
+
+/**
+ * Immutable sparse user x song matrix of implicit feedback weights, stored twice in CSR form:
+ * by user (row = user, the songs they interacted with) and by song (row = song, its users).
+ * Cells are primitive int/float arrays; user and song ids map to dense indexes through
+ * LongIntHashMaps, and indexes stay stable when the matrix is rebuilt with more data, so
+ * per-song results computed on an older matrix remain valid.
+ */
+final class InteractionMatrix {
+
+    final LongIntHashMap userIndex;
+    final LongIntHashMap itemIndex;
+    final long[] userIds;
+    final long[] itemIds;
+
+    final int[] userPtr;     // Row r of the user CSR spans [userPtr[r], userPtr[r + 1])
+    final int[] userItems;
+    final float[] userWeights;
+
+    final int[] itemPtr;     // Row r of the song CSR spans [itemPtr[r], itemPtr[r + 1])
+    final int[] itemUsers;
+    final float[] itemWeights;
+    final float[] itemNorms; // Euclidean norm of each song's column, for cosine similarity
+
+    private InteractionMatrix(Builder builder, int[] userPtr, int[] userItems, float[] userWeights) {
+        this.userIndex = builder.userIndex;
+        this.itemIndex = builder.itemIndex;
+        this.userIds = Arrays.copyOf(builder.userIds, builder.userIndex.size());
+        this.itemIds = Arrays.copyOf(builder.itemIds, builder.itemIndex.size());
+        this.userPtr = userPtr;
+        this.userItems = userItems;
+        this.userWeights = userWeights;
+
+        // Transpose by counting sort; users are visited in order, so each song row is sorted by user
+        int items = itemIds.length;
+        itemPtr = new int[items + 1];
+        for (int i = 0; i < userItems.length; i++) {
+            itemPtr[userItems[i] + 1]++;
+        }
+        for (int i = 0; i < items; i++) {
+            itemPtr[i + 1] += itemPtr[i];
+        }
+        itemUsers = new int[userItems.length];
+        itemWeights = new float[userItems.length];
+        itemNorms = new float[items];
+        int[] next = Arrays.copyOf(itemPtr, items);
+        for (int user = 0; user < userIds.length; user++) {
+            for (int p = userPtr[user]; p < userPtr[user + 1]; p++) {
+                int item = userItems[p];
+                int q = next[item]++;
+                itemUsers[q] = user;
+                itemWeights[q] = userWeights[p];
+                itemNorms[item] += userWeights[p] * userWeights[p];
+            }
+        }
+        for (int i = 0; i < items; i++) {
+            itemNorms[i] = (float) Math.sqrt(itemNorms[i]);
+        }
+    }
+
+    static InteractionMatrix empty() {
+        return new Builder().build();
+    }
+
+    int users() {
+        return userIds.length;
+    }
+
+    int items() {
+        return itemIds.length;
+    }
+
+    int nonZeros() {
+        return userItems.length;
+    }
+
+    /**
+     * A builder that already holds every cell of this matrix, with the same indexes.
+     */
+    Builder toBuilder() {
+        Builder builder = new Builder(this);
+        for (int user = 0; user < userIds.length; user++) {
+            for (int p = userPtr[user]; p < userPtr[user + 1]; p++) {
+                builder.addIndexed(user, userItems[p], userWeights[p]);
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Accumulates (user, song, weight) triplets. Repeated cells are summed, up to maxWeight.
+     */
+    static final class Builder {
+
+        private final LongIntHashMap userIndex;
+        private final LongIntHashMap itemIndex;
+        private long[] userIds;
+        private long[] itemIds;
+        private int[] cellUsers = new int[1024];
+        private int[] cellItems = new int[1024];
+        private float[] cellWeights = new float[1024];
+        private int cells;
+        private float maxWeight = Float.MAX_VALUE;
+
+        Builder() {
+            userIndex = new LongIntHashMap(1024);
+            itemIndex = new LongIntHashMap(1024);
+            userIds = new long[1024];
+            itemIds = new long[1024];
+        }
+
+        // Copies the id mappings so existing indexes keep their meaning
+        private Builder(InteractionMatrix base) {
+            userIndex = new LongIntHashMap(base.users());
+            itemIndex = new LongIntHashMap(base.items());
+            userIds = new long[Math.max(16, base.users())];
+            itemIds = new long[Math.max(16, base.items())];
+            for (long id : base.userIds) {
+                userIndex(id);
+            }
+            for (long id : base.itemIds) {
+                itemIndex(id);
+            }
+            ensureCells(base.nonZeros());
+        }
+
+        Builder maxWeight(float maxWeight) {
+            this.maxWeight = maxWeight;
+            return this;
+        }
+
+        Builder add(long userId, long itemId, float weight) {
+            return addIndexed(userIndex(userId), itemIndex(itemId), weight);
+        }
+
+        private Builder addIndexed(int user, int item, float weight) {
+            ensureCells(cells + 1);
+            cellUsers[cells] = user;
+            cellItems[cells] = item;
+            cellWeights[cells] = weight;
+            cells++;
+            return this;
+        }
+
+        InteractionMatrix build() {
+            int users = userIndex.size();
+            // Counting sort of the cells by user
+            int[] ptr = new int[users + 1];
+            for (int i = 0; i < cells; i++) {
+                ptr[cellUsers[i] + 1]++;
+            }
+            for (int i = 0; i < users; i++) {
+                ptr[i + 1] += ptr[i];
+            }
+            long[] packed = new long[cells]; // Song index in the high half, weight bits in the low half
+            int[] next = Arrays.copyOf(ptr, users);
+            for (int i = 0; i < cells; i++) {
+                packed[next[cellUsers[i]]++] = ((long) cellItems[i] << 32) | (Float.floatToIntBits(cellWeights[i]) & 0xFFFFFFFFL);
+            }
+
+            // Sort each row by song and merge duplicate cells
+            int[] rowPtr = new int[users + 1];
+            int[] items = new int[cells];
+            float[] weights = new float[cells];
+            int out = 0;
+            for (int user = 0; user < users; user++) {
+                rowPtr[user] = out;
+                Arrays.sort(packed, ptr[user], ptr[user + 1]);
+                for (int p = ptr[user]; p < ptr[user + 1]; p++) {
+                    int item = (int) (packed[p] >>> 32);
+                    float weight = Float.intBitsToFloat((int) packed[p]);
+                    if (out > rowPtr[user] && items[out - 1] == item) {
+                        weights[out - 1] = Math.min(maxWeight, weights[out - 1] + weight);
+                    } else {
+                        items[out] = item;
+                        weights[out] = Math.min(maxWeight, weight);
+                        out++;
+                    }
+                }
+            }
+            rowPtr[users] = out;
+            return new InteractionMatrix(this, rowPtr, Arrays.copyOf(items, out), Arrays.copyOf(weights, out));
+        }
+
+        private int userIndex(long id) {
+            int index = userIndex.get(id);
+            if (index < 0) {
+                index = userIndex.size();
+                userIndex.put(id, index);
+                if (index == userIds.length) {
+                    userIds = Arrays.copyOf(userIds, index * 2);
+                }
+                userIds[index] = id;
+            }
+            return index;
+        }
+
+        private int itemIndex(long id) {
+            int index = itemIndex.get(id);
+            if (index < 0) {
+                index = itemIndex.size();
+                itemIndex.put(id, index);
+                if (index == itemIds.length) {
+                    itemIds = Arrays.copyOf(itemIds, index * 2);
+                }
+                itemIds[index] = id;
+            }
+            return index;
+        }
+
+        private void ensureCells(int needed) {
+            if (needed > cellUsers.length) {
+                int capacity = Math.max(needed, cellUsers.length * 2);
+                cellUsers = Arrays.copyOf(cellUsers, capacity);
+                cellItems = Arrays.copyOf(cellItems, capacity);
+                cellWeights = Arrays.copyOf(cellWeights, capacity);
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.MusicHub.api.recommendation;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The N most similar songs of every song (item-item cosine similarity over the interaction matrix),
+ * kept in two flat arrays with a fixed stride of N, each row sorted by similarity descending.
+ *
+ * Rows are computed in parallel on a ForkJoinPool. A row needs only a sparse walk:
+ * song -> its users -> their songs, accumulating dot products in a dense per-task array.
+ * Users with very long histories are skipped in that walk; they add quadratic cost and
+ * little signal (they "like everything").
+ */
+final class ItemNeighbours {
+
+    private static final int MAX_USER_ITEMS = 1_000;
+    private static final int MIN_TASK_ITEMS = 64;
+
+    private final int perItem;
+    private final int[] neighbours; // -1 marks an empty slot
+    private final float[] scores;
+
+    private ItemNeighbours(int perItem, int items) {
+        this.perItem = perItem;
+        this.neighbours = new int[items * perItem];
+        this.scores = new float[items * perItem];
+        Arrays.fill(neighbours, -1);
+    }
+
+    static ItemNeighbours empty(int perItem) {
+        return new ItemNeighbours(perItem, 0);
+    }
+
+    /**
+     * Computes every row from scratch.
+     */
+    static ItemNeighbours compute(InteractionMatrix matrix, int perItem, ForkJoinPool pool) {
+        ItemNeighbours table = new ItemNeighbours(perItem, matrix.items());
+        int[] all = new int[matrix.items()];
+        Arrays.setAll(all, i -> i);
+        pool.invoke(new RowTask(matrix, table, all, 0, all.length));
+        return table;
+    }
+
+    /**
+     * Copy of this table for a grown matrix, with the rows of the dirty songs recomputed.
+     * Songs that are not dirty keep their rows, but a dirty song is merged into (or updated in)
+     * the row of every song it is now similar to, since similarity is symmetric.
+     */
+    ItemNeighbours update(InteractionMatrix matrix, int[] dirty, ForkJoinPool pool) {
+        ItemNeighbours table = new ItemNeighbours(perItem, matrix.items());
+        System.arraycopy(neighbours, 0, table.neighbours, 0, neighbours.length);
+        System.arraycopy(scores, 0, table.scores, 0, scores.length);
+        pool.invoke(new RowTask(matrix, table, dirty, 0, dirty.length));
+        for (int item : dirty) {
+            for (int slot = item * perItem; slot < (item + 1) * perItem && table.neighbours[slot] >= 0; slot++) {
+                table.offer(table.neighbours[slot], item, table.scores[slot]);
+            }
+        }
+        return table;
+    }
+
+    int perItem() {
+        return perItem;
+    }
+
+    int neighbour(int item, int rank) {
+        int index = item * perItem + rank;
+        return index < neighbours.length ? neighbours[index] : -1;
+    }
+
+    float score(int item, int rank) {
+        return scores[item * perItem + rank];
+    }
+
+    // Puts (candidate, score) into the row of item, replacing an older entry for the same candidate
+    private void offer(int item, int candidate, float score) {
+        int start = item * perItem;
+        int end = start + perItem;
+        int existing = -1;
+        for (int slot = start; slot < end && neighbours[slot] >= 0; slot++) {
+            if (neighbours[slot] == candidate) {
+                existing = slot;
+                break;
+            }
+        }
+        if (existing >= 0) {
+            // Remove it, then re-insert with the new score below
+            System.arraycopy(neighbours, existing + 1, neighbours, existing, end - existing - 1);
+            System.arraycopy(scores, existing + 1, scores, existing, end - existing - 1);
+            neighbours[end - 1] = -1;
+            scores[end - 1] = 0;
+        }
+        insertSorted(neighbours, scores, start, end, candidate, score);
+    }
+
+    private static void insertSorted(int[] neighbours, float[] scores, int start, int end, int candidate, float score) {
+        if (neighbours[end - 1] >= 0 && scores[end - 1] >= score) {
+            return; // Row is full and the candidate is not better than the weakest entry
+        }
+        int slot = end - 1;
+        while (slot > start && (neighbours[slot - 1] < 0 || scores[slot - 1] < score)) {
+            neighbours[slot] = neighbours[slot - 1];
+            scores[slot] = scores[slot - 1];
+            slot--;
+        }
+        neighbours[slot] = candidate;
+        scores[slot] = score;
+    }
+
+    private static final class RowTask extends RecursiveAction {
+
+        private final InteractionMatrix matrix;
+        private final ItemNeighbours table;
+        private final int[] rows;
+        private final int from;
+        private final int to;
+
+        RowTask(InteractionMatrix matrix, ItemNeighbours table, int[] rows, int from, int to) {
+            this.matrix = matrix;
+            this.table = table;
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            int threshold = Math.max(MIN_TASK_ITEMS, rows.length / (getPool().getParallelism() * 8 + 1));
+            if (to - from > threshold) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RowTask(matrix, table, rows, from, middle), new RowTask(matrix, table, rows, middle, to));
+                return;
+            }
+            float[] dots = new float[matrix.items()];
+            int[] touched = new int[Math.min(matrix.items(), 1 << 16)];
+            for (int r = from; r < to; r++) {
+                touched = computeRow(rows[r], dots, touched);
+            }
+        }
+
+        private int[] computeRow(int item, float[] dots, int[] touched) {
+            int count = 0;
+            for (int p = matrix.itemPtr[item]; p < matrix.itemPtr[item + 1]; p++) {
+                int user = matrix.itemUsers[p];
+                if (matrix.userPtr[user + 1] - matrix.userPtr[user] > MAX_USER_ITEMS) {
+                    continue;
+                }
+                float weight = matrix.itemWeights[p];
+                for (int q = matrix.userPtr[user]; q < matrix.userPtr[user + 1]; q++) {
+                    int other = matrix.userItems[q];
+                    if (other == item) {
+                        continue;
+                    }
+                    if (dots[other] == 0) {
+                        if (count == touched.length) {
+                            touched = Arrays.copyOf(touched, touched.length * 2);
+                        }
+                        touched[count++] = other;
+                    }
+                    dots[other] += weight * matrix.userWeights[q];
+                }
+            }
+
+            int start = item * table.perItem;
+            int end = start + table.perItem;
+            Arrays.fill(table.neighbours, start, end, -1);
+            Arrays.fill(table.scores, start, end, 0);
+            float norm = matrix.itemNorms[item];
+            for (int i = 0; i < count; i++) {
+                int other = touched[i];
+                float similarity = dots[other] / (norm * matrix.itemNorms[other]);
+                dots[other] = 0;
+                insertSorted(table.neighbours, table.scores, start, end, other, similarity);
+            }
+            return touched;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.MusicHub.api.recommendation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Per-mood and per-genre posting lists that are always sorted by popularity (descending).
+ *
+ * A "mood IN (...) OR genre IN (...)" request is answered with a k-way merge over the
+ * matching lists: a heap holds the head of every list, and each poll advances one list.
+ * Getting the top K therefore touches roughly K entries instead of the whole matching set.
+ * Works for any catalog item identified by a long id (songs and beats use separate instances).
+ */
+public class PopularityIndex {
+
+    // Ordered by popularity descending, then id ascending so equal popularity is stable
+    private record Entry(long id, int popularity) implements Comparable<Entry> {
+        @Override
+        public int compareTo(Entry other) {
+            int cmp = Integer.compare(other.popularity, popularity);
+            return cmp != 0 ? cmp : Long.compare(id, other.id);
+        }
+    }
+
+    // Where an item currently sits, so it can be removed before being re-inserted
+    private record Placement(String mood, String genre, Entry entry) {
+    }
+
+    private record Cursor(Entry head, Iterator<Entry> rest) {
+    }
+
+    private final Map<String, NavigableSet<Entry>> byMood = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Entry>> byGenre = new ConcurrentHashMap<>();
+    private final Map<Long, Placement> placements = new ConcurrentHashMap<>();
+
+    /**
+     * Adds an item, or moves it if its mood, genre or popularity changed.
+     */
+    public synchronized void put(long id, String mood, String genre, int popularity) {
+        remove(id);
+        Placement placement = new Placement(key(mood), key(genre), new Entry(id, popularity));
+        if (placement.mood() != null) {
+            byMood.computeIfAbsent(placement.mood(), k -> new ConcurrentSkipListSet<>()).add(placement.entry());
+        }
+        if (placement.genre() != null) {
+            byGenre.computeIfAbsent(placement.genre(), k -> new ConcurrentSkipListSet<>()).add(placement.entry());
+        }
+        placements.put(id, placement);
+    }
+
+    public synchronized void remove(long id) {
+        Placement placement = placements.remove(id);
+        if (placement == null) {
+            return;
+        }
+        if (placement.mood() != null) {
+            byMood.get(placement.mood()).remove(placement.entry());
+        }
+        if (placement.genre() != null) {
+            byGenre.get(placement.genre()).remove(placement.entry());
+        }
+    }
+
+    public int size() {
+        return placements.size();
+    }
+
+    // Mood and genre of an indexed item as the postings store them (trimmed, lower case), null when unknown
+    public String mood(long id) {
+        Placement placement = placements.get(id);
+        return placement == null ? null : placement.mood();
+    }
+
+    public String genre(long id) {
+        Placement placement = placements.get(id);
+        return placement == null ? null : placement.genre();
+    }
+
+    /**
+     * Returns the ids of the K most popular items whose mood is in moods OR genre is in genres.
+     */
+    public List<Long> topK(Collection<String> moods, Collection<String> genres, int k) {
+        List<NavigableSet<Entry>> lists = new ArrayList<>();
+        collect(byMood, moods, lists);
+        collect(byGenre, genres, lists);
+        if (lists.isEmpty() || k <= 0) {
+            return Collections.emptyList();
+        }
+
+        PriorityQueue<Cursor> heap = new PriorityQueue<>(lists.size(), (a, b) -> a.head().compareTo(b.head()));
+        for (NavigableSet<Entry> list : lists) {
+            advance(heap, list.iterator());
+        }
+
+        List<Long> result = new ArrayList<>(k);
+        Set<Long> seen = new HashSet<>(); // An item can appear in both its mood list and its genre list
+        while (!heap.isEmpty() && result.size() < k) {
+            Cursor cursor = heap.poll();
+            if (seen.add(cursor.head().id())) {
+                result.add(cursor.head().id());
+            }
+            advance(heap, cursor.rest());
+        }
+        return result;
+    }
+
+    private static void advance(PriorityQueue<Cursor> heap, Iterator<Entry> iterator) {
+        if (iterator.hasNext()) {
+            heap.offer(new Cursor(iterator.next(), iterator));
+        }
+    }
+
+    private static void collect(Map<String, NavigableSet<Entry>> postings, Collection<String> keys,
+                                List<NavigableSet<Entry>> into) {
+        if (keys == null) {
+            return;
+        }
+        Set<String> distinct = new HashSet<>();
+        for (String raw : keys) {
+            String key = key(raw);
+            if (key != null && distinct.add(key)) {
+                NavigableSet<Entry> list = postings.get(key);
+                if (list != null && !list.isEmpty()) {
+                    into.add(list);
+                }
+            }
+        }
+    }
+
+    // MySQL compares mood/genre case-insensitively, so the index does too
+    private static String key(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,170 @@
+package com.MusicHub.api.recommendation;
+
+import com.MusicHub.api.catalog.CatalogIndex;
+import com.MusicHub.api.catalog.RankedRows;
+import com.MusicHub.api.dto.SongSummary;
+import com.MusicHub.api.model.Beat;
+import com.MusicHub.api.model.Song;
+import com.MusicHub.api.repository.BeatRepository;
+import com.MusicHub.api.repository.SongRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Content-based recommendation engine (mood/genre matching) for both songs and beats.
+ * Keeps one PopularityIndex per catalog type so a top-K request never sorts the whole
+ * matching set. Before the startup warmup has finished it falls back to the bounded
+ * repository queries.
+ *
+ * Personalized song recommendations blend these content matches (moods/genres the user
+ * likes most) with the CollaborativeFilter's item-item scores.
+ */
+@Service
+public class RecommendationEngine implements CatalogIndex {
+
+    private final SongRepository songRepository;
+    private final BeatRepository beatRepository;
+    private final CollaborativeFilter collaborativeFilter;
+    private final PopularityIndex songIndex = new PopularityIndex();
+    private final PopularityIndex beatIndex = new PopularityIndex();
+    private volatile boolean ready;
+
+    @Value("${musichub.recommendations.max-results:200}")
+    private int maxResults;
+
+    @Value("${musichub.recommendations.collaborative.weight:0.7}")
+    private double collaborativeWeight; // Share of the collaborative score in the blend (0..1)
+
+    private static final int PROFILE_SIZE = 50;      // Strongest songs of a user that define their taste
+    private static final int TASTE_KEYS = 3;         // Top moods and top genres used for content matches
+
+    public RecommendationEngine(SongRepository songRepository, BeatRepository beatRepository,
+                                CollaborativeFilter collaborativeFilter) {
+        this.songRepository = songRepository;
+        this.beatRepository = beatRepository;
+        this.collaborativeFilter = collaborativeFilter;
+    }
+
+    public List<SongSummary> recommendSongs(List<String> moods, List<String> genres, int limit) {
+        int k = clamp(limit);
+        if (!ready) {
+            return songRepository.findByMoodInOrGenreInOrderByPopularityDesc(moods, genres, Limit.of(k));
+        }
+        List<Long> ids = songIndex.topK(moods, genres, k);
+        return RankedRows.inRankOrder(ids, songRepository.findSummariesByIdIn(ids), SongSummary::id);
+    }
+
+    public List<Beat> recommendBeats(List<String> moods, List<String> genres, int limit) {
+        int k = clamp(limit);
+        if (!ready) {
+            return beatRepository.findByMoodInOrGenreInOrderByPopularityDesc(moods, genres, Limit.of(k));
+        }
+        List<Long> ids = beatIndex.topK(moods, genres, k);
+        return RankedRows.inRankOrder(ids, beatRepository.findAllById(ids), Beat::getId);
+    }
+
+    /**
+     * Personalized songs for a user: collaborative scores (normalized to 0..1) and content
+     * matches (scored by rank) are blended; songs the user already liked or played are left out.
+     */
+    public List<SongSummary> recommendForUser(long userId, int limit) {
+        List<Long> ids = rankForUser(userId, clamp(limit));
+        return RankedRows.inRankOrder(ids, songRepository.findSummariesByIdIn(ids), SongSummary::id);
+    }
+
+    /**
+     * Ids of recommendForUser, best first. Once the indexes are warm this needs no database
+     * access, so UserFeeds can rank many users and load their songs in one query.
+     */
+    public List<Long> rankForUser(long userId, int k) {
+        List<Long> profile = collaborativeFilter.profile(userId, PROFILE_SIZE);
+        if (profile.isEmpty()) {
+            return List.of(); // No likes or plays yet
+        }
+        Set<Long> known = new HashSet<>(profile);
+        Map<Long, Double> scores = new HashMap<>();
+
+        List<ScoredItem> collaborative = collaborativeFilter.recommend(userId, 2 * k);
+        double best = collaborative.isEmpty() ? 1 : collaborative.get(0).score();
+        for (ScoredItem item : collaborative) {
+            scores.merge(item.id(), collaborativeWeight * item.score() / best, Double::sum);
+        }
+
+        List<Long> content = contentMatches(profile, 2 * k + known.size()).stream()
+                .filter(id -> !known.contains(id))
+                .toList();
+        for (int rank = 0; rank < content.size(); rank++) {
+            scores.merge(content.get(rank), (1 - collaborativeWeight) * (1 - (double) rank / content.size()), Double::sum);
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(k)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    // The most popular songs in the moods and genres the profile's songs have most often
+    private List<Long> contentMatches(List<Long> profile, int k) {
+        if (!ready) {
+            List<SongSummary> liked = songRepository.findSummariesByIdIn(profile);
+            return songRepository.findByMoodInOrGenreInOrderByPopularityDesc(topKeys(liked, SongSummary::mood),
+                    topKeys(liked, SongSummary::genre), Limit.of(k)).stream().map(SongSummary::id).toList();
+        }
+        return songIndex.topK(topKeys(profile, songIndex::mood), topKeys(profile, songIndex::genre), k);
+    }
+
+    // The most frequent non-empty values of a field among the given songs
+    private static <T> List<String> topKeys(List<T> songs, Function<T, String> field) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (T song : songs) {
+            String value = field.apply(song);
+            if (value != null && !value.isBlank()) {
+                counts.merge(value, 1, Integer::sum);
+            }
+        }
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(TASTE_KEYS)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private int clamp(int limit) {
+        return Math.max(1, Math.min(limit, maxResults));
+    }
+
+    @Override
+    public void indexSong(Song song) {
+        songIndex.put(song.getId(), song.getMood(), song.getGenre(), song.getPopularity());
+    }
+
+    @Override
+    public void removeSong(Song song) {
+        songIndex.remove(song.getId());
+    }
+
+    @Override
+    public void indexBeat(Beat beat) {
+        beatIndex.put(beat.getId(), beat.getMood(), beat.getGenre(), beat.getPopularity());
+    }
+
+    @Override
+    public void removeBeat(Beat beat) {
+        beatIndex.remove(beat.getId());
+    }
+
+    @Override
+    public void warmupCompleted() {
+        ready = true;
+    }
+}
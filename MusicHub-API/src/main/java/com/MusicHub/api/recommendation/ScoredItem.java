@@ -0,0 +1,7 @@
+package com.MusicHub.api.recommendation;
+
+/**
+ * A song id with a recommendation score (higher is better).
+ */
+public record ScoredItem(long id, double score) {
+}
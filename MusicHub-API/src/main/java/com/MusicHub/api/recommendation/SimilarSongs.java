@@ -0,0 +1,290 @@
+package com.MusicHub.api.recommendation;
+
+import com.MusicHub.api.catalog.CatalogIndex;
+import com.MusicHub.api.catalog.RankedRows;
+import com.MusicHub.api.dto.SongSummary;
+import com.MusicHub.api.model.Song;
+import com.MusicHub.api.repository.SongRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * "Songs like this one" (/api/recommendations/similar/{songId}): nearest neighbours of the
+ * song's SongFeatures vector in an HnswIndex, instead of scoring it against the whole table.
+ *
+ * Songs saved after startup are inserted right away. The startup scan only queues the songs;
+ * a background thread inserts them in chunks, so warmup does not wait for the graph and
+ * searches run between chunks. The graph is saved to disk periodically and on shutdown, and
+ * loaded again on the next start: songs whose vector did not change are then not re-inserted,
+ * and songs that disappeared from the table in the meantime are dropped after warmup.
+ */
+@Service
+public class SimilarSongs implements CatalogIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SimilarSongs.class);
+
+    private static final int BUILD_CHUNK = 1000; // Songs inserted per write lock while building
+
+    private final SongRepository songRepository;
+    private final Path indexFile;
+    private final int efSearch;
+    private final int maxResults;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final HnswIndex index;
+    private volatile boolean dirty; // Changed since the last save
+    private volatile long version; // Bumped under the write lock once a change is in the graph (for ETags)
+    private volatile long updatedAt = System.currentTimeMillis();
+
+    // Changes queued until the background build has caught up (guarded by pendingLock).
+    // A removal is queued with NaN as the first vector component.
+    private final Object pendingLock = new Object();
+    private long[] pendingIds = new long[1024];
+    private float[] pendingVectors = new float[1024 * SongFeatures.DIMENSIONS];
+    private int pendingSize;
+    private boolean building;
+    private boolean caughtUp;
+
+    public SimilarSongs(SongRepository songRepository,
+                        @Value("${musichub.similar.index-file:}") String indexFile,
+                        @Value("${musichub.similar.max-links:16}") int maxLinks,
+                        @Value("${musichub.similar.ef-construction:100}") int efConstruction,
+                        @Value("${musichub.similar.ef-search:64}") int efSearch,
+                        @Value("${musichub.recommendations.max-results:200}") int maxResults) {
+        this.songRepository = songRepository;
+        this.indexFile = indexFile.isBlank() ? null : Path.of(indexFile);
+        this.efSearch = efSearch;
+        this.maxResults = maxResults;
+        HnswIndex saved = load();
+        this.index = saved != null ? saved : new HnswIndex(SongFeatures.DIMENSIONS, maxLinks, efConstruction, 1024);
+    }
+
+    public List<SongSummary> similar(long songId, int limit) {
+        int k = Math.max(1, Math.min(limit, maxResults));
+        float[] query = read(() -> index.vector(songId));
+        if (query == null) { // Not indexed (yet): encode it from the row
+            SongSummary song = songRepository.findSummariesByIdIn(List.of(songId)).stream().findFirst()
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Song " + songId + " not found"));
+            query = SongFeatures.vector(song.genre(), song.mood(), song.artist(), song.popularity());
+        }
+        float[] vector = query;
+        List<ScoredItem> nearest = read(() -> index.search(vector, k + 1, Math.max(efSearch, k + 1)));
+        List<Long> ids = new ArrayList<>(k);
+        for (ScoredItem item : nearest) {
+            if (item.id() != songId && ids.size() < k) {
+                ids.add(item.id());
+            }
+        }
+        return RankedRows.inRankOrder(ids, songRepository.findSummariesByIdIn(ids), SongSummary::id);
+    }
+
+    @Override
+    public void indexSong(Song song) {
+        apply(song.getId(), SongFeatures.vector(song.getGenre(), song.getMood(), song.getArtist(), song.getPopularity()));
+    }
+
+    @Override
+    public void removeSong(Song song) {
+        apply(song.getId(), null);
+    }
+
+    private void apply(long id, float[] vector) {
+        synchronized (pendingLock) {
+            if (!caughtUp) {
+                enqueue(id, vector);
+                return;
+            }
+        }
+        write(id, vector);
+    }
+
+    @Override
+    public void warmupCompleted() {
+        long[] seen;
+        synchronized (pendingLock) { // Everything queued so far came from the startup scan
+            if (building) {
+                return; // Warmed up again (the benchmarks do): the running build takes the new rows
+            }
+            building = true;
+            seen = Arrays.copyOf(pendingIds, pendingSize);
+        }
+        Arrays.sort(seen);
+        Thread.ofPlatform().daemon().name("similar-songs-build").start(() -> build(seen));
+    }
+
+    private void build(long[] seen) {
+        long start = System.currentTimeMillis();
+        int removed;
+        lock.writeLock().lock();
+        try { // Songs deleted while the saved index was not running
+            removed = index.retainOnly(id -> Arrays.binarySearch(seen, id) >= 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        int from = 0;
+        while (true) {
+            long[] ids;
+            float[] vectors;
+            synchronized (pendingLock) {
+                if (from == pendingSize) {
+                    pendingIds = null;
+                    pendingVectors = null;
+                    caughtUp = true; // From now on changes are written directly, after everything queued
+                    break;
+                }
+                int to = Math.min(pendingSize, from + BUILD_CHUNK);
+                ids = Arrays.copyOfRange(pendingIds, from, to);
+                vectors = Arrays.copyOfRange(pendingVectors, from * SongFeatures.DIMENSIONS, to * SongFeatures.DIMENSIONS);
+                from = to;
+            }
+            lock.writeLock().lock();
+            try {
+                for (int i = 0; i < ids.length; i++) {
+                    float[] vector = Arrays.copyOfRange(vectors, i * SongFeatures.DIMENSIONS, (i + 1) * SongFeatures.DIMENSIONS);
+                    if (Float.isNaN(vector[0])) {
+                        index.remove(ids[i]);
+                    } else {
+                        index.add(ids[i], vector);
+                    }
+                }
+                changed();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        dirty = true;
+        log.info("Similar songs index ready with {} songs ({} dropped, {} tombstones) in {} ms",
+                index.size(), removed, index.deletedCount(), System.currentTimeMillis() - start);
+    }
+
+    private void enqueue(long id, float[] vector) {
+        if (pendingSize == pendingIds.length) {
+            pendingIds = Arrays.copyOf(pendingIds, pendingSize * 2);
+            pendingVectors = Arrays.copyOf(pendingVectors, pendingSize * 2 * SongFeatures.DIMENSIONS);
+        }
+        pendingIds[pendingSize] = id;
+        if (vector != null) {
+            System.arraycopy(vector, 0, pendingVectors, pendingSize * SongFeatures.DIMENSIONS, SongFeatures.DIMENSIONS);
+        } else {
+            pendingVectors[pendingSize * SongFeatures.DIMENSIONS] = Float.NaN;
+        }
+        pendingSize++;
+    }
+
+    private void write(long id, float[] vector) {
+        lock.writeLock().lock();
+        try {
+            if (vector != null) {
+                index.add(id, vector);
+            } else {
+                index.remove(id);
+            }
+            dirty = true;
+            changed();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Called under the write lock
+    private void changed() {
+        updatedAt = System.currentTimeMillis();
+        version++;
+    }
+
+    /**
+     * Changes as songs are inserted into or removed from the graph, which happens after the
+     * catalog write (queued during the startup build), so CatalogVersion alone is not enough.
+     */
+    public long version() {
+        return version;
+    }
+
+    public long updatedAt() {
+        return updatedAt;
+    }
+
+    private <T> T read(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${musichub.similar.save-interval:PT10M}")
+    public void save() {
+        if (indexFile == null || !dirty) {
+            return;
+        }
+        dirty = false; // Before writing: a change that races with the save marks it dirty again
+        long start = System.currentTimeMillis();
+        Path tmp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try {
+            if (indexFile.getParent() != null) {
+                Files.createDirectories(indexFile.getParent());
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+                out.writeInt(SongFeatures.VERSION);
+                lock.readLock().lock();
+                try {
+                    index.writeTo(out);
+                } finally {
+                    lock.readLock().unlock();
+                }
+            }
+            Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Similar songs index saved to {} in {} ms", indexFile, System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            dirty = true;
+            log.warn("Could not save the similar songs index to {}", indexFile, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        save();
+    }
+
+    private HnswIndex load() {
+        if (indexFile == null || !Files.exists(indexFile)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile), 1 << 16))) {
+            if (in.readInt() != SongFeatures.VERSION) {
+                log.info("Similar songs index {} uses an older encoding, rebuilding it", indexFile);
+                return null;
+            }
+            HnswIndex saved = HnswIndex.readFrom(in);
+            if (saved.dimensions() != SongFeatures.DIMENSIONS || saved.deletedCount() > saved.size()) {
+                return null; // Mostly tombstones: cheaper to rebuild than to keep routing through them
+            }
+            log.info("Loaded similar songs index with {} songs from {}", saved.size(), indexFile);
+            return saved;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not load the similar songs index from {}, rebuilding it", indexFile, e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.MusicHub.api.recommendation;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Turns a song's genre, mood, artist and popularity into a unit-length feature vector,
+ * so that the dot product of two vectors is the similarity of the songs.
+ *
+ * Every genre, mood and artist name gets a fixed pseudo-random direction derived from its
+ * lower-cased name. Different names are close to orthogonal, so two songs score roughly the
+ * sum of the squared weights of what they share. Popularity is an angle in the last two
+ * dimensions: songs of similar popularity end up slightly closer. The encoding has no state,
+ * so a song gets the same vector after a restart, which the saved SimilarSongs index relies on.
+ */
+final class SongFeatures {
+
+    static final int VERSION = 1; // Bump whenever the encoding changes: saved indexes are then discarded
+    static final int DIMENSIONS = 48; // Fewer and unrelated names start to overlap enough to reorder results
+
+    private static final int TERM_DIMENSIONS = DIMENSIONS - 2;
+    private static final float GENRE_WEIGHT = 1.0f;
+    private static final float MOOD_WEIGHT = 0.8f;
+    private static final float ARTIST_WEIGHT = 0.7f;
+    private static final float POPULARITY_WEIGHT = 0.4f;
+
+    private SongFeatures() {
+    }
+
+    static float[] vector(String genre, String mood, String artist, int popularity) {
+        float[] vector = new float[DIMENSIONS];
+        addTerm(vector, 'g', genre, GENRE_WEIGHT);
+        addTerm(vector, 'm', mood, MOOD_WEIGHT);
+        addTerm(vector, 'a', artist, ARTIST_WEIGHT);
+        double angle = Math.max(0, Math.min(100, popularity)) / 100.0 * (Math.PI / 2);
+        vector[TERM_DIMENSIONS] = (float) (POPULARITY_WEIGHT * Math.cos(angle));
+        vector[TERM_DIMENSIONS + 1] = (float) (POPULARITY_WEIGHT * Math.sin(angle));
+        scale(vector, 1 / norm(vector));
+        return vector;
+    }
+
+    private static void addTerm(float[] vector, char kind, String name, float weight) {
+        if (name == null || name.isBlank()) {
+            return;
+        }
+        // String.hashCode is specified, so the direction of a name never changes between runs
+        long seed = kind * 0x9E3779B97F4A7C15L ^ name.trim().toLowerCase(Locale.ROOT).hashCode();
+        SplittableRandom random = new SplittableRandom(seed);
+        float[] direction = new float[TERM_DIMENSIONS];
+        for (int i = 0; i < TERM_DIMENSIONS; i++) {
+            direction[i] = (float) random.nextGaussian();
+        }
+        float factor = weight / norm(direction);
+        for (int i = 0; i < TERM_DIMENSIONS; i++) {
+            vector[i] += direction[i] * factor;
+        }
+    }
+
+    private static float norm(float[] vector) {
+        double sum = 0;
+        for (float value : vector) {
+            sum += value * value;
+        }
+        return (float) Math.sqrt(sum);
+    }
+
+    private static void scale(float[] vector, float factor) {
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= factor;
+        }
+    }
+}
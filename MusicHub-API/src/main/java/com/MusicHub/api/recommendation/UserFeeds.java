@@ -0,0 +1,282 @@
+package com.MusicHub.api.recommendation;
+
+import com.MusicHub.api.activity.ActivityEvent;
+import com.MusicHub.api.activity.ActivityListener;
+import com.MusicHub.api.cache.SingleFlight;
+import com.MusicHub.api.cache.WTinyLfuCache;
+import com.MusicHub.api.cache.WTinyLfuCacheMetrics;
+import com.MusicHub.api.catalog.CatalogIndex;
+import com.MusicHub.api.dto.SongSummary;
+import com.MusicHub.api.model.Song;
+import com.MusicHub.api.repository.SongRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Materialized /recommendations/user/{userId} answers: each active user's ranked feed is built
+ * ahead of time, so a request is a map lookup instead of a RecommendationEngine run and three
+ * queries.
+ *
+ * A feed is only the ranked song ids (a long[]); the songs themselves live in one bounded
+ * cache shared by all feeds, since popular songs show up in many of them. A like or play marks
+ * its user dirty. The user's feed is rebuilt in the background once the CollaborativeFilter
+ * has merged that activity. A changed or deleted song gets the feeds that hold it rebuilt.
+ * No other feed is rebuilt in the background: a request never gets a feed older than
+ * max-staleness, and rebuilds an expired one itself. Users who have not read their feed for
+ * idle-after are dropped. Users without likes or plays (or unknown ids) get an empty feed,
+ * which is not kept.
+ */
+@Service
+public class UserFeeds implements ActivityListener, CatalogIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserFeeds.class);
+    private static final int BATCH_SIZE = 500; // Users ranked per song query in a background rebuild
+
+    /**
+     * A user's ranked song ids and when they were computed (also the ETag of the feed).
+     */
+    public static final class Feed {
+        private final long[] songIds;
+        private final long builtAt;
+        private volatile long readAt;
+
+        private Feed(long[] songIds, long builtAt) {
+            this.songIds = songIds;
+            this.builtAt = builtAt;
+            this.readAt = builtAt;
+        }
+
+        public long builtAt() {
+            return builtAt;
+        }
+    }
+
+    private final RecommendationEngine recommendationEngine;
+    private final CollaborativeFilter collaborativeFilter;
+    private final SongRepository songRepository;
+    private final int size;
+    private final long maxStalenessMillis;
+    private final long idleMillis;
+
+    private final Map<Long, Feed> feeds = new ConcurrentHashMap<>();
+    private final Map<Long, Long> dirty = new ConcurrentHashMap<>(); // User id -> CollaborativeFilter version when marked
+    private final Set<Long> changedSongs = ConcurrentHashMap.newKeySet(); // Since the last refresh
+    private final WTinyLfuCache<Long, SongSummary> songs;
+    private final SingleFlight<Long, Feed> builds = new SingleFlight<>();
+
+    public UserFeeds(RecommendationEngine recommendationEngine, CollaborativeFilter collaborativeFilter,
+                     SongRepository songRepository, MeterRegistry meterRegistry,
+                     @Value("${musichub.feeds.size:100}") int size,
+                     @Value("${musichub.feeds.max-staleness:PT2M}") Duration maxStaleness,
+                     @Value("${musichub.feeds.idle-after:PT1H}") Duration idleAfter,
+                     @Value("${musichub.feeds.song-cache-size:20000}") int songCacheSize) {
+        this.recommendationEngine = recommendationEngine;
+        this.collaborativeFilter = collaborativeFilter;
+        this.songRepository = songRepository;
+        this.size = size;
+        this.maxStalenessMillis = maxStaleness.toMillis();
+        this.idleMillis = idleAfter.toMillis();
+        this.songs = new WTinyLfuCache<>(songCacheSize);
+        new WTinyLfuCacheMetrics(songs, "feed-songs").bindTo(meterRegistry);
+        Gauge.builder("musichub.feeds.users", feeds, Map::size).register(meterRegistry);
+        Gauge.builder("musichub.feeds.dirty", dirty, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Number of songs a feed holds; longer requests are computed by RecommendationEngine directly.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The user's feed, at most max-staleness old.
+     */
+    public Feed feed(long userId) {
+        Feed feed = feeds.get(userId);
+        long now = System.currentTimeMillis();
+        if (feed == null || now - feed.builtAt > maxStalenessMillis) {
+            feed = builds.execute(userId, () -> {
+                Feed built = new Feed(toArray(recommendationEngine.rankForUser(userId, size)), System.currentTimeMillis());
+                if (built.songIds.length > 0) { // Not for users without activity, or before the model has loaded
+                    feeds.put(userId, built);
+                }
+                return built;
+            });
+        }
+        feed.readAt = now;
+        return feed;
+    }
+
+    /**
+     * The first limit songs of a feed, best first.
+     */
+    public List<SongSummary> songs(Feed feed, int limit) {
+        int n = Math.min(Math.max(limit, 0), feed.songIds.length);
+        SongSummary[] result = new SongSummary[n];
+        List<Long> missing = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            result[i] = songs.get(feed.songIds[i]);
+            if (result[i] == null) {
+                missing.add(feed.songIds[i]);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<Long, SongSummary> loaded = load(missing);
+            for (int i = 0; i < n; i++) {
+                if (result[i] == null) {
+                    result[i] = loaded.get(feed.songIds[i]);
+                }
+            }
+        }
+        return Arrays.stream(result).filter(song -> song != null).toList(); // Deleted since the feed was built
+    }
+
+    // Called on the pipeline's flush thread: only marks the users, the rebuild happens in refresh()
+    @Override
+    public void onActivity(List<ActivityEvent> events) {
+        long version = collaborativeFilter.version();
+        for (ActivityEvent event : events) {
+            if (event.type() != ActivityEvent.Type.SEARCH) {
+                dirty.putIfAbsent(event.userId(), version);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the feeds of users whose activity the CollaborativeFilter has merged since they were
+     * marked, and the feeds holding a song that changed. Drops feeds nobody read for idle-after.
+     */
+    @Scheduled(fixedDelayString = "${musichub.feeds.refresh-interval:PT5S}")
+    public void refresh() {
+        long version = collaborativeFilter.version();
+        if (version == 0) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Set<Long> users = new LinkedHashSet<>();
+        dirty.forEach((user, markedAt) -> {
+            // A model published after the mark contains the activity, unless a merge was already
+            // running when it arrived; max-staleness covers that case
+            if (markedAt < version && dirty.remove(user, markedAt)) {
+                users.add(user);
+            }
+        });
+        int activity = users.size();
+        Set<Long> changed = drainChangedSongs();
+        feeds.forEach((user, feed) -> {
+            if (start - feed.readAt > idleMillis) {
+                feeds.remove(user, feed);
+            } else if (!changed.isEmpty() && !dirty.containsKey(user) && holdsAny(feed, changed)) {
+                users.add(user);
+            }
+        });
+        List<Long> rebuilt = new ArrayList<>(users);
+        for (int from = 0; from < rebuilt.size(); from += BATCH_SIZE) {
+            rebuild(rebuilt.subList(from, Math.min(rebuilt.size(), from + BATCH_SIZE)));
+        }
+        if (!rebuilt.isEmpty()) {
+            log.debug("Rebuilt {} feeds ({} after activity, {} after song changes) in {} ms", rebuilt.size(), activity,
+                    rebuilt.size() - activity, System.currentTimeMillis() - start);
+        }
+    }
+
+    private Set<Long> drainChangedSongs() {
+        Set<Long> drained = new HashSet<>();
+        for (Iterator<Long> it = changedSongs.iterator(); it.hasNext(); ) {
+            drained.add(it.next());
+            it.remove();
+        }
+        return drained;
+    }
+
+    private static boolean holdsAny(Feed feed, Set<Long> songIds) {
+        for (long id : feed.songIds) {
+            if (songIds.contains(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Ranks the users and loads the songs none of the cached feeds had yet, in one query
+    private void rebuild(List<Long> users) {
+        List<long[]> ranked = new ArrayList<>(users.size());
+        List<Long> missing = new ArrayList<>();
+        for (long user : users) {
+            long[] ids = toArray(recommendationEngine.rankForUser(user, size));
+            ranked.add(ids);
+            for (long id : ids) {
+                if (songs.get(id) == null) {
+                    missing.add(id);
+                }
+            }
+        }
+        load(missing.stream().distinct().toList());
+        long builtAt = System.currentTimeMillis();
+        for (int i = 0; i < users.size(); i++) {
+            if (ranked.get(i).length == 0) {
+                feeds.remove(users.get(i)); // Built on request from now on, like for any user without a feed
+                continue;
+            }
+            Feed previous = feeds.get(users.get(i));
+            Feed feed = new Feed(ranked.get(i), builtAt);
+            if (previous != null) {
+                feed.readAt = previous.readAt;
+            }
+            feeds.put(users.get(i), feed);
+        }
+    }
+
+    private Map<Long, SongSummary> load(List<Long> ids) {
+        Map<Long, SongSummary> loaded = new HashMap<>();
+        if (ids.isEmpty()) {
+            return loaded;
+        }
+        for (SongSummary song : songRepository.findSummariesByIdIn(ids)) {
+            songs.put(song.id(), song);
+            loaded.put(song.id(), song);
+        }
+        return loaded;
+    }
+
+    private static long[] toArray(List<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    // Cached songs must not outlive a change of the row, and the feeds holding the song are ranked again.
+    // Nothing to do while no feed exists, e.g. during the startup warmup.
+    @Override
+    public void indexSong(Song song) {
+        songChanged(song.getId());
+    }
+
+    @Override
+    public void removeSong(Song song) {
+        songChanged(song.getId());
+    }
+
+    private void songChanged(long id) {
+        songs.invalidate(id);
+        if (!feeds.isEmpty()) {
+            changedSongs.add(id);
+        }
+    }
+}
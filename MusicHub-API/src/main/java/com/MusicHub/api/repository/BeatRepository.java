@@ -1,16 +1,53 @@
 package com.MusicHub.api.repository;
 
 import com.MusicHub.api.model.Beat;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 /**
  * Repository interface for Beat entity.
  */
 @Repository
+@Transactional(readOnly = true) // See SongRepository
 public interface BeatRepository extends JpaRepository<Beat, Long> {
 
     // Custom query for Creator discovery: Finds beats matching mood OR genre.
     List<Beat> findByMoodInOrGenreIn(List<String> moods, List<String> genres);
+
+    // Bounded, popularity-ordered variant used by RecommendationEngine while its index is warming up
+    List<Beat> findByMoodInOrGenreInOrderByPopularityDesc(List<String> moods, List<String> genres, Limit limit);
+
+    // Keyset pagination: the page of beats that comes after (popularity, id) in "popularity desc, id asc" order.
+    @Query("select b from Beat b where (b.mood in :moods or b.genre in :genres)"
+            + " and (b.popularity < :popularity or (b.popularity = :popularity and b.id > :id))"
+            + " order by b.popularity desc, b.id asc")
+    List<Beat> findPageAfter(@Param("moods") List<String> moods, @Param("genres") List<String> genres,
+                             @Param("popularity") int popularity, @Param("id") long id, Limit limit);
+
+    // Streaming variant of the mood/genre query (see SongRepository.streamByMoodOrGenre).
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select b from Beat b where b.mood in :moods or b.genre in :genres order by b.popularity desc, b.id asc")
+    Stream<Beat> streamByMoodOrGenre(@Param("moods") List<String> moods, @Param("genres") List<String> genres);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select b from Beat b")
+    Stream<Beat> streamAll();
+
+    // See SongRepository.streamChangedSince
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select b from Beat b where b.id > :id or b.modifiedAt >= :since")
+    Stream<Beat> streamChangedSince(@Param("id") long highWaterId, @Param("since") Instant since);
+
+    long countByIdLessThanEqual(long id);
 }
@@ -0,0 +1,57 @@
+package com.MusicHub.api.repository;
+
+import com.MusicHub.api.model.IdGenerators;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Makes sure the pooled id generators start above the ids already in the tables.
+ *
+ * Rows written while the tables still used AUTO_INCREMENT (or loaded by scripts) are not
+ * known to 'id_generators', so a fresh generator would hand out ids that already exist.
+ * Runs once at startup, after Hibernate has created the generator table and before any
+ * request can insert a row.
+ */
+@Component
+public class IdGeneratorAligner {
+
+    private static final Logger log = LoggerFactory.getLogger(IdGeneratorAligner.class);
+
+    // Generator segment (pkColumnValue) -> table whose ids it allocates
+    private static final Map<String, String> SEGMENTS = Map.of("songs", "songs", "beats", "beats", "users", "users");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // EntityManagerFactory is injected only so this runs after the schema update
+    public IdGeneratorAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void align() {
+        SEGMENTS.forEach((segment, table) -> {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            // One full block of headroom: the pooled optimizer hands out the block below the stored value
+            long floor = maxId + IdGenerators.ALLOCATION_SIZE + 1;
+            List<Long> current = jdbcTemplate.queryForList(
+                    "SELECT next_val FROM " + IdGenerators.TABLE + " WHERE sequence_name = ?", Long.class, segment);
+            if (current.isEmpty()) {
+                jdbcTemplate.update("INSERT INTO " + IdGenerators.TABLE + " (sequence_name, next_val) VALUES (?, ?)",
+                        segment, floor);
+            } else if (current.get(0) < floor) {
+                jdbcTemplate.update("UPDATE " + IdGenerators.TABLE + " SET next_val = ? WHERE sequence_name = ?",
+                        floor, segment);
+            } else {
+                return;
+            }
+            log.info("Id generator '{}' moved to {} (max existing id {})", segment, floor, maxId);
+        });
+    }
+}
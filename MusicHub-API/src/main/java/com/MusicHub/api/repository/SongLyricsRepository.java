@@ -0,0 +1,12 @@
+package com.MusicHub.api.repository;
+
+import com.MusicHub.api.model.SongLyrics;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for SongLyrics (compressed lyrics keyed by song id).
+ */
+@Repository
+public interface SongLyricsRepository extends JpaRepository<SongLyrics, Long> {
+}
@@ -1,20 +1,81 @@
 package com.MusicHub.api.repository;
 
+import com.MusicHub.api.dto.SongSummary;
+import com.MusicHub.api.model.Song;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 /**
  * Repository interface for Song entity.
  * Includes custom methods for the Recommendation Engine (filtering by mood/genre).
+ * Query methods run in read-only transactions, so a read replica serves them when one is usable
+ * (save and delete keep the read-write transactions of SimpleJpaRepository).
  */
 @Repository
+@Transactional(readOnly = true)
 public interface SongRepository extends JpaRepository<Song, Long> {
 
+    // Select clause of the lightweight SongSummary projection used by list endpoints
+    String SUMMARY = "select new com.MusicHub.api.dto.SongSummary("
+            + "s.id, s.songId, s.title, s.artist, s.genre, s.mood, s.link, s.popularity)";
+
     // Custom query for recommendations: Finds songs matching a mood OR a genre, ordered by popularity.
     List<Song> findByMoodInOrGenreInOrderByPopularityDesc(List<String> moods, List<String> genres);
 
+    // Bounded variant used by RecommendationEngine while its popularity index is still warming up
+    List<SongSummary> findByMoodInOrGenreInOrderByPopularityDesc(List<String> moods, List<String> genres, Limit limit);
+
+    // Read-through cache: finds the locally cached copy of an external (iTunes) track
+    Optional<Song> findBySongId(String songId);
+
+    List<Song> findBySongIdIn(Collection<String> songIds);
+
     // Custom query for searching: Search by title or artist
     List<Song> findByTitleContainingIgnoreCaseOrArtistContainingIgnoreCase(String title, String artist);
 
+    // Bounded variant used by SongSearchService while the in-memory index is still warming up
+    List<SongSummary> findByTitleContainingIgnoreCaseOrArtistContainingIgnoreCase(String title, String artist, Limit limit);
+
+    // Loads the rows ranked by the in-memory engines, as projections
+    List<SongSummary> findSummariesByIdIn(Collection<Long> ids);
+
+    // Keyset pagination: the page of songs that comes after (popularity, id) in "popularity desc, id asc" order.
+    @Query(SUMMARY + " from Song s where (s.mood in :moods or s.genre in :genres)"
+            + " and (s.popularity < :popularity or (s.popularity = :popularity and s.id > :id))"
+            + " order by s.popularity desc, s.id asc")
+    List<SongSummary> findPageAfter(@Param("moods") List<String> moods, @Param("genres") List<String> genres,
+                                    @Param("popularity") int popularity, @Param("id") long id, Limit limit);
+
+    // Streaming variant of the mood/genre query. With useCursorFetch=true MySQL reads it through a server-side
+    // cursor, 1000 rows per round trip, instead of buffering the whole result in the driver.
+    // Must be consumed inside a transaction and closed afterwards.
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(SUMMARY + " from Song s where s.mood in :moods or s.genre in :genres order by s.popularity desc, s.id asc")
+    Stream<SongSummary> streamByMoodOrGenre(@Param("moods") List<String> moods, @Param("genres") List<String> genres);
+
+    // Streams the whole table (used to warm up the in-memory indexes without loading it into a List).
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select s from Song s")
+    Stream<Song> streamAll();
+
+    // Rows a catalog snapshot misses: inserted above its high-water id or written since it was taken
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select s from Song s where s.id > :id or s.modifiedAt >= :since")
+    Stream<Song> streamChangedSince(@Param("id") long highWaterId, @Param("since") Instant since);
+
+    long countByIdLessThanEqual(long id);
+
 }
@@ -1,8 +1,9 @@
 package com.MusicHub.api.repository;
 
-import com.musichub.api.model.User;
+import com.MusicHub.api.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repository interface for User entity.
@@ -10,8 +11,10 @@ import org.springframework.stereotype.Repository;
  * Parameters: <Entity Type, Primary Key Type>
  */
 @Repository
+@Transactional(readOnly = true) // See SongRepository
 public interface UserRepository extends JpaRepository<User, Long> {
 
-    // Custom query example: Spring automatically implements this method to find a User by email
+    // Custom query example: Spring automatically implements this method to find a User by email.
+    // Served from the unique index on email; callers go through UserDirectory, which caches the result.
     User findByEmail(String email);
 }
@@ -0,0 +1,121 @@
+package com.MusicHub.api.search;
+
+import com.MusicHub.api.catalog.CatalogIndex;
+import com.MusicHub.api.dto.Suggestion;
+import com.MusicHub.api.model.Beat;
+import com.MusicHub.api.model.Song;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Type-ahead over song titles, artists and beat names, answered from an AutocompleteTrie.
+ *
+ * The trie is immutable: catalog changes only update the names kept here and mark the trie
+ * stale, and a background task builds a fresh one and swaps it in. Requests never wait for
+ * a build, they see the previous trie until the new one is ready. On a large catalog under
+ * constant change a build takes seconds, so builds are spaced at least four build times apart.
+ */
+@Service
+public class AutocompleteService implements CatalogIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(AutocompleteService.class);
+
+    private record SongNames(String title, String artist, int popularity) {
+    }
+
+    private record BeatName(String name, int popularity) {
+    }
+
+    private final Map<Long, SongNames> songs = new ConcurrentHashMap<>();
+    private final Map<Long, BeatName> beats = new ConcurrentHashMap<>();
+    private final AtomicBoolean stale = new AtomicBoolean();
+    private final AtomicLong version = new AtomicLong(); // Bumped whenever a new trie is swapped in (for ETags)
+    private volatile AutocompleteTrie trie = AutocompleteTrie.build(List.of(), 1);
+    private volatile long updatedAt = System.currentTimeMillis();
+    private volatile long lastBuildMillis;
+    private volatile boolean ready;
+
+    @Value("${musichub.autocomplete.max-suggestions:10}")
+    private int maxSuggestions; // Also the number of suggestions stored per trie node
+
+    public List<Suggestion> complete(String prefix, int limit) {
+        return trie.complete(prefix, Math.max(1, Math.min(limit, maxSuggestions)));
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    public long updatedAt() {
+        return updatedAt;
+    }
+
+    @Scheduled(fixedDelayString = "${musichub.autocomplete.rebuild-interval:PT10S}")
+    public void refresh() {
+        if (ready && stale.get() && System.currentTimeMillis() - updatedAt >= 4 * lastBuildMillis) {
+            rebuild();
+        }
+    }
+
+    private synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        stale.set(false); // Before reading: a change that races with the build marks it stale again
+        List<Suggestion> candidates = new ArrayList<>(2 * songs.size() + beats.size());
+        songs.values().forEach(song -> {
+            addCandidate(candidates, song.title(), Suggestion.SONG, song.popularity());
+            addCandidate(candidates, song.artist(), Suggestion.ARTIST, song.popularity());
+        });
+        beats.values().forEach(beat -> addCandidate(candidates, beat.name(), Suggestion.BEAT, beat.popularity()));
+        trie = AutocompleteTrie.build(candidates, maxSuggestions);
+        updatedAt = System.currentTimeMillis();
+        lastBuildMillis = updatedAt - start;
+        version.incrementAndGet();
+        log.debug("Autocomplete trie rebuilt with {} suggestions in {} ms", trie.size(), lastBuildMillis);
+    }
+
+    private static void addCandidate(List<Suggestion> candidates, String text, String type, int popularity) {
+        if (text != null && !text.isBlank()) {
+            candidates.add(new Suggestion(text.trim(), type, popularity));
+        }
+    }
+
+    @Override
+    public void indexSong(Song song) {
+        songs.put(song.getId(), new SongNames(song.getTitle(), song.getArtist(), song.getPopularity()));
+        stale.set(true);
+    }
+
+    @Override
+    public void removeSong(Song song) {
+        songs.remove(song.getId());
+        stale.set(true);
+    }
+
+    @Override
+    public void indexBeat(Beat beat) {
+        beats.put(beat.getId(), new BeatName(beat.getName(), beat.getPopularity()));
+        stale.set(true);
+    }
+
+    @Override
+    public void removeBeat(Beat beat) {
+        beats.remove(beat.getId());
+        stale.set(true);
+    }
+
+    @Override
+    public void warmupCompleted() {
+        ready = true;
+        rebuild(); // The first trie is built right away, later ones in the background
+    }
+}
@@ -0,0 +1,270 @@
+package com.MusicHub.api.search;
+
+import com.MusicHub.api.dto.Suggestion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable radix trie for type-ahead over song titles, artists and beat names.
+ *
+ * Every word start of a name is a key, so "Midnight Rain" is found by "mid" and by "ra".
+ * Nodes are rows of flat int arrays, edge labels share one char[], and each node stores its
+ * best suggestions, so a prefix is answered by walking at most prefix-length characters and
+ * copying that list, never by visiting the subtree. Suggestions are numbered in rank order
+ * (popularity descending, then text), which makes "best" a plain int comparison.
+ * AutocompleteService builds a new trie when the catalog changes and swaps it in whole.
+ */
+public final class AutocompleteTrie {
+
+    private static final int MAX_KEY_LENGTH = 48; // Longer prefixes add nothing for type-ahead
+    private static final int MAX_WORDS = 8;       // Word starts indexed per name
+
+    private final Suggestion[] ranked; // Index = rank
+    private final char[] labels;       // Edge labels of all nodes, back to back
+    private final int[] labelStart;    // Per node (node 0 is the root, which has no label)
+    private final int[] labelEnd;
+    private final int[] firstChild;    // Children of a node are consecutive rows, sorted by first label char
+    private final int[] childCount;
+    private final int[] topStart;      // The node's best ranks: tops[topStart .. topStart + topCount)
+    private final int[] topCount;
+    private final int[] tops;
+
+    private AutocompleteTrie(Suggestion[] ranked, Builder builder) {
+        this.ranked = ranked;
+        this.labels = Arrays.copyOf(builder.labels, builder.labelLength);
+        this.labelStart = builder.labelStart.toArray();
+        this.labelEnd = builder.labelEnd.toArray();
+        this.firstChild = builder.firstChild.toArray();
+        this.childCount = builder.childCount.toArray();
+        this.topStart = builder.topStart.toArray();
+        this.topCount = builder.topCount.toArray();
+        this.tops = builder.tops.toArray();
+    }
+
+    /**
+     * Builds a trie keeping the best perNode suggestions under every prefix. Candidates with the same
+     * type and normalized text are merged, keeping the most popular one.
+     */
+    public static AutocompleteTrie build(Collection<Suggestion> candidates, int perNode) {
+        Map<String, Candidate> distinct = new HashMap<>();
+        for (Suggestion suggestion : candidates) {
+            String text = SongSearchIndex.normalize(suggestion.text());
+            if (!text.isEmpty()) {
+                distinct.merge(suggestion.type() + ':' + text, new Candidate(suggestion, text),
+                        (a, b) -> compareRank(a.suggestion(), b.suggestion()) <= 0 ? a : b);
+            }
+        }
+        Candidate[] byRank = distinct.values().toArray(Candidate[]::new);
+        Arrays.sort(byRank, (a, b) -> compareRank(a.suggestion(), b.suggestion()));
+
+        Suggestion[] ranked = new Suggestion[byRank.length];
+        List<Key> keys = new ArrayList<>(3 * byRank.length);
+        for (int rank = 0; rank < byRank.length; rank++) {
+            ranked[rank] = byRank[rank].suggestion();
+            String text = byRank[rank].normalized();
+            int words = 0;
+            for (int start = 0; start < text.length() && words < MAX_WORDS; start++) {
+                if (start == 0 || text.charAt(start - 1) == ' ') {
+                    keys.add(new Key(text.substring(start, Math.min(text.length(), start + MAX_KEY_LENGTH)), rank));
+                    words++;
+                }
+            }
+        }
+        keys.sort((a, b) -> a.text().compareTo(b.text()));
+
+        Builder builder = new Builder(keys, perNode);
+        builder.node(0, 0);
+        builder.build(0, 0, keys.size(), 0);
+        return new AutocompleteTrie(ranked, builder);
+    }
+
+    // Popularity descending, then text, then type
+    private static int compareRank(Suggestion a, Suggestion b) {
+        int cmp = Integer.compare(b.popularity(), a.popularity());
+        if (cmp == 0) {
+            cmp = a.text().compareTo(b.text());
+        }
+        return cmp != 0 ? cmp : a.type().compareTo(b.type());
+    }
+
+    /**
+     * The best suggestions whose title, artist or name has a word starting with the prefix.
+     */
+    public List<Suggestion> complete(String prefix, int limit) {
+        String key = SongSearchIndex.normalize(prefix);
+        if (key.isEmpty() || ranked.length == 0) {
+            return List.of();
+        }
+        key = key.substring(0, Math.min(key.length(), MAX_KEY_LENGTH));
+        int node = 0;
+        int matched = 0;
+        while (matched < key.length()) {
+            node = child(node, key.charAt(matched));
+            if (node < 0) {
+                return List.of();
+            }
+            for (int i = labelStart[node]; i < labelEnd[node] && matched < key.length(); i++, matched++) {
+                if (labels[i] != key.charAt(matched)) {
+                    return List.of();
+                }
+            }
+        }
+        int count = Math.min(limit, topCount[node]);
+        List<Suggestion> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(ranked[tops[topStart[node] + i]]);
+        }
+        return result;
+    }
+
+    public int size() {
+        return ranked.length;
+    }
+
+    // Binary search over the node's children by the first char of their label
+    private int child(int node, char c) {
+        int low = firstChild[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char first = labels[labelStart[mid]];
+            if (first < c) {
+                low = mid + 1;
+            } else if (first > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private record Candidate(Suggestion suggestion, String normalized) {
+    }
+
+    private record Key(String text, int rank) {
+    }
+
+    /**
+     * Lays the trie out from the sorted keys, depth first. Keys [lo, hi) all share their first
+     * 'depth' chars, which is the path to the node being built.
+     */
+    private static final class Builder {
+
+        private final List<Key> keys;
+        private final int perNode;
+        private char[] labels = new char[1024];
+        private int labelLength;
+        private final IntList labelStart = new IntList();
+        private final IntList labelEnd = new IntList();
+        private final IntList firstChild = new IntList();
+        private final IntList childCount = new IntList();
+        private final IntList topStart = new IntList();
+        private final IntList topCount = new IntList();
+        private final IntList tops = new IntList();
+
+        Builder(List<Key> keys, int perNode) {
+            this.keys = keys;
+            this.perNode = perNode;
+        }
+
+        private int node(int start, int end) {
+            labelStart.add(start);
+            labelEnd.add(end);
+            firstChild.add(0);
+            childCount.add(0);
+            topStart.add(0);
+            topCount.add(0);
+            return labelStart.size() - 1;
+        }
+
+        void build(int node, int lo, int hi, int depth) {
+            IntList candidates = new IntList();
+            int i = lo;
+            for (; i < hi && keys.get(i).text().length() == depth; i++) {
+                candidates.add(keys.get(i).rank()); // Keys ending exactly here sort first
+            }
+
+            IntList groupStarts = new IntList();
+            for (int j = i; j < hi; j++) {
+                if (j == i || keys.get(j).text().charAt(depth) != keys.get(j - 1).text().charAt(depth)) {
+                    groupStarts.add(j);
+                }
+            }
+            groupStarts.add(hi);
+
+            int children = groupStarts.size() - 1;
+            int first = labelStart.size();
+            firstChild.set(node, first);
+            childCount.set(node, children);
+            int[] ends = new int[children];
+            for (int g = 0; g < children; g++) {
+                // Sorted keys: what the first and last of a group share, the whole group shares
+                String a = keys.get(groupStarts.get(g)).text();
+                String b = keys.get(groupStarts.get(g + 1) - 1).text();
+                int end = depth + 1;
+                while (end < a.length() && end < b.length() && a.charAt(end) == b.charAt(end)) {
+                    end++;
+                }
+                ends[g] = end;
+                if (labelLength + end - depth > labels.length) {
+                    labels = Arrays.copyOf(labels, Math.max(2 * labels.length, labelLength + end - depth));
+                }
+                node(labelLength, labelLength + end - depth);
+                a.getChars(depth, end, labels, labelLength);
+                labelLength += end - depth;
+            }
+            for (int g = 0; g < children; g++) {
+                build(first + g, groupStarts.get(g), groupStarts.get(g + 1), ends[g]);
+                for (int t = 0; t < topCount.get(first + g); t++) {
+                    candidates.add(tops.get(topStart.get(first + g) + t));
+                }
+            }
+
+            int[] best = candidates.toArray();
+            Arrays.sort(best);
+            topStart.set(node, tops.size());
+            int count = 0;
+            for (int k = 0; k < best.length && count < perNode; k++) {
+                if (k == 0 || best[k] != best[k - 1]) { // A name can reach a node through two of its words
+                    tops.add(best[k]);
+                    count++;
+                }
+            }
+            topCount.set(node, count);
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        void set(int index, int value) {
+            values[index] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
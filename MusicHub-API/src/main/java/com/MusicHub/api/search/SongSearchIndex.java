@@ -0,0 +1,291 @@
+package com.MusicHub.api.search;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over song titles and artists.
+ *
+ * Each song is indexed twice: by whole word tokens (separately for title and artist)
+ * and by character trigrams of the normalized text. Word matches give strong relevance,
+ * trigrams catch partial words and substrings the way LIKE '%q%' used to, but without
+ * scanning every row. Results are ranked by score, then popularity, and only the best
+ * K are kept in a bounded heap.
+ */
+public class SongSearchIndex {
+
+    private static final float TITLE_TOKEN_WEIGHT = 3.0f;
+    private static final float ARTIST_TOKEN_WEIGHT = 2.0f;
+    private static final float TRIGRAM_WEIGHT = 1.0f;
+    private static final float SUBSTRING_BONUS = 1.5f;
+    // Share of the query trigrams a song must contain to count as a fuzzy match
+    private static final float MIN_TRIGRAM_OVERLAP = 0.6f;
+
+    private final Map<String, Postings> titleTokens = new HashMap<>();
+    private final Map<String, Postings> artistTokens = new HashMap<>();
+    private final Map<String, Postings> trigrams = new HashMap<>();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private record Doc(long id, String title, String artist, int popularity) {
+    }
+
+    private record Hit(long id, float score, int popularity) {
+    }
+
+    /**
+     * Adds a song to the index, or replaces the indexed version of it.
+     */
+    public void add(long id, String title, String artist, int popularity) {
+        Doc doc = new Doc(id, normalize(title), normalize(artist), popularity);
+        lock.writeLock().lock();
+        try {
+            Doc previous = docs.put(id, doc);
+            if (previous != null) {
+                // Popularity-only updates are common, so only touch postings when the text changed
+                if (previous.title().equals(doc.title()) && previous.artist().equals(doc.artist())) {
+                    return;
+                }
+                unindex(previous);
+            }
+            index(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Doc previous = docs.remove(id);
+            if (previous != null) {
+                unindex(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the best matching songs, most relevant first.
+     */
+    public List<Long> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> scores = new HashMap<>();
+
+            // 1. Whole word matches
+            for (String token : tokenize(normalized)) {
+                addScores(scores, titleTokens.get(token), TITLE_TOKEN_WEIGHT);
+                addScores(scores, artistTokens.get(token), ARTIST_TOKEN_WEIGHT);
+            }
+
+            // 2. Partial / substring matches through trigram overlap
+            Set<String> queryTrigrams = trigramsOf(normalized);
+            if (!queryTrigrams.isEmpty()) {
+                Map<Long, Integer> overlap = new HashMap<>();
+                for (String trigram : queryTrigrams) {
+                    Postings postings = trigrams.get(trigram);
+                    if (postings != null) {
+                        for (int i = 0; i < postings.size; i++) {
+                            overlap.merge(postings.ids[i], 1, Integer::sum);
+                        }
+                    }
+                }
+                for (Map.Entry<Long, Integer> entry : overlap.entrySet()) {
+                    float fraction = (float) entry.getValue() / queryTrigrams.size();
+                    if (fraction < MIN_TRIGRAM_OVERLAP) {
+                        continue;
+                    }
+                    float score = TRIGRAM_WEIGHT * fraction;
+                    Doc doc = docs.get(entry.getKey());
+                    if (doc.title().contains(normalized) || doc.artist().contains(normalized)) {
+                        score += SUBSTRING_BONUS;
+                    }
+                    scores.merge(entry.getKey(), score, Float::sum);
+                }
+            }
+
+            return topK(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Long> topK(Map<Long, Float> scores, int limit) {
+        // Min-heap on (score, popularity, -id): the root is always the weakest of the current top K
+        PriorityQueue<Hit> heap = new PriorityQueue<>(limit + 1, (a, b) -> {
+            int cmp = Float.compare(a.score(), b.score());
+            if (cmp == 0) {
+                cmp = Integer.compare(a.popularity(), b.popularity());
+            }
+            return cmp != 0 ? cmp : Long.compare(b.id(), a.id());
+        });
+        for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+            heap.offer(new Hit(entry.getKey(), entry.getValue(), docs.get(entry.getKey()).popularity()));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+
+        Long[] ranked = new Long[heap.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = heap.poll().id();
+        }
+        return Arrays.asList(ranked);
+    }
+
+    private void addScores(Map<Long, Float> scores, Postings postings, float weight) {
+        if (postings == null) {
+            return;
+        }
+        for (int i = 0; i < postings.size; i++) {
+            scores.merge(postings.ids[i], weight, Float::sum);
+        }
+    }
+
+    private void index(Doc doc) {
+        for (String token : tokenize(doc.title())) {
+            titleTokens.computeIfAbsent(token, k -> new Postings()).add(doc.id());
+        }
+        for (String token : tokenize(doc.artist())) {
+            artistTokens.computeIfAbsent(token, k -> new Postings()).add(doc.id());
+        }
+        for (String trigram : trigramsOf(doc)) {
+            trigrams.computeIfAbsent(trigram, k -> new Postings()).add(doc.id());
+        }
+    }
+
+    private void unindex(Doc doc) {
+        for (String token : tokenize(doc.title())) {
+            removePosting(titleTokens, token, doc.id());
+        }
+        for (String token : tokenize(doc.artist())) {
+            removePosting(artistTokens, token, doc.id());
+        }
+        for (String trigram : trigramsOf(doc)) {
+            removePosting(trigrams, trigram, doc.id());
+        }
+    }
+
+    private static void removePosting(Map<String, Postings> map, String key, long id) {
+        Postings postings = map.get(key);
+        if (postings != null && postings.remove(id) && postings.size == 0) {
+            map.remove(key);
+        }
+    }
+
+    private static Set<String> trigramsOf(Doc doc) {
+        Set<String> result = trigramsOf(doc.title());
+        result.addAll(trigramsOf(doc.artist()));
+        return result;
+    }
+
+    private static Set<String> trigramsOf(String text) {
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            result.add(text.substring(i, i + 3));
+        }
+        return result;
+    }
+
+    private static Set<String> tokenize(String normalized) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : normalized.split(" ")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Lowercases, strips accents and collapses punctuation/whitespace to single spaces.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String ascii = normalizeAscii(text);
+        if (ascii != null) {
+            return ascii;
+        }
+        String stripped = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    // Same result as the regex path for pure ASCII text (nothing to decompose), without the regexes; null otherwise
+    private static String normalizeAscii(String text) {
+        char[] out = new char[text.length()];
+        int length = 0;
+        boolean gap = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                return null;
+            }
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                // kept as is
+            } else if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            } else {
+                gap = length > 0;
+                continue;
+            }
+            if (gap) {
+                out[length++] = ' ';
+                gap = false;
+            }
+            out[length++] = c;
+        }
+        return new String(out, 0, length);
+    }
+
+    /**
+     * Growable array of song ids; avoids one boxed Long per posting.
+     */
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        boolean remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.MusicHub.api.search;
+
+import com.MusicHub.api.catalog.CatalogIndex;
+import com.MusicHub.api.catalog.RankedRows;
+import com.MusicHub.api.dto.SongSummary;
+import com.MusicHub.api.model.Song;
+import com.MusicHub.api.repository.SongRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Search engine for songs.
+ * Queries are answered from the in-memory SongSearchIndex; MySQL is only hit to load the
+ * top K rows (as SongSummary projections) by primary key. Until the startup warmup has finished, searches fall back
+ * to the (bounded) LIKE query in SongRepository.
+ */
+@Service
+public class SongSearchService implements CatalogIndex {
+
+    private final SongRepository songRepository;
+    private final SongSearchIndex index = new SongSearchIndex();
+    private volatile boolean ready;
+
+    @Value("${musichub.search.max-results:100}")
+    private int maxResults;
+
+    public SongSearchService(SongRepository songRepository) {
+        this.songRepository = songRepository;
+    }
+
+    public List<SongSummary> search(String query, int limit) {
+        int k = Math.max(1, Math.min(limit, maxResults));
+        if (!ready) {
+            return songRepository.findByTitleContainingIgnoreCaseOrArtistContainingIgnoreCase(query, query, Limit.of(k));
+        }
+
+        List<Long> ids = index.search(query, k);
+        return RankedRows.inRankOrder(ids, songRepository.findSummariesByIdIn(ids), SongSummary::id);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void indexSong(Song song) {
+        index.add(song.getId(), song.getTitle(), song.getArtist(), song.getPopularity());
+    }
+
+    @Override
+    public void removeSong(Song song) {
+        index.remove(song.getId());
+    }
+
+    @Override
+    public void warmupCompleted() {
+        ready = true;
+    }
+}
@@ -0,0 +1,52 @@
+package com.MusicHub.api.trending;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free count-min sketch: DEPTH rows of counters, a key increments one counter per row
+ * and its count is estimated as the minimum of those counters (never below the true count).
+ * Counters are AtomicLongArray slots, so concurrent adds need no lock.
+ */
+final class CountMinSketch {
+
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L};
+
+    private final AtomicLongArray counters;
+    private final int mask;
+
+    CountMinSketch(int width) {
+        int size = Integer.highestOneBit(Math.max(16, width) - 1) << 1; // Next power of two
+        this.counters = new AtomicLongArray(DEPTH * size);
+        this.mask = size - 1;
+    }
+
+    void add(Object key, long count) {
+        int hash = key.hashCode();
+        for (int row = 0; row < DEPTH; row++) {
+            counters.getAndAdd(slot(hash, row), count);
+        }
+    }
+
+    long estimate(Object key) {
+        int hash = key.hashCode();
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            min = Math.min(min, counters.get(slot(hash, row)));
+        }
+        return min;
+    }
+
+    void clear() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+    }
+
+    private int slot(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h ^= h >>> 29;
+        return row * (mask + 1) + ((int) h & mask);
+    }
+}
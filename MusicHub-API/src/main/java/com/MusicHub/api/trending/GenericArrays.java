@@ -0,0 +1,18 @@
+package com.MusicHub.api.trending;
+
+import java.lang.reflect.Array;
+
+/**
+ * Arrays of generic element types (e.g. Stripe<K>[]), which Java cannot create directly.
+ */
+final class GenericArrays {
+
+    private GenericArrays() {
+    }
+
+    // The only unchecked cast: the array holds instances of rawType, and T is that type with its arguments
+    @SuppressWarnings("unchecked")
+    static <T> T[] of(Class<?> rawType, int length) {
+        return (T[]) Array.newInstance(rawType, length);
+    }
+}
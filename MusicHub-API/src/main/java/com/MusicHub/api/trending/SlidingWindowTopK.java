@@ -0,0 +1,97 @@
+package com.MusicHub.api.trending;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Heavy hitters over a sliding time window, e.g. the most played songs of the last 24 hours.
+ *
+ * The window is cut into a ring of equal time buckets. Each bucket has its own count-min sketch
+ * (frequency estimates) and Space-Saving summary (which keys are candidates); a bucket is reset
+ * when time wraps around to it, so old counts fall out of the window bucket by bucket.
+ * A query takes the candidates of all live buckets and ranks them by their summed estimates.
+ */
+final class SlidingWindowTopK<K> {
+
+    /** A key with its estimated count in the window. */
+    record Entry<K>(K key, long count) {
+    }
+
+    private final long bucketMillis;
+    private final Bucket<K>[] buckets;
+
+    SlidingWindowTopK(Duration window, int bucketCount, int sketchWidth, int candidates, int stripes) {
+        this.bucketMillis = Math.max(1, window.toMillis() / bucketCount);
+        this.buckets = GenericArrays.of(Bucket.class, bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new Bucket<>(new CountMinSketch(sketchWidth), new SpaceSaving<>(candidates, stripes));
+        }
+    }
+
+    /**
+     * Counts an occurrence at the given time; occurrences older than the window are ignored.
+     */
+    void add(K key, long timestamp, long count) {
+        long epoch = timestamp / bucketMillis;
+        long current = System.currentTimeMillis() / bucketMillis;
+        if (epoch <= current - buckets.length || epoch > current + 1) {
+            return;
+        }
+        Bucket<K> bucket = buckets[Math.floorMod(epoch, buckets.length)];
+        if (bucket.epoch != epoch) {
+            bucket.rotate(epoch);
+            if (bucket.epoch != epoch) {
+                return; // The slot already moved on to a newer bucket
+            }
+        }
+        bucket.sketch.add(key, count);
+        bucket.candidates.add(key, count);
+    }
+
+    List<Entry<K>> top(int k) {
+        long current = System.currentTimeMillis() / bucketMillis;
+        List<Bucket<K>> live = new ArrayList<>(buckets.length);
+        Set<K> keys = new HashSet<>();
+        for (Bucket<K> bucket : buckets) {
+            if (bucket.epoch > current - buckets.length && bucket.epoch <= current + 1) {
+                live.add(bucket);
+                bucket.candidates.collectKeys(keys);
+            }
+        }
+        List<Entry<K>> ranked = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            long count = 0;
+            for (Bucket<K> bucket : live) {
+                count += bucket.sketch.estimate(key);
+            }
+            ranked.add(new Entry<>(key, count));
+        }
+        ranked.sort(Comparator.comparingLong((Entry<K> e) -> e.count()).reversed());
+        return ranked.size() > k ? new ArrayList<>(ranked.subList(0, k)) : ranked;
+    }
+
+    private static final class Bucket<K> {
+
+        final CountMinSketch sketch;
+        final SpaceSaving<K> candidates;
+        volatile long epoch = Long.MIN_VALUE;
+
+        Bucket(CountMinSketch sketch, SpaceSaving<K> candidates) {
+            this.sketch = sketch;
+            this.candidates = candidates;
+        }
+
+        // Adds racing with a reset may be lost or land in the new bucket; trending tolerates that
+        synchronized void rotate(long newEpoch) {
+            if (newEpoch > epoch) {
+                sketch.clear();
+                candidates.clear();
+                epoch = newEpoch;
+            }
+        }
+    }
+}
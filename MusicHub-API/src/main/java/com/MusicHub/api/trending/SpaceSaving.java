@@ -0,0 +1,95 @@
+package com.MusicHub.api.trending;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Space-Saving heavy-hitter summary: keeps at most capacity counters; a new key replaces the
+ * key with the smallest count and inherits that count. Any key whose true frequency exceeds
+ * total / capacity is guaranteed to be kept, which is what trending needs.
+ *
+ * Split into independently locked stripes by key hash, so concurrent updates for different
+ * keys rarely contend. Each stripe is a small Space-Saving summary of its own.
+ */
+final class SpaceSaving<K> {
+
+    private final Stripe<K>[] stripes;
+
+    SpaceSaving(int capacity, int stripeCount) {
+        int count = Integer.highestOneBit(Math.max(1, stripeCount) - 1) << 1;
+        if (count == 0) {
+            count = 1;
+        }
+        stripes = GenericArrays.of(Stripe.class, count);
+        int perStripe = Math.max(4, capacity / count);
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe<>(perStripe);
+        }
+    }
+
+    void add(K key, long count) {
+        int hash = key.hashCode();
+        stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)].add(key, count);
+    }
+
+    /**
+     * Adds every key currently tracked to the set.
+     */
+    void collectKeys(Set<K> into) {
+        for (Stripe<K> stripe : stripes) {
+            stripe.collectKeys(into);
+        }
+    }
+
+    void clear() {
+        for (Stripe<K> stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    private static final class Stripe<K> {
+
+        private final int capacity;
+        private final Map<K, long[]> counts; // Value holds a single mutable count
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+            this.counts = new HashMap<>(capacity * 2);
+        }
+
+        synchronized void add(K key, long count) {
+            long[] counter = counts.get(key);
+            if (counter != null) {
+                counter[0] += count;
+                return;
+            }
+            if (counts.size() < capacity) {
+                counts.put(key, new long[]{count});
+                return;
+            }
+            // Replace the smallest counter; the newcomer inherits its count (the possible overestimate)
+            Iterator<Map.Entry<K, long[]>> it = counts.entrySet().iterator();
+            Map.Entry<K, long[]> min = it.next();
+            while (it.hasNext()) {
+                Map.Entry<K, long[]> entry = it.next();
+                if (entry.getValue()[0] < min.getValue()[0]) {
+                    min = entry;
+                }
+            }
+            long[] reused = min.getValue();
+            counts.remove(min.getKey());
+            reused[0] += count;
+            counts.put(key, reused);
+        }
+
+        synchronized void collectKeys(Set<K> into) {
+            into.addAll(counts.keySet());
+        }
+
+        synchronized void clear() {
+            counts.clear();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.MusicHub.api.trending;
+
+import com.MusicHub.api.activity.ActivityEvent;
+import com.MusicHub.api.activity.ActivityListener;
+import com.MusicHub.api.activity.ActivityStoreLock;
+import com.MusicHub.api.catalog.RankedRows;
+import com.MusicHub.api.dto.SongSummary;
+import com.MusicHub.api.dto.TrendingSearch;
+import com.MusicHub.api.dto.TrendingSong;
+import com.MusicHub.api.repository.SongRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * In-memory trending songs (plays + likes) and trending searches over configurable sliding
+ * windows (1h / 24h / 7d by default), replacing a GROUP BY over the whole search_logs table.
+ *
+ * Activity is counted as the ActivityPipeline stores it; on startup the last window's worth
+ * is read back from MySQL once, while the pipeline is not storing (ActivityStoreLock), and
+ * what it delivers before that read is ignored because the read includes it. A like counts once per user and song: the pipeline delivers
+ * only the first one, and the likes table holds only that one. Rankings are recomputed every refresh interval, so a
+ * /trending request only reads a prepared list.
+ */
+@Service
+public class TrendingService implements ActivityListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingService.class);
+
+    private static final int SKETCH_WIDTH = 1024;
+    private static final int CANDIDATES_PER_BUCKET = 256;
+    private static final int STRIPES = 8;
+
+    private record Window(SlidingWindowTopK<Long> songs, SlidingWindowTopK<String> searches) {
+    }
+
+    private record Ranking(List<TrendingSong> songs, List<TrendingSearch> searches) {
+    }
+
+    private final SongRepository songRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ActivityStoreLock storeLock;
+    private final int maxResults;
+    private final Map<String, Window> windows = new LinkedHashMap<>();
+    private final Duration longestWindow;
+    private volatile boolean loaded; // Activity delivered before is counted by load() instead
+    private volatile Map<String, Ranking> rankings = Map.of();
+    private final AtomicLong version = new AtomicLong(); // Bumped when a refresh changes any ranking (for ETags)
+    private volatile long updatedAt = System.currentTimeMillis();
+
+    public TrendingService(SongRepository songRepository, JdbcTemplate jdbcTemplate, ActivityStoreLock storeLock,
+                           @Value("${musichub.trending.windows:1h,24h,7d}") List<String> windowNames,
+                           @Value("${musichub.trending.buckets:48}") int buckets,
+                           @Value("${musichub.trending.max-results:100}") int maxResults) {
+        this.songRepository = songRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.storeLock = storeLock;
+        this.maxResults = maxResults;
+        Duration longest = Duration.ZERO;
+        for (String name : windowNames) {
+            Duration length = DurationStyle.detectAndParse(name.trim());
+            windows.put(name.trim(), new Window(
+                    new SlidingWindowTopK<>(length, buckets, SKETCH_WIDTH, CANDIDATES_PER_BUCKET, STRIPES),
+                    new SlidingWindowTopK<>(length, buckets, SKETCH_WIDTH, CANDIDATES_PER_BUCKET, STRIPES)));
+            longest = length.compareTo(longest) > 0 ? length : longest;
+        }
+        this.longestWindow = longest;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        long since = start - longestWindow.toMillis();
+        storeLock.whileNotStoring(() -> {
+            jdbcTemplate.query("SELECT song_id, played_at FROM listening_history WHERE played_at >= ?",
+                    rs -> {
+                        countSong(rs.getLong(1), rs.getLong(2));
+                    }, since);
+            jdbcTemplate.query("SELECT song_id, liked_at FROM likes WHERE liked_at >= ?",
+                    rs -> {
+                        countSong(rs.getLong(1), rs.getLong(2));
+                    }, since);
+            jdbcTemplate.query("SELECT query_text, searched_at FROM search_logs WHERE searched_at >= ?",
+                    rs -> {
+                        countSearch(rs.getString(1), rs.getLong(2));
+                    }, since);
+            loaded = true;
+            return null;
+        });
+        refresh();
+        log.info("Trending windows {} loaded in {} ms", windows.keySet(), System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public void onActivity(List<ActivityEvent> events) {
+        if (!loaded) {
+            return; // Already stored, so load() reads it
+        }
+        for (ActivityEvent event : events) {
+            switch (event.type()) {
+                case PLAY, LIKE -> countSong(event.songId(), event.timestamp());
+                case SEARCH -> countSearch(event.query(), event.timestamp());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${musichub.trending.refresh-interval:PT5S}")
+    public void refresh() {
+        Map<String, Ranking> fresh = new LinkedHashMap<>();
+        windows.forEach((name, window) -> {
+            List<SlidingWindowTopK.Entry<Long>> songs = window.songs().top(maxResults);
+            List<Long> ids = songs.stream().map(SlidingWindowTopK.Entry::key).toList();
+            Map<Long, SongSummary> rows = new LinkedHashMap<>();
+            RankedRows.inRankOrder(ids, songRepository.findSummariesByIdIn(ids), SongSummary::id)
+                    .forEach(row -> rows.put(row.id(), row));
+            List<TrendingSong> trendingSongs = songs.stream()
+                    .filter(entry -> rows.containsKey(entry.key()))
+                    .map(entry -> new TrendingSong(rows.get(entry.key()), entry.count()))
+                    .toList();
+            List<TrendingSearch> trendingSearches = window.searches().top(maxResults).stream()
+                    .map(entry -> new TrendingSearch(entry.key(), entry.count()))
+                    .toList();
+            fresh.put(name, new Ranking(trendingSongs, trendingSearches));
+        });
+        if (!fresh.equals(rankings)) {
+            rankings = fresh;
+            updatedAt = System.currentTimeMillis();
+            version.incrementAndGet();
+        }
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    public long updatedAt() {
+        return updatedAt;
+    }
+
+    public List<TrendingSong> trendingSongs(String window, int limit) {
+        return head(ranking(window).songs(), limit);
+    }
+
+    public List<TrendingSearch> trendingSearches(String window, int limit) {
+        return head(ranking(window).searches(), limit);
+    }
+
+    private Ranking ranking(String window) {
+        if (!windows.containsKey(window)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown window, use one of " + windows.keySet());
+        }
+        return rankings.getOrDefault(window, new Ranking(List.of(), List.of()));
+    }
+
+    private void countSong(long songId, long timestamp) {
+        count(songId, timestamp, Window::songs);
+    }
+
+    private void countSearch(String query, long timestamp) {
+        String normalized = normalize(query);
+        if (!normalized.isEmpty()) {
+            count(normalized, timestamp, Window::searches);
+        }
+    }
+
+    private <K> void count(K key, long timestamp, Function<Window, SlidingWindowTopK<K>> tracker) {
+        for (Window window : windows.values()) {
+            tracker.apply(window).add(key, timestamp, 1);
+        }
+    }
+
+    private static String normalize(String query) {
+        return query == null ? "" : query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private <T> List<T> head(List<T> ranked, int limit) {
+        int k = Math.max(0, Math.min(limit, maxResults));
+        return ranked.size() > k ? ranked.subList(0, k) : ranked;
+    }
+}
@@ -0,0 +1,256 @@
+package com.MusicHub.api.user;
+
+import com.MusicHub.api.cache.SingleFlight;
+import com.MusicHub.api.cache.WTinyLfuCache;
+import com.MusicHub.api.cache.WTinyLfuCacheMetrics;
+import com.MusicHub.api.dto.UserProfile;
+import com.MusicHub.api.dto.UserRequest;
+import com.MusicHub.api.model.User;
+import com.MusicHub.api.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Registration, login and profile lookups, with users cached in memory.
+ *
+ * Users are cached by id and by email in bounded W-TinyLFU caches. Entries expire after the
+ * configured ttl, so a change made through another instance shows up within that time. Changes
+ * made here replace the cached copy right away. "Is this email free?" is first asked of a Bloom
+ * filter of every registered email, which answers "free" without a query for almost all new
+ * addresses. Only "probably taken" is checked in the cache and MySQL. The unique index on
+ * users.email has the final word when two registrations race. Emails are stored lower-case.
+ */
+@Service
+public class UserDirectory {
+
+    private static final Logger log = LoggerFactory.getLogger(UserDirectory.class);
+
+    private record CachedUser(UserProfile user, long expiresAt) {
+        boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+    }
+
+    // A profile change and the user's email before it
+    private record Change(UserProfile user, String previousEmail) {
+    }
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate primary;
+    private final TransactionTemplate primaryTx; // Not read-only: registration checks and updates see the latest rows
+    private final long expectedEmails;
+    private final double falsePositiveRate;
+    private final long ttlNanos;
+
+    private final WTinyLfuCache<Long, CachedUser> usersById;
+    private final WTinyLfuCache<String, Long> idsByEmail;
+    private final SingleFlight<String, Optional<UserProfile>> emailLoads = new SingleFlight<>();
+    private final Counter freeByFilter;
+    private final Counter checkedByLookup;
+
+    private volatile EmailBloomFilter emails; // null until the first build: every check is a lookup until then
+    private volatile EmailBloomFilter rebuilding; // Also gets the emails registered while a rebuild scans the table
+
+    public UserDirectory(UserRepository userRepository, @Qualifier("primaryDataSource") DataSource primaryDataSource,
+                         PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                         @Value("${musichub.users.cache.maximum-size:50000}") int maximumSize,
+                         @Value("${musichub.users.cache.ttl:PT5M}") Duration ttl,
+                         @Value("${musichub.users.email-filter.expected-emails:1000000}") long expectedEmails,
+                         @Value("${musichub.users.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.primaryTx = new TransactionTemplate(transactionManager);
+        this.expectedEmails = expectedEmails;
+        this.falsePositiveRate = falsePositiveRate;
+        this.ttlNanos = ttl.toNanos();
+        this.usersById = new WTinyLfuCache<>(maximumSize);
+        this.idsByEmail = new WTinyLfuCache<>(maximumSize);
+        new WTinyLfuCacheMetrics(usersById, "users").bindTo(meterRegistry);
+        new WTinyLfuCacheMetrics(idsByEmail, "user-emails").bindTo(meterRegistry);
+        this.freeByFilter = Counter.builder("musichub.users.email-checks").tag("answered", "filter").register(meterRegistry);
+        this.checkedByLookup = Counter.builder("musichub.users.email-checks").tag("answered", "lookup").register(meterRegistry);
+    }
+
+    public Optional<UserProfile> findById(long id) {
+        CachedUser cached = usersById.get(id);
+        if (cached != null && !cached.isExpired()) {
+            return Optional.of(cached.user());
+        }
+        Optional<UserProfile> user = userRepository.findById(id).map(UserProfile::of);
+        user.ifPresent(this::cache);
+        return user;
+    }
+
+    /**
+     * The user registered with this email (login). Not answered by the Bloom filter: an email
+     * registered through another instance is only in this instance's filter after its next rebuild.
+     */
+    public Optional<UserProfile> findByEmail(String email) {
+        String key = normalize(email);
+        Long id = idsByEmail.get(key);
+        if (id != null) {
+            CachedUser cached = usersById.get(id);
+            if (cached != null && !cached.isExpired() && key.equals(cached.user().email())) {
+                return Optional.of(cached.user());
+            }
+        }
+        return emailLoads.execute(key, () -> {
+            Optional<UserProfile> user = Optional.ofNullable(userRepository.findByEmail(key)).map(UserProfile::of);
+            user.ifPresent(this::cache);
+            return user;
+        });
+    }
+
+    public boolean isEmailTaken(String email) {
+        String key = normalize(email);
+        EmailBloomFilter filter = emails;
+        if (filter != null && !filter.mightContain(key)) {
+            freeByFilter.increment();
+            return false;
+        }
+        checkedByLookup.increment();
+        return findByEmail(key).isPresent();
+    }
+
+    /**
+     * Creates a user; 409 when the email is already registered.
+     */
+    public UserProfile register(UserRequest request) {
+        String email = requireEmail(request.email());
+        if (isEmailTaken(email)) {
+            throw emailTaken(email);
+        }
+        UserProfile user;
+        try {
+            user = primaryTx.execute(status -> {
+                User entity = new User();
+                entity.setName(request.name());
+                entity.setEmail(email);
+                entity.setRole(request.role());
+                entity.setPreferences(request.preferences());
+                return UserProfile.of(userRepository.saveAndFlush(entity));
+            });
+        } catch (DataIntegrityViolationException e) { // Registered concurrently (unique index)
+            throw emailTaken(email);
+        }
+        addEmail(email);
+        cache(user);
+        return user;
+    }
+
+    /**
+     * Changes the fields of the request that are set; 404 for an unknown user, 409 when the
+     * new email belongs to someone else.
+     */
+    public UserProfile update(long id, UserRequest request) {
+        String email = request.email() == null ? null : requireEmail(request.email());
+        Change change;
+        try {
+            change = primaryTx.execute(status -> {
+                User entity = userRepository.findById(id)
+                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User " + id + " not found"));
+                String previousEmail = entity.getEmail();
+                if (request.name() != null) {
+                    entity.setName(request.name());
+                }
+                if (email != null) {
+                    entity.setEmail(email);
+                }
+                if (request.role() != null) {
+                    entity.setRole(request.role());
+                }
+                if (request.preferences() != null) {
+                    entity.setPreferences(request.preferences());
+                }
+                return new Change(UserProfile.of(userRepository.saveAndFlush(entity)), previousEmail);
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw emailTaken(email);
+        }
+        // The replicas may not have the change yet, so the new copy goes straight into the cache
+        usersById.invalidate(id);
+        if (change.previousEmail() != null) {
+            idsByEmail.invalidate(normalize(change.previousEmail()));
+        }
+        if (change.user().email() != null) {
+            addEmail(change.user().email());
+        }
+        cache(change.user());
+        return change.user();
+    }
+
+    /**
+     * Rebuilds the Bloom filter from the users table (first run at startup). Besides picking up
+     * registrations made through other instances, this forgets emails that were changed since,
+     * and resizes the filter as the table grows.
+     */
+    @Scheduled(fixedDelayString = "${musichub.users.email-filter.rebuild-interval:PT1H}")
+    public synchronized void rebuildEmailFilter() {
+        long start = System.currentTimeMillis();
+        Long count = primary.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        EmailBloomFilter filter = new EmailBloomFilter(Math.max(expectedEmails, 2 * (count == null ? 0 : count)), falsePositiveRate);
+        rebuilding = filter;
+        try {
+            primary.query("SELECT email FROM users WHERE email IS NOT NULL", rs -> {
+                filter.add(normalize(rs.getString(1)));
+            });
+            emails = filter;
+        } finally {
+            rebuilding = null;
+        }
+        log.info("Email filter built over {} users ({} KB) in {} ms", count, filter.sizeInBytes() / 1024,
+                System.currentTimeMillis() - start);
+    }
+
+    // Reads rebuilding first: if it is already null again, emails is the rebuilt filter
+    private void addEmail(String email) {
+        String key = normalize(email);
+        EmailBloomFilter next = rebuilding;
+        if (next != null) {
+            next.add(key);
+        }
+        EmailBloomFilter current = emails;
+        if (current != null) {
+            current.add(key);
+        }
+    }
+
+    private void cache(UserProfile user) {
+        usersById.put(user.id(), new CachedUser(user, System.nanoTime() + ttlNanos));
+        if (user.email() != null) {
+            idsByEmail.put(normalize(user.email()), user.id());
+        }
+    }
+
+    private static String requireEmail(String email) {
+        if (email == null || email.isBlank() || email.indexOf('@') < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A valid email is required");
+        }
+        return normalize(email);
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static ResponseStatusException emailTaken(String email) {
+        return new ResponseStatusException(HttpStatus.CONFLICT, "Email " + email + " is already registered");
+    }
+}
@@ -0,0 +1,64 @@
+package com.MusicHub.api.activity;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActivityWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(new SimpleDriverDataSource(
+            new org.h2.Driver(), "jdbc:h2:mem:activity-writer;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+    private final ActivityWriter writer = new ActivityWriter(jdbcTemplate);
+
+    @BeforeEach
+    void createTables() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        jdbcTemplate.execute("CREATE TABLE likes (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT, song_id BIGINT,"
+                + " liked_at BIGINT, UNIQUE (user_id, song_id))");
+        jdbcTemplate.execute("CREATE TABLE listening_history (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT,"
+                + " song_id BIGINT, played_at BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE search_logs (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT,"
+                + " query_text VARCHAR(255), searched_at BIGINT)");
+    }
+
+    @Test
+    void storesALikeOncePerUserAndSong() {
+        int rows = writer.write(List.of(
+                like(1, 10, 1_000),
+                like(1, 10, 2_000), // Repeated in the same batch: coalesced
+                like(2, 10, 3_000)));
+        assertThat(rows).isEqualTo(2);
+
+        writer.write(List.of(like(1, 10, 4_000), like(1, 11, 5_000))); // Already stored: ignored by the unique key
+
+        assertThat(jdbcTemplate.queryForList("SELECT user_id, song_id, liked_at FROM likes ORDER BY liked_at"))
+                .extracting(row -> List.of(row.get("USER_ID"), row.get("SONG_ID"), row.get("LIKED_AT")))
+                .containsExactly(List.of(1L, 10L, 1_000L), List.of(2L, 10L, 3_000L), List.of(1L, 11L, 5_000L));
+    }
+
+    @Test
+    void storesEveryPlayAndSearchInChunks() {
+        List<ActivityEvent> events = IntStream.range(0, 1_200)
+                .mapToObj(i -> i % 2 == 0
+                        ? new ActivityEvent(ActivityEvent.Type.PLAY, 1, 10, null, i)
+                        : new ActivityEvent(ActivityEvent.Type.SEARCH, 1, 0, "  lofi beats ", i))
+                .toList();
+
+        assertThat(writer.write(events)).isEqualTo(1_200);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM listening_history", Long.class)).isEqualTo(600);
+        assertThat(jdbcTemplate.queryForList("SELECT DISTINCT query_text FROM search_logs", String.class))
+                .containsExactly("lofi beats");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM search_logs", Long.class)).isEqualTo(600);
+    }
+
+    private static ActivityEvent like(long userId, long songId, long timestamp) {
+        return new ActivityEvent(ActivityEvent.Type.LIKE, userId, songId, null, timestamp);
+    }
+}
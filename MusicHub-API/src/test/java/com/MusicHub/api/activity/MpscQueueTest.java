@@ -0,0 +1,84 @@
+package com.MusicHub.api.activity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MpscQueueTest {
+
+    @Test
+    void rejectsOffersWhenFullUntilTheConsumerDrains() {
+        MpscQueue<Integer> queue = new MpscQueue<>(5);
+        assertThat(queue.capacity()).isEqualTo(8);
+
+        for (int i = 0; i < 8; i++) {
+            assertThat(queue.offer(i)).isTrue();
+        }
+        assertThat(queue.offer(8)).isFalse();
+        assertThat(queue.size()).isEqualTo(8);
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(queue.drainTo(drained, 3)).isEqualTo(3);
+        for (int i = 8; i < 11; i++) {
+            assertThat(queue.offer(i)).isTrue(); // Into the freed slots, one round later
+        }
+        assertThat(queue.offer(11)).isFalse();
+
+        assertThat(queue.drainTo(drained, 100)).isEqualTo(8);
+        assertThat(drained).containsExactlyElementsOf(IntStream.range(0, 11).boxed().toList());
+        assertThat(queue.size()).isZero();
+        assertThat(queue.drainTo(drained, 100)).isZero();
+    }
+
+    @Test
+    void keepsEveryProducersOrderUnderContention() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 50_000;
+        MpscQueue<long[]> queue = new MpscQueue<>(1024);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (long seq = 0; seq < perProducer; seq++) {
+                    while (!queue.offer(new long[]{producer, seq})) {
+                        Thread.onSpinWait(); // Full: the consumer catches up
+                    }
+                }
+            }));
+        }
+
+        start.countDown();
+        long[] next = new long[producers];
+        List<String> outOfOrder = new ArrayList<>();
+        List<long[]> batch = new ArrayList<>();
+        long received = 0;
+        while (received < (long) producers * perProducer) {
+            batch.clear();
+            queue.drainTo(batch, 256);
+            for (long[] element : batch) {
+                if (element[1] != next[(int) element[0]]++) {
+                    outOfOrder.add(element[0] + ":" + element[1]);
+                }
+            }
+            received += batch.size();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(outOfOrder).isEmpty();
+        assertThat(next).containsOnly(perProducer);
+        assertThat(queue.size()).isZero();
+    }
+}
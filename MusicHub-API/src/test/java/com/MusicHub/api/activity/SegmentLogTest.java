@@ -0,0 +1,116 @@
+package com.MusicHub.api.activity;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SegmentLogTest {
+
+    private static final int RECORD_BYTES = 8 + 29; // Header and payload of an event without a query
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsBackWhatWasAppended() throws IOException {
+        List<ActivityEvent> events = List.of(
+                new ActivityEvent(ActivityEvent.Type.LIKE, 1, 10, null, 1_000),
+                new ActivityEvent(ActivityEvent.Type.PLAY, Long.MAX_VALUE, -5, null, 2_000),
+                new ActivityEvent(ActivityEvent.Type.SEARCH, 2, 0, "café \"del mar\"", 3_000),
+                new ActivityEvent(ActivityEvent.Type.SEARCH, 3, 0, "", 4_000));
+
+        try (SegmentLog log = new SegmentLog(dir, 1 << 20, false)) {
+            log.append(events);
+
+            assertThat(log.hasUncommitted()).isTrue();
+            SegmentLog.Batch batch = log.readUncommitted(100);
+            assertThat(batch.events()).isEqualTo(events);
+            assertThat(log.uncommittedBytes()).isEqualTo(batch.next().offset());
+        }
+    }
+
+    @Test
+    void replaysFromTheCheckpointAfterARestart() throws IOException {
+        List<ActivityEvent> events = plays(10);
+        try (SegmentLog log = new SegmentLog(dir, 3 * RECORD_BYTES, false)) {
+            for (int i = 0; i < events.size(); i += 2) {
+                log.append(events.subList(i, i + 2)); // Rolls to a new segment every other append
+            }
+            log.commit(log.readUncommitted(5).next());
+        }
+        assertThat(segmentFiles()).hasSize(2); // The first of three is entirely below the checkpoint
+
+        try (SegmentLog log = new SegmentLog(dir, 3 * RECORD_BYTES, false)) {
+            SegmentLog.Batch batch = log.readUncommitted(100);
+            assertThat(batch.events()).isEqualTo(events.subList(5, 10));
+            log.commit(batch.next());
+            assertThat(log.hasUncommitted()).isFalse();
+        }
+
+        try (SegmentLog log = new SegmentLog(dir, 3 * RECORD_BYTES, false)) {
+            assertThat(log.hasUncommitted()).isFalse();
+            assertThat(log.readUncommitted(100).events()).isEmpty();
+        }
+    }
+
+    @Test
+    void cutsOffATornRecordAtTheEndWhenOpened() throws IOException {
+        List<ActivityEvent> events = plays(3);
+        try (SegmentLog log = new SegmentLog(dir, 1 << 20, false)) {
+            log.append(events);
+        }
+        Path segment = segmentFiles().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(3 * RECORD_BYTES - 5); // Crashed in the middle of the last record
+        }
+
+        ActivityEvent next = new ActivityEvent(ActivityEvent.Type.LIKE, 9, 9, null, 9_000);
+        try (SegmentLog log = new SegmentLog(dir, 1 << 20, false)) {
+            log.append(List.of(next));
+
+            assertThat(log.readUncommitted(100).events()).containsExactly(events.get(0), events.get(1), next);
+        }
+    }
+
+    @Test
+    void skipsACorruptRecordInTheMiddleOfTheLog() throws IOException {
+        List<ActivityEvent> events = plays(6);
+        try (SegmentLog log = new SegmentLog(dir, 3 * RECORD_BYTES, false)) {
+            log.append(events.subList(0, 3));
+            log.append(events.subList(3, 6)); // Second segment
+        }
+        Path first = segmentFiles().get(0);
+        byte[] bytes = Files.readAllBytes(first);
+        bytes[RECORD_BYTES + 8 + 3] ^= 0x40; // A bit flip in the second record's user id
+        Files.write(first, bytes);
+
+        try (SegmentLog log = new SegmentLog(dir, 3 * RECORD_BYTES, false)) {
+            SegmentLog.Batch batch = log.readUncommitted(100);
+
+            assertThat(batch.events()).containsExactly(events.get(0), events.get(2), events.get(3), events.get(4),
+                    events.get(5));
+            assertThat(batch.next()).isEqualTo(new SegmentLog.Position(1, 3 * RECORD_BYTES));
+        }
+    }
+
+    private static List<ActivityEvent> plays(int count) {
+        return Stream.iterate(0, i -> i + 1).limit(count)
+                .map(i -> new ActivityEvent(ActivityEvent.Type.PLAY, 100 + i, 200 + i, null, 1_000 + i))
+                .toList();
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(".seg")).sorted().toList();
+        }
+    }
+}
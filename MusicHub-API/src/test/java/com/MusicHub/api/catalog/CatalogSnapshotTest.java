@@ -0,0 +1,102 @@
+package com.MusicHub.api.catalog;
+
+import com.MusicHub.api.model.Beat;
+import com.MusicHub.api.model.Song;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+class CatalogSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsBackEveryRowThroughTheMappedBlocks() throws IOException {
+        List<Song> songs = new ArrayList<>();
+        for (long id = 1; id <= 60_000; id++) { // Several blocks
+            songs.add(song(id, "s" + id, "Title " + id, "Artist " + id % 50, "Pop", id % 2 == 0 ? "Chill" : "Sad",
+                    "https://x/" + id, (int) (id % 100) - 10));
+        }
+        songs.add(song(70_000, null, null, null, null, null, null, 0));
+        songs.add(song(70_001, "big", "x".repeat(5 << 20), "Artist 1", "Pop", null, "é", 1)); // Larger than a block
+        songs.add(song(2, "after", "After the big row", "Artist 2", null, "Sad", null, 7));
+        List<Beat> beats = List.of(beat(5, "Loop", 42L, "Trap", "Dark", "https://b/5", 3),
+                beat(9, null, null, null, null, null, -1));
+
+        Path file = dir.resolve("catalog.snapshot");
+        try (CatalogSnapshot.Writer writer = new CatalogSnapshot.Writer(file)) {
+            songs.forEach(writer::add);
+            beats.forEach(writer::add);
+            writer.commit(1234L);
+        }
+
+        CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+        assertThat(snapshot.header()).isEqualTo(new CatalogSnapshot.Header(1234L, 70_001, 9, songs.size(), 2));
+        List<Song> readSongs = new ArrayList<>();
+        snapshot.forEachSong(readSongs::add);
+        assertThat(readSongs).isEqualTo(songs);
+        List<Beat> readBeats = new ArrayList<>();
+        snapshot.forEachBeat(readBeats::add);
+        assertThat(readBeats).isEqualTo(beats);
+        assertThat(files()).containsExactly(file);
+    }
+
+    @Test
+    void leavesNothingBehindWhenNotCommitted() throws IOException {
+        Path file = dir.resolve("catalog.snapshot");
+        try (CatalogSnapshot.Writer writer = new CatalogSnapshot.Writer(file)) {
+            writer.add(song(1, "s1", "Title", "Artist", "Pop", "Chill", null, 1));
+        }
+
+        assertThat(files()).isEmpty();
+    }
+
+    @Test
+    void rejectsFilesThatAreNotSnapshots() throws IOException {
+        Path file = Files.writeString(dir.resolve("other.snapshot"), "not a catalog snapshot at all");
+
+        assertThatIOException().isThrownBy(() -> CatalogSnapshot.open(file));
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.toList();
+        }
+    }
+
+    static Song song(long id, String songId, String title, String artist, String genre, String mood, String link,
+                     int popularity) {
+        Song song = new Song();
+        song.setId(id);
+        song.setSongId(songId);
+        song.setTitle(title);
+        song.setArtist(artist);
+        song.setGenre(genre);
+        song.setMood(mood);
+        song.setLink(link);
+        song.setPopularity(popularity);
+        return song;
+    }
+
+    static Beat beat(long id, String name, Long creatorId, String genre, String mood, String link, int popularity) {
+        Beat beat = new Beat();
+        beat.setId(id);
+        beat.setName(name);
+        beat.setCreatorId(creatorId);
+        beat.setGenre(genre);
+        beat.setMood(mood);
+        beat.setLink(link);
+        beat.setPopularity(popularity);
+        return beat;
+    }
+}
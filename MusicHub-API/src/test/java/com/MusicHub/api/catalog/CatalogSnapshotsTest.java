@@ -0,0 +1,149 @@
+package com.MusicHub.api.catalog;
+
+import com.MusicHub.api.model.Beat;
+import com.MusicHub.api.model.Song;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static com.MusicHub.api.catalog.CatalogSnapshotTest.beat;
+import static com.MusicHub.api.catalog.CatalogSnapshotTest.song;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogSnapshotsTest {
+
+    @TempDir
+    Path dir;
+
+    private final CatalogQueryService queries = mock(CatalogQueryService.class);
+    private final Map<Long, Song> songTable = new LinkedHashMap<>();
+    private final Map<Long, Beat> beatTable = new LinkedHashMap<>();
+    private final List<Song> changedSongs = new ArrayList<>(); // What the "changed since" queries return
+    private final List<Beat> changedBeats = new ArrayList<>();
+
+    @BeforeEach
+    void fakeTables() {
+        for (long id = 1; id <= 5; id++) {
+            songTable.put(id, song(id, "s" + id, "Title " + id, "Artist", "Pop", "Chill", null, (int) id));
+        }
+        beatTable.put(1L, beat(1, "Loop", 7L, "Trap", null, null, 3));
+        doAnswer(call -> stream(songTable.values(), call.getArgument(0))).when(queries).streamAllSongs(any());
+        doAnswer(call -> stream(beatTable.values(), call.getArgument(0))).when(queries).streamAllBeats(any());
+        doAnswer(call -> stream(changedSongs, call.getArgument(2)))
+                .when(queries).streamSongsChangedSince(anyLong(), any(), any());
+        doAnswer(call -> stream(changedBeats, call.getArgument(2)))
+                .when(queries).streamBeatsChangedSince(anyLong(), any(), any());
+        when(queries.countSongsUpTo(anyLong())).thenAnswer(call -> songTable.keySet().stream()
+                .filter(id -> id <= (long) call.getArgument(0)).count());
+        when(queries.countBeatsUpTo(anyLong())).thenAnswer(call -> beatTable.keySet().stream()
+                .filter(id -> id <= (long) call.getArgument(0)).count());
+    }
+
+    @Test
+    void restoresFromTheSnapshotAndReplaysOnlyTheChangedRows() throws IOException {
+        load(new CatalogSnapshots(queries, dir.toString())); // Scans and writes the first snapshot
+        assertThat(snapshotFiles()).hasSize(1);
+        long createdAt = CatalogSnapshot.open(snapshotFiles().get(0)).header().createdAt();
+        clearInvocations(queries);
+
+        Song changed = song(3, "s3", "Renamed", "Artist", "Pop", "Sad", null, 30);
+        Song added = song(6, "s6", "New", "Artist", "Rock", null, null, 1);
+        songTable.put(3L, changed);
+        songTable.put(6L, added);
+        changedSongs.addAll(List.of(changed, added));
+
+        Map<Long, Song> songs = load(new CatalogSnapshots(queries, dir.toString()));
+
+        verify(queries, never()).streamAllSongs(any());
+        verify(queries).streamSongsChangedSince(eq(5L), eq(Instant.ofEpochMilli(createdAt).minus(Duration.ofMinutes(5))),
+                any());
+        assertThat(songs).isEqualTo(songTable); // The replayed copy replaced the snapshot's
+    }
+
+    @Test
+    void scansTheTablesWhenRowsWereDeletedSinceTheSnapshot() {
+        load(new CatalogSnapshots(queries, dir.toString()));
+        clearInvocations(queries);
+
+        songTable.remove(2L); // Deleted behind the application's back: not visible to the replay
+
+        Map<Long, Song> songs = load(new CatalogSnapshots(queries, dir.toString()));
+
+        verify(queries).streamAllSongs(any());
+        verify(queries).streamAllBeats(any());
+        verify(queries, never()).streamSongsChangedSince(anyLong(), any(), any());
+        assertThat(songs).isEqualTo(songTable);
+    }
+
+    @Test
+    void rollsTheSnapshotForward() throws IOException, InterruptedException {
+        CatalogSnapshots snapshots = new CatalogSnapshots(queries, dir.toString());
+        load(snapshots);
+        Path first = snapshotFiles().get(0);
+
+        snapshots.refresh(); // Nothing changed: no new snapshot
+        assertThat(snapshotFiles()).containsExactly(first);
+
+        Thread.sleep(5); // A new file name
+        Song changed = song(4, "s4", "Remastered", "Other artist", null, "Happy", "https://x/4", 40);
+        Song added = song(9, "s9", "Added", "Artist", "Pop", "Chill", null, 9);
+        Beat addedBeat = beat(2, "Pad", null, null, "Calm", null, 1);
+        songTable.put(4L, changed);
+        songTable.put(9L, added);
+        beatTable.put(2L, addedBeat);
+        changedSongs.addAll(List.of(changed, added));
+        changedBeats.add(addedBeat);
+
+        snapshots.refresh();
+
+        assertThat(snapshotFiles()).hasSize(1).doesNotContain(first); // The older one is deleted
+        CatalogSnapshot rolled = CatalogSnapshot.open(snapshotFiles().get(0));
+        assertThat(rolled.header().songHighWaterId()).isEqualTo(9);
+        assertThat(rolled.header().songs()).isEqualTo(6);
+        Map<Long, Song> songs = new LinkedHashMap<>();
+        rolled.forEachSong(song -> songs.put(song.getId(), song));
+        assertThat(songs).isEqualTo(songTable);
+        Map<Long, Beat> beats = new LinkedHashMap<>();
+        rolled.forEachBeat(beat -> beats.put(beat.getId(), beat));
+        assertThat(beats).isEqualTo(beatTable);
+    }
+
+    private static Map<Long, Song> load(CatalogSnapshots snapshots) {
+        Map<Long, Song> songs = new LinkedHashMap<>();
+        snapshots.load(song -> songs.put(song.getId(), song), beat -> {
+        });
+        return songs;
+    }
+
+    private static <T> Object stream(Iterable<T> rows, Consumer<T> consumer) {
+        rows.forEach(consumer);
+        return null;
+    }
+
+    private List<Path> snapshotFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".snapshot")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.MusicHub.api.datasource;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing between two H2 databases: an in-memory primary, and a replica served over TCP so it
+ * can be taken down. Nothing replicates between them; the tests write the replica's heartbeat
+ * row themselves to make it look caught up or behind.
+ */
+@SpringBootTest(classes = ReadWriteRoutingDataSourceTest.Config.class, webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=" + ReadWriteRoutingDataSourceTest.PRIMARY_URL,
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.hibernate.ddl-auto=none",
+                "musichub.datasource.replica-max-lag=5s"})
+class ReadWriteRoutingDataSourceTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1";
+
+    private static final int REPLICA_PORT = freePort();
+    private static final String REPLICA_URL = "jdbc:h2:tcp://localhost:" + REPLICA_PORT + "/mem:replica;DB_CLOSE_DELAY=-1";
+    private static Server replicaServer;
+
+    // JPA as the application configures it (JpaTransactionManager, DataSourceConfiguration's Hibernate settings)
+    @Configuration
+    @EnableConfigurationProperties(DataSourceProperties.class)
+    @ImportAutoConfiguration(HibernateJpaAutoConfiguration.class)
+    @EntityScan(basePackageClasses = ReadWriteRoutingDataSourceTest.class)
+    @Import({DataSourceConfiguration.class, ReadReplicas.class})
+    static class Config {
+    }
+
+    @Entity
+    @Table(name = "notes")
+    static class Note {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+        String text;
+
+        Note() {
+        }
+
+        Note(String text) {
+            this.text = text;
+        }
+    }
+
+    @DynamicPropertySource
+    static void replica(DynamicPropertyRegistry registry) {
+        startReplica();
+        registry.add("musichub.datasource.replica-urls", () -> REPLICA_URL);
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ReadReplicas replicas;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final JdbcTemplate primary = new JdbcTemplate(new SimpleDriverDataSource(new org.h2.Driver(), PRIMARY_URL, "sa", ""));
+    private final JdbcTemplate replica = new JdbcTemplate(new SimpleDriverDataSource(new org.h2.Driver(), REPLICA_URL, "sa", ""));
+
+    @BeforeEach
+    void databases() {
+        for (JdbcTemplate db : new JdbcTemplate[] {primary, replica}) {
+            db.execute("CREATE TABLE IF NOT EXISTS server_name (name VARCHAR(16))");
+            db.execute("CREATE TABLE IF NOT EXISTS notes (id BIGINT AUTO_INCREMENT PRIMARY KEY, text VARCHAR(64))");
+            db.execute("TRUNCATE TABLE notes");
+        }
+        primary.update("MERGE INTO server_name KEY (name) VALUES ('primary')");
+        replica.update("MERGE INTO server_name KEY (name) VALUES ('replica')");
+        replica.execute("CREATE TABLE IF NOT EXISTS replication_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+    }
+
+    @AfterEach
+    void restartReplica() {
+        if (!replicaServer.isRunning(false)) {
+            startReplica();
+        }
+    }
+
+    @AfterAll
+    static void stopReplica() {
+        replicaServer.stop();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToACaughtUpReplica() {
+        replicaHeartbeat(System.currentTimeMillis());
+
+        assertThat(serverOf(true)).isEqualTo("replica");
+        assertThat(serverOf(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void readWriteTransactionsAndPlainReadsGoToThePrimary() {
+        replicaHeartbeat(System.currentTimeMillis());
+
+        assertThat(serverOf(false)).isEqualTo("primary");
+        assertThat(new JdbcTemplate(dataSource).queryForObject("SELECT name FROM server_name", String.class))
+                .isEqualTo("primary");
+    }
+
+    @Test
+    void writesGoToThePrimary() {
+        replicaHeartbeat(System.currentTimeMillis());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                new JdbcTemplate(dataSource).update("INSERT INTO notes (text) VALUES ('written')"));
+
+        assertThat(primary.queryForObject("SELECT COUNT(*) FROM notes", Integer.class)).isEqualTo(1);
+        assertThat(replica.queryForObject("SELECT COUNT(*) FROM notes", Integer.class)).isZero();
+    }
+
+    @Test
+    void writesAfterAReadOnlyCallInTheSameRequestGoToThePrimary() {
+        replicaHeartbeat(System.currentTimeMillis());
+        // What open-in-view does: one EntityManager for every transaction of the request
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        String readFrom;
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readFrom = readOnly.execute(status ->
+                    (String) entityManager.createNativeQuery("SELECT name FROM server_name").getSingleResult());
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    entityManager.persist(new Note("written")));
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+        }
+
+        assertThat(readFrom).isEqualTo("replica");
+        assertThat(primary.queryForObject("SELECT COUNT(*) FROM notes", Integer.class)).isEqualTo(1);
+        assertThat(replica.queryForObject("SELECT COUNT(*) FROM notes", Integer.class)).isZero();
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhileTheReplicaLags() {
+        replicaHeartbeat(System.currentTimeMillis() - 60_000);
+
+        assertThat(serverOf(true)).isEqualTo("primary");
+
+        replicaHeartbeat(System.currentTimeMillis()); // Caught up again
+        assertThat(serverOf(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhenTheReplicaIsDown() throws InterruptedException {
+        replicaHeartbeat(System.currentTimeMillis());
+        assertThat(serverOf(true)).isEqualTo("replica");
+
+        replicaServer.stop();
+        Thread.sleep(600); // Hikari skips validating a connection used within the last 500 ms
+        // Before the next check notices: the failed connection takes it out of the rotation
+        assertThat(serverOf(true)).isEqualTo("primary");
+
+        replicas.check();
+        assertThat(serverOf(true)).isEqualTo("primary");
+    }
+
+    // Which database a transaction's statements ran on
+    private String serverOf(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT name FROM server_name", String.class));
+    }
+
+    // Stands in for replication of the primary's heartbeat row, then lets ReadReplicas measure the lag
+    private void replicaHeartbeat(long beatAt) {
+        replica.update("MERGE INTO replication_heartbeat KEY (id) VALUES (1, ?)", beatAt);
+        replicas.check();
+    }
+
+    private static void startReplica() {
+        try {
+            replicaServer = Server.createTcpServer("-tcpPort", String.valueOf(REPLICA_PORT), "-ifNotExists").start();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not start the replica", e);
+        }
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.MusicHub.api.details;
+
+import com.MusicHub.api.cache.SongLookupService;
+import com.MusicHub.api.dto.SongDetails;
+import com.MusicHub.api.dto.SongSummary;
+import com.MusicHub.api.external.ExternalCalls;
+import com.MusicHub.api.external.ExternalSources;
+import com.MusicHub.api.external.ItunesSongSource;
+import com.MusicHub.api.external.LyricsOvhSource;
+import com.MusicHub.api.external.StubServer;
+import com.MusicHub.api.lyrics.LyricsStore;
+import com.MusicHub.api.model.Song;
+import com.MusicHub.api.repository.SongRepository;
+import com.MusicHub.api.search.SongSearchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SongDetailsServiceTest {
+
+    private static final String TRACK = """
+            {"resultCount": 1, "results": [{"wrapperType": "track", "trackId": 1001, "collectionName": "Divide",
+             "trackTimeMillis": 233713, "previewUrl": "http://x/1.m4a"}]}""";
+    private static final String LYRICS = "{\"lyrics\": \"The club isn't the best place to find a lover\"}";
+
+    private final SongRepository songRepository = mock(SongRepository.class);
+    private final LyricsStore lyricsStore = mock(LyricsStore.class);
+    private final ExternalCalls externalCalls = new ExternalCalls(new SimpleMeterRegistry(), 8, Duration.ZERO);
+    private StubServer itunes;
+    private StubServer lyrics;
+
+    @AfterEach
+    void close() {
+        externalCalls.close();
+        itunes.close();
+        lyrics.close();
+    }
+
+    @Test
+    void returnsEverySourceThatAnswersInTime() {
+        itunes = StubServer.answering(200, TRACK, Duration.ZERO);
+        lyrics = StubServer.answering(200, LYRICS, Duration.ZERO);
+
+        SongDetails details = service(Duration.ofSeconds(2)).details(1L);
+
+        assertThat(details.song().title()).isEqualTo("Shape of You");
+        assertThat(details.track().album()).isEqualTo("Divide");
+        assertThat(details.lyrics()).startsWith("The club");
+        assertThat(details.unavailable()).isEmpty();
+    }
+
+    @Test
+    void returnsAPartialResultWhenASourceMissesTheDeadline() {
+        itunes = StubServer.answering(200, TRACK, Duration.ZERO);
+        lyrics = StubServer.answering(200, LYRICS, Duration.ofSeconds(2));
+
+        long start = System.nanoTime();
+        SongDetails details = service(Duration.ofMillis(500)).details(1L);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1500));
+        assertThat(details.track().album()).isEqualTo("Divide");
+        assertThat(details.lyrics()).isNull();
+        assertThat(details.unavailable()).containsExactly(ExternalSources.LYRICS);
+        // The late lyrics load is not cancelled and still fills the store
+        verify(lyricsStore, timeout(5000)).save(1L, "The club isn't the best place to find a lover");
+    }
+
+    @Test
+    void returnsAPartialResultWhenASourceFails() {
+        itunes = StubServer.answering(503, "", Duration.ZERO);
+        lyrics = StubServer.answering(200, LYRICS, Duration.ZERO);
+
+        SongDetails details = service(Duration.ofSeconds(2)).details(1L);
+
+        assertThat(details.track()).isNull();
+        assertThat(details.lyrics()).startsWith("The club");
+        assertThat(details.unavailable()).containsExactly(ExternalSources.ITUNES);
+    }
+
+    private SongDetailsService service(Duration deadline) {
+        Song song = new Song();
+        song.setId(1L);
+        song.setSongId("1001");
+        song.setTitle("Shape of You");
+        song.setArtist("Ed Sheeran");
+        when(songRepository.findSummariesByIdIn(List.of(1L))).thenReturn(List.of(SongSummary.of(song)));
+        when(songRepository.findById(1L)).thenReturn(Optional.of(song));
+        when(lyricsStore.find(1L)).thenReturn(Optional.empty());
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        ItunesSongSource itunesSource = new ItunesSongSource(objectMapper, itunes.baseUrl(), Duration.ofSeconds(5));
+        LyricsOvhSource lyricsSource = new LyricsOvhSource(objectMapper, lyrics.baseUrl(), Duration.ofSeconds(5));
+        SongLookupService songLookupService = new SongLookupService(songRepository, mock(SongSearchService.class),
+                itunesSource, lyricsSource, lyricsStore, externalCalls, new SimpleMeterRegistry(),
+                mock(PlatformTransactionManager.class), Duration.ofSeconds(5), 100, Duration.ofMinutes(10));
+        return new SongDetailsService(songRepository, songLookupService, itunesSource, externalCalls, deadline);
+    }
+}
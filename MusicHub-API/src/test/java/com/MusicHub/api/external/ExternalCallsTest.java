@@ -0,0 +1,116 @@
+package com.MusicHub.api.external;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExternalCallsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    @AfterEach
+    void close() throws Exception {
+        for (AutoCloseable resource : resources) {
+            resource.close();
+        }
+    }
+
+    @Test
+    void hedgesACallThatIsSlowerThanTheHedgeDelay() {
+        StubServer lyricsApi = stub(new StubServer(n -> new StubServer.Reply(200, "{\"lyrics\":\"attempt " + n + "\"}",
+                n == 1 ? Duration.ofSeconds(5) : Duration.ZERO)));
+        ExternalCalls calls = calls(8, Duration.ofMillis(100));
+        LyricsOvhSource source = lyrics(lyricsApi);
+
+        long start = System.nanoTime();
+        Optional<String> lyrics = calls.call(ExternalSources.LYRICS, ExternalCalls.deadlineIn(Duration.ofSeconds(3)),
+                () -> source.fetchLyrics("Ed Sheeran", "Shape of You"));
+
+        assertThat(lyrics).contains("attempt 2");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(lyricsApi.requests()).isEqualTo(2);
+        assertThat(meterRegistry.get("musichub.external.hedges").tag("source", ExternalSources.LYRICS).counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void doesNotHedgeAFastCall() {
+        StubServer lyricsApi = stub(StubServer.answering(200, "{\"lyrics\":\"la la\"}", Duration.ZERO));
+        ExternalCalls calls = calls(8, Duration.ofSeconds(2)); // Far above a loopback call, even the JVM's first
+        LyricsOvhSource source = lyrics(lyricsApi);
+
+        Optional<String> lyrics = calls.call(ExternalSources.LYRICS, ExternalCalls.deadlineIn(Duration.ofSeconds(5)),
+                () -> source.fetchLyrics("Ed Sheeran", "Shape of You"));
+
+        assertThat(lyrics).contains("la la");
+        assertThat(lyricsApi.requests()).isEqualTo(1);
+        Counter hedges = meterRegistry.find("musichub.external.hedges").counter();
+        assertThat(hedges == null ? 0 : hedges.count()).isZero();
+    }
+
+    @Test
+    void capsConcurrentCallsPerSource() {
+        StubServer lyricsApi = stub(StubServer.answering(200, "{\"lyrics\":\"la la\"}", Duration.ofMillis(200)));
+        ExternalCalls calls = calls(2, Duration.ZERO);
+        LyricsOvhSource source = lyrics(lyricsApi);
+
+        List<CompletableFuture<Optional<String>>> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            results.add(calls.fork(() -> calls.call(ExternalSources.LYRICS, ExternalCalls.deadlineIn(Duration.ofSeconds(5)),
+                    () -> source.fetchLyrics("Ed Sheeran", "Shape of You"))));
+        }
+
+        assertThat(results).allSatisfy(result -> assertThat(result.join()).contains("la la"));
+        assertThat(lyricsApi.requests()).isEqualTo(6);
+        assertThat(lyricsApi.maxInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void failsACallThatCannotGetAPermitBeforeItsDeadlineWithoutBlockingOtherSources() throws InterruptedException {
+        StubServer lyricsApi = stub(StubServer.answering(200, "{\"lyrics\":\"la la\"}", Duration.ofSeconds(2)));
+        StubServer otherApi = stub(StubServer.answering(200, "{\"lyrics\":\"other\"}", Duration.ZERO));
+        ExternalCalls calls = calls(1, Duration.ZERO);
+        LyricsOvhSource source = lyrics(lyricsApi);
+        LyricsOvhSource other = lyrics(otherApi);
+
+        calls.fork(() -> calls.call(ExternalSources.LYRICS, ExternalCalls.deadlineIn(Duration.ofSeconds(5)),
+                () -> source.fetchLyrics("Ed Sheeran", "Shape of You")));
+        while (lyricsApi.inFlight() == 0) {
+            Thread.sleep(10);
+        }
+
+        assertThatThrownBy(() -> calls.call(ExternalSources.LYRICS, ExternalCalls.deadlineIn(Duration.ofMillis(300)),
+                () -> source.fetchLyrics("Ed Sheeran", "Perfect")))
+                .isInstanceOf(ExternalSourceException.class);
+        assertThat(lyricsApi.requests()).isEqualTo(1);
+        assertThat(calls.call(ExternalSources.ITUNES, ExternalCalls.deadlineIn(Duration.ofSeconds(1)),
+                () -> other.fetchLyrics("Ed Sheeran", "Perfect"))).contains("other");
+    }
+
+    private StubServer stub(StubServer server) {
+        resources.add(server);
+        return server;
+    }
+
+    private ExternalCalls calls(int maxConcurrency, Duration hedgeDelay) {
+        ExternalCalls calls = new ExternalCalls(meterRegistry, maxConcurrency, hedgeDelay);
+        resources.add(calls::close);
+        return calls;
+    }
+
+    private static LyricsOvhSource lyrics(StubServer server) {
+        return new LyricsOvhSource(new ObjectMapper(), server.baseUrl(), Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,119 @@
+package com.MusicHub.api.filter;
+
+import com.MusicHub.api.catalog.TermDictionaries;
+import com.MusicHub.api.dto.SongSummary;
+import com.MusicHub.api.model.Song;
+import com.MusicHub.api.repository.BeatRepository;
+import com.MusicHub.api.repository.SongRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AttributeBitmapIndexTest {
+
+    private final DataSource dataSource = new SimpleDriverDataSource(
+            new org.h2.Driver(), "jdbc:h2:mem:attribute-bitmap-index;DB_CLOSE_DELAY=-1", "sa", "");
+    private final SongRepository songRepository = mock(SongRepository.class);
+    private final Map<Long, SongSummary> rows = new HashMap<>();
+    private AttributeBitmapIndex index;
+
+    @BeforeEach
+    void createIndex() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        jdbcTemplate.execute("CREATE TABLE moods (code SMALLINT PRIMARY KEY, name VARCHAR(64))");
+        jdbcTemplate.execute("CREATE TABLE genres (code SMALLINT PRIMARY KEY, name VARCHAR(64))");
+        jdbcTemplate.execute("INSERT INTO moods VALUES (0, 'Chill'), (1, 'Sad'), (2, 'Happy')");
+        jdbcTemplate.execute("INSERT INTO genres VALUES (0, 'Pop'), (1, 'Rock'), (2, 'Chill')");
+        when(songRepository.findSummariesByIdIn(anyCollection())).thenAnswer(call -> ((Collection<?>) call.getArgument(0))
+                .stream().map(rows::get).toList());
+        index = new AttributeBitmapIndex(songRepository, mock(BeatRepository.class), new TermDictionaries(dataSource));
+        ReflectionTestUtils.setField(index, "maxResults", 200);
+    }
+
+    @Test
+    void ranksTheMatchesOfAFilterByPopularityThenId() {
+        song(1, "Chill", "Pop", 50);
+        song(2, "Sad", "Pop", 70);
+        song(3, "Sad", "Rock", 90);
+        song(4, "Happy", "Chill", 60); // Chill as a genre
+        song(200_000, "Chill", "Rock", 50); // Another bitmap container
+        song(5, null, null, 100);
+        index.warmupCompleted();
+
+        assertThat(ids("Chill OR Sad AND Pop", 10)).containsExactly(2L, 4L, 1L, 200_000L);
+        assertThat(ids("(Chill OR Sad) AND Pop", 10)).containsExactly(2L, 1L);
+        assertThat(ids("mood:Chill", 10)).containsExactly(1L, 200_000L);
+        assertThat(ids("NOT genre:Pop", 10)).containsExactly(5L, 3L, 4L, 200_000L);
+        assertThat(ids("NOT genre:Pop", 2)).containsExactly(5L, 3L);
+        assertThat(ids("Unknown OR genre:Sad", 10)).isEmpty();
+    }
+
+    @Test
+    void followsUpdatesAndRemovals() {
+        Song song = song(1, "Chill", "Pop", 50);
+        song(2, "Chill", "Rock", 40);
+        index.warmupCompleted();
+
+        song.setMood("Sad");
+        index.indexSong(song);
+        assertThat(ids("Chill", 10)).containsExactly(2L);
+        assertThat(ids("Sad", 10)).containsExactly(1L);
+
+        index.removeSong(song);
+        assertThat(ids("Sad OR Pop", 10)).isEmpty();
+        assertThat(ids("NOT Sad", 10)).containsExactly(2L);
+    }
+
+    @Test
+    void answersAMalformedFilterWithBadRequest() {
+        index.warmupCompleted();
+
+        assertThatThrownBy(() -> index.filterSongs("Chill AND", 10))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+                    assertThat(e.getReason()).startsWith("Invalid filter: ");
+                });
+        assertThatThrownBy(() -> index.filterBeats("(Chill", 10))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    void isUnavailableUntilWarmedUp() {
+        assertThatThrownBy(() -> index.filterSongs("Chill", 10))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
+    private Song song(long id, String mood, String genre, int popularity) {
+        Song song = new Song();
+        song.setId(id);
+        song.setMood(mood);
+        song.setGenre(genre);
+        song.setPopularity(popularity);
+        index.indexSong(song);
+        rows.put(id, new SongSummary(id, "s" + id, "Song " + id, "Artist", genre, mood, null, popularity));
+        return song;
+    }
+
+    private List<Long> ids(String filter, int limit) {
+        return index.filterSongs(filter, limit).stream().map(SongSummary::id).toList();
+    }
+}
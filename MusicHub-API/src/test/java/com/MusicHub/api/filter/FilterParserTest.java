@@ -0,0 +1,68 @@
+package com.MusicHub.api.filter;
+
+import com.MusicHub.api.filter.FilterExpression.And;
+import com.MusicHub.api.filter.FilterExpression.Field;
+import com.MusicHub.api.filter.FilterExpression.Not;
+import com.MusicHub.api.filter.FilterExpression.Or;
+import com.MusicHub.api.filter.FilterExpression.Term;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class FilterParserTest {
+
+    private static final Term CHILL = new Term(Field.ANY, "Chill");
+    private static final Term SAD = new Term(Field.ANY, "Sad");
+    private static final Term POP = new Term(Field.ANY, "Pop");
+
+    @Test
+    void notBindsTighterThanAndAndAndTighterThanOr() {
+        assertThat(FilterExpression.parse("Chill OR Sad AND Pop")).isEqualTo(new Or(CHILL, new And(SAD, POP)));
+        assertThat(FilterExpression.parse("Chill AND Sad OR Pop")).isEqualTo(new Or(new And(CHILL, SAD), POP));
+        assertThat(FilterExpression.parse("NOT Chill AND Sad")).isEqualTo(new And(new Not(CHILL), SAD));
+        assertThat(FilterExpression.parse("Chill or not not Sad")).isEqualTo(new Or(CHILL, new Not(new Not(SAD))));
+    }
+
+    @Test
+    void operatorsOfTheSameLevelGroupFromTheLeft() {
+        assertThat(FilterExpression.parse("Chill OR Sad OR Pop")).isEqualTo(new Or(new Or(CHILL, SAD), POP));
+        assertThat(FilterExpression.parse("Chill AND Sad AND Pop")).isEqualTo(new And(new And(CHILL, SAD), POP));
+    }
+
+    @Test
+    void parenthesesOverridePrecedence() {
+        assertThat(FilterExpression.parse("(Chill OR Sad) AND Pop")).isEqualTo(new And(new Or(CHILL, SAD), POP));
+        assertThat(FilterExpression.parse("NOT (Chill OR Sad)")).isEqualTo(new Not(new Or(CHILL, SAD)));
+    }
+
+    @Test
+    void readsFieldPrefixesAndQuotedNames() {
+        assertThat(FilterExpression.parse("(mood:Chill OR MOOD:Sad) AND NOT genre:\"Hip Hop\"")).isEqualTo(new And(
+                new Or(new Term(Field.MOOD, "Chill"), new Term(Field.MOOD, "Sad")),
+                new Not(new Term(Field.GENRE, "Hip Hop"))));
+        assertThat(FilterExpression.parse("\"AND\" and \"(x)\"")).isEqualTo(new And(
+                new Term(Field.ANY, "AND"), new Term(Field.ANY, "(x)")));
+        assertThat(FilterExpression.parse("\"mood:Chill\"")).isEqualTo(new Term(Field.ANY, "mood:Chill"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "   ", "Chill AND", "AND Chill", "Chill OR OR Sad", "(Chill", "Chill)", "()",
+            "NOT", "\"Open", "mood:", "Chill Sad"})
+    void rejectsMalformedFilters(String filter) {
+        assertThatIllegalArgumentException().isThrownBy(() -> FilterExpression.parse(filter));
+    }
+
+    @Test
+    void capsTermsAndNesting() {
+        assertThat(FilterExpression.parse("x" + " OR x".repeat(63))).isNotNull();
+        assertThatIllegalArgumentException().isThrownBy(() -> FilterExpression.parse("x" + " OR x".repeat(64)))
+                .withMessageContaining("more than 64 terms");
+
+        assertThat(FilterExpression.parse("(".repeat(31) + "x" + ")".repeat(31))).isEqualTo(new Term(Field.ANY, "x"));
+        assertThatIllegalArgumentException().isThrownBy(() -> FilterExpression.parse("NOT ".repeat(40) + "x"))
+                .withMessageContaining("nested deeper");
+    }
+}
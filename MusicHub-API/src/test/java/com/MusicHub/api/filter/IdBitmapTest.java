@@ -0,0 +1,142 @@
+package com.MusicHub.api.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class IdBitmapTest {
+
+    private static final int CONTAINER = 1 << 16;
+
+    @Test
+    void combinesSparseAndDenseContainersLikeABitSet() {
+        Random random = new Random(42);
+        BitSet a = new BitSet();
+        BitSet b = new BitSet();
+        // Per container: dense/dense, dense/sparse, sparse/dense, sparse/sparse, only in a, only in b
+        fill(a, 0, 0.6, random);
+        fill(b, 0, 0.3, random);
+        fill(a, 1, 0.5, random);
+        fill(b, 1, 0.01, random);
+        fill(a, 2, 0.02, random);
+        fill(b, 2, 0.9, random);
+        fill(a, 3, 0.03, random);
+        fill(b, 3, 0.04, random);
+        fill(a, 5, 0.2, random);
+        fill(b, 7, 0.001, random);
+        // Ids right at the container edges
+        for (int id : new int[]{CONTAINER - 1, CONTAINER, 8 * CONTAINER - 1, 8 * CONTAINER}) {
+            a.set(id);
+            b.set(id);
+        }
+
+        IdBitmap left = bitmap(a);
+        IdBitmap right = bitmap(b);
+
+        assertSame(left, a);
+        assertSame(left.and(right), and(a, b));
+        assertSame(left.or(right), or(a, b));
+        assertSame(left.andNot(right), andNot(a, b));
+        assertSame(right.andNot(left), andNot(b, a));
+        assertSame(left, a); // Operands are left alone
+        assertSame(right, b);
+    }
+
+    @Test
+    void andOfDisjointDenseContainersDropsTheContainer() {
+        IdBitmap evens = new IdBitmap();
+        IdBitmap odds = new IdBitmap();
+        for (int id = 0; id < 2 * CONTAINER; id++) {
+            (id % 2 == 0 ? evens : odds).add(id);
+        }
+
+        assertThat(evens.and(odds).isEmpty()).isTrue();
+        assertThat(evens.or(odds).cardinality()).isEqualTo(2 * CONTAINER);
+        assertThat(evens.andNot(odds).cardinality()).isEqualTo(CONTAINER);
+    }
+
+    @Test
+    void switchesContainerLayoutAsValuesComeAndGo() {
+        IdBitmap bitmap = new IdBitmap();
+        BitSet expected = new BitSet();
+        for (int low = 0; low < 6000; low++) {
+            bitmap.add(CONTAINER + low * 3); // Becomes a bitset past 4096 values
+            expected.set(CONTAINER + low * 3);
+        }
+        bitmap.add(CONTAINER); // Already there
+        assertSame(bitmap, expected);
+
+        for (int low = 0; low < 5000; low++) {
+            bitmap.remove(CONTAINER + low * 3); // Back to a sorted array below 2048
+            expected.clear(CONTAINER + low * 3);
+        }
+        bitmap.remove(5); // Not there
+        bitmap.remove(-1);
+        assertSame(bitmap, expected);
+
+        for (int low = 5000; low < 6000; low++) {
+            bitmap.remove(CONTAINER + low * 3);
+        }
+        assertThat(bitmap.isEmpty()).isTrue();
+        assertThat(bitmap.contains(CONTAINER + 3 * 5999)).isFalse();
+    }
+
+    @Test
+    void rejectsNegativeIds() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new IdBitmap().add(-1));
+        assertThat(new IdBitmap().contains(-1)).isFalse();
+    }
+
+    private static void fill(BitSet set, int container, double density, Random random) {
+        for (int low = 0; low < CONTAINER; low++) {
+            if (random.nextDouble() < density) {
+                set.set(container * CONTAINER + low);
+            }
+        }
+    }
+
+    private static IdBitmap bitmap(BitSet set) {
+        IdBitmap bitmap = new IdBitmap();
+        set.stream().forEach(bitmap::add);
+        return bitmap;
+    }
+
+    private static void assertSame(IdBitmap bitmap, BitSet expected) {
+        List<Integer> ids = new ArrayList<>();
+        bitmap.forEach(ids::add);
+        assertThat(ids).isEqualTo(expected.stream().boxed().toList()); // Ascending
+        assertThat(bitmap.cardinality()).isEqualTo(expected.cardinality());
+        assertThat(bitmap.isEmpty()).isEqualTo(expected.isEmpty());
+        List<Integer> wrong = new ArrayList<>();
+        for (int id = 0; id < 9 * CONTAINER; id += 97) {
+            if (bitmap.contains(id) != expected.get(id)) {
+                wrong.add(id);
+            }
+        }
+        assertThat(wrong).as("contains() disagrees for").isEmpty();
+    }
+
+    private static BitSet and(BitSet a, BitSet b) {
+        BitSet result = (BitSet) a.clone();
+        result.and(b);
+        return result;
+    }
+
+    private static BitSet or(BitSet a, BitSet b) {
+        BitSet result = (BitSet) a.clone();
+        result.or(b);
+        return result;
+    }
+
+    private static BitSet andNot(BitSet a, BitSet b) {
+        BitSet result = (BitSet) a.clone();
+        result.andNot(b);
+        return result;
+    }
+}
@@ -0,0 +1,52 @@
+package com.MusicHub.api.ingest;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvCatalogReaderTest {
+
+    @Test
+    void readsAnUnparsablePopularityAsZeroAndKeepsGoing() throws IOException {
+        List<CatalogRecord> records = read("""
+                songId,title,artist,popularity
+                1,Shape of You,Ed Sheeran,95
+                2,Blinding Lights,The Weeknd,very popular
+                3,Levitating,Dua Lipa,
+                4,Bad Guy,Billie Eilish, 80
+                """);
+
+        assertThat(records).extracting(CatalogRecord::songId).containsExactly("1", "2", "3", "4");
+        assertThat(records).extracting(CatalogRecord::popularity).containsExactly(95, 0, 0, 80);
+        assertThat(records.get(1).title()).isEqualTo("Blinding Lights");
+    }
+
+    @Test
+    void readsQuotedFieldsInHeaderOrder() throws IOException {
+        List<CatalogRecord> records = read("""
+                lyrics,Title,songId,extra
+                "line one
+                ""line"" two",Hello,7,ignored
+                """);
+
+        assertThat(records).singleElement().satisfies(record -> {
+            assertThat(record.songId()).isEqualTo("7");
+            assertThat(record.title()).isEqualTo("Hello");
+            assertThat(record.lyrics()).isEqualTo("line one\n\"line\" two");
+            assertThat(record.artist()).isNull();
+            assertThat(record.popularity()).isZero();
+        });
+    }
+
+    private static List<CatalogRecord> read(String csv) throws IOException {
+        List<CatalogRecord> records = new ArrayList<>();
+        new CsvCatalogReader().read(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), records::add);
+        return records;
+    }
+}
@@ -0,0 +1,170 @@
+package com.MusicHub.api.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HnswIndexTest {
+
+    // As configured for SimilarSongs
+    private static final int DIMENSIONS = SongFeatures.DIMENSIONS;
+    private static final int MAX_LINKS = 16;
+    private static final int EF_CONSTRUCTION = 100;
+    private static final int EF_SEARCH = 64;
+
+    private static final int SONGS = 5_000;
+    private static final int K = 10;
+
+    private final Random random = new Random(7);
+    private final List<float[]> centers = new ArrayList<>();
+
+    @Test
+    void findsNearlyTheSameNeighboursAsABruteForceScan() {
+        Map<Long, float[]> vectors = vectors(SONGS);
+        HnswIndex index = index(vectors);
+
+        assertThat(index.size()).isEqualTo(SONGS);
+        assertThat(recall(index, vectors, queries(200))).isGreaterThanOrEqualTo(0.9);
+    }
+
+    @Test
+    void neverReturnsADeletedIdAfterASaveAndLoad() throws IOException {
+        Map<Long, float[]> vectors = vectors(SONGS);
+        Map<Long, float[]> original = new HashMap<>(vectors);
+        HnswIndex index = index(vectors);
+        Set<Long> deleted = new HashSet<>();
+        for (long id = 0; id < SONGS; id += 10) {
+            index.remove(id);
+            deleted.add(id);
+        }
+        index.retainOnly(id -> id % 10 != 5);
+        for (long id = 5; id < SONGS; id += 10) {
+            deleted.add(id);
+        }
+        for (long id = 3; id < SONGS; id += 50) {
+            float[] moved = vector(); // Usually far enough from the old one for its node to be tombstoned
+            index.add(id, moved);
+            vectors.put(id, moved);
+        }
+        deleted.forEach(vectors::remove);
+
+        HnswIndex loaded = reload(index);
+
+        assertThat(loaded.size()).isEqualTo(vectors.size());
+        assertThat(loaded.deletedCount()).isEqualTo(index.deletedCount()).isGreaterThan(0);
+        for (long id : deleted) {
+            assertThat(loaded.vector(id)).isNull();
+        }
+        List<float[]> queries = queries(100);
+        for (long id = 0; id < SONGS; id += 50) { // Exactly where a removed, dropped or moved song used to be
+            queries.add(original.get(id));
+            queries.add(original.get(id + 5));
+            queries.add(original.get(id + 3));
+        }
+        for (float[] query : queries) {
+            List<ScoredItem> found = loaded.search(query, K, EF_SEARCH);
+            assertThat(found).hasSize(K).extracting(ScoredItem::id).doesNotContainAnyElementsOf(deleted);
+            assertThat(found).isEqualTo(index.search(query, K, EF_SEARCH)); // Same graph after the round trip
+        }
+        assertThat(recall(loaded, vectors, queries(100))).isGreaterThanOrEqualTo(0.9);
+    }
+
+    // Mean share of the true k nearest (by dot product) that the index returns
+    private static double recall(HnswIndex index, Map<Long, float[]> vectors, List<float[]> queries) {
+        double sum = 0;
+        for (float[] query : queries) {
+            List<Long> exact = vectors.entrySet().stream()
+                    .sorted(Comparator.comparingDouble((Map.Entry<Long, float[]> e) -> -dot(query, e.getValue())))
+                    .limit(K)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            Set<Long> found = new HashSet<>();
+            index.search(query, K, EF_SEARCH).forEach(item -> found.add(item.id()));
+            sum += exact.stream().filter(found::contains).count() / (double) K;
+        }
+        return sum / queries.size();
+    }
+
+    private static HnswIndex index(Map<Long, float[]> vectors) {
+        HnswIndex index = new HnswIndex(DIMENSIONS, MAX_LINKS, EF_CONSTRUCTION, vectors.size());
+        vectors.forEach(index::add);
+        return index;
+    }
+
+    private static HnswIndex reload(HnswIndex index) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            index.writeTo(out);
+        }
+        return HnswIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    private Map<Long, float[]> vectors(int count) {
+        Map<Long, float[]> vectors = new HashMap<>();
+        for (long id = 0; id < count; id++) {
+            vectors.put(id, vector());
+        }
+        return vectors;
+    }
+
+    private List<float[]> queries(int count) {
+        List<float[]> queries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            queries.add(vector());
+        }
+        return queries;
+    }
+
+    // Unit vectors around a few dozen centers, roughly like songs sharing genres, moods and artists
+    private float[] vector() {
+        if (centers.isEmpty()) {
+            for (int i = 0; i < 40; i++) {
+                centers.add(normalize(gaussian(1)));
+            }
+        }
+        float[] center = centers.get(random.nextInt(centers.size()));
+        float[] noise = gaussian(0.3);
+        for (int i = 0; i < DIMENSIONS; i++) {
+            noise[i] += center[i];
+        }
+        return normalize(noise);
+    }
+
+    private float[] gaussian(double scale) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) (random.nextGaussian() * scale);
+        }
+        return vector;
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = Math.sqrt(dot(vector, vector));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] /= (float) norm;
+        }
+        return vector;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,72 @@
+package com.MusicHub.bench;
+
+import com.MusicHub.api.MusicHubApiApplication;
+import com.MusicHub.api.catalog.CatalogWarmup;
+import com.MusicHub.api.catalog.TermDictionaries;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The application (without the web server) running against an in-memory H2 database
+ * in MySQL mode, loaded with a generated catalog of catalogSize songs and catalogSize / 10 beats.
+ * Started once per fork; the in-memory indexes are warmed up before measuring.
+ */
+@State(Scope.Benchmark)
+public class BenchCatalog {
+
+    static final long SEED = 42;
+
+    @Param({"10000"})
+    public int catalogSize;
+
+    ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url",
+                "jdbc:h2:mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("musichub.activity.log-dir", Files.createTempDirectory("musichub-bench").toString());
+        properties.put("musichub.activity.fsync", "false");
+        properties.put("musichub.catalog.snapshot-dir", ""); // Every trial generates a new catalog
+        properties.put("musichub.similar.index-file", "");
+        properties.put("logging.level.root", "WARN");
+
+        context = new SpringApplicationBuilder(MusicHubApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .run(properties.entrySet().stream() // As arguments, so they win over application.properties
+                        .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                        .toArray(String[]::new));
+        CatalogGenerator.load(context.getBean(JdbcTemplate.class), context.getBean(TermDictionaries.class), catalogSize, Math.max(1, catalogSize / 10), SEED);
+        context.getBean(CatalogWarmup.class).warmup(); // Rows were loaded with JDBC, so index them now
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
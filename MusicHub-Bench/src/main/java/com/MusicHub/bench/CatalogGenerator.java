@@ -0,0 +1,80 @@
+package com.MusicHub.bench;
+
+import com.MusicHub.api.catalog.TermDictionaries;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates a deterministic synthetic catalog (same seed, same rows) and bulk-loads it with JDBC.
+ * Genres and moods are written as their dictionary codes, registered on first use.
+ * Titles and artists are built from small word lists so searches have realistic overlap.
+ */
+final class CatalogGenerator {
+
+    static final String[] GENRES = {"Pop", "Rock", "Hip-Hop", "Jazz", "Classical", "Electronic", "R&B", "Country",
+            "LoFi", "Metal", "Indie", "Folk"};
+    static final String[] MOODS = {"Happy", "Sad", "Chill", "Energetic", "Romantic", "Epic", "Relax", "Angry", "Dreamy"};
+    static final String[] WORDS = {"love", "night", "fire", "dream", "heart", "summer", "rain", "city", "light",
+            "shadow", "river", "golden", "midnight", "electric", "broken", "wild", "blue", "dance", "forever",
+            "home", "storm", "echo", "paradise", "sugar", "ocean", "thunder", "velvet", "neon", "silver", "road"};
+    static final String[] FIRST = {"Luna", "Max", "Aria", "Leo", "Nova", "Kai", "Ivy", "Zane", "Mila", "Theo",
+            "Sage", "Ezra", "Ruby", "Finn", "Jade", "Omar"};
+    static final String[] LAST = {"Rivers", "Stone", "Vega", "Hart", "Knight", "Bloom", "Cruz", "Frost", "Lane",
+            "Moon", "Reyes", "Sky", "Wolfe", "Young"};
+
+    private static final int BATCH = 1_000;
+
+    private CatalogGenerator() {
+    }
+
+    static void load(JdbcTemplate jdbcTemplate, TermDictionaries dictionaries, int songs, int beats, long seed) {
+        Random random = new Random(seed);
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        for (int id = 1; id <= songs; id++) {
+            rows.add(new Object[]{id, String.valueOf(100_000_000L + id), title(random), artist(random),
+                    dictionaries.genres().register(pick(random, GENRES)), dictionaries.moods().register(pick(random, MOODS)),
+                    "https://example.com/preview/" + id, popularity(random)});
+            if (rows.size() == BATCH || id == songs) {
+                jdbcTemplate.batchUpdate("INSERT INTO songs (id, song_id, title, artist, genre_code, mood_code, link, popularity) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        for (int id = 1; id <= beats; id++) {
+            rows.add(new Object[]{id, title(random) + " Beat", (long) random.nextInt(1_000) + 1,
+                    dictionaries.genres().register(pick(random, GENRES)), dictionaries.moods().register(pick(random, MOODS)),
+                    "https://example.com/beat/" + id, popularity(random)});
+            if (rows.size() == BATCH || id == beats) {
+                jdbcTemplate.batchUpdate("INSERT INTO beats (id, name, creator_id, genre_code, mood_code, link, popularity) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    static String title(Random random) {
+        int words = 1 + random.nextInt(3);
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            String word = pick(random, WORDS);
+            title.append(i == 0 ? "" : " ").append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+        }
+        return title.toString();
+    }
+
+    static String artist(Random random) {
+        return pick(random, FIRST) + " " + pick(random, LAST);
+    }
+
+    static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    // Skewed towards low values, like real play counts
+    private static int popularity(Random random) {
+        return (int) Math.min(100, Math.round(-Math.log(1 - random.nextDouble()) * 20));
+    }
+}
@@ -0,0 +1,79 @@
+package com.MusicHub.bench;
+
+import com.MusicHub.api.dto.SongSummary;
+import com.MusicHub.api.model.Beat;
+import com.MusicHub.api.model.Song;
+import com.MusicHub.api.repository.BeatRepository;
+import com.MusicHub.api.repository.SongRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading 100 rows by id: managed entities (persistence context, snapshots) against DTO projections.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HydrationBenchmark {
+
+    private static final int ROWS = 100;
+
+    private SongRepository songRepository;
+    private BeatRepository beatRepository;
+    private List<List<Long>> songIds;
+    private List<List<Long>> beatIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchCatalog catalog) {
+        songRepository = catalog.bean(SongRepository.class);
+        beatRepository = catalog.bean(BeatRepository.class);
+        Random random = new Random(BenchCatalog.SEED);
+        songIds = randomIdLists(random, catalog.catalogSize);
+        beatIds = randomIdLists(random, Math.max(1, catalog.catalogSize / 10));
+    }
+
+    private static List<List<Long>> randomIdLists(Random random, int maxId) {
+        List<List<Long>> lists = new ArrayList<>(32);
+        for (int i = 0; i < 32; i++) {
+            List<Long> ids = new ArrayList<>(ROWS);
+            for (int j = 0; j < ROWS; j++) {
+                ids.add((long) random.nextInt(maxId) + 1);
+            }
+            lists.add(ids);
+        }
+        return lists;
+    }
+
+    @Benchmark
+    public List<Song> songEntities() {
+        return songRepository.findAllById(songIds.get(next++ & 31));
+    }
+
+    @Benchmark
+    public List<SongSummary> songSummaries() {
+        return songRepository.findSummariesByIdIn(songIds.get(next++ & 31));
+    }
+
+    @Benchmark
+    public List<Beat> beatEntities() {
+        return beatRepository.findAllById(beatIds.get(next++ & 31));
+    }
+}
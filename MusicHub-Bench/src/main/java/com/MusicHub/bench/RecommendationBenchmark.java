@@ -0,0 +1,93 @@
+package com.MusicHub.bench;
+
+import com.MusicHub.api.dto.SongSummary;
+import com.MusicHub.api.filter.AttributeBitmapIndex;
+import com.MusicHub.api.model.Beat;
+import com.MusicHub.api.recommendation.RecommendationEngine;
+import com.MusicHub.api.repository.SongRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Mood/genre recommendations: the popularity-ordered postings merge and the same request as a
+ * bitmap filter, against the ORDER BY query.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecommendationBenchmark {
+
+    private record Request(List<String> moods, List<String> genres) {
+
+        // The same "mood IN (...) OR genre IN (...)" as a FilterExpression
+        String filter() {
+            return String.join(" OR ", Stream.concat(
+                    moods.stream().map(mood -> "mood:" + mood), genres.stream().map(genre -> "genre:" + genre)).toList());
+        }
+    }
+
+    private RecommendationEngine engine;
+    private AttributeBitmapIndex bitmapIndex;
+    private SongRepository songRepository;
+    private Request[] requests;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchCatalog catalog) {
+        engine = catalog.bean(RecommendationEngine.class);
+        bitmapIndex = catalog.bean(AttributeBitmapIndex.class);
+        songRepository = catalog.bean(SongRepository.class);
+        Random random = new Random(BenchCatalog.SEED);
+        requests = new Request[64];
+        for (int i = 0; i < requests.length; i++) {
+            requests[i] = new Request(
+                    List.of(CatalogGenerator.pick(random, CatalogGenerator.MOODS), CatalogGenerator.pick(random, CatalogGenerator.MOODS)),
+                    List.of(CatalogGenerator.pick(random, CatalogGenerator.GENRES)));
+        }
+    }
+
+    private Request nextRequest() {
+        return requests[next++ & (requests.length - 1)];
+    }
+
+    @Benchmark
+    public List<SongSummary> indexSongs() {
+        Request request = nextRequest();
+        return engine.recommendSongs(request.moods(), request.genres(), 50);
+    }
+
+    @Benchmark
+    public List<Beat> indexBeats() {
+        Request request = nextRequest();
+        return engine.recommendBeats(request.moods(), request.genres(), 50);
+    }
+
+    @Benchmark
+    public List<SongSummary> bitmapFilterSongs() {
+        return bitmapIndex.filterSongs(nextRequest().filter(), 50);
+    }
+
+    @Benchmark
+    public List<SongSummary> orderByQuery() {
+        Request request = nextRequest();
+        return songRepository.findByMoodInOrGenreInOrderByPopularityDesc(request.moods(), request.genres(), Limit.of(50));
+    }
+}
@@ -0,0 +1,78 @@
+package com.MusicHub.bench;
+
+import com.MusicHub.api.dto.SongSummary;
+import com.MusicHub.api.dto.Suggestion;
+import com.MusicHub.api.repository.SongRepository;
+import com.MusicHub.api.search.AutocompleteService;
+import com.MusicHub.api.search.SongSearchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /api/songs/search: the in-memory inverted/trigram index against the LIKE query it replaced,
+ * and /api/songs/autocomplete on the same queries.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    private SongSearchService searchService;
+    private AutocompleteService autocompleteService;
+    private SongRepository songRepository;
+    private String[] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchCatalog catalog) {
+        searchService = catalog.bean(SongSearchService.class);
+        autocompleteService = catalog.bean(AutocompleteService.class);
+        songRepository = catalog.bean(SongRepository.class);
+        Random random = new Random(BenchCatalog.SEED);
+        queries = new String[256];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = switch (i % 3) {
+                case 0 -> CatalogGenerator.pick(random, CatalogGenerator.WORDS);                  // Title word
+                case 1 -> CatalogGenerator.artist(random);                                        // Full artist name
+                default -> CatalogGenerator.pick(random, CatalogGenerator.WORDS).substring(0, 3); // Prefix
+            };
+        }
+    }
+
+    private String nextQuery() {
+        return queries[next++ & (queries.length - 1)];
+    }
+
+    @Benchmark
+    public List<SongSummary> indexSearch() {
+        return searchService.search(nextQuery(), 20);
+    }
+
+    @Benchmark
+    public List<Suggestion> autocomplete() {
+        return autocompleteService.complete(nextQuery(), 10);
+    }
+
+    @Benchmark
+    public List<SongSummary> likeQuery() {
+        String query = nextQuery();
+        return songRepository.findByTitleContainingIgnoreCaseOrArtistContainingIgnoreCase(query, query, Limit.of(20));
+    }
+}
@@ -0,0 +1,67 @@
+package com.MusicHub.bench;
+
+import com.MusicHub.api.dto.SongSummary;
+import com.MusicHub.api.model.Beat;
+import com.MusicHub.api.model.Song;
+import com.MusicHub.api.repository.BeatRepository;
+import com.MusicHub.api.repository.SongRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * JSON serialization of a 50-row response, with the application's ObjectMapper.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final int ROWS = 50;
+
+    private ObjectMapper objectMapper;
+    private List<Song> songs;
+    private List<SongSummary> summaries;
+    private List<Beat> beats;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchCatalog catalog) {
+        objectMapper = catalog.bean(ObjectMapper.class);
+        List<Long> ids = LongStream.rangeClosed(1, ROWS).boxed().toList();
+        songs = catalog.bean(SongRepository.class).findAllById(ids);
+        summaries = catalog.bean(SongRepository.class).findSummariesByIdIn(ids);
+        beats = catalog.bean(BeatRepository.class).findAllById(ids);
+    }
+
+    @Benchmark
+    public byte[] songEntities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(songs);
+    }
+
+    @Benchmark
+    public byte[] songSummaries() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(summaries);
+    }
+
+    @Benchmark
+    public byte[] beatEntities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(beats);
+    }
+}
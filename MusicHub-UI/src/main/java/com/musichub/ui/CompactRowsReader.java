@@ -0,0 +1,139 @@
+package com.musichub.ui;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming reader for the API's compact list format ("application/x-musichub-rows", written
+ * by the API's CompactRows): rows are decoded one at a time straight from the response body,
+ * without building the whole document first.
+ *
+ * Usage: while (reader.next()) { reader.string("title") ... }, then reader.attribute("nextCursor").
+ * Columns are looked up by their JSON property name; a column the API did not send reads as null.
+ */
+final class CompactRowsReader {
+
+    static final String MEDIA_TYPE = "application/x-musichub-rows";
+
+    private static final int MAX_TABLE_SIZE = 4096; // Must match the API
+    private static final byte STRING = 's';
+
+    private final InputStream in;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final byte[] types;
+    private final Object[] values;
+    private final List<String> table = new ArrayList<>();
+    private final Map<String, String> attributes = new HashMap<>();
+    private boolean finished;
+
+    CompactRowsReader(InputStream body) throws IOException {
+        this.in = new BufferedInputStream(body, 8192);
+        if (read() != 'M' || read() != 'H' || read() != 'R' || read() != 1) {
+            throw new IOException("Not a compact rows response");
+        }
+        int count = (int) varint();
+        types = new byte[count];
+        values = new Object[count];
+        for (int i = 0; i < count; i++) {
+            columns.put(literal(), i);
+            types[i] = (byte) read();
+        }
+    }
+
+    static boolean accepts(String contentType) {
+        return contentType != null && contentType.startsWith(MEDIA_TYPE);
+    }
+
+    /**
+     * Moves to the next row; false once all rows are read (the attributes are available then).
+     */
+    boolean next() throws IOException {
+        if (finished) {
+            return false;
+        }
+        if (read() == 0) {
+            for (long i = varint(); i > 0; i--) {
+                attributes.put(literal(), string());
+            }
+            finished = true;
+            return false;
+        }
+        for (int i = 0; i < values.length; i++) {
+            values[i] = types[i] == STRING ? string() : number();
+        }
+        return true;
+    }
+
+    String string(String column) {
+        Integer index = columns.get(column);
+        return index == null ? null : (String) values[index];
+    }
+
+    Long number(String column) {
+        Integer index = columns.get(column);
+        return index == null ? null : (Long) values[index];
+    }
+
+    String attribute(String name) {
+        return attributes.get(name);
+    }
+
+    private String string() throws IOException {
+        long reference = varint();
+        if (reference == 0) {
+            return null;
+        }
+        if (reference > 1) {
+            return table.get((int) (reference - 2));
+        }
+        String value = literal();
+        if (table.size() < MAX_TABLE_SIZE) {
+            table.add(value);
+        }
+        return value;
+    }
+
+    private Long number() throws IOException {
+        long encoded = varint();
+        if (encoded == 0) {
+            return null;
+        }
+        long zigzag = encoded - 1;
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    private String literal() throws IOException {
+        int length = (int) varint();
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length < length) {
+            throw new EOFException("Truncated compact rows response");
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private long varint() throws IOException {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = read();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException("Truncated compact rows response");
+        }
+        return b;
+    }
+}
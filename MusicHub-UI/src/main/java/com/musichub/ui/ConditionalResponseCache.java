@@ -0,0 +1,117 @@
+package com.musichub.ui;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Bounded client-side cache of parsed API responses, revalidated with conditional GETs.
+ *
+ * Every GET of a cached URI carries the stored ETag in If-None-Match. When the API answers
+ * 304 Not Modified the previously parsed value is returned as is: no body is transferred and
+ * no JSON is parsed. Responses without an ETag are not cached. Cached values are shared
+ * between callers and must be treated as read-only.
+ *
+ * Requests prefer the API's compact list format (CompactRowsReader) over JSON and accept gzip;
+ * the parser gets the decompressed body as a stream, together with the format the API chose.
+ */
+final class ConditionalResponseCache {
+
+    // Endpoints that cannot answer in compact rows fall back to JSON
+    private static final String ACCEPT = CompactRowsReader.MEDIA_TYPE + ", application/json;q=0.9";
+
+    /**
+     * Turns a 200 response body into a value. contentType is the response's Content-Type.
+     */
+    interface BodyParser<T> {
+        T parse(String contentType, InputStream body) throws IOException;
+    }
+
+    private record Entry(String etag, Object value) {
+    }
+
+    private final HttpClient httpClient;
+    private final Map<URI, Entry> entries;
+
+    ConditionalResponseCache(HttpClient httpClient, int maxEntries) {
+        this.httpClient = httpClient;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) { // Access order: evicts the least recently used
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<URI, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * GETs the URI; parser turns a 200 body into the value (runs on an HttpClient thread).
+     * Fails with IllegalStateException on any status other than 200 and 304.
+     */
+    <T> CompletableFuture<T> get(URI uri, Duration timeout, BodyParser<T> parser) {
+        Entry cached;
+        synchronized (entries) {
+            cached = entries.get(uri);
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).timeout(timeout)
+                .header("Accept", ACCEPT)
+                .header("Accept-Encoding", "gzip")
+                .GET();
+        if (cached != null) {
+            request.header("If-None-Match", cached.etag());
+        }
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofInputStream()).thenApply(response -> {
+            if (response.statusCode() == 304 && cached != null) {
+                close(response.body());
+                @SuppressWarnings("unchecked") // Each URI is always parsed by the same caller into the same type
+                T value = (T) cached.value();
+                return value;
+            }
+            if (response.statusCode() != 200) {
+                close(response.body());
+                throw new IllegalStateException("HTTP " + response.statusCode() + " from " + uri.getPath());
+            }
+            T value;
+            try (InputStream body = decoded(response)) {
+                value = parser.parse(response.headers().firstValue("Content-Type").orElse(null), body);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read the response from " + uri.getPath(), e);
+            }
+            response.headers().firstValue("ETag").ifPresent(etag -> {
+                synchronized (entries) {
+                    entries.put(uri, new Entry(etag, value));
+                }
+            });
+            return value;
+        });
+    }
+
+    private static InputStream decoded(HttpResponse<InputStream> response) throws IOException {
+        boolean gzip = response.headers().firstValue("Content-Encoding").filter("gzip"::equalsIgnoreCase).isPresent();
+        if (!gzip) {
+            return response.body();
+        }
+        try {
+            return new GZIPInputStream(response.body());
+        } catch (IOException e) {
+            close(response.body());
+            throw e;
+        }
+    }
+
+    private static void close(InputStream body) {
+        try {
+            body.close();
+        } catch (IOException ignored) {
+            // Nothing was read from it
+        }
+    }
+}
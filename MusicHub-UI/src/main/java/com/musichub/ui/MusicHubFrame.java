@@ -1,15 +1,28 @@
 package com.musichub.ui;
 
+import com.google.gson.Gson;
+
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.ActionEvent;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.util.Arrays;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 
 public class MusicHubFrame extends JFrame {
@@ -27,6 +40,14 @@ public class MusicHubFrame extends JFrame {
 
     // API Configuration
     private static final String API_BASE_URL = "http://localhost:8080/api";
+    private static final Gson GSON = new Gson();
+    // One client for the whole app: its connection pool keeps HTTP/1.1 connections to the API alive between requests
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    // Parsed catalog/recommendation responses; revisiting a view costs a 304 instead of a download and a parse
+    private static final ConditionalResponseCache RESPONSE_CACHE = new ConditionalResponseCache(HTTP_CLIENT, 128);
 
     public MusicHubFrame() {
         // --- 1. Frame Setup (Main Dashboard) ---
@@ -98,8 +119,7 @@ public class MusicHubFrame extends JFrame {
 
         // 4. External API Showcase
         JButton apiButton = createStyledButton("4. Caching & External Data Flow", CARD_BG);
-        apiButton.addActionListener(e -> showMockDialog("Data Layer Showcase",
-                "Data is retrieved from fast MySQL Cache or fetched live from external APIs (iTunes, Genius)."));
+        apiButton.addActionListener(e -> new MetricsWindow().setVisible(true));
         panel.add(apiButton);
 
         return panel;
@@ -145,11 +165,18 @@ public class MusicHubFrame extends JFrame {
 
     // --- INTERNAL CLASS FOR SEARCH WINDOW (Minimalist Focus) ---
     private class SearchWindow extends JFrame {
-        private final HttpClient httpClient = HttpClient.newBuilder().build();
+        private static final int PAGE_SIZE = 100;
+        private static final int MAX_CACHED_PAGES = 20; // At most 2000 rows in memory, however far the user scrolls
+        private static final int DEBOUNCE_MILLIS = 300;
+        private static final String[] SOURCES = {"/songs", "/beats"}; // Listed one after the other
+
         private JTextField searchField;
         private JList<String> resultsList;
         private JTextArea flowArea; // Renamed from actionOutputArea for clarity
         private JLabel statusLabel;
+        private final Timer debounceTimer = new Timer(DEBOUNCE_MILLIS, e -> performSearch(null));
+        private PagedListModel resultsModel; // Model of the current query; replaced (and closed) by the next one
+        private String shownQuery = "";
 
         public SearchWindow() {
             setTitle("MusicHub | Search (UI -> API -> DB)");
@@ -174,6 +201,16 @@ public class MusicHubFrame extends JFrame {
             statusLabel.setForeground(SUBTITLE_COLOR);
             statusLabel.setBorder(new EmptyBorder(10, 15, 10, 15));
             add(statusLabel, BorderLayout.SOUTH);
+
+            setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+            addWindowListener(new java.awt.event.WindowAdapter() {
+                public void windowClosed(java.awt.event.WindowEvent evt) {
+                    debounceTimer.stop();
+                    if (resultsModel != null) {
+                        resultsModel.close(); // Drop pages still loading
+                    }
+                }
+            });
         }
 
         private JPanel createSearchInputPanel() {
@@ -199,8 +236,24 @@ public class MusicHubFrame extends JFrame {
                 }
             });
 
+            // Search as you type: every keystroke restarts the timer, the search runs once typing pauses
+            debounceTimer.setRepeats(false);
+            searchField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+                public void insertUpdate(javax.swing.event.DocumentEvent evt) {
+                    debounceTimer.restart();
+                }
+
+                public void removeUpdate(javax.swing.event.DocumentEvent evt) {
+                    debounceTimer.restart();
+                }
+
+                public void changedUpdate(javax.swing.event.DocumentEvent evt) {
+                }
+            });
+
             JButton searchButton = createStyledButton("Search", ACCENT_GREEN);
             searchButton.addActionListener(this::performSearch);
+            searchField.addActionListener(this::performSearch); // Enter searches right away
 
             panel.add(searchField, BorderLayout.CENTER);
             panel.add(searchButton, BorderLayout.EAST);
@@ -221,6 +274,8 @@ public class MusicHubFrame extends JFrame {
             resultsList.setForeground(TEXT_COLOR);
             resultsList.setSelectionBackground(ACCENT_GREEN.darker());
             resultsList.setFont(CONTENT_FONT.deriveFont(Font.PLAIN, 14f)); // Use consistent font
+            // Fixed cell size: the list never measures every row, so it only touches the visible ones
+            resultsList.setPrototypeCellValue("Song: 'A reasonably long song title' by Some Artist (Genre: Electronic, Mood: Energetic)");
 
             panel.add(new JScrollPane(resultsList), BorderLayout.CENTER);
             return panel;
@@ -288,62 +343,155 @@ public class MusicHubFrame extends JFrame {
             }.execute();
         }
 
+        // Runs on the EDT, for the debounce timer (e == null), the Search button and Enter
         private void performSearch(ActionEvent e) {
+            debounceTimer.stop();
             String query = searchField.getText().trim();
-            if (query.isEmpty() || query.startsWith("e.g.")) {
+            if (query.startsWith("e.g.")) {
+                return; // Placeholder text, not a query
+            }
+            if (e == null && query.equals(shownQuery)) {
+                return; // Typing ended where it started, the results are current
+            }
+            if (resultsModel != null) {
+                resultsModel.close(); // Cancels the stale query's requests; late answers are ignored
+                resultsModel = null;
+            }
+            shownQuery = query;
+            if (query.isEmpty()) {
                 resultsList.setListData(new String[]{"Error: Please enter a valid search query."});
+                statusLabel.setText("Ready. Enter search query above.");
                 return;
             }
 
+            String encoded = URLEncoder.encode(query, StandardCharsets.UTF_8);
             statusLabel.setText(String.format("Status: Searching for '%s' via Spring Boot API...", query));
-            flowArea.setText(String.format("--- Search Data Flow ---\n1. UI sends GET %s/search?q=%s", API_BASE_URL, query));
+            flowArea.setText(String.format("--- Search Data Flow ---\n1. UI sends GET %s/songs?moods=%s&genres=%s&size=%d", API_BASE_URL, encoded, encoded, PAGE_SIZE)
+                    + "\n2. Spring Boot answers from the in-memory popularity index with one page and a cursor for the next."
+                    + "\n3. Further pages are requested only as you scroll (?cursor=...), then the same for beats (/beats)."
+                    + "\n4. At most " + MAX_CACHED_PAGES + " pages are kept in memory; pages scrolled far away are dropped and fetched again when needed.");
 
-            new SwingWorker<String[], Void>() {
+            resultsModel = new PagedListModel((source, cursor) -> loadPage(SOURCES[source], encoded, cursor),
+                    SOURCES.length, MAX_CACHED_PAGES, PAGE_SIZE / 2, new PagedListModel.Listener() {
                 @Override
-                protected String[] doInBackground() throws Exception {
-                    Thread.sleep(1000); // Simulate network latency
-
-                    String[] dataFlow = {
-                            "\n2. Spring Boot checks MySQL cache...",
-                            "\n3. Cache MISS! Spring Boot fetches from external APIs...",
-                            "\n4. Spring Boot saves new data to MySQL 'songs' table...",
-                            "\n5. Spring Boot returns aggregated JSON to Swing UI."
-                    };
-                    for(String step : dataFlow) {
-                        flowArea.append(step);
-                        Thread.sleep(500);
+                public void loaded(int rows, boolean complete) {
+                    if (!complete) {
+                        statusLabel.setText("Status: " + rows + " results loaded, more are fetched as you scroll.");
+                    } else if (rows == 0) {
+                        resultsList.setListData(new String[]{"No songs or beats match '" + query + "'."});
+                        statusLabel.setText("Status: Search complete. No results.");
+                    } else {
+                        statusLabel.setText("Status: Search complete. Displaying " + rows + " results.");
                     }
-
-                    List<String> mockResults = Arrays.asList(
-                            String.format("Song: 'Groove Machine' (Genre: %s) - [Source: MySQL Cache]", query),
-                            String.format("Beat: 'Chill Focus Loop' (Mood: Relax) - [Source: MySQL Cache]"),
-                            String.format("Song: 'Epic Rise' (Mood: Cinematic) - [Source: External iTunes API]"),
-                            String.format("Beat: 'Hard Drumkit' (For Creators) - [Source: External FreeSound API]"),
-                            "Song: 'Trending Hit' (Based on Search Logs) - [Source: MySQL Search Logs]"
-                    );
-
-                    return mockResults.toArray(new String[0]);
                 }
 
                 @Override
-                protected void done() {
-                    try {
-                        String[] results = get();
-                        resultsList.setListData(results);
-                        statusLabel.setText("Status: Search complete. Displaying " + results.length + " results.");
-                        flowArea.append("\n\n✅ Search successful. Data flow demonstrated.");
-                    } catch (Exception ex) {
-                        resultsList.setListData(new String[]{"Error loading search results: " + ex.getMessage()});
-                        statusLabel.setText("Status: Search failed.");
-                    }
+                public void failed(Throwable error) {
+                    statusLabel.setText("Status: Search failed (" + error.getMessage() + ").");
+                    flowArea.append("\n\n❌ Error loading search results: " + error.getMessage());
                 }
-            }.execute();
+            });
+            resultsList.setModel(resultsModel);
         }
+
+        // The finished Page is built on an HTTP client thread (or reused after a 304) and handed to the EDT by the model
+        private CompletableFuture<PagedListModel.Page> loadPage(String path, String encodedQuery, String cursor) {
+            String uri = API_BASE_URL + path + "?moods=" + encodedQuery + "&genres=" + encodedQuery + "&size=" + PAGE_SIZE
+                    + (cursor == null ? "" : "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8));
+            String kind = "/beats".equals(path) ? "Beat" : "Song";
+            return RESPONSE_CACHE.get(URI.create(uri), Duration.ofSeconds(10), (contentType, body) -> {
+                CatalogPageJson page = parsePage(contentType, body);
+                List<String> rows = page.items == null ? List.of()
+                        : page.items.stream().map(row -> formatRow(kind, row)).toList();
+                return new PagedListModel.Page(rows, page.nextCursor);
+            });
+        }
+
+        private String formatRow(String kind, CatalogRow row) {
+            if ("Beat".equals(kind)) {
+                return String.format("Beat: '%s' (Genre: %s, Mood: %s)", row.name, row.genre, row.mood);
+            }
+            return String.format("Song: '%s' by %s (Genre: %s, Mood: %s)", row.title, row.artist, row.genre, row.mood);
+        }
+    }
+
+    // --- Response parsing: compact rows when the API sent them, JSON otherwise (see ConditionalResponseCache) ---
+
+    private static CatalogPageJson parsePage(String contentType, InputStream body) throws IOException {
+        if (!CompactRowsReader.accepts(contentType)) {
+            return GSON.fromJson(new InputStreamReader(body, StandardCharsets.UTF_8), CatalogPageJson.class);
+        }
+        CompactRowsReader reader = new CompactRowsReader(body);
+        CatalogPageJson page = new CatalogPageJson();
+        page.items = readAll(reader, MusicHubFrame::catalogRow);
+        page.nextCursor = reader.attribute("nextCursor");
+        return page;
+    }
+
+    private static <R> List<R> parseRows(String contentType, InputStream body, Class<R[]> jsonType,
+                                         Function<CompactRowsReader, R> compactRow) throws IOException {
+        if (!CompactRowsReader.accepts(contentType)) {
+            return List.of(GSON.fromJson(new InputStreamReader(body, StandardCharsets.UTF_8), jsonType));
+        }
+        return readAll(new CompactRowsReader(body), compactRow);
+    }
+
+    private static <R> List<R> readAll(CompactRowsReader reader, Function<CompactRowsReader, R> compactRow) throws IOException {
+        List<R> rows = new ArrayList<>();
+        while (reader.next()) {
+            rows.add(compactRow.apply(reader));
+        }
+        return rows;
+    }
+
+    private static CatalogRow catalogRow(CompactRowsReader reader) {
+        CatalogRow row = new CatalogRow();
+        row.id = reader.number("id");
+        row.title = reader.string("title");
+        row.artist = reader.string("artist");
+        row.name = reader.string("name");
+        row.genre = reader.string("genre");
+        row.mood = reader.string("mood");
+        Long popularity = reader.number("popularity");
+        row.popularity = popularity == null ? 0 : popularity.intValue();
+        return row;
+    }
+
+    private static TrendingRow trendingRow(CompactRowsReader reader) {
+        TrendingRow row = new TrendingRow();
+        row.song = catalogRow(reader); // Compact rows flatten the song into the row
+        Long score = reader.number("score");
+        row.score = score == null ? 0 : score;
+        return row;
+    }
+
+    // GET /api/recommendations/trending: a song with its plays + likes in the window
+    private static class TrendingRow {
+        CatalogRow song;
+        long score;
+    }
+
+    // GET /api/songs and /api/beats: one keyset page
+    private static class CatalogPageJson {
+        List<CatalogRow> items;
+        String nextCursor;
+    }
+
+    // One song or beat row as returned by the API (beats carry a name instead of title/artist)
+    private static class CatalogRow {
+        Long id;
+        String title;
+        String artist;
+        String name;
+        String genre;
+        String mood;
+        int popularity;
     }
 
     // --- INTERNAL CLASS FOR RECOMMENDATION WINDOW ---
     private class RecommendationWindow extends JFrame {
         private JTextArea logicArea;
+        private final DefaultListModel<String> recommendations = new DefaultListModel<>();
 
         public RecommendationWindow() {
             setTitle("MusicHub | Recommendation Engine Analysis (Backend Logic)");
@@ -365,6 +513,47 @@ public class MusicHubFrame extends JFrame {
             add(splitPane, BorderLayout.CENTER);
 
             displayLogic();
+            loadRecommendations();
+        }
+
+        // Three independent requests through the response cache; the list is filled on the EDT once all are in
+        private void loadRecommendations() {
+            recommendations.addElement("Loading recommendations from " + API_BASE_URL + "/recommendations ...");
+            CompletableFuture<List<String>> songs = RESPONSE_CACHE.get(
+                    URI.create(API_BASE_URL + "/recommendations/songs?moods=Sad,Chill&genres=Pop&limit=5"), Duration.ofSeconds(10),
+                    (contentType, body) -> formatAll(parseRows(contentType, body, CatalogRow[].class, MusicHubFrame::catalogRow), "Song", "[Mood/Genre Match]"));
+            CompletableFuture<List<String>> beats = RESPONSE_CACHE.get(
+                    URI.create(API_BASE_URL + "/recommendations/beats?moods=Relax&genres=LoFi&limit=3"), Duration.ofSeconds(10),
+                    (contentType, body) -> formatAll(parseRows(contentType, body, CatalogRow[].class, MusicHubFrame::catalogRow), "Beat", "[Creator Match]"));
+            CompletableFuture<List<String>> trending = RESPONSE_CACHE.get(
+                    URI.create(API_BASE_URL + "/recommendations/trending?window=24h&limit=5"), Duration.ofSeconds(10),
+                    (contentType, body) -> parseRows(contentType, body, TrendingRow[].class, MusicHubFrame::trendingRow).stream()
+                            .map(row -> String.format("Song: '%s' by %s - [Trending, %d plays + likes today]",
+                                    row.song.title, row.song.artist, row.score))
+                            .toList());
+
+            CompletableFuture.allOf(songs, beats, trending).whenComplete((ignored, error) -> SwingUtilities.invokeLater(() -> {
+                recommendations.clear();
+                if (error != null) {
+                    Throwable cause = error.getCause() != null ? error.getCause() : error;
+                    recommendations.addElement("Error loading recommendations: " + cause.getMessage());
+                    return;
+                }
+                Stream.of(songs.join(), beats.join(), trending.join())
+                        .flatMap(List::stream)
+                        .forEach(row -> recommendations.addElement((recommendations.size() + 1) + ". " + row));
+                if (recommendations.isEmpty()) {
+                    recommendations.addElement("No recommendations yet: the catalog has no matching songs or beats.");
+                }
+            }));
+        }
+
+        private List<String> formatAll(List<CatalogRow> rows, String kind, String reason) {
+            return rows.stream()
+                    .map(row -> "Beat".equals(kind)
+                            ? String.format("Beat: '%s' (Genre: %s, Mood: %s) - %s", row.name, row.genre, row.mood, reason)
+                            : String.format("Song: '%s' by %s (Genre: %s, Mood: %s) - %s", row.title, row.artist, row.genre, row.mood, reason))
+                    .toList();
         }
 
         private JPanel createRecommendationList() {
@@ -376,14 +565,7 @@ public class MusicHubFrame extends JFrame {
                     0, 2, new Font("Inter", Font.BOLD, 14), ACCENT_RED
             ));
 
-            String[] recs = {
-                    "1. Song: 'Midnight Rain' (Mood: Sad/Chill) - [User Match]",
-                    "2. Song: 'Fast Car' (Genre: Pop) - [User Match]",
-                    "3. Beat: 'Chill LoFi Loop' (Mood: Relax) - [Creator Match]",
-                    "4. Song: 'Trending Hit' (Based on Search Logs) - [Popularity Match]",
-            };
-
-            JList<String> recommendationList = new JList<>(recs);
+            JList<String> recommendationList = new JList<>(recommendations);
             recommendationList.setBackground(CARD_BG);
             recommendationList.setForeground(TEXT_COLOR);
             recommendationList.setSelectionBackground(ACCENT_RED.darker());
@@ -432,4 +614,179 @@ public class MusicHubFrame extends JFrame {
             logicArea.setText(logic);
         }
     }
+
+    // --- INTERNAL CLASS FOR METRICS WINDOW (live latencies from the running backend) ---
+    private class MetricsWindow extends JFrame {
+        private static final int REFRESH_MILLIS = 2000;
+        private static final int NAME_WIDTH = 46;
+
+        private final Timer refreshTimer = new Timer(REFRESH_MILLIS, e -> refresh());
+        private JTextArea metricsArea;
+        private JLabel statusLabel;
+        private SwingWorker<MetricsSnapshot, Void> pollWorker; // Poll in flight, if any
+
+        public MetricsWindow() {
+            setTitle("MusicHub | Caching & External Data Flow (Live Metrics)");
+            setSize(900, 650);
+            setLocationRelativeTo(MusicHubFrame.this);
+            setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+            getContentPane().setBackground(DARK_BG);
+            setLayout(new BorderLayout(15, 15));
+
+            JLabel title = new JLabel("Where the time goes: GET /api/metrics/summary", SwingConstants.CENTER);
+            title.setFont(TITLE_FONT.deriveFont(20f));
+            title.setForeground(ACCENT_GREEN);
+            title.setBorder(new EmptyBorder(15, 0, 0, 0));
+            add(title, BorderLayout.NORTH);
+
+            metricsArea = new JTextArea("Waiting for the first sample...");
+            metricsArea.setBackground(CARD_BG);
+            metricsArea.setForeground(TEXT_COLOR);
+            metricsArea.setEditable(false);
+            metricsArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 13)); // Columns must line up
+            metricsArea.setBorder(new EmptyBorder(10, 10, 10, 10));
+            JScrollPane scrollPane = new JScrollPane(metricsArea);
+            scrollPane.setBorder(new EmptyBorder(0, 15, 0, 15));
+            scrollPane.setBackground(DARK_BG);
+            add(scrollPane, BorderLayout.CENTER);
+
+            statusLabel = new JLabel("Status: Connecting to " + API_BASE_URL + "...", SwingConstants.LEFT);
+            statusLabel.setForeground(SUBTITLE_COLOR);
+            statusLabel.setBorder(new EmptyBorder(0, 15, 10, 15));
+            add(statusLabel, BorderLayout.SOUTH);
+
+            addWindowListener(new java.awt.event.WindowAdapter() {
+                public void windowClosed(java.awt.event.WindowEvent evt) {
+                    refreshTimer.stop(); // Stop polling once the window is gone
+                    if (pollWorker != null) {
+                        pollWorker.cancel(true);
+                    }
+                }
+            });
+            refreshTimer.setInitialDelay(0);
+            refreshTimer.start();
+        }
+
+        // Runs on the EDT every REFRESH_MILLIS; a slow backend never gets more than one poll at a time
+        private void refresh() {
+            if (pollWorker != null && !pollWorker.isDone()) {
+                return;
+            }
+            pollWorker = new SwingWorker<>() {
+                @Override
+                protected MetricsSnapshot doInBackground() throws Exception {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(API_BASE_URL + "/metrics/summary?limit=12"))
+                            .timeout(Duration.ofSeconds(2))
+                            .GET()
+                            .build();
+                    HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("HTTP " + response.statusCode());
+                    }
+                    return GSON.fromJson(response.body(), MetricsSnapshot.class);
+                }
+
+                @Override
+                protected void done() {
+                    if (isCancelled()) {
+                        return;
+                    }
+                    String time = LocalTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss"));
+                    try {
+                        int caret = metricsArea.getCaretPosition();
+                        metricsArea.setText(render(get()));
+                        metricsArea.setCaretPosition(Math.min(caret, metricsArea.getDocument().getLength()));
+                        statusLabel.setText("Status: Live. Last sample " + time + ", refreshed every " + REFRESH_MILLIS / 1000 + "s.");
+                    } catch (Exception ex) {
+                        // Keep showing the last sample; the next tick tries again
+                        Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                        statusLabel.setText("Status: Backend unreachable at " + time + " (" + cause.getMessage() + "). Retrying...");
+                    }
+                }
+            };
+            pollWorker.execute();
+        }
+
+        private String render(MetricsSnapshot snapshot) {
+            StringBuilder text = new StringBuilder();
+            appendLatencies(text, "HTTP ENDPOINTS", snapshot.endpoints);
+            appendLatencies(text, "REPOSITORY METHODS (MySQL)", snapshot.repositories);
+            appendLatencies(text, "EXTERNAL APIS (iTunes, lyrics)", snapshot.externalCalls);
+
+            text.append(String.format("%-" + NAME_WIDTH + "s %10s %10s %10s %10s%n", "CACHES", "hits", "misses", "hit ratio", "size"));
+            if (snapshot.caches == null || snapshot.caches.isEmpty()) {
+                text.append("  (no cache traffic yet)\n");
+            } else {
+                for (CacheRow row : snapshot.caches) {
+                    text.append(String.format("%-" + NAME_WIDTH + "s %10d %10d %9.1f%% %10d%n",
+                            fit(row.name), row.hits, row.misses, row.hitRatio * 100, row.size));
+                }
+            }
+
+            HibernateRow hibernate = snapshot.hibernate;
+            if (hibernate != null) {
+                text.append("\nHIBERNATE (since start)\n")
+                        .append(String.format("  queries %d, rows fetched %d, slowest query %d ms%n",
+                                hibernate.queries, hibernate.rowsFetched, hibernate.slowestQueryMs))
+                        .append(String.format("  entity loads %d, lazy fetches %d, JDBC statements %d%n",
+                                hibernate.entityLoads, hibernate.entityFetches, hibernate.statements))
+                        .append(String.format("  second-level cache hits %d, misses %d%n",
+                                hibernate.secondLevelCacheHits, hibernate.secondLevelCacheMisses));
+            }
+            return text.toString();
+        }
+
+        private void appendLatencies(StringBuilder text, String heading, List<LatencyRow> rows) {
+            text.append(String.format("%-" + NAME_WIDTH + "s %10s %10s %10s %10s%n", heading, "count", "p50 ms", "p99 ms", "max ms"));
+            if (rows == null || rows.isEmpty()) {
+                text.append("  (no calls yet)\n");
+            } else {
+                for (LatencyRow row : rows) {
+                    text.append(String.format("%-" + NAME_WIDTH + "s %10d %10.1f %10.1f %10.1f%n",
+                            fit(row.name), row.count, row.p50Ms, row.p99Ms, row.maxMs));
+                }
+            }
+            text.append("\n");
+        }
+
+        private String fit(String name) {
+            return name.length() <= NAME_WIDTH - 2 ? "  " + name : "  " + name.substring(0, NAME_WIDTH - 5) + "...";
+        }
+    }
+
+    // GET /api/metrics/summary (latency rows are sorted by total time spent)
+    private static class MetricsSnapshot {
+        List<LatencyRow> endpoints;
+        List<LatencyRow> repositories;
+        List<LatencyRow> externalCalls;
+        List<CacheRow> caches;
+        HibernateRow hibernate;
+    }
+
+    private static class LatencyRow {
+        String name;
+        long count;
+        double p50Ms;
+        double p99Ms;
+        double maxMs;
+    }
+
+    private static class CacheRow {
+        String name;
+        long hits;
+        long misses;
+        double hitRatio;
+        long size;
+    }
+
+    private static class HibernateRow {
+        long queries;
+        long rowsFetched;
+        long entityLoads;
+        long entityFetches;
+        long statements;
+        long secondLevelCacheHits;
+        long secondLevelCacheMisses;
+        long slowestQueryMs;
+    }
 }
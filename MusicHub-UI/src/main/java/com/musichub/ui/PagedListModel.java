@@ -0,0 +1,213 @@
+package com.musichub.ui;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Lazy ListModel over keyset-paginated API listings (e.g. /api/songs then /api/beats).
+ *
+ * Rows are fetched a page at a time when the JList asks for them, i.e. when they scroll into
+ * view. Only the cursor of every page seen so far is remembered; the rows themselves live in an
+ * LRU of at most maxCachedPages pages, and an evicted page is fetched again with its cursor when
+ * it scrolls back into view. Memory therefore stays bounded however far the user scrolls.
+ *
+ * Must only be used on the EDT: loads complete on HTTP threads but are applied with invokeLater.
+ * close() cancels everything in flight and makes late answers no-ops.
+ */
+final class PagedListModel extends AbstractListModel<String> {
+
+    static final String LOADING = "Loading...";
+    static final String LOADING_MORE = "Loading more...";
+
+    /** One page of formatted rows, and the cursor of the next page of the same source (null when done). */
+    record Page(List<String> rows, String nextCursor) {
+    }
+
+    /** Fetches the page of the given source (0-based) that starts at cursor (null = first page). */
+    interface PageLoader {
+        CompletableFuture<Page> load(int source, String cursor);
+    }
+
+    /** Called on the EDT after every applied page, and when a load fails. */
+    interface Listener {
+        void loaded(int rows, boolean complete);
+
+        void failed(Throwable error);
+    }
+
+    // Where a page starts in the list and how to fetch it again
+    private record PageRef(int source, String cursor, int start, int size) {
+    }
+
+    private final PageLoader loader;
+    private final int sourceCount;
+    private final int prefetchRows;
+    private final Listener listener;
+
+    private final List<PageRef> pages = new ArrayList<>();
+    private final Map<Integer, List<String>> cachedPages;
+    private final Map<Integer, CompletableFuture<Page>> reloads = new HashMap<>();
+    private CompletableFuture<Page> frontierLoad; // Next unseen page, if loading
+    private int rowCount;
+    private int frontierSource;
+    private String frontierCursor;
+    private boolean complete;
+    private boolean closed;
+
+    PagedListModel(PageLoader loader, int sourceCount, int maxCachedPages, int prefetchRows, Listener listener) {
+        this.loader = loader;
+        this.sourceCount = sourceCount;
+        this.prefetchRows = prefetchRows;
+        this.listener = listener;
+        this.cachedPages = new LinkedHashMap<>(16, 0.75f, true) { // Access order: eldest = least recently shown
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<String>> eldest) {
+                return size() > maxCachedPages;
+            }
+        };
+        loadFrontier();
+    }
+
+    // Known rows, plus one "Loading more..." row while there may be more
+    @Override
+    public int getSize() {
+        return rowCount + (complete ? 0 : 1);
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        if (index >= rowCount) {
+            loadFrontier();
+            return LOADING_MORE;
+        }
+        if (index >= rowCount - prefetchRows) {
+            loadFrontier(); // Close to the end: fetch the next page before the user gets there
+        }
+        int page = pageOf(index);
+        List<String> rows = cachedPages.get(page);
+        if (rows == null) {
+            reload(page);
+            return LOADING;
+        }
+        int offset = index - pages.get(page).start();
+        return offset < rows.size() ? rows.get(offset) : ""; // The page shrank since it was first seen
+    }
+
+    boolean isComplete() {
+        return complete;
+    }
+
+    int loadedRows() {
+        return rowCount;
+    }
+
+    /** Cancels all loads; answers that still arrive are ignored. */
+    void close() {
+        closed = true;
+        if (frontierLoad != null) {
+            frontierLoad.cancel(true);
+        }
+        reloads.values().forEach(load -> load.cancel(true));
+        reloads.clear();
+        cachedPages.clear();
+    }
+
+    private void loadFrontier() {
+        if (closed || complete || frontierLoad != null) {
+            return;
+        }
+        int source = frontierSource;
+        String cursor = frontierCursor;
+        frontierLoad = loader.load(source, cursor);
+        frontierLoad.whenComplete((page, error) -> SwingUtilities.invokeLater(() -> {
+            if (closed) {
+                return;
+            }
+            frontierLoad = null;
+            if (error != null) {
+                complete = true; // Stop asking; the listener reports the failure
+                fireIntervalRemoved(this, rowCount, rowCount);
+                listener.failed(unwrap(error));
+                return;
+            }
+            appendFrontier(source, cursor, page);
+        }));
+    }
+
+    private void appendFrontier(int source, String cursor, Page page) {
+        int oldRows = rowCount;
+        int oldSize = getSize();
+        if (!page.rows().isEmpty()) {
+            pages.add(new PageRef(source, cursor, rowCount, page.rows().size()));
+            cachedPages.put(pages.size() - 1, List.copyOf(page.rows()));
+            rowCount += page.rows().size();
+        }
+        if (page.nextCursor() != null) {
+            frontierCursor = page.nextCursor();
+        } else {
+            frontierSource++; // This source is exhausted, continue with the next one from its start
+            frontierCursor = null;
+            complete = frontierSource >= sourceCount;
+        }
+
+        int newSize = getSize();
+        if (Math.min(oldSize, newSize) > oldRows) {
+            fireContentsChanged(this, oldRows, Math.min(oldSize, newSize) - 1); // The "Loading more..." row
+        }
+        if (newSize > oldSize) {
+            fireIntervalAdded(this, oldSize, newSize - 1);
+        } else if (newSize < oldSize) {
+            fireIntervalRemoved(this, newSize, oldSize - 1);
+        }
+        listener.loaded(rowCount, complete);
+        if (page.rows().isEmpty() && !complete) {
+            loadFrontier(); // Nothing to show yet, so no cell will ask for more
+        }
+    }
+
+    private void reload(int page) {
+        if (closed || reloads.containsKey(page)) {
+            return;
+        }
+        PageRef ref = pages.get(page);
+        CompletableFuture<Page> load = loader.load(ref.source(), ref.cursor());
+        reloads.put(page, load);
+        load.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            if (closed) {
+                return;
+            }
+            reloads.remove(page);
+            if (error != null) {
+                listener.failed(unwrap(error));
+                return;
+            }
+            cachedPages.put(page, List.copyOf(result.rows()));
+            fireContentsChanged(this, ref.start(), ref.start() + ref.size() - 1);
+        }));
+    }
+
+    // Binary search for the last page starting at or before index
+    private int pageOf(int index) {
+        int low = 0;
+        int high = pages.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (pages.get(mid).start() <= index) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
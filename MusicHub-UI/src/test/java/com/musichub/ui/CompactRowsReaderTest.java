@@ -0,0 +1,107 @@
+package com.musichub.ui;
+
+import com.MusicHub.api.controller.CompactRowsHttpMessageConverter;
+import com.MusicHub.api.dto.CatalogPage;
+import com.MusicHub.api.dto.SongSummary;
+import com.MusicHub.api.dto.TrendingSong;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reads what the API's CompactRowsHttpMessageConverter writes, so both ends of the format
+ * are checked against each other.
+ */
+class CompactRowsReaderTest {
+
+    @Test
+    void readsAPageWrittenByTheApi() throws IOException {
+        // More distinct strings than the string table holds, repeated after it is full
+        List<SongSummary> songs = new ArrayList<>();
+        for (int i = 0; i < 6000; i++) {
+            songs.add(new SongSummary((long) i - 3, "id-" + (i % 5000), "Title " + i, "Artist " + (i % 7),
+                    i % 3 == 0 ? null : "Pop", null, i % 2 == 0 ? "" : "https://x/" + i, -i));
+        }
+        songs.add(new SongSummary(null, null, "Last", null, null, null, null, Integer.MIN_VALUE));
+        Type type = ResolvableType.forClassWithGenerics(CatalogPage.class, SongSummary.class).getType();
+
+        CompactRowsReader reader = reader(new CatalogPage<>(songs, "cursor:é/42"), type);
+
+        for (SongSummary song : songs) {
+            assertTrue(reader.next());
+            assertEquals(song.id(), reader.number("id"));
+            assertEquals(song.songId(), reader.string("songId"));
+            assertEquals(song.title(), reader.string("title"));
+            assertEquals(song.artist(), reader.string("artist"));
+            assertEquals(song.genre(), reader.string("genre"));
+            assertNull(reader.string("mood"));
+            assertEquals(song.link(), reader.string("link"));
+            assertEquals(song.popularity(), reader.number("popularity").intValue());
+            assertNull(reader.string("score"), "Not a column of this list");
+        }
+        assertFalse(reader.next());
+        assertFalse(reader.next());
+        assertEquals("cursor:é/42", reader.attribute("nextCursor"));
+    }
+
+    @Test
+    void readsTheLastPageAndExtraColumns() throws IOException {
+        SongSummary song = new SongSummary(1L, "1001", "Shape of You", "Ed Sheeran", "Pop", "Happy", null, 95);
+        Type pageType = ResolvableType.forClassWithGenerics(CatalogPage.class, SongSummary.class).getType();
+
+        CompactRowsReader page = reader(new CatalogPage<>(List.of(song), null), pageType);
+        assertTrue(page.next());
+        assertFalse(page.next());
+        assertNull(page.attribute("nextCursor"));
+
+        Type listType = ResolvableType.forClassWithGenerics(List.class, TrendingSong.class).getType();
+        CompactRowsReader trending = reader(List.of(new TrendingSong(song, Long.MIN_VALUE + 1),
+                new TrendingSong(song, Long.MAX_VALUE)), listType);
+        assertTrue(trending.next());
+        assertEquals("Ed Sheeran", trending.string("artist"));
+        assertEquals(Long.MIN_VALUE + 1, trending.number("score")); // MIN_VALUE itself is not representable
+        assertTrue(trending.next());
+        assertEquals(Long.MAX_VALUE, trending.number("score"));
+        assertFalse(trending.next());
+    }
+
+    @Test
+    void rejectsOtherBodies() {
+        assertThrows(IOException.class, () -> new CompactRowsReader(new ByteArrayInputStream("[]".getBytes())));
+        assertTrue(CompactRowsReader.accepts(CompactRowsHttpMessageConverter.MEDIA_TYPE.toString()));
+        assertFalse(CompactRowsReader.accepts("application/json"));
+    }
+
+    private static CompactRowsReader reader(Object value, Type type) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        HttpHeaders headers = new HttpHeaders();
+        new CompactRowsHttpMessageConverter().write(value, type, CompactRowsHttpMessageConverter.MEDIA_TYPE,
+                new HttpOutputMessage() {
+                    @Override
+                    public OutputStream getBody() {
+                        return body;
+                    }
+
+                    @Override
+                    public HttpHeaders getHeaders() {
+                        return headers;
+                    }
+                });
+        return new CompactRowsReader(new ByteArrayInputStream(body.toByteArray()));
+    }
+}